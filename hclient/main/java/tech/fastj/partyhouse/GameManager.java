@@ -19,6 +19,8 @@ import tech.fastj.partyhouse.scenes.multiplayer.lobbysearch.LobbySearch;
 import tech.fastj.partyhouse.scenes.multiplayer.snowball.SnowballFight;
 import tech.fastj.partyhouse.scenes.settings.Settings;
 import tech.fastj.partyhouse.user.User;
+import tech.fastj.partyhouse.util.FilePaths;
+import tech.fastj.partyhouse.util.ModelCache;
 
 public class GameManager extends SceneManager {
 
@@ -45,6 +47,7 @@ public class GameManager extends SceneManager {
 
         FastJEngine.<SimpleDisplay>getDisplay().getWindow().setResizable(false);
         canvas.modifyRenderSettings(RenderSettings.Antialiasing.Enable);
+        ModelCache.preload(FilePaths.Player, FilePaths.PlayerArrow, FilePaths.Snowball);
 
         addScenes(mainMenu, settings, informationMenu, lobbySearch, lobbyHome, snowballFight);
         setCurrentScene(mainMenu);
@@ -9,7 +9,6 @@ import tech.fastj.graphics.game.RenderStyle;
 import tech.fastj.graphics.game.Text2D;
 import tech.fastj.graphics.util.DrawUtil;
 
-import tech.fastj.resources.models.ModelUtil;
 import tech.fastj.systems.control.GameHandler;
 
 import java.awt.Color;
@@ -19,6 +18,7 @@ import java.awt.geom.AffineTransform;
 
 import tech.fastj.partyhouse.util.FilePaths;
 import tech.fastj.partyhouse.util.Fonts;
+import tech.fastj.partyhouse.util.ModelCache;
 import tech.fastj.partyhouse.util.Shapes;
 
 public class Player extends GameObject {
@@ -30,7 +30,7 @@ public class Player extends GameObject {
     private String playerName;
 
     public Player(String playerName) {
-        this.playerModel = Model2D.fromPolygons(ModelUtil.loadModel(FilePaths.Player));
+        this.playerModel = Model2D.fromPolygons(ModelCache.load(FilePaths.Player));
         this.playerName = playerName;
         this.playerIndicator = Text2D.create(playerName)
             .withFont(Fonts.DefaultNotoSans)
@@ -43,7 +43,7 @@ public class Player extends GameObject {
 
         setPlayerName(playerName);
 
-        Polygon2D[] directionalArrowMesh = ModelUtil.loadModel(FilePaths.PlayerArrow);
+        Polygon2D[] directionalArrowMesh = ModelCache.load(FilePaths.PlayerArrow);
         directionalArrowMesh[0].setFill(playerModel.getPolygons()[0].getFill());
         this.directionalArrow = Model2D.fromPolygons(directionalArrowMesh);
 
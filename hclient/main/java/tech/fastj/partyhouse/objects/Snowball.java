@@ -2,11 +2,9 @@ package tech.fastj.partyhouse.objects;
 
 import tech.fastj.engine.FastJEngine;
 import tech.fastj.math.Pointf;
-import tech.fastj.graphics.Drawable;
 import tech.fastj.graphics.game.GameObject;
 import tech.fastj.graphics.game.Model2D;
 
-import tech.fastj.resources.models.ModelUtil;
 import tech.fastj.systems.behaviors.Behavior;
 import tech.fastj.systems.control.GameHandler;
 
@@ -14,60 +12,104 @@ import java.awt.Graphics2D;
 import java.awt.geom.AffineTransform;
 import java.util.UUID;
 
-import tech.fastj.gameloop.CoreLoopState;
 import tech.fastj.partyhouse.scenes.multiplayer.snowball.SnowballFight;
 import tech.fastj.partyhouse.util.FilePaths;
-import tech.fastj.partyhouse.util.Tags;
+import tech.fastj.partyhouse.util.ModelCache;
 import tech.fastj.partyhousecore.ClientInfo;
+import tech.fastj.partyhousecore.Info;
 import tech.fastj.partyhousecore.SnowballInfo;
 
+/**
+ * A thrown snowball. Snowballs are {@link SnowballPool pooled}: each one is built inactive and hidden, thrown with
+ * {@link #reset(ClientInfo, UUID, float, float, float, float, float, float) reset}, and handed back to the pool by
+ * its scene once it is {@link #isSpent() spent}.
+ */
 public class Snowball extends GameObject implements Behavior {
 
     public static final float StartingLife = 1f;
-    private static final float TravelSpeed = 20f;
 
-    private final SnowballFight scene;
-    private final Pointf travelMovement;
     private final Model2D snowballModel;
-    private final ClientInfo clientInfo;
     private final Pointf trajectory;
+    private final Pointf movement;
 
+    private ClientInfo clientInfo;
+    private UUID snowballId;
     private float life;
-    private final UUID snowballId;
+    private float x;
+    private float y;
 
-    public Snowball(SnowballInfo snowballInfo, SnowballFight scene) {
-        this(
+    public Snowball(SnowballFight scene) {
+        this.trajectory = new Pointf();
+        this.movement = new Pointf();
+
+        snowballModel = Model2D.fromPolygons(ModelCache.load(FilePaths.Snowball));
+        super.setCollisionPath(snowballModel.getCollisionPath());
+        setShouldRender(false);
+
+        addLateBehavior(this, scene);
+    }
+
+    public void reset(SnowballInfo snowballInfo) {
+        reset(
             snowballInfo.clientInfo(),
             snowballInfo.snowballId(),
-            new Pointf(snowballInfo.trajectoryX(), snowballInfo.trajectoryY()),
+            snowballInfo.trajectoryX(),
+            snowballInfo.trajectoryY(),
             snowballInfo.rotation(),
-            new Pointf(snowballInfo.positionX(), snowballInfo.positionY()),
-            scene,
+            snowballInfo.positionX(),
+            snowballInfo.positionY(),
             snowballInfo.currentLife()
         );
     }
 
-    public Snowball(ClientInfo clientInfo, Pointf trajectory, float rotation, Player player, SnowballFight scene, float life) {
-        this(clientInfo, UUID.randomUUID(), trajectory, rotation, player.getCenter(), scene, life);
+    public void reset(ClientInfo clientInfo, Pointf trajectory, float rotation, Player player, float life) {
+        Pointf position = player.getCenter();
+        reset(clientInfo, UUID.randomUUID(), trajectory.x, trajectory.y, rotation, position.x, position.y, life);
     }
 
-    public Snowball(ClientInfo clientInfo, UUID snowballId, Pointf trajectory, float rotation, Pointf position, SnowballFight scene, float life) {
+    /** Throws this snowball again, as if it were newly made. */
+    public void reset(ClientInfo clientInfo, UUID snowballId, float trajectoryX, float trajectoryY, float rotation,
+                      float positionX, float positionY, float life) {
+        this.clientInfo = clientInfo;
         this.snowballId = snowballId;
-        this.trajectory = trajectory;
+        this.life = life;
+        trajectory.set(trajectoryX, trajectoryY);
 
-        snowballModel = Model2D.fromPolygons(ModelUtil.loadModel(FilePaths.Snowball));
+        rotate(rotation - getRotation());
+        movement.set(positionX - x, positionY - y);
+        translate(movement);
+        x = positionX;
+        y = positionY;
 
-        this.life = life;
-        this.travelMovement = Pointf.multiply(trajectory, TravelSpeed);
-        this.clientInfo = clientInfo;
+        setShouldRender(true);
+    }
 
-        this.scene = scene;
-        super.setCollisionPath(snowballModel.getCollisionPath());
+    public boolean isActive() {
+        return life > 0f;
+    }
+
+    /**
+     * Whether this snowball has run out of life or left the arena. The server stops simulating snowballs at the same
+     * bounds, so a snowball that leaves them can never hit anyone.
+     */
+    public boolean isSpent() {
+        return life <= 0f
+            || x < -Info.SnowballRadius || x > Info.ArenaWidth + Info.SnowballRadius
+            || y < -Info.SnowballRadius || y > Info.ArenaHeight + Info.SnowballRadius;
+    }
 
-        rotate(rotation);
-        translate(position);
+    public ClientInfo getClientInfo() {
+        return clientInfo;
+    }
 
-        addLateBehavior(this, scene);
+    public UUID getSnowballId() {
+        return snowballId;
+    }
+
+    /** Stops and hides this snowball until it is reset again. */
+    public void deactivate() {
+        life = 0f;
+        setShouldRender(false);
     }
 
     @Override
@@ -82,36 +124,17 @@ public class Snowball extends GameObject implements Behavior {
 
         life -= FastJEngine.getFixedDeltaTime();
 
-        if (life <= 0f || !FastJEngine.getCanvas().isOnScreen(this, scene.getCamera())) {
-            FastJEngine.runLater(() -> {
-                System.out.println("killing snowball from " + clientInfo.clientName());
-                scene.removeSnowball(getSnowballInfo());
-                destroy(scene);
-            }, CoreLoopState.FixedUpdate);
-        }
-
-        translate(travelMovement);
-
-        if (scene.isPlayerDead()) {
+        if (life <= 0f) {
             return;
         }
 
-        Drawable player = scene.getFirstWithTag(Tags.LocalPlayer);
-
-        if (player instanceof Player localPlayer) {
-            if (clientInfo.clientName().equals(localPlayer.getPlayerName())) {
-                System.out.println("don't throw a snowball at yourself, dummy");
-                return;
-            }
-
-            System.out.println("found player " + localPlayer.getPlayerName());
-
-            if (localPlayer.collidesWith(this)) {
-                System.out.println("death by snowball?");
-                FastJEngine.runLater(() -> this.destroy(scene), CoreLoopState.FixedUpdate);
-                scene.deathBySnowball(getSnowballInfo());
-            }
-        }
+        // Hits are decided by the server, which reports them through SnowballFight. Spent snowballs are collected by
+        // the scene, in one pass over all of them.
+        float distance = Info.SnowballSpeed * FastJEngine.getFixedDeltaTime();
+        movement.set(trajectory.x * distance, trajectory.y * distance);
+        translate(movement);
+        x += movement.x;
+        y += movement.y;
     }
 
     public SnowballInfo getSnowballInfo() {
@@ -0,0 +1,66 @@
+package tech.fastj.partyhouse.objects;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import tech.fastj.partyhouse.scenes.multiplayer.snowball.SnowballFight;
+
+/**
+ * Keeps up to {@link #DefaultCapacity} spent snowballs around to throw again, so a flurry of throws doesn't build a
+ * model, a behavior and a few points for every snowball only to throw them all away a second later.
+ * <p>
+ * Pooled snowballs stay in the scene, hidden and inactive, so reusing one is only a matter of resetting it. Past the
+ * pool's capacity, snowballs are made as needed and destroyed once spent.
+ */
+public class SnowballPool {
+
+    public static final int DefaultCapacity = 32;
+
+    private final SnowballFight scene;
+    private final Deque<Snowball> freeSnowballs;
+    private final int capacity;
+
+    public SnowballPool(SnowballFight scene) {
+        this(scene, DefaultCapacity);
+    }
+
+    public SnowballPool(SnowballFight scene, int capacity) {
+        this.scene = scene;
+        this.freeSnowballs = new ArrayDeque<>(capacity);
+        this.capacity = capacity;
+    }
+
+    public int getFreeCount() {
+        return freeSnowballs.size();
+    }
+
+    /** An inactive snowball, already in the scene, ready to be {@link Snowball#reset(tech.fastj.partyhousecore.SnowballInfo) reset}. */
+    public Snowball obtain() {
+        Snowball snowball = freeSnowballs.pollFirst();
+
+        if (snowball == null) {
+            snowball = new Snowball(scene);
+            scene.drawableManager().addGameObject(snowball);
+        }
+
+        return snowball;
+    }
+
+    public void release(Snowball snowball) {
+        snowball.deactivate();
+
+        if (freeSnowballs.size() < capacity) {
+            freeSnowballs.addFirst(snowball);
+        } else {
+            snowball.destroy(scene);
+        }
+    }
+
+    public void clear() {
+        for (Snowball snowball : freeSnowballs) {
+            snowball.destroy(scene);
+        }
+
+        freeSnowballs.clear();
+    }
+}
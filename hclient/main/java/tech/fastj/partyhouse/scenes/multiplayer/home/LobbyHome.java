@@ -19,6 +19,7 @@ import java.net.ConnectException;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import tech.fastj.gameloop.CoreLoopState;
@@ -39,6 +40,8 @@ import tech.fastj.partyhousecore.ClientInfo;
 import tech.fastj.partyhousecore.ClientPosition;
 import tech.fastj.partyhousecore.ClientVelocity;
 import tech.fastj.partyhousecore.Commands;
+import tech.fastj.partyhousecore.DeadReckoning;
+import tech.fastj.partyhousecore.InterpolationBuffer;
 import tech.fastj.partyhousecore.PositionState;
 
 public class LobbyHome extends Scene {
@@ -49,8 +52,10 @@ public class LobbyHome extends Scene {
 
     private final Map<UUID, PositionState> otherPlayerPositionStates;
     private final Map<UUID, Player> otherPlayers;
+    private final Map<UUID, InterpolationBuffer> interpolationBuffers;
 
     private PositionState playerPositionState;
+    private DeadReckoning deadReckoning;
     private Player player;
 
     private BetterButton readyUpButton;
@@ -61,6 +66,7 @@ public class LobbyHome extends Scene {
 
         otherPlayerPositionStates = new LinkedHashMap<>();
         otherPlayers = new LinkedHashMap<>();
+        interpolationBuffers = new ConcurrentHashMap<>();
         user = User.getInstance();
     }
 
@@ -81,6 +87,7 @@ public class LobbyHome extends Scene {
         pingDisplay = ClientUtil.setupClientPingForDisplay(client, this);
 
         playerPositionState = PlayerUtil.createPositionState(user.getClientInfo(), canvas.getCanvasCenter());
+        deadReckoning = new DeadReckoning();
         player = PlayerUtil.createPlayer(playerPositionState);
         player.addTag(Tags.LocalPlayer);
 
@@ -126,14 +133,21 @@ public class LobbyHome extends Scene {
 
         otherPlayers.clear();
         otherPlayerPositionStates.clear();
+        interpolationBuffers.clear();
         playerPositionState = null;
 
+        if (deadReckoning != null) {
+            Log.debug(LobbyHome.class, "sent {} position updates, suppressed {}", deadReckoning.getSentCount(), deadReckoning.getSuppressedCount());
+            deadReckoning = null;
+        }
+
         Log.debug(LobbyHome.class, "unloaded {}", getSceneName());
     }
 
     @Override
     public void fixedUpdate(FastJCanvas canvas) {
-        if (playerPositionState.needsUpdate()) {
+        // Only send once other players' prediction of where we are has gone wrong, not on every bit of movement.
+        if (deadReckoning.shouldSend(System.nanoTime(), playerPositionState.getClientPosition(), playerPositionState.getClientVelocity())) {
             try {
                 playerPositionState.sendUpdate(user.getClient(), CommandTarget.Session);
             } catch (IOException exception) {
@@ -144,6 +158,8 @@ public class LobbyHome extends Scene {
 
     @Override
     public void update(FastJCanvas canvas) {
+        long now = System.nanoTime();
+
         for (PositionState positionState : otherPlayerPositionStates.values()) {
             Player otherPlayer = otherPlayers.get(positionState.getClientInfo().clientId());
 
@@ -155,19 +171,31 @@ public class LobbyHome extends Scene {
                 return;
             }
 
-            positionState.updatePlayerPosition(otherPlayer);
+            updateOtherPlayerPosition(positionState, otherPlayer, now);
         }
 
         playerPositionState.updatePlayerPosition(player);
     }
 
+    /** Draws other players slightly in the past, between the states buffered for them, rather than at the latest one. */
+    private void updateOtherPlayerPosition(PositionState positionState, Player otherPlayer, long now) {
+        InterpolationBuffer interpolationBuffer = interpolationBuffers.get(positionState.getClientInfo().clientId());
+
+        if (interpolationBuffer == null) {
+            positionState.updatePlayerPosition(otherPlayer);
+            return;
+        }
+
+        interpolationBuffer.updatePlayerPosition(otherPlayer, now);
+    }
+
     private void toggleReadyUp() throws IOException {
         if (!isReady) {
-            user.getClient().sendCommand(NetworkType.TCP, CommandTarget.Session, Commands.Ready, user.getClientInfo());
+            user.getClient().sendCommand(NetworkType.ReliableOrderedUDP, CommandTarget.Session, Commands.Ready, user.getClientInfo());
             readyUpButton.setText("Ready to Play");
             readyUpButton.setFill(Color.green.darker());
         } else {
-            user.getClient().sendCommand(NetworkType.TCP, CommandTarget.Session, Commands.UnReady, user.getClientInfo());
+            user.getClient().sendCommand(NetworkType.ReliableOrderedUDP, CommandTarget.Session, Commands.UnReady, user.getClientInfo());
             readyUpButton.setText("Not Ready");
             readyUpButton.setFill(Color.red.darker());
         }
@@ -179,7 +207,7 @@ public class LobbyHome extends Scene {
         Client client = user.getClient();
         Pointf center = FastJEngine.getCanvas().getCanvasCenter();
 
-        ClientUtil.addDefault2DControlCommands(client, center, otherPlayers, otherPlayerPositionStates, this);
+        ClientUtil.addDefault2DControlCommands(client, center, otherPlayers, otherPlayerPositionStates, interpolationBuffers, this);
 
         client.addCommand(Commands.SwitchScene, String.class, (c, sceneName) -> {
             Log.info("Switching to scene \"{}\"", sceneName);
@@ -199,5 +227,6 @@ public class LobbyHome extends Scene {
             ClientInfo.class, ClientPosition.class, ClientVelocity.class,
             (c, clientInfo, clientPosition, clientVelocity) -> {}
         );
+        client.addCommand(Commands.GameStateSnapshot, byte[].class, (c, snapshot) -> {});
     }
 }
@@ -18,12 +18,14 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import tech.fastj.gameloop.CoreLoopState;
 import tech.fastj.partyhouse.Main;
 import tech.fastj.partyhouse.objects.Player;
 import tech.fastj.partyhouse.objects.Snowball;
+import tech.fastj.partyhouse.objects.SnowballPool;
 import tech.fastj.partyhouse.scenes.multiplayer.home.LobbyHome;
 import tech.fastj.partyhouse.scripts.HomeController;
 import tech.fastj.partyhouse.scripts.SnowballController;
@@ -42,6 +44,9 @@ import tech.fastj.partyhousecore.ClientPoints;
 import tech.fastj.partyhousecore.ClientPosition;
 import tech.fastj.partyhousecore.ClientVelocity;
 import tech.fastj.partyhousecore.Commands;
+import tech.fastj.partyhousecore.Info;
+import tech.fastj.partyhousecore.InterpolationBuffer;
+import tech.fastj.partyhousecore.MovementPredictor;
 import tech.fastj.partyhousecore.PositionState;
 import tech.fastj.partyhousecore.SnowballInfo;
 
@@ -53,9 +58,12 @@ public class SnowballFight extends Scene {
 
     private final Map<UUID, PositionState> otherPlayerPositionStates;
     private final Map<UUID, Player> otherPlayers;
+    private final Map<UUID, InterpolationBuffer> interpolationBuffers;
     private final Map<Pair<UUID, UUID>, Snowball> snowballs;
+    private SnowballPool snowballPool;
 
     private PositionState playerPositionState;
+    private MovementPredictor movementPredictor;
     private Player player;
 
     private PercentageBox<Integer> snowballStatus;
@@ -69,6 +77,7 @@ public class SnowballFight extends Scene {
 
         otherPlayerPositionStates = new LinkedHashMap<>();
         otherPlayers = new LinkedHashMap<>();
+        interpolationBuffers = new ConcurrentHashMap<>();
         user = User.getInstance();
         snowballs = new HashMap<>();
     }
@@ -89,6 +98,7 @@ public class SnowballFight extends Scene {
         Client client = user.getClient();
 
         client.startKeepAlives(1L, TimeUnit.SECONDS);
+        snowballPool = new SnowballPool(this);
         setupClientCommands();
 
         pingDisplay = ClientUtil.setupClientPingForDisplay(client, this);
@@ -97,7 +107,8 @@ public class SnowballFight extends Scene {
         player = PlayerUtil.createPlayer(playerPositionState);
         player.addTag(Tags.LocalPlayer);
 
-        HomeController homeController = new HomeController(250, 300, playerPositionState);
+        movementPredictor = new MovementPredictor(playerPositionState.getClientPosition(), playerPositionState.getClientVelocity());
+        HomeController homeController = new HomeController(playerPositionState, movementPredictor);
         player.addBehavior(homeController, this);
 
         SnowballController snowballController = new SnowballController(this);
@@ -128,24 +139,41 @@ public class SnowballFight extends Scene {
 
         otherPlayers.clear();
         otherPlayerPositionStates.clear();
+        interpolationBuffers.clear();
+        snowballs.clear();
+        snowballPool.clear();
+        snowballPool = null;
         playerPositionState = null;
+        movementPredictor = null;
 
         Log.debug(SnowballFight.class, "unloaded {}", getSceneName());
     }
 
     @Override
     public void fixedUpdate(FastJCanvas canvas) {
-        if (playerPositionState.needsUpdate()) {
-            try {
-                playerPositionState.sendUpdate(user.getClient(), CommandTarget.Session);
-            } catch (IOException exception) {
-                Log.error("Unable to send game update: " + exception.getMessage(), exception);
-            }
+        collectSpentSnowballs();
+
+        if (playerPositionState.isPlayerDead() || movementPredictor.getUnacknowledgedCount() == 0) {
+            return;
+        }
+
+        // Unacknowledged inputs are resent every step, so a lost packet only delays them by one.
+        byte[] inputs = movementPredictor.getUnacknowledgedInputs(Info.MaxInputsPerMessage);
+
+        try {
+            user.getClient().sendCommand(
+                NetworkType.UDP, CommandTarget.Session, Commands.PlayerInput,
+                movementPredictor.getNextSequence() - inputs.length, inputs
+            );
+        } catch (IOException exception) {
+            Log.error("Unable to send player input: " + exception.getMessage(), exception);
         }
     }
 
     @Override
     public void update(FastJCanvas canvas) {
+        long now = System.nanoTime();
+
         for (PositionState positionState : otherPlayerPositionStates.values()) {
             if (positionState.isPlayerDead()) {
                 return;
@@ -158,21 +186,59 @@ public class SnowballFight extends Scene {
                 return;
             }
 
-            positionState.updatePlayerPosition(otherPlayer);
+            updateOtherPlayerPosition(positionState, otherPlayer, now);
         }
 
         playerPositionState.updatePlayerPosition(player);
     }
 
+    /**
+     * How far in the past other players are drawn, so the server can judge throws against what was on screen. Every
+     * buffer follows the same connection's jitter, so they all settle on about the same delay.
+     */
+    private int getInterpolationDelayMillis() {
+        long delayNanos = 0L;
+
+        for (InterpolationBuffer interpolationBuffer : interpolationBuffers.values()) {
+            delayNanos = Math.max(delayNanos, interpolationBuffer.getDelayNanos());
+        }
+
+        return (int) TimeUnit.NANOSECONDS.toMillis(delayNanos);
+    }
+
+    /** Draws other players slightly in the past, between the states buffered for them, rather than at the latest one. */
+    private void updateOtherPlayerPosition(PositionState positionState, Player otherPlayer, long now) {
+        InterpolationBuffer interpolationBuffer = interpolationBuffers.get(positionState.getClientInfo().clientId());
+
+        if (interpolationBuffer == null) {
+            positionState.updatePlayerPosition(otherPlayer);
+            return;
+        }
+
+        interpolationBuffer.updatePlayerPosition(otherPlayer, now);
+    }
+
     public void setupClientCommands() {
         Client client = user.getClient();
         Pointf center = FastJEngine.getCanvas().getCanvasCenter();
 
-        ClientUtil.addDefault2DControlCommands(client, center, otherPlayers, otherPlayerPositionStates, this);
+        ClientUtil.addDefault2DControlCommands(client, center, otherPlayers, otherPlayerPositionStates, interpolationBuffers, this);
+
+        client.addCommand(Commands.AcknowledgeInput,
+            Integer.class, ClientPosition.class, ClientVelocity.class,
+            (c, processedSequence, clientPosition, clientVelocity) -> FastJEngine.runLater(() -> {
+                if (movementPredictor == null || !movementPredictor.reconcile(processedSequence, clientPosition, clientVelocity)) {
+                    return;
+                }
+
+                playerPositionState.setClientPosition(movementPredictor.getMovement().getPosition());
+                playerPositionState.setClientVelocity(movementPredictor.getMovement().getVelocity());
+            }, CoreLoopState.LateUpdate)
+        );
 
         client.addCommand(Commands.SnowballThrow, SnowballInfo.class, (c, snowballInfo) -> FastJEngine.runLater(() -> {
-            Snowball snowball = new Snowball(snowballInfo, this);
-            drawableManager().addGameObject(snowball);
+            Snowball snowball = snowballPool.obtain();
+            snowball.reset(snowballInfo);
             System.out.println(snowball.isDestroyed());
             System.out.println(snowball.shouldRender());
             System.out.println(snowball.getCenter());
@@ -182,7 +248,7 @@ public class SnowballFight extends Scene {
 
             if (replaced != null) {
                 System.out.println("replacing " + replaced);
-                replaced.destroy(this);
+                snowballPool.release(replaced);
             }
 
             Log.info("{} threw a snowball.", snowballInfo.clientInfo().clientName());
@@ -191,11 +257,21 @@ public class SnowballFight extends Scene {
         client.addCommand(Commands.SnowballHit, ClientInfo.class, SnowballInfo.class, (c, playerHit, snowballInfo) -> FastJEngine.runLater(() -> {
             Log.info("{} was incapacitated by {}'s snowball.", playerHit.clientName(), snowballInfo.clientInfo().clientName());
 
-            otherPlayerPositionStates.get(snowballInfo.clientInfo().clientId()).setPlayerDead(true);
+            if (playerHit.clientId().equals(user.getClientInfo().clientId())) {
+                Log.info(SnowballFight.class, "You were hit with snowball from {}", snowballInfo.clientInfo().clientName());
+                playerPositionState.setPlayerDead(true);
+            } else {
+                PositionState hitPositionState = otherPlayerPositionStates.get(playerHit.clientId());
+
+                if (hitPositionState != null) {
+                    hitPositionState.setPlayerDead(true);
+                }
+            }
+
             Snowball removedSnowball = removeSnowball(snowballInfo);
 
             if (removedSnowball != null) {
-                removedSnowball.destroy(this);
+                snowballPool.release(removedSnowball);
             }
         }, CoreLoopState.LateUpdate));
 
@@ -241,6 +317,11 @@ public class SnowballFight extends Scene {
             ClientInfo.class, ClientPosition.class, ClientVelocity.class,
             (c, clientInfo, clientPosition, clientVelocity) -> {}
         );
+        client.addCommand(Commands.GameStateSnapshot, byte[].class, (c, snapshot) -> {});
+        client.addCommand(Commands.AcknowledgeInput,
+            Integer.class, ClientPosition.class, ClientVelocity.class,
+            (c, processedSequence, clientPosition, clientVelocity) -> {}
+        );
     }
 
     public void updateSnowballsCarried(int snowballCount, boolean canMakeSnowball, boolean canThrowSnowball) {
@@ -250,19 +331,18 @@ public class SnowballFight extends Scene {
     }
 
     public void spawnSnowball(Player player, Pointf trajectory, float playerRotation) {
-        Snowball snowball = new Snowball(
-            User.getInstance().getClientInfo(),
-            trajectory,
-            playerRotation,
-            player,
-            this,
-            Snowball.StartingLife
-        );
+        Snowball snowball = snowballPool.obtain();
+        snowball.reset(User.getInstance().getClientInfo(), trajectory, playerRotation, player, Snowball.StartingLife);
 
         try {
-            user.getClient().sendCommand(NetworkType.TCP, CommandTarget.Session, Commands.SnowballThrow, snowball.getSnowballInfo());
-            drawableManager().addGameObject(snowball);
+            user.getClient().sendCommand(
+                NetworkType.ReliableOrderedUDP, CommandTarget.Session, Commands.SnowballThrow,
+                snowball.getSnowballInfo(), getInterpolationDelayMillis()
+            );
+            snowballs.put(Pair.of(user.getClientInfo().clientId(), snowball.getSnowballId()), snowball);
         } catch (IOException exception) {
+            snowballPool.release(snowball);
+
             if (!User.getInstance().getClient().isConnected()) {
                 ClientUtil.disconnectClient();
             } else {
@@ -273,24 +353,19 @@ public class SnowballFight extends Scene {
         Log.debug("Created snowball moving at a trajectory of {} with life starting at {}", trajectory, Snowball.StartingLife);
     }
 
-    public Snowball removeSnowball(SnowballInfo snowballInfo) {
-        return snowballs.remove(Pair.of(snowballInfo.clientInfo().clientId(), snowballInfo.snowballId()));
-    }
-
-    public void deathBySnowball(SnowballInfo snowballInfo) {
-        ClientInfo snowballOrigin = snowballInfo.clientInfo();
+    /** Returns every snowball that ran out of life or left the arena to the pool, in one pass. */
+    private void collectSpentSnowballs() {
+        snowballs.values().removeIf(snowball -> {
+            if (!snowball.isSpent()) {
+                return false;
+            }
 
-        Log.info(SnowballFight.class, "You were hit with snowball from {}", snowballOrigin.clientName());
+            snowballPool.release(snowball);
+            return true;
+        });
+    }
 
-        try {
-            playerPositionState.setPlayerDead(true);
-            user.getClient().sendCommand(NetworkType.TCP, CommandTarget.Session, Commands.SnowballHit, user.getClientInfo(), snowballInfo);
-        } catch (IOException exception) {
-            if (!User.getInstance().getClient().isConnected()) {
-                ClientUtil.disconnectClient();
-            } else {
-                Main.gameCrashed("Failed to be hit by a snowball.", exception);
-            }
-        }
+    public Snowball removeSnowball(SnowballInfo snowballInfo) {
+        return snowballs.remove(Pair.of(snowballInfo.clientInfo().clientId(), snowballInfo.snowballId()));
     }
 }
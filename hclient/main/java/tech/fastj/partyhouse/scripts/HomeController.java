@@ -8,6 +8,9 @@ import tech.fastj.input.keyboard.Keyboard;
 import tech.fastj.input.keyboard.Keys;
 import tech.fastj.systems.behaviors.Behavior;
 
+import tech.fastj.partyhousecore.Info;
+import tech.fastj.partyhousecore.MovementPredictor;
+import tech.fastj.partyhousecore.PlayerMovement;
 import tech.fastj.partyhousecore.PositionState;
 
 public class HomeController implements Behavior {
@@ -17,14 +20,25 @@ public class HomeController implements Behavior {
 
     private float currentRotation;
     private float inputRotation;
+    private float forwardSpeed;
 
     private Pointf inputTranslation;
     private final PositionState gameState;
+    private final MovementPredictor predictor;
 
     public HomeController(float speedInterval, float rotationInterval, PositionState gameState) {
         speed = speedInterval;
         rotation = rotationInterval;
         this.gameState = gameState;
+        this.predictor = null;
+    }
+
+    /** Moves the player a fixed step per input, recording each input into {@code predictor} to be sent to the server. */
+    public HomeController(PositionState gameState, MovementPredictor predictor) {
+        speed = Info.PlayerSpeed;
+        rotation = Info.PlayerTurnSpeed;
+        this.gameState = gameState;
+        this.predictor = predictor;
     }
 
     @Override
@@ -36,10 +50,27 @@ public class HomeController implements Behavior {
 
     @Override
     public void fixedUpdate(GameObject gameObject) {
+        if (predictor == null || gameState.isPlayerDead()) {
+            return;
+        }
+
+        byte input = pollInput();
+
+        if (input == 0) {
+            return;
+        }
+
+        predictor.record(input);
+        gameState.setClientPosition(predictor.getMovement().getPosition());
+        gameState.setClientVelocity(predictor.getMovement().getVelocity());
     }
 
     @Override
     public void update(GameObject obj) {
+        if (predictor != null) {
+            return;
+        }
+
         resetTransformations();
         pollMovement();
         movePlayer();
@@ -48,6 +79,7 @@ public class HomeController implements Behavior {
     private void resetTransformations() {
         inputTranslation.reset();
         inputRotation = 0f;
+        forwardSpeed = 0f;
     }
 
     private void pollMovement() {
@@ -61,16 +93,39 @@ public class HomeController implements Behavior {
 
         if (Keyboard.isKeyDown(Keys.W)) {
             inputTranslation.y -= speed * FastJEngine.getDeltaTime();
+            forwardSpeed = speed;
         } else if (Keyboard.isKeyDown(Keys.S)) {
             inputTranslation.y += speed * FastJEngine.getDeltaTime();
+            forwardSpeed = -speed;
         }
 
         inputTranslation.rotate(-currentRotation);
     }
 
+    private byte pollInput() {
+        byte input = 0;
+
+        if (Keyboard.isKeyDown(Keys.A)) {
+            input |= PlayerMovement.TurnLeft;
+        } else if (Keyboard.isKeyDown(Keys.D)) {
+            input |= PlayerMovement.TurnRight;
+        }
+
+        if (Keyboard.isKeyDown(Keys.W)) {
+            input |= PlayerMovement.Forward;
+        } else if (Keyboard.isKeyDown(Keys.S)) {
+            input |= PlayerMovement.Backward;
+        }
+
+        return input;
+    }
+
     private void movePlayer() {
-        if (inputRotation != 0f) {
-            gameState.updateVelocity(inputRotation, 0f);
+        // The speed goes along with the heading, so other players can keep us moving between updates.
+        float speedChange = forwardSpeed - gameState.getClientVelocity().speed();
+
+        if (inputRotation != 0f || speedChange != 0f) {
+            gameState.updateVelocity(inputRotation, speedChange);
         }
 
         if (!Pointf.origin().equals(inputTranslation)) {
@@ -1,6 +1,5 @@
 package tech.fastj.partyhouse.ui;
 
-import tech.fastj.engine.FastJEngine;
 import tech.fastj.math.Pointf;
 import tech.fastj.graphics.game.Polygon2D;
 import tech.fastj.graphics.game.RenderStyle;
@@ -19,7 +18,6 @@ import tech.fastj.systems.control.Scene;
 import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Font;
-import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.Paint;
 import java.awt.event.MouseEvent;
@@ -29,6 +27,8 @@ import java.awt.geom.Rectangle2D;
 import java.util.List;
 import java.util.function.Consumer;
 
+import tech.fastj.partyhouse.util.TextMetricsCache;
+
 public class ArrowButton extends UIElement<MouseButtonEvent> implements MouseActionListener {
 
     public static final String DefaultText = "";
@@ -95,7 +95,7 @@ public class ArrowButton extends UIElement<MouseButtonEvent> implements MouseAct
         this.text = DefaultText;
 
         translate(location);
-        setMetrics(FastJEngine.getCanvas().getGraphics());
+        setMetrics();
         this.options = options;
         this.selectedOption = selectedOption;
         setText(options.get(selectedOption));
@@ -125,7 +125,7 @@ public class ArrowButton extends UIElement<MouseButtonEvent> implements MouseAct
 
     private void setText(String text) {
         this.text = text;
-        setMetrics(FastJEngine.getCanvas().getGraphics());
+        setMetrics();
     }
 
     public Font getFont() {
@@ -134,7 +134,7 @@ public class ArrowButton extends UIElement<MouseButtonEvent> implements MouseAct
 
     public ArrowButton setFont(Font font) {
         this.font = font;
-        setMetrics(FastJEngine.getCanvas().getGraphics());
+        setMetrics();
         return this;
     }
 
@@ -199,7 +199,7 @@ public class ArrowButton extends UIElement<MouseButtonEvent> implements MouseAct
         g.draw(renderCopy);
 
         if (!hasMetrics) {
-            setMetrics(g);
+            setMetrics();
         }
 
         g.setFont(font);
@@ -223,13 +223,13 @@ public class ArrowButton extends UIElement<MouseButtonEvent> implements MouseAct
         origin.inputManager().removeMouseActionListener(this);
     }
 
-    private void setMetrics(Graphics2D g) {
+    private void setMetrics() {
         hasMetrics = false;
 
-        FontMetrics fm = g.getFontMetrics(font);
+        TextMetricsCache.TextMetrics metrics = TextMetricsCache.measure(font, text);
 
-        int textWidth = fm.stringWidth(text);
-        int textHeight = fm.getHeight();
+        int textWidth = metrics.width();
+        int textHeight = metrics.height();
         Rectangle2D.Float renderPathBounds = (Rectangle2D.Float) collisionPath.getBounds2D();
 
         textBounds = new Rectangle2D.Float(
@@ -252,7 +252,6 @@ public class ArrowButton extends UIElement<MouseButtonEvent> implements MouseAct
 
         super.setCollisionPath(DrawUtil.createPath(DrawUtil.createBox(newPathBounds)));
 
-        g.dispose();
         hasMetrics = true;
     }
 }
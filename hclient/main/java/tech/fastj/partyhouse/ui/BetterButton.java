@@ -17,17 +17,17 @@ import tech.fastj.systems.control.GameHandler;
 import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Font;
-import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.Paint;
 import java.awt.Stroke;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Rectangle2D;
-import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
 
+import tech.fastj.partyhouse.util.TextMetricsCache;
+
 /**
  * A {@link UIElement} that can be assigned an action on left click.
  *
@@ -51,8 +51,6 @@ public class BetterButton extends UIElement<MouseButtonEvent> implements MouseAc
     /** {@link Font} representing the default font of {@code Tahoma 16px}. */
     public static final Font DefaultFont = new Font("Tahoma", Font.PLAIN, 16);
 
-    private static final BufferedImage GraphicsHelper = new BufferedImage(1280, 720, BufferedImage.TYPE_INT_ARGB);
-
     private Paint paint;
     private Color textColor;
     private Color outlineColor;
@@ -108,9 +106,7 @@ public class BetterButton extends UIElement<MouseButtonEvent> implements MouseAc
         this.onExitHoverEvents = new ArrayList<>();
 
         translate(location);
-        Graphics2D graphics = GraphicsHelper.createGraphics();
-        setMetrics(graphics);
-        graphics.dispose();
+        setMetrics();
 
         origin.inputManager().addMouseActionListener(this);
     }
@@ -152,9 +148,7 @@ public class BetterButton extends UIElement<MouseButtonEvent> implements MouseAc
      */
     public BetterButton setText(String text) {
         this.text = text;
-        Graphics2D graphics = GraphicsHelper.createGraphics();
-        setMetrics(graphics);
-        graphics.dispose();
+        setMetrics();
 
         return this;
     }
@@ -176,9 +170,7 @@ public class BetterButton extends UIElement<MouseButtonEvent> implements MouseAc
      */
     public BetterButton setFont(Font font) {
         this.font = font;
-        Graphics2D graphics = GraphicsHelper.createGraphics();
-        setMetrics(graphics);
-        graphics.dispose();
+        setMetrics();
 
         return this;
     }
@@ -339,7 +331,7 @@ public class BetterButton extends UIElement<MouseButtonEvent> implements MouseAc
     @Override
     public void render(Graphics2D g) {
         if (!hasMetrics) {
-            setMetrics(g);
+            setMetrics();
         }
 
         AffineTransform oldTransform = (AffineTransform) g.getTransform().clone();
@@ -412,16 +404,14 @@ public class BetterButton extends UIElement<MouseButtonEvent> implements MouseAc
      * Sets up the necessary boundaries for creating text metrics, and aligns the text with the button.
      * <p>
      * If the text metrics show that the text does not fit in the button, the button will be resized to fit the text.
-     *
-     * @param g {@code Graphics2D} object that the {@code Text2D} is rendered on.
      */
-    private void setMetrics(Graphics2D g) {
+    private void setMetrics() {
         hasMetrics = false;
 
-        FontMetrics fm = g.getFontMetrics(font);
+        TextMetricsCache.TextMetrics metrics = TextMetricsCache.measure(font, text);
 
-        int textWidth = fm.stringWidth(text);
-        int textHeight = fm.getHeight();
+        int textWidth = metrics.width();
+        int textHeight = metrics.height();
         Rectangle2D.Float renderPathBounds = (Rectangle2D.Float) collisionPath.getBounds2D();
 
         textBounds = new Rectangle2D.Float(
@@ -444,7 +434,6 @@ public class BetterButton extends UIElement<MouseButtonEvent> implements MouseAc
 
         super.setCollisionPath(DrawUtil.createPath(DrawUtil.createBox(newPathBounds)));
 
-        g.dispose();
         hasMetrics = true;
     }
 }
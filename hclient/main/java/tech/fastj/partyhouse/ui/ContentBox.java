@@ -9,6 +9,7 @@ import tech.fastj.systems.control.GameHandler;
 import java.awt.Graphics2D;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Path2D;
+import java.util.Objects;
 
 public class ContentBox extends UIElement<InputActionEvent> {
 
@@ -56,6 +57,11 @@ public class ContentBox extends UIElement<InputActionEvent> {
     }
 
     public void setContent(String content) {
+        // Re-laying out the same text is wasted work, and some boxes are refreshed several times a second.
+        if (Objects.equals(this.content, content)) {
+            return;
+        }
+
         this.content = content;
         updateStatDisplay();
     }
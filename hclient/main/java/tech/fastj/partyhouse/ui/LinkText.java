@@ -15,12 +15,10 @@ import tech.fastj.systems.control.Scene;
 import java.awt.Color;
 import java.awt.Desktop;
 import java.awt.Font;
-import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.Paint;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Rectangle2D;
-import java.awt.image.BufferedImage;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
@@ -29,6 +27,8 @@ import java.util.List;
 import java.util.Objects;
 import java.util.function.Consumer;
 
+import tech.fastj.partyhouse.util.TextMetricsCache;
+
 public class LinkText extends UIElement<MouseButtonEvent> implements MouseActionListener {
 
     /** The default text value of a {@link LinkText}: an empty string. */
@@ -38,7 +38,6 @@ public class LinkText extends UIElement<MouseButtonEvent> implements MouseAction
     /** {@link Font} representing the default font of {@code Tahoma 16px}. */
     public static final Font DefaultFont = new Font("Tahoma", Font.PLAIN, 16);
 
-    private static final BufferedImage GraphicsHelper = new BufferedImage(1280, 720, BufferedImage.TYPE_INT_ARGB);
     private final URL linkURL;
 
     private Color textColor;
@@ -68,12 +67,10 @@ public class LinkText extends UIElement<MouseButtonEvent> implements MouseAction
         this.onEnterHoverEvents = new ArrayList<>();
         this.onExitHoverEvents = new ArrayList<>();
 
+        TextMetricsCache.TextMetrics metrics = TextMetricsCache.measure(font, text);
 
-        Graphics2D graphics = GraphicsHelper.createGraphics();
-        FontMetrics fm = graphics.getFontMetrics(font);
-
-        int textWidth = fm.stringWidth(text);
-        int textHeight = fm.getHeight();
+        int textWidth = metrics.width();
+        int textHeight = metrics.height();
         setCollisionPath(DrawUtil.createPath(DrawUtil.createBox(new Rectangle2D.Float(0, 0, textWidth, textHeight))));
 
         origin.inputManager().addMouseActionListener(this);
@@ -116,9 +113,7 @@ public class LinkText extends UIElement<MouseButtonEvent> implements MouseAction
      */
     public LinkText setText(String text) {
         this.text = text;
-        Graphics2D graphics = GraphicsHelper.createGraphics();
-        setMetrics(graphics);
-        graphics.dispose();
+        setMetrics();
 
         return this;
     }
@@ -140,9 +135,7 @@ public class LinkText extends UIElement<MouseButtonEvent> implements MouseAction
      */
     public LinkText setFont(Font font) {
         this.font = font;
-        Graphics2D graphics = GraphicsHelper.createGraphics();
-        setMetrics(graphics);
-        graphics.dispose();
+        setMetrics();
 
         return this;
     }
@@ -230,7 +223,7 @@ public class LinkText extends UIElement<MouseButtonEvent> implements MouseAction
     @Override
     public void render(Graphics2D g) {
         if (!hasMetrics) {
-            setMetrics(g);
+            setMetrics();
         }
 
         AffineTransform oldTransform = (AffineTransform) g.getTransform().clone();
@@ -318,16 +311,14 @@ public class LinkText extends UIElement<MouseButtonEvent> implements MouseAction
      * Sets up the necessary boundaries for creating text metrics, and aligns the text with the button.
      * <p>
      * If the text metrics show that the text does not fit in the button, the button will be resized to fit the text.
-     *
-     * @param g {@code Graphics2D} object that the {@code Text2D} is rendered on.
      */
-    private void setMetrics(Graphics2D g) {
+    private void setMetrics() {
         hasMetrics = false;
 
-        FontMetrics fm = g.getFontMetrics(font);
+        TextMetricsCache.TextMetrics metrics = TextMetricsCache.measure(font, text);
 
-        int textWidth = fm.stringWidth(text);
-        int textHeight = fm.getHeight();
+        int textWidth = metrics.width();
+        int textHeight = metrics.height();
         Rectangle2D.Float renderPathBounds = (Rectangle2D.Float) collisionPath.getBounds2D();
 
         textBounds = new Rectangle2D.Float(
@@ -350,7 +341,6 @@ public class LinkText extends UIElement<MouseButtonEvent> implements MouseAction
 
         super.setCollisionPath(DrawUtil.createPath(DrawUtil.createBox(newPathBounds)));
 
-        g.dispose();
         hasMetrics = true;
     }
 }
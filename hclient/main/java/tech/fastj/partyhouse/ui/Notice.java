@@ -15,16 +15,15 @@ import tech.fastj.systems.control.SimpleManager;
 
 import java.awt.Color;
 import java.awt.Font;
-import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Path2D;
 import java.awt.geom.Rectangle2D;
-import java.awt.image.BufferedImage;
 import java.util.Objects;
 
 import tech.fastj.gameloop.CoreLoopState;
 import tech.fastj.partyhouse.util.ExtraMaths;
+import tech.fastj.partyhouse.util.TextMetricsCache;
 
 public class Notice extends GameObject implements Behavior {
 
@@ -36,7 +35,6 @@ public class Notice extends GameObject implements Behavior {
     public static final String DefaultText = "";
 
     private static final Pointf OriginInstance = Pointf.origin();
-    private static final BufferedImage GraphicsHelper = new BufferedImage(1280, 720, BufferedImage.TYPE_INT_ARGB);
 
     private String text;
     private Color fillColor;
@@ -92,9 +90,7 @@ public class Notice extends GameObject implements Behavior {
      */
     public Notice setText(String newText) {
         text = Objects.requireNonNullElse(newText, DefaultText);
-        Graphics2D graphics = GraphicsHelper.createGraphics();
-        setMetrics(graphics);
-        graphics.dispose();
+        setMetrics();
 
         return this;
     }
@@ -118,9 +114,7 @@ public class Notice extends GameObject implements Behavior {
      */
     public Notice setFont(Font newFont) {
         font = newFont;
-        Graphics2D graphics = GraphicsHelper.createGraphics();
-        setMetrics(graphics);
-        graphics.dispose();
+        setMetrics();
 
         return this;
     }
@@ -128,7 +122,7 @@ public class Notice extends GameObject implements Behavior {
     @Override
     public void render(Graphics2D g) {
         if (!hasMetrics) {
-            setMetrics(g);
+            setMetrics();
         }
 
         AffineTransform oldTransform = (AffineTransform) g.getTransform().clone();
@@ -160,15 +154,13 @@ public class Notice extends GameObject implements Behavior {
      * Sets up the necessary boundaries for creating the {@code Notice}'s metrics.
      * <p>
      * This also sets the resulting metrics as the {@code Notice}'s collision path.
-     *
-     * @param g {@code Graphics2D} object that the {@code Notice} is rendered on.
      */
-    private void setMetrics(Graphics2D g) {
+    private void setMetrics() {
         hasMetrics = false;
 
-        FontMetrics fm = g.getFontMetrics(font);
-        int textWidth = fm.stringWidth(text);
-        int textHeight = fm.getHeight();
+        TextMetricsCache.TextMetrics metrics = TextMetricsCache.measure(font, text);
+        int textWidth = metrics.width();
+        int textHeight = metrics.height();
 
         final Rectangle2D.Float bounds = new Rectangle2D.Float(
             Transform2D.DefaultTranslation.x,
@@ -179,7 +171,6 @@ public class Notice extends GameObject implements Behavior {
 
         setCollisionPath(createMetricsPath(bounds));
 
-        g.dispose();
         hasMetrics = true;
     }
 
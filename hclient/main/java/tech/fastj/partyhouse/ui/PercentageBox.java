@@ -9,6 +9,7 @@ import tech.fastj.systems.control.GameHandler;
 import java.awt.Graphics2D;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Path2D;
+import java.util.Objects;
 
 public class PercentageBox<T extends Number> extends UIElement<InputActionEvent> {
 
@@ -42,6 +43,10 @@ public class PercentageBox<T extends Number> extends UIElement<InputActionEvent>
     }
 
     public void setCurrentValue(T currentValue) {
+        if (Objects.equals(this.currentValue, currentValue)) {
+            return;
+        }
+
         this.currentValue = currentValue;
         updateStatDisplay();
     }
@@ -14,15 +14,16 @@ import tech.fastj.input.mouse.events.MouseActionEvent;
 import tech.fastj.systems.control.GameHandler;
 import tech.fastj.systems.control.Scene;
 
+import tech.fastj.network.rpc.TimingWheel;
+
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.geom.AffineTransform;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
+import tech.fastj.gameloop.CoreLoopState;
 import tech.fastj.partyhouse.util.Colors;
 import tech.fastj.partyhouse.util.Fonts;
 import tech.fastj.partyhouse.util.Shapes;
@@ -41,7 +42,7 @@ public class ResultMenu extends UIElement<MouseActionEvent> {
     private List<ContentBox> otherPlayerScores;
 
     private int timeLeft;
-    private ScheduledExecutorService timeLeftProgressor;
+    private TimingWheel.Timeout timeLeftProgressor;
     private String nextTextString = "";
 
     public ResultMenu(GameHandler origin, ClientInfo winnerInfo) {
@@ -168,7 +169,7 @@ public class ResultMenu extends UIElement<MouseActionEvent> {
         playerScore.setContent("" + totalPoints.points());
 
         if (timeLeftProgressor != null) {
-            timeLeftProgressor.shutdownNow();
+            timeLeftProgressor.cancel();
         }
 
         timeLeft = Info.SessionSwitchTime;
@@ -181,8 +182,10 @@ public class ResultMenu extends UIElement<MouseActionEvent> {
 
         nextText.translate(Pointf.add(FastJEngine.getCanvas().getCanvasCenter(), 250f, 200f));
 
-        timeLeftProgressor = Executors.newSingleThreadScheduledExecutor();
-        timeLeftProgressor.scheduleAtFixedRate(this::decreaseTimeLeft, 1L, 1L, TimeUnit.SECONDS);
+        timeLeftProgressor = TimingWheel.shared().scheduleAtFixedRate(
+            this::decreaseTimeLeft, 1L, 1L, TimeUnit.SECONDS,
+            task -> FastJEngine.runLater(task, CoreLoopState.LateUpdate)
+        );
     }
 
     private void decreaseTimeLeft() {
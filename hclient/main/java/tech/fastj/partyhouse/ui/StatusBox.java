@@ -68,6 +68,10 @@ public class StatusBox extends UIElement<InputActionEvent> {
     }
 
     public void setCurrentStatus(boolean currentStatus) {
+        if (this.currentStatus == currentStatus) {
+            return;
+        }
+
         this.currentStatus = currentStatus;
         updateStatDisplay();
     }
@@ -10,6 +10,8 @@ import tech.fastj.systems.control.Scene;
 import tech.fastj.systems.control.SceneManager;
 
 import tech.fastj.network.rpc.Client;
+import tech.fastj.network.rpc.ConnectionQuality;
+import tech.fastj.network.sessions.ReplicatedStateReceiver;
 
 import javax.swing.SwingUtilities;
 import java.util.Map;
@@ -27,6 +29,8 @@ import tech.fastj.partyhousecore.ClientInfo;
 import tech.fastj.partyhousecore.ClientPosition;
 import tech.fastj.partyhousecore.ClientVelocity;
 import tech.fastj.partyhousecore.Commands;
+import tech.fastj.partyhousecore.InterpolationBuffer;
+import tech.fastj.partyhousecore.PlayerSnapshot;
 import tech.fastj.partyhousecore.PositionState;
 
 public class ClientUtil {
@@ -62,7 +66,8 @@ public class ClientUtil {
     }
 
     public static void addDefault2DControlCommands(Client client, Pointf center, Map<UUID, Player> otherPlayers,
-                                                   Map<UUID, PositionState> otherPlayerPositionStates, GameHandler gameHandler) {
+                                                   Map<UUID, PositionState> otherPlayerPositionStates,
+                                                   Map<UUID, InterpolationBuffer> interpolationBuffers, GameHandler gameHandler) {
         client.addCommand(Commands.ClientJoinLobby, ClientInfo.class, (c, clientInfo) -> {
             Log.info("{} joined.", clientInfo.clientName());
 
@@ -78,6 +83,7 @@ public class ClientUtil {
 
             FastJEngine.runLater(() -> {
                 otherPlayerPositionStates.remove(clientInfo.clientId());
+                interpolationBuffers.remove(clientInfo.clientId());
                 Player otherPlayer = otherPlayers.remove(clientInfo.clientId());
 
                 if (otherPlayer != null) {
@@ -106,27 +112,45 @@ public class ClientUtil {
 
         client.addCommand(Commands.UpdateClientGameState,
             ClientInfo.class, ClientPosition.class, ClientVelocity.class,
-            (c, clientInfo, clientPosition, clientVelocity) -> {
-                Log.info("{} moved: {}, {}", clientInfo.clientName(), clientPosition.x(), clientPosition.y());
+            (c, clientInfo, clientPosition, clientVelocity) -> updateOtherPlayer(
+                clientInfo, clientPosition, clientVelocity, center, otherPlayers, otherPlayerPositionStates, interpolationBuffers,
+                client.getConnectionQuality(), gameHandler
+            )
+        );
 
-                PositionState positionState = otherPlayerPositionStates.get(clientInfo.clientId());
-                Player otherPlayer = otherPlayers.get(clientInfo.clientId());
+        ReplicatedStateReceiver<PlayerSnapshot> playerSnapshots = new ReplicatedStateReceiver<>(client.getSerializer(), PlayerSnapshot.class);
+        playerSnapshots.setOnEntityUpdate((clientId, playerSnapshot) -> updateOtherPlayer(
+            playerSnapshot.clientInfo(), playerSnapshot.clientPosition(), playerSnapshot.clientVelocity(),
+            center, otherPlayers, otherPlayerPositionStates, interpolationBuffers, client.getConnectionQuality(), gameHandler
+        ));
+        playerSnapshots.listen(client, Commands.GameStateSnapshot, Commands.AcknowledgeSnapshot);
+    }
 
-                if (positionState == null) {
-                    positionState = PlayerUtil.createOtherPositionState(clientInfo, center, otherPlayerPositionStates);
-                }
+    private static void updateOtherPlayer(ClientInfo clientInfo, ClientPosition clientPosition, ClientVelocity clientVelocity, Pointf center,
+                                          Map<UUID, Player> otherPlayers, Map<UUID, PositionState> otherPlayerPositionStates,
+                                          Map<UUID, InterpolationBuffer> interpolationBuffers, ConnectionQuality connectionQuality,
+                                          GameHandler gameHandler) {
+        long arrivalNanos = System.nanoTime();
+        Log.info("{} moved: {}, {}", clientInfo.clientName(), clientPosition.x(), clientPosition.y());
 
-                if (otherPlayer == null) {
-                    otherPlayer = PlayerUtil.createOtherPlayer(positionState, otherPlayers, gameHandler);
-                }
+        PositionState positionState = otherPlayerPositionStates.get(clientInfo.clientId());
+        Player otherPlayer = otherPlayers.get(clientInfo.clientId());
+
+        if (positionState == null) {
+            positionState = PlayerUtil.createOtherPositionState(clientInfo, center, otherPlayerPositionStates);
+        }
 
-                positionState.setClientInfo(clientInfo);
-                positionState.setClientPosition(clientPosition);
-                positionState.setClientVelocity(clientVelocity);
+        if (otherPlayer == null) {
+            otherPlayer = PlayerUtil.createOtherPlayer(positionState, otherPlayers, gameHandler);
+        }
 
-                otherPlayer.setPlayerName(clientInfo.clientName());
-            }
-        );
+        positionState.setClientInfo(clientInfo);
+        positionState.setClientPosition(clientPosition);
+        positionState.setClientVelocity(clientVelocity);
+        interpolationBuffers.computeIfAbsent(clientInfo.clientId(), clientId -> new InterpolationBuffer(connectionQuality))
+            .add(arrivalNanos, clientPosition, clientVelocity);
+
+        otherPlayer.setPlayerName(clientInfo.clientName());
     }
 
     public static ContentBox setupClientPingForDisplay(Client client, GameHandler gameHandler) {
@@ -137,7 +161,7 @@ public class ClientUtil {
         pingDisplay.getStatDisplay().setFont(Fonts.StatTextFont);
 
         client.onPingReceived(ping -> {
-            double pingMillis = TimeUnit.MILLISECONDS.convert(ping, TimeUnit.NANOSECONDS);
+            double pingMillis = TimeUnit.MILLISECONDS.convert(client.getConnectionQuality().getSmoothedRttNanos(), TimeUnit.NANOSECONDS);
             Scene scene = FastJEngine.<SceneManager>getLogicManager().getCurrentScene();
             ContentBox display = null;
 
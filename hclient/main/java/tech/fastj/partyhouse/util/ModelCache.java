@@ -0,0 +1,65 @@
+package tech.fastj.partyhouse.util;
+
+import tech.fastj.math.Pointf;
+import tech.fastj.graphics.game.Polygon2D;
+
+import tech.fastj.resources.models.ModelUtil;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parses each model file once, and hands out copies of what it parsed.
+ * <p>
+ * Loading a model reads and parses its file, which is far too slow to do on the game thread for every snowball thrown.
+ * The parsed polygons are kept here instead, and every {@link #load(Path)} builds fresh polygons from them, since
+ * models change their polygons' fills and destroy them along with themselves.
+ */
+public class ModelCache {
+
+    private static final Map<Path, Polygon2D[]> ParsedModels = new ConcurrentHashMap<>();
+
+    private ModelCache() {
+    }
+
+    /** Parses the given models ahead of time, so their first use doesn't have to. */
+    public static void preload(Path... modelPaths) {
+        for (Path modelPath : modelPaths) {
+            parse(modelPath);
+        }
+    }
+
+    /** A copy of the model at {@code modelPath}, parsed on first use. */
+    public static Polygon2D[] load(Path modelPath) {
+        Polygon2D[] parsedModel = parse(modelPath);
+        Polygon2D[] model = new Polygon2D[parsedModel.length];
+
+        for (int i = 0; i < parsedModel.length; i++) {
+            model[i] = copy(parsedModel[i]);
+        }
+
+        return model;
+    }
+
+    private static Polygon2D[] parse(Path modelPath) {
+        return ParsedModels.computeIfAbsent(modelPath, ModelUtil::loadModel);
+    }
+
+    private static Polygon2D copy(Polygon2D polygon) {
+        Pointf[] originalPoints = polygon.getOriginalPoints();
+        Pointf[] points = new Pointf[originalPoints.length];
+
+        for (int i = 0; i < originalPoints.length; i++) {
+            points[i] = new Pointf(originalPoints[i].x, originalPoints[i].y);
+        }
+
+        return Polygon2D.create(points)
+            .withRenderStyle(polygon.getRenderStyle())
+            .withFill(polygon.getFill())
+            .withOutline(polygon.getOutlineStroke(), polygon.getOutlineColor())
+            .withTransform(polygon.getTranslation(), polygon.getRotation(), polygon.getScale())
+            .withShouldRender(polygon.shouldRender())
+            .build();
+    }
+}
@@ -0,0 +1,50 @@
+package tech.fastj.partyhouse.util;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measures text for the UI, remembering the sizes of the most recently measured {@link #Capacity} font and text pairs.
+ * <p>
+ * Widgets lay themselves out again whenever their text changes, and most of them only ever show a handful of different
+ * strings, so nearly every measurement after the first is a lookup. Text is measured on a single 1x1 image, the same
+ * way the widgets used to measure it on images of their own.
+ */
+public class TextMetricsCache {
+
+    public static final int Capacity = 256;
+
+    private static final Graphics2D MeasuringGraphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+    private static final Map<TextKey, TextMetrics> CachedMetrics = new LinkedHashMap<>(Capacity, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TextKey, TextMetrics> eldest) {
+            return size() > Capacity;
+        }
+    };
+
+    private TextMetricsCache() {
+    }
+
+    public static synchronized TextMetrics measure(Font font, String text) {
+        TextKey key = new TextKey(font, text);
+        TextMetrics metrics = CachedMetrics.get(key);
+
+        if (metrics == null) {
+            FontMetrics fontMetrics = MeasuringGraphics.getFontMetrics(font);
+            metrics = new TextMetrics(fontMetrics.stringWidth(text), fontMetrics.getHeight());
+            CachedMetrics.put(key, metrics);
+        }
+
+        return metrics;
+    }
+
+    public record TextMetrics(int width, int height) {
+    }
+
+    private record TextKey(Font font, String text) {
+    }
+}
@@ -0,0 +1,55 @@
+package benchmark;
+
+import tech.fastj.graphics.game.Model2D;
+
+import tech.fastj.resources.models.ModelUtil;
+
+import tech.fastj.partyhouse.util.FilePaths;
+import tech.fastj.partyhouse.util.ModelCache;
+
+/**
+ * Compares the cost of building a snowball's model by parsing {@code snowball.psdf} every time, as snowballs used to,
+ * against copying it out of the {@link ModelCache}. Run it directly; each approach gets a warmup before it is timed.
+ */
+public class ModelCacheBenchmark {
+
+    private static final int WarmupIterations = 2_000;
+    private static final int Iterations = 20_000;
+
+    public static void main(String[] args) {
+        ModelCache.preload(FilePaths.Snowball);
+
+        report("parse every time", ModelCacheBenchmark::parseSnowball);
+        report("copy from cache", ModelCacheBenchmark::copySnowball);
+    }
+
+    private static Model2D parseSnowball() {
+        return Model2D.fromPolygons(ModelUtil.loadModel(FilePaths.Snowball));
+    }
+
+    private static Model2D copySnowball() {
+        return Model2D.fromPolygons(ModelCache.load(FilePaths.Snowball));
+    }
+
+    private static void report(String name, SnowballFactory factory) {
+        int checksum = 0;
+
+        for (int i = 0; i < WarmupIterations; i++) {
+            checksum += factory.create().getPolygons().length;
+        }
+
+        long start = System.nanoTime();
+
+        for (int i = 0; i < Iterations; i++) {
+            checksum += factory.create().getPolygons().length;
+        }
+
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-18s %,10.0f ns per snowball (checksum %d)%n", name, (double) elapsed / Iterations, checksum);
+    }
+
+    @FunctionalInterface
+    private interface SnowballFactory {
+        Model2D create();
+    }
+}
@@ -1,8 +1,13 @@
 package tech.fastj.partyhousecore;
 
 import tech.fastj.network.serial.Message;
+import tech.fastj.network.serial.Quantized;
 
-public record ClientPosition(float x, float y) implements Message {
+/** Sent as 16-bit fixed-point coordinates, covering the arena plus half its size past each edge. */
+public record ClientPosition(
+    @Quantized(min = -Info.ArenaWidth / 2f, max = Info.ArenaWidth * 1.5f, bits = 16) float x,
+    @Quantized(min = -Info.ArenaHeight / 2f, max = Info.ArenaHeight * 1.5f, bits = 16) float y
+) implements Message {
     public ClientPosition() {
         this(0f, 0f);
     }
@@ -1,9 +1,14 @@
 package tech.fastj.partyhousecore;
 
 import tech.fastj.network.serial.Message;
+import tech.fastj.network.serial.Quantized;
 
-public record ClientVelocity(float angle, float speed) implements Message {
+/** Sent as a 12-bit angle that wraps at 360 degrees and a 20-bit speed, packed into 4 bytes. */
+public record ClientVelocity(
+    @Quantized(min = 0f, max = 360f, bits = 12, wraps = true) float angle,
+    @Quantized(min = -Info.MaxSpeed, max = Info.MaxSpeed, bits = 20) float speed
+) implements Message {
     public ClientVelocity() {
         this(0f, 0f);
     }
-}
\ No newline at end of file
+}
@@ -10,6 +10,10 @@ public class Commands {
     public static final Command.Id UpdateClientInfo = new Command.Id("Update Client Info", UUID.fromString("3439fdae-dbac-49d1-9bbc-30ffed0ffab2"));
 
     public static final Command.Id UpdateClientGameState = new Command.Id("Update Client Game State", UUID.fromString("a98001a6-61f9-4224-89f8-d0d7c09f3f0b"));
+    public static final Command.Id GameStateSnapshot = new Command.Id("Game State Snapshot", UUID.fromString("5f0c6a3e-2b7d-4f1e-9d38-7c2a41e8b6d5"));
+    public static final Command.Id AcknowledgeSnapshot = new Command.Id("Acknowledge Snapshot", UUID.fromString("c3a7e2d4-5b61-4f08-8e2a-93d1b6f4a7c0"));
+    public static final Command.Id PlayerInput = new Command.Id("Player Input", UUID.fromString("6b2f0d9e-3c47-4a1b-8e55-d2a9f71c0b38"));
+    public static final Command.Id AcknowledgeInput = new Command.Id("Acknowledge Input", UUID.fromString("e8143c7a-95d2-4f6e-a0b1-37c5d8e2f914"));
     public static final Command.Id Ready = new Command.Id("Ready to Play Game", UUID.fromString("07d842e6-e4ce-4231-a9f3-39e704906789"));
     public static final Command.Id UnReady = new Command.Id("Not Ready to Play Game", UUID.fromString("9e983d66-c47d-4753-b247-a1b8092d7b0f"));
 
@@ -21,4 +25,9 @@ public class Commands {
 
     public static final Command.Id SnowballThrow = new Command.Id("Throw Snowball", UUID.fromString("cef7cfaa-89cd-4b77-b0ec-f2fab68c2d76"));
     public static final Command.Id SnowballHit = new Command.Id("Hit By Snowball", UUID.fromString("4864463a-50c4-4e5f-8eef-3c61ffc02513"));
+
+    public static final Command.Id DrawStroke = new Command.Id("Draw Stroke", UUID.fromString("99559086-3bcb-408d-8793-a93cc2029e5c"));
+    public static final Command.Id CanvasUpdate = new Command.Id("Canvas Update", UUID.fromString("f3bb9f7d-62b6-4031-9cb4-8a64f77286a1"));
+    public static final Command.Id CanvasSnapshotChunk = new Command.Id("Canvas Snapshot Chunk", UUID.fromString("1c0d6755-ebd4-470b-9a53-441337922668"));
+    public static final Command.Id AcknowledgeCanvas = new Command.Id("Acknowledge Canvas", UUID.fromString("0b7905d4-6129-47ba-97a7-72dfae0c9ae9"));
 }
@@ -0,0 +1,108 @@
+package tech.fastj.partyhousecore;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides when a player's state is worth sending, by predicting what receivers already show for it.
+ * <p>
+ * Receivers carry a player on from the last state they got, moving along its heading at its speed (see
+ * {@link #extrapolate(ClientPosition, ClientVelocity, float)}). As long as the player keeps doing what that predicts,
+ * the prediction is as good as an update, so updates are only sent once the player strays more than a threshold from
+ * it, changes speed, or goes too long without one.
+ */
+public class DeadReckoning {
+
+    private final float positionThreshold;
+    private final float angleThreshold;
+    private final long maxIntervalNanos;
+
+    private ClientPosition sentPosition;
+    private ClientVelocity sentVelocity;
+    private long sentNanos;
+
+    private long sentCount;
+    private long suppressedCount;
+
+    public DeadReckoning() {
+        this(Info.DeadReckoningPositionThreshold, Info.DeadReckoningAngleThreshold, Info.MaxUpdateIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public DeadReckoning(float positionThreshold, float angleThreshold, long maxInterval, TimeUnit unit) {
+        if (positionThreshold < 0f || angleThreshold < 0f) {
+            throw new IllegalArgumentException("Thresholds cannot be negative, not " + positionThreshold + " and " + angleThreshold + ".");
+        }
+
+        if (maxInterval <= 0L) {
+            throw new IllegalArgumentException("Maximum update interval must be positive, not " + maxInterval + ".");
+        }
+
+        this.positionThreshold = positionThreshold;
+        this.angleThreshold = angleThreshold;
+        this.maxIntervalNanos = unit.toNanos(maxInterval);
+    }
+
+    /** How many updates were sent. */
+    public long getSentCount() {
+        return sentCount;
+    }
+
+    /** How many changed states were not sent, since receivers' prediction was close enough to them. */
+    public long getSuppressedCount() {
+        return suppressedCount;
+    }
+
+    /** Where a player at {@code position} ends up after {@code seconds} of moving at {@code velocity}. */
+    public static ClientPosition extrapolate(ClientPosition position, ClientVelocity velocity, float seconds) {
+        if (velocity.speed() == 0f || seconds <= 0f) {
+            return position;
+        }
+
+        // Forward is up when the angle is 0, the same as PlayerMovement's steps.
+        double radians = Math.toRadians(velocity.angle());
+        float distance = velocity.speed() * seconds;
+        return new ClientPosition(position.x() - (float) (distance * Math.sin(radians)), position.y() - (float) (distance * Math.cos(radians)));
+    }
+
+    /**
+     * Whether the state at {@code nowNanos} needs sending. If it does, it counts as sent, and later states are measured
+     * against it.
+     */
+    public boolean shouldSend(long nowNanos, ClientPosition position, ClientVelocity velocity) {
+        if (sentPosition == null || needsSending(nowNanos, position, velocity)) {
+            sentPosition = position;
+            sentVelocity = velocity;
+            sentNanos = nowNanos;
+            sentCount++;
+            return true;
+        }
+
+        if (!position.equals(sentPosition) || !velocity.equals(sentVelocity)) {
+            suppressedCount++;
+        }
+
+        return false;
+    }
+
+    /** Forgets the last state sent, so the next one is sent whatever it is. */
+    public void reset() {
+        sentPosition = null;
+        sentVelocity = null;
+    }
+
+    private boolean needsSending(long nowNanos, ClientPosition position, ClientVelocity velocity) {
+        if (nowNanos - sentNanos >= maxIntervalNanos || velocity.speed() != sentVelocity.speed()) {
+            return true;
+        }
+
+        float angleError = Math.abs((velocity.angle() - sentVelocity.angle()) % 360f);
+
+        if (Math.min(angleError, 360f - angleError) > angleThreshold) {
+            return true;
+        }
+
+        ClientPosition predicted = extrapolate(sentPosition, sentVelocity, (nowNanos - sentNanos) / 1_000_000_000f);
+        float errorX = position.x() - predicted.x();
+        float errorY = position.y() - predicted.y();
+        return errorX * errorX + errorY * errorY > positionThreshold * positionThreshold;
+    }
+}
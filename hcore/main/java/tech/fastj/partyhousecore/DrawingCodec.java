@@ -0,0 +1,239 @@
+package tech.fastj.partyhousecore;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Packs {@link TiledCanvas} tiles for sending, picking whichever of three encodings is smallest for each tile.
+ * <ul>
+ *     <li>{@link #Raw}: the tile's packed rows as they are.</li>
+ *     <li>{@link #Sparse}: the index (and, past one bit per pixel, the value) of each non-zero pixel, for tiles with
+ *     only a few strokes through them.</li>
+ *     <li>{@link #RunLength}: runs of equal pixels, for tiles with solid areas. One-bit runs alternate between clear and
+ *     set, so only their lengths are sent; deeper runs send each run's value before its length.</li>
+ * </ul>
+ * An encoding starts with the canvas version and tile count, followed by each tile's index, encoding and data.
+ */
+public class DrawingCodec {
+
+    public static final byte Raw = 0;
+    public static final byte Sparse = 1;
+    public static final byte RunLength = 2;
+
+    private static final int TilePixels = TiledCanvas.TileSize * TiledCanvas.TileSize;
+    private static final int HeaderBytes = Long.BYTES + Short.BYTES;
+    private static final int TileHeaderBytes = Short.BYTES + Byte.BYTES;
+
+    private DrawingCodec() {
+    }
+
+    /** Packs the given tiles of {@code canvas}, as of its current version. */
+    public static byte[] encode(TiledCanvas canvas, BitSet tiles) {
+        int bitsPerPixel = canvas.getBitsPerPixel();
+        long[] rows = new long[canvas.getTileLongs()];
+        ByteBuffer buffer = ByteBuffer.allocate(HeaderBytes + tiles.cardinality() * (TileHeaderBytes + rows.length * Long.BYTES));
+
+        buffer.putLong(canvas.getVersion());
+        buffer.putShort((short) tiles.cardinality());
+
+        for (int tile = tiles.nextSetBit(0); tile >= 0; tile = tiles.nextSetBit(tile + 1)) {
+            canvas.copyTile(tile, rows, 0);
+            buffer.putShort((short) tile);
+            encodeTile(rows, bitsPerPixel, buffer);
+        }
+
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    /**
+     * Writes packed tiles into {@code canvas}, returning the version they were packed at. Tiles the canvas already has
+     * a newer version of are skipped, so updates that arrive out of order never roll a tile back.
+     */
+    public static long decode(byte[] encodedTiles, TiledCanvas canvas) {
+        ByteBuffer buffer = ByteBuffer.wrap(encodedTiles);
+        long version = buffer.getLong();
+        int tileCount = Short.toUnsignedInt(buffer.getShort());
+        int bitsPerPixel = canvas.getBitsPerPixel();
+        long[] rows = new long[canvas.getTileLongs()];
+
+        for (int i = 0; i < tileCount; i++) {
+            int tile = Short.toUnsignedInt(buffer.getShort());
+
+            if (tile >= canvas.getTileCount()) {
+                throw new IllegalArgumentException("Tile " + tile + " is outside of a canvas with " + canvas.getTileCount() + " tiles.");
+            }
+
+            decodeTile(buffer, bitsPerPixel, rows);
+
+            if (canvas.getTileVersion(tile) <= version) {
+                canvas.applyTile(tile, rows, version);
+            }
+        }
+
+        canvas.advanceVersion(version);
+        return version;
+    }
+
+    private static void encodeTile(long[] rows, int bitsPerPixel, ByteBuffer buffer) {
+        int usedPixels = 0;
+
+        for (int pixel = 0; pixel < TilePixels; pixel++) {
+            if (getPixel(rows, pixel, bitsPerPixel) != 0) {
+                usedPixels++;
+            }
+        }
+
+        int rawBytes = rows.length * Long.BYTES;
+        int sparseBytes = Short.BYTES + usedPixels * (bitsPerPixel == 1 ? Short.BYTES : Short.BYTES + Byte.BYTES);
+        int runLengthBytes = runLengthBytes(rows, bitsPerPixel);
+
+        if (sparseBytes <= runLengthBytes && sparseBytes < rawBytes) {
+            buffer.put(Sparse);
+            buffer.putShort((short) usedPixels);
+
+            for (int pixel = 0; pixel < TilePixels; pixel++) {
+                int value = getPixel(rows, pixel, bitsPerPixel);
+
+                if (value == 0) {
+                    continue;
+                }
+
+                buffer.putShort((short) pixel);
+
+                if (bitsPerPixel > 1) {
+                    buffer.put((byte) value);
+                }
+            }
+        } else if (runLengthBytes < rawBytes) {
+            buffer.put(RunLength);
+
+            int pixel = 0;
+            int value = 0;
+
+            while (pixel < TilePixels) {
+                if (bitsPerPixel > 1) {
+                    value = getPixel(rows, pixel, bitsPerPixel);
+                    buffer.put((byte) value);
+                }
+
+                int runEnd = runEnd(rows, pixel, value, bitsPerPixel);
+                putRunLength(buffer, runEnd - pixel);
+                pixel = runEnd;
+                value ^= 1;
+            }
+        } else {
+            buffer.put(Raw);
+
+            for (long row : rows) {
+                buffer.putLong(row);
+            }
+        }
+    }
+
+    private static void decodeTile(ByteBuffer buffer, int bitsPerPixel, long[] rows) {
+        byte encoding = buffer.get();
+        Arrays.fill(rows, 0L);
+
+        switch (encoding) {
+            case Raw -> {
+                for (int i = 0; i < rows.length; i++) {
+                    rows[i] = buffer.getLong();
+                }
+            }
+            case Sparse -> {
+                int usedPixels = Short.toUnsignedInt(buffer.getShort());
+
+                for (int i = 0; i < usedPixels; i++) {
+                    int pixel = Short.toUnsignedInt(buffer.getShort()) % TilePixels;
+                    int value = bitsPerPixel > 1 ? Byte.toUnsignedInt(buffer.get()) : 1;
+                    setPixel(rows, pixel, value, bitsPerPixel);
+                }
+            }
+            case RunLength -> {
+                int pixel = 0;
+                int value = 0;
+
+                while (pixel < TilePixels) {
+                    if (bitsPerPixel > 1) {
+                        value = Byte.toUnsignedInt(buffer.get());
+                    }
+
+                    int runEnd = Math.min(TilePixels, pixel + getRunLength(buffer));
+
+                    if (value != 0) {
+                        for (int i = pixel; i < runEnd; i++) {
+                            setPixel(rows, i, value, bitsPerPixel);
+                        }
+                    }
+
+                    pixel = runEnd;
+                    value ^= 1;
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown tile encoding " + encoding + ".");
+        }
+    }
+
+    private static int runLengthBytes(long[] rows, int bitsPerPixel) {
+        int bytes = 0;
+        int pixel = 0;
+        int value = 0;
+
+        while (pixel < TilePixels) {
+            if (bitsPerPixel > 1) {
+                value = getPixel(rows, pixel, bitsPerPixel);
+                bytes++;
+            }
+
+            int runEnd = runEnd(rows, pixel, value, bitsPerPixel);
+            bytes += runEnd - pixel < 0x80 ? 1 : 2;
+            pixel = runEnd;
+            value ^= 1;
+        }
+
+        return bytes;
+    }
+
+    /** The first pixel from {@code start} on that is not {@code value}, or the end of the tile. */
+    private static int runEnd(long[] rows, int start, int value, int bitsPerPixel) {
+        int pixel = start;
+
+        while (pixel < TilePixels && getPixel(rows, pixel, bitsPerPixel) == value) {
+            pixel++;
+        }
+
+        return pixel;
+    }
+
+    private static int getPixel(long[] rows, int pixel, int bitsPerPixel) {
+        int bit = pixel * bitsPerPixel;
+        return (int) (rows[bit >>> 6] >>> (bit & (Long.SIZE - 1))) & ((1 << bitsPerPixel) - 1);
+    }
+
+    private static void setPixel(long[] rows, int pixel, int value, int bitsPerPixel) {
+        int bit = pixel * bitsPerPixel;
+        long mask = (1L << bitsPerPixel) - 1L;
+        rows[bit >>> 6] = (rows[bit >>> 6] & ~(mask << bit)) | ((value & mask) << bit);
+    }
+
+    /** Run lengths under 128 take one byte; longer ones set the top bit and spill into a second byte. */
+    private static void putRunLength(ByteBuffer buffer, int runLength) {
+        if (runLength < 0x80) {
+            buffer.put((byte) runLength);
+        } else {
+            buffer.put((byte) (0x80 | (runLength & 0x7F)));
+            buffer.put((byte) (runLength >>> 7));
+        }
+    }
+
+    private static int getRunLength(ByteBuffer buffer) {
+        int first = Byte.toUnsignedInt(buffer.get());
+
+        if (first < 0x80) {
+            return first;
+        }
+
+        return (first & 0x7F) | (Byte.toUnsignedInt(buffer.get()) << 7);
+    }
+}
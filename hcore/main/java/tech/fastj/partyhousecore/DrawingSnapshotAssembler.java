@@ -0,0 +1,49 @@
+package tech.fastj.partyhousecore;
+
+import java.io.ByteArrayOutputStream;
+
+/** Collects the chunks of a {@link TiledCanvas#encodeSnapshot() canvas snapshot} streamed to a late joiner. */
+public class DrawingSnapshotAssembler {
+
+    private long version = -1L;
+    private byte[][] chunks;
+    private int receivedChunks;
+
+    /** Adds a chunk, returning whether every chunk of its snapshot has now arrived. */
+    public boolean accept(long snapshotVersion, int chunkIndex, int chunkCount, byte[] chunk) {
+        if (chunkCount <= 0 || chunkIndex < 0 || chunkIndex >= chunkCount) {
+            throw new IllegalArgumentException("Chunk " + chunkIndex + " of " + chunkCount + " does not exist.");
+        }
+
+        if (snapshotVersion != version || chunks == null || chunks.length != chunkCount) {
+            version = snapshotVersion;
+            chunks = new byte[chunkCount][];
+            receivedChunks = 0;
+        }
+
+        if (chunks[chunkIndex] == null) {
+            chunks[chunkIndex] = chunk;
+            receivedChunks++;
+        }
+
+        return receivedChunks == chunks.length;
+    }
+
+    /** Writes the assembled snapshot into {@code canvas}, returning the version it was taken at. */
+    public long applyTo(TiledCanvas canvas) {
+        if (chunks == null || receivedChunks != chunks.length) {
+            throw new IllegalStateException("The snapshot is missing " + (chunks == null ? "all" : chunks.length - receivedChunks) + " chunks.");
+        }
+
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+
+        for (byte[] chunk : chunks) {
+            snapshot.writeBytes(chunk);
+        }
+
+        chunks = null;
+        receivedChunks = 0;
+
+        return canvas.applyTiles(snapshot.toByteArray());
+    }
+}
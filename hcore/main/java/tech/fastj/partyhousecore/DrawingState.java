@@ -1,27 +1,205 @@
 package tech.fastj.partyhousecore;
 
-import java.util.BitSet;
+import java.util.Arrays;
 
-public class DrawingState {
+/**
+ * A one-bit drawing canvas, split into {@link #TileSize}-pixel square tiles.
+ * <p>
+ * Each tile's pixels are packed row by row into {@link #TileLongs} longs, and every tile remembers the canvas version it
+ * last changed at. That lets a server send each client only the tiles that changed since the version the client last
+ * acknowledged, rather than the whole canvas.
+ */
+public class DrawingState implements TiledCanvas {
 
-    private final BitSet pixels;
-    boolean needsUpdate;
-    private byte[] pixelStore;
+    public static final int DefaultWidth = 400;
+    public static final int DefaultHeight = 400;
+    public static final int TileLongs = TileSize * TileSize / Long.SIZE;
+
+    private final int width;
+    private final int height;
+    private final int tileColumns;
+    private final int tileRows;
+    private final long[] tiles;
+    private final long[] tileVersions;
+
+    private long version;
 
     public DrawingState() {
-        pixels = new BitSet(160000);
-        needsUpdate = true;
+        this(DefaultWidth, DefaultHeight);
+    }
+
+    public DrawingState(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Canvas size must be positive, not " + width + "x" + height + ".");
+        }
+
+        this.width = width;
+        this.height = height;
+        tileColumns = (width + TileSize - 1) / TileSize;
+        tileRows = (height + TileSize - 1) / TileSize;
+        tiles = new long[tileColumns * tileRows * TileLongs];
+        tileVersions = new long[tileColumns * tileRows];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getTileColumns() {
+        return tileColumns;
+    }
+
+    public int getTileRows() {
+        return tileRows;
+    }
+
+    @Override
+    public int getTileCount() {
+        return tileVersions.length;
+    }
+
+    /** Goes up by one with every change, so a client that acknowledged a version has every change up to it. */
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public long getTileVersion(int tile) {
+        return tileVersions[tile];
+    }
+
+    public boolean getPixel(int x, int y) {
+        checkBounds(x, y);
+
+        int pixel = tilePixel(x, y);
+        return (tiles[tileIndex(x, y) * TileLongs + (pixel >>> 6)] & (1L << pixel)) != 0L;
+    }
+
+    /** Sets the pixel at {@code (x, y)}, returning whether that changed it. */
+    public boolean setPixel(int x, int y) {
+        checkBounds(x, y);
+
+        int tile = tileIndex(x, y);
+        int pixel = tilePixel(x, y);
+        int index = tile * TileLongs + (pixel >>> 6);
+        long updated = tiles[index] | (1L << pixel);
+
+        if (updated == tiles[index]) {
+            return false;
+        }
+
+        tiles[index] = updated;
+        markChanged(tile);
+        return true;
+    }
+
+    /** Clears the pixel at {@code (x, y)}, returning whether that changed it. */
+    public boolean clearPixel(int x, int y) {
+        checkBounds(x, y);
+
+        int tile = tileIndex(x, y);
+        int pixel = tilePixel(x, y);
+        int index = tile * TileLongs + (pixel >>> 6);
+        long updated = tiles[index] & ~(1L << pixel);
+
+        if (updated == tiles[index]) {
+            return false;
+        }
+
+        tiles[index] = updated;
+        markChanged(tile);
+        return true;
+    }
+
+    /** Clears every pixel. Only tiles that had something drawn on them count as changed. */
+    public void clear() {
+        for (int tile = 0; tile < tileVersions.length; tile++) {
+            if (isTileEmpty(tile)) {
+                continue;
+            }
+
+            Arrays.fill(tiles, tile * TileLongs, (tile + 1) * TileLongs, 0L);
+            markChanged(tile);
+        }
     }
 
-    public void setPixel(int x, int y) {
-        pixels.set(x * y);
+    @Override
+    public boolean isTileEmpty(int tile) {
+        int offset = tile * TileLongs;
+
+        for (int i = 0; i < TileLongs; i++) {
+            if (tiles[offset + i] != 0L) {
+                return false;
+            }
+        }
+
+        return true;
     }
 
-    public byte[] getPixels() {
-        if (needsUpdate) {
-            pixelStore = pixels.toByteArray();
+    /**
+     * Sets every pixel of {@code tile} that is set in {@code rows}, packed the same way as the tile. The tile's version
+     * only goes up once, however many of its pixels were drawn on. Returns whether that changed the tile.
+     */
+    public boolean drawTile(int tile, long[] rows) {
+        int offset = tile * TileLongs;
+        boolean changed = false;
+
+        for (int i = 0; i < TileLongs; i++) {
+            long updated = tiles[offset + i] | rows[i];
+            changed |= updated != tiles[offset + i];
+            tiles[offset + i] = updated;
         }
 
-        return pixelStore;
+        if (changed) {
+            markChanged(tile);
+        }
+
+        return changed;
+    }
+
+    /** Copies a tile's {@link #TileLongs} packed rows into {@code destination}, starting at {@code offset}. */
+    @Override
+    public void copyTile(int tile, long[] destination, int offset) {
+        System.arraycopy(tiles, tile * TileLongs, destination, offset, TileLongs);
+    }
+
+    @Override
+    public int getBitsPerPixel() {
+        return 1;
+    }
+
+    @Override
+    public void applyTile(int tile, long[] rows, long tileVersion) {
+        System.arraycopy(rows, 0, tiles, tile * TileLongs, TileLongs);
+        tileVersions[tile] = tileVersion;
+    }
+
+    @Override
+    public void advanceVersion(long newVersion) {
+        version = Math.max(version, newVersion);
+    }
+
+    private void markChanged(int tile) {
+        tileVersions[tile] = ++version;
+    }
+
+    private void checkBounds(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            throw new IndexOutOfBoundsException("Pixel (" + x + ", " + y + ") is outside of this " + width + "x" + height + " canvas.");
+        }
+    }
+
+    private int tileIndex(int x, int y) {
+        return (y / TileSize) * tileColumns + (x / TileSize);
+    }
+
+    /** The pixel's row-major bit index within its tile. Each long holds {@code Long.SIZE / TileSize} rows of a tile. */
+    private int tilePixel(int x, int y) {
+        return (y % TileSize) * TileSize + (x % TileSize);
     }
 }
@@ -4,4 +4,51 @@ public class Info {
     public static final String DefaultIp = "localhost";
     public static final int DefaultPort = 19999;
     public static final int SessionSwitchTime = 5;
+    /** How long clients get to load a new scene before being moved into its session. */
+    public static final int SceneLoadTimeMillis = 1000;
+    public static final int SnapshotTickRate = 20;
+    public static final int FixedUpdateRate = 50;
+
+    public static final int ArenaWidth = 1280;
+    public static final int ArenaHeight = 720;
+    public static final float MaxSpeed = 1024f;
+
+    public static final float PlayerSize = 50f;
+    /** Distance a player covers per second, and degrees they turn per second. */
+    public static final float PlayerSpeed = 250f;
+    public static final float PlayerTurnSpeed = 300f;
+    /** Movement inputs are resent until acknowledged, but only this many of the newest at a time. */
+    public static final int MaxInputsPerMessage = 32;
+    /** Players earn one movement step per fixed update, and can save up this many for inputs that arrive bunched up. */
+    public static final int MaxSavedInputSteps = 10;
+
+    /** Remote players are drawn this far in the past, picked from how much the connection to the server jitters. */
+    public static final int MinInterpolationDelayMillis = 50;
+    public static final int MaxInterpolationDelayMillis = 250;
+    /** How long a remote player keeps moving once their updates run late, before they are held in place. */
+    public static final int MaxExtrapolationMillis = 100;
+
+    /** A player's state is only sent once receivers' prediction of it is off by this many units or degrees... */
+    public static final float DeadReckoningPositionThreshold = 8f;
+    public static final float DeadReckoningAngleThreshold = 5f;
+    /** ...or this long has passed since the last one. */
+    public static final int MaxUpdateIntervalMillis = 1000;
+    public static final float SnowballRadius = 5f;
+    /** Distance a snowball covers per second; 20 units per fixed update at 50 fixed updates per second. */
+    public static final float SnowballSpeed = 1000f;
+
+    /** Wide enough to cover the whole arena, so only rooms larger than it see players drop out of interest. */
+    public static final float InterestRadius = 1500f;
+    public static final float InterestHysteresis = 100f;
+
+    /** How far back the server can rewind players to judge a throw; throws from laggier players are judged as of this. */
+    public static final int LagCompensationWindowMillis = 500;
+
+    /** Late joiners are streamed the canvas in chunks of this many bytes, a few chunks per snapshot tick. */
+    public static final int CanvasChunkSize = 1024;
+    public static final int CanvasChunksPerTick = 4;
+
+    /** Strokes are sent as up to this many x, y pairs, drawn with a brush up to this wide. */
+    public static final int MaxStrokePoints = 256;
+    public static final int MaxBrushWidth = 32;
 }
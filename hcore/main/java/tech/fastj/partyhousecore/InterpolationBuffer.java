@@ -0,0 +1,256 @@
+package tech.fastj.partyhousecore;
+
+import tech.fastj.math.Pointf;
+import tech.fastj.graphics.game.GameObject;
+import tech.fastj.network.rpc.ConnectionQuality;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds a remote player's recent states, stamped with when they arrived, so the player can be drawn a little in the
+ * past, moving smoothly between two known states rather than jumping to each one as it arrives.
+ * <p>
+ * The delay is one snapshot interval plus a few times the connection's round-trip time variance, so there is almost
+ * always a newer state to move towards. The gaps between arrivals can't be used for this: with dead reckoning, most of
+ * them come from updates that were never sent, not from the network. The delay drifts towards its target rather than
+ * jumping, so a change in jitter never yanks the player back and forth.
+ * <p>
+ * When the newest state is older than the delay, the player is carried on from it. A state with a speed is
+ * {@link DeadReckoning#extrapolate(ClientPosition, ClientVelocity, float) dead reckoned} for up to
+ * {@link Info#MaxUpdateIntervalMillis}, as its sender only sends again once that prediction goes wrong; otherwise the
+ * player carries on along the movement between its last two states for at most {@link Info#MaxExtrapolationMillis}.
+ */
+public class InterpolationBuffer {
+
+    public static final int DefaultCapacity = 32;
+
+    private static final long MinDelayNanos = TimeUnit.MILLISECONDS.toNanos(Info.MinInterpolationDelayMillis);
+    private static final long MaxDelayNanos = TimeUnit.MILLISECONDS.toNanos(Info.MaxInterpolationDelayMillis);
+    private static final long MaxExtrapolationNanos = TimeUnit.MILLISECONDS.toNanos(Info.MaxExtrapolationMillis);
+    private static final long MaxDeadReckoningNanos = TimeUnit.MILLISECONDS.toNanos(Info.MaxUpdateIntervalMillis);
+    private static final long SnapshotIntervalNanos = TimeUnit.SECONDS.toNanos(1L) / Info.SnapshotTickRate;
+    private static final int JitterMultiplier = 3;
+    /** Roughly how long the delay takes to catch up with its target. */
+    private static final float DelaySmoothingNanos = TimeUnit.SECONDS.toNanos(1L);
+
+    private final long[] times;
+    private final float[] xs;
+    private final float[] ys;
+    private final float[] angles;
+    private final float[] speeds;
+    private final int mask;
+    private final ConnectionQuality connectionQuality;
+
+    private int count;
+    private int newest;
+
+    private float delayNanos;
+    private long delayUpdatedNanos;
+    private boolean hasDelayUpdate;
+
+    private float x;
+    private float y;
+    private float angle;
+
+    public InterpolationBuffer(ConnectionQuality connectionQuality) {
+        this(DefaultCapacity, connectionQuality);
+    }
+
+    public InterpolationBuffer(int capacity, ConnectionQuality connectionQuality) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Interpolation buffer capacity must be a power of two of at least 2, not " + capacity + ".");
+        }
+
+        times = new long[capacity];
+        xs = new float[capacity];
+        ys = new float[capacity];
+        angles = new float[capacity];
+        speeds = new float[capacity];
+        mask = capacity - 1;
+        this.connectionQuality = connectionQuality;
+        newest = -1;
+
+        delayNanos = clampDelay(SnapshotIntervalNanos * 2f);
+    }
+
+    public synchronized long getDelayNanos() {
+        return (long) delayNanos;
+    }
+
+    public synchronized float getX() {
+        return x;
+    }
+
+    public synchronized float getY() {
+        return y;
+    }
+
+    public synchronized float getAngle() {
+        return angle;
+    }
+
+    /** Adds a state that arrived at {@code arrivalNanos}, on the {@link System#nanoTime()} clock. */
+    public synchronized void add(long arrivalNanos, ClientPosition position, ClientVelocity velocity) {
+        if (count > 0) {
+            long interval = arrivalNanos - times[newest];
+
+            if (interval < 0L) {
+                return;
+            }
+
+            if (interval > MaxDelayNanos) {
+                // States only arrive when a player strays from what receivers predict, so after a long gap, start from
+                // that prediction one interval ago rather than gliding across the whole gap.
+                long gapEnd = arrivalNanos - SnapshotIntervalNanos;
+                ClientPosition predicted = predict(newest, Math.min(gapEnd - times[newest], MaxDeadReckoningNanos));
+                append(gapEnd, predicted.x(), predicted.y(), angles[newest], speeds[newest]);
+            }
+        }
+
+        append(arrivalNanos, position.x(), position.y(), velocity.angle(), velocity.speed());
+    }
+
+    /**
+     * Works out where the player is as of {@code nowNanos} minus the delay, returning {@code false} if there is nothing
+     * to work it out from yet.
+     */
+    public synchronized boolean sample(long nowNanos) {
+        updateDelay(nowNanos);
+
+        if (count == 0) {
+            return false;
+        }
+
+        long renderTime = nowNanos - (long) delayNanos;
+
+        if (count == 1 || renderTime >= times[newest]) {
+            extrapolate(renderTime);
+            return true;
+        }
+
+        int later = newest;
+
+        for (int i = 1; i < count; i++) {
+            int earlier = (newest - i) & mask;
+
+            if (times[earlier] <= renderTime) {
+                float t = (float) (renderTime - times[earlier]) / (times[later] - times[earlier]);
+                blend(earlier, later, t);
+                return true;
+            }
+
+            later = earlier;
+        }
+
+        // Older than anything still held; show the oldest state.
+        x = xs[later];
+        y = ys[later];
+        angle = angles[later];
+        return true;
+    }
+
+    /** Samples the buffer as of {@code nowNanos} and moves {@code player} there, if there was anything to sample. */
+    public void updatePlayerPosition(GameObject player, long nowNanos) {
+        if (!sample(nowNanos)) {
+            return;
+        }
+
+        player.setTranslation(new Pointf(getX(), getY()));
+        player.rotate(-player.getRotation());
+        player.rotate(getAngle());
+    }
+
+    public synchronized void clear() {
+        count = 0;
+        newest = -1;
+    }
+
+    /**
+     * Moves the delay towards its target in proportion to the time passed. The smoothing period is longer than the
+     * delay's whole range, so the delay always changes slower than time passes and the player is never drawn going
+     * backwards.
+     */
+    private void updateDelay(long nowNanos) {
+        if (!hasDelayUpdate) {
+            hasDelayUpdate = true;
+            delayUpdatedNanos = nowNanos;
+            return;
+        }
+
+        long elapsedNanos = nowNanos - delayUpdatedNanos;
+        delayUpdatedNanos = nowNanos;
+
+        if (elapsedNanos <= 0L || !connectionQuality.hasRttSample()) {
+            return;
+        }
+
+        float targetNanos = clampDelay(SnapshotIntervalNanos + JitterMultiplier * connectionQuality.getRttVarianceNanos());
+        delayNanos += (targetNanos - delayNanos) * Math.min(1f, elapsedNanos / DelaySmoothingNanos);
+    }
+
+    private void append(long time, float stateX, float stateY, float stateAngle, float stateSpeed) {
+        newest = (newest + 1) & mask;
+        times[newest] = time;
+        xs[newest] = stateX;
+        ys[newest] = stateY;
+        angles[newest] = stateAngle;
+        speeds[newest] = stateSpeed;
+        count = Math.min(count + 1, times.length);
+    }
+
+    /** Carries the newest state on, by its own speed if it has one, or else by the movement leading up to it. */
+    private void extrapolate(long renderTime) {
+        x = xs[newest];
+        y = ys[newest];
+        angle = angles[newest];
+
+        if (speeds[newest] != 0f) {
+            ClientPosition predicted = predict(newest, Math.min(renderTime - times[newest], MaxDeadReckoningNanos));
+            x = predicted.x();
+            y = predicted.y();
+            return;
+        }
+
+        if (count == 1) {
+            return;
+        }
+
+        int previous = (newest - 1) & mask;
+        long interval = times[newest] - times[previous];
+
+        if (interval <= 0L) {
+            return;
+        }
+
+        float t = 1f + (float) Math.min(renderTime - times[newest], MaxExtrapolationNanos) / interval;
+        blend(previous, newest, t);
+    }
+
+    private ClientPosition predict(int state, long elapsedNanos) {
+        ClientPosition position = new ClientPosition(xs[state], ys[state]);
+        return DeadReckoning.extrapolate(position, new ClientVelocity(angles[state], speeds[state]), elapsedNanos / 1_000_000_000f);
+    }
+
+    private void blend(int from, int to, float t) {
+        x = xs[from] + (xs[to] - xs[from]) * t;
+        y = ys[from] + (ys[to] - ys[from]) * t;
+        angle = angles[from] + shortestArc(angles[from], angles[to]) * t;
+    }
+
+    /** The signed turn, in degrees, from {@code from} to {@code to} the short way around. */
+    private static float shortestArc(float from, float to) {
+        float difference = (to - from) % 360f;
+
+        if (difference > 180f) {
+            difference -= 360f;
+        } else if (difference < -180f) {
+            difference += 360f;
+        }
+
+        return difference;
+    }
+
+    private static float clampDelay(float delay) {
+        return Math.max(MinDelayNanos, Math.min(MaxDelayNanos, delay));
+    }
+}
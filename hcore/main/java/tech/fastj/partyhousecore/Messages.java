@@ -9,5 +9,6 @@ public class Messages {
         serializer.registerSerializer(ClientVelocity.class);
         serializer.registerSerializer(SnowballInfo.class);
         serializer.registerSerializer(ClientPoints.class);
+        serializer.registerSerializer(PlayerSnapshot.class);
     }
 }
@@ -0,0 +1,103 @@
+package tech.fastj.partyhousecore;
+
+/**
+ * Predicts the local player's movement from their own inputs, and reconciles it with the server's.
+ * <p>
+ * Each input {@link #record(byte) recorded} gets the next sequence number and is applied straight away, so the player
+ * moves without waiting a round trip. Inputs stay in a ring buffer until the server acknowledges the last one it
+ * processed, along with where that left the player; {@link #reconcile(int, ClientPosition, ClientVelocity)} then
+ * restarts from the server's state and replays every input it has not processed yet. If the prediction was right, the
+ * player ends up exactly where they already were.
+ */
+public class MovementPredictor {
+
+    public static final int DefaultCapacity = 128;
+
+    private final byte[] inputs;
+    private final int mask;
+    private final PlayerMovement movement;
+
+    private int nextSequence;
+    private int acknowledgedSequence;
+
+    public MovementPredictor(ClientPosition position, ClientVelocity velocity) {
+        this(DefaultCapacity, position, velocity);
+    }
+
+    public MovementPredictor(int capacity, ClientPosition position, ClientVelocity velocity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Input buffer capacity must be a positive power of two, not " + capacity + ".");
+        }
+
+        inputs = new byte[capacity];
+        mask = capacity - 1;
+        movement = new PlayerMovement(position, velocity);
+        acknowledgedSequence = -1;
+    }
+
+    public PlayerMovement getMovement() {
+        return movement;
+    }
+
+    public int getNextSequence() {
+        return nextSequence;
+    }
+
+    public int getAcknowledgedSequence() {
+        return acknowledgedSequence;
+    }
+
+    public int getUnacknowledgedCount() {
+        return nextSequence - acknowledgedSequence - 1;
+    }
+
+    /** Applies {@code input} to the prediction, returning its sequence number. */
+    public int record(byte input) {
+        // With the buffer full the oldest input gets overwritten, so stop waiting on an acknowledgement for it.
+        if (getUnacknowledgedCount() == inputs.length) {
+            acknowledgedSequence++;
+        }
+
+        int sequence = nextSequence++;
+        inputs[sequence & mask] = input;
+        movement.step(input);
+
+        return sequence;
+    }
+
+    /**
+     * The newest unacknowledged inputs, oldest first, up to {@code maxInputs} of them. The first one's sequence number is
+     * {@link #getNextSequence()} minus the returned length.
+     */
+    public byte[] getUnacknowledgedInputs(int maxInputs) {
+        int count = Math.min(maxInputs, getUnacknowledgedCount());
+        byte[] unacknowledged = new byte[count];
+        int firstSequence = nextSequence - count;
+
+        for (int i = 0; i < count; i++) {
+            unacknowledged[i] = inputs[(firstSequence + i) & mask];
+        }
+
+        return unacknowledged;
+    }
+
+    /**
+     * Restarts the prediction from where the server put the player after processing input {@code processedSequence},
+     * then replays the inputs after it. Acknowledgements older than one already reconciled are ignored, as they can
+     * arrive out of order. Returns whether the acknowledgement was used.
+     */
+    public boolean reconcile(int processedSequence, ClientPosition position, ClientVelocity velocity) {
+        if (processedSequence <= acknowledgedSequence || processedSequence >= nextSequence) {
+            return false;
+        }
+
+        acknowledgedSequence = processedSequence;
+        movement.set(position, velocity);
+
+        for (int sequence = processedSequence + 1; sequence < nextSequence; sequence++) {
+            movement.step(inputs[sequence & mask]);
+        }
+
+        return true;
+    }
+}
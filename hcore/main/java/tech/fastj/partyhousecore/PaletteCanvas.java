@@ -0,0 +1,305 @@
+package tech.fastj.partyhousecore;
+
+import java.util.Arrays;
+
+/**
+ * A layered canvas of palette indices, packed {@code 4} or {@code 8} bits to a pixel into one {@code long[]}.
+ * <p>
+ * Every layer is split into tiles like {@link DrawingState}, and each layer's tiles are numbered after the previous
+ * layer's, so {@link #getTileCount()} counts the tiles of every layer. Changes are tracked, and tiles encoded by
+ * {@link DrawingCodec}, per layer tile, so drawing on one layer never resends the others. Index {@code 0} is
+ * transparent.
+ */
+public class PaletteCanvas implements TiledCanvas {
+
+    private final int width;
+    private final int height;
+    private final int layerCount;
+    private final int bitsPerPixel;
+    private final int tileColumns;
+    private final int tilesPerLayer;
+    private final int tileLongs;
+    private final int rowLongs;
+    private final long[] pixels;
+    private final long[] tileVersions;
+
+    private long version;
+
+    public PaletteCanvas(int width, int height, int layerCount, int bitsPerPixel) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Canvas size must be positive, not " + width + "x" + height + ".");
+        }
+
+        if (layerCount <= 0) {
+            throw new IllegalArgumentException("Layer count must be positive, not " + layerCount + ".");
+        }
+
+        if (bitsPerPixel != 4 && bitsPerPixel != 8) {
+            throw new IllegalArgumentException("Palette indices must be 4 or 8 bits, not " + bitsPerPixel + ".");
+        }
+
+        this.width = width;
+        this.height = height;
+        this.layerCount = layerCount;
+        this.bitsPerPixel = bitsPerPixel;
+        tileColumns = (width + TileSize - 1) / TileSize;
+        tilesPerLayer = tileColumns * ((height + TileSize - 1) / TileSize);
+        tileLongs = TileSize * TileSize * bitsPerPixel / Long.SIZE;
+        rowLongs = TileSize * bitsPerPixel / Long.SIZE;
+
+        // DrawingCodec writes the tile count as an unsigned short, so a full snapshot can hold at most 0xFFFF tiles.
+        if ((long) layerCount * tilesPerLayer > 0xFFFF) {
+            throw new IllegalArgumentException("A canvas can have at most " + 0xFFFF + " tiles across all of its layers.");
+        }
+
+        pixels = new long[layerCount * tilesPerLayer * tileLongs];
+        tileVersions = new long[layerCount * tilesPerLayer];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getLayerCount() {
+        return layerCount;
+    }
+
+    public int getPaletteSize() {
+        return 1 << bitsPerPixel;
+    }
+
+    public int getTilesPerLayer() {
+        return tilesPerLayer;
+    }
+
+    @Override
+    public int getBitsPerPixel() {
+        return bitsPerPixel;
+    }
+
+    @Override
+    public int getTileLongs() {
+        return tileLongs;
+    }
+
+    @Override
+    public int getTileCount() {
+        return tileVersions.length;
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public long getTileVersion(int tile) {
+        return tileVersions[tile];
+    }
+
+    public int getPixel(int layer, int x, int y) {
+        checkBounds(layer, x, y);
+
+        int bit = pixelBit(x, y);
+        return (int) (pixels[tileIndex(layer, x, y) * tileLongs + (bit >>> 6)] >>> (bit & (Long.SIZE - 1))) & (getPaletteSize() - 1);
+    }
+
+    /** Sets the pixel at {@code (x, y)} of {@code layer} to {@code paletteIndex}, returning whether that changed it. */
+    public boolean setPixel(int layer, int x, int y, int paletteIndex) {
+        checkBounds(layer, x, y);
+        checkPaletteIndex(paletteIndex);
+
+        int tile = tileIndex(layer, x, y);
+        int bit = pixelBit(x, y);
+        int index = tile * tileLongs + (bit >>> 6);
+        long mask = (long) (getPaletteSize() - 1) << bit;
+        long updated = (pixels[index] & ~mask) | ((long) paletteIndex << bit);
+
+        if (updated == pixels[index]) {
+            return false;
+        }
+
+        pixels[index] = updated;
+        markChanged(tile);
+        return true;
+    }
+
+    /**
+     * Fills a rectangle of {@code layer} with {@code paletteIndex}, clipped to the canvas. Tile rows the rectangle fully
+     * covers are filled a long at a time.
+     */
+    public void fill(int layer, int minX, int minY, int fillWidth, int fillHeight, int paletteIndex) {
+        checkLayer(layer);
+        checkPaletteIndex(paletteIndex);
+
+        int startX = Math.max(0, minX);
+        int startY = Math.max(0, minY);
+        int endX = Math.min(width, minX + fillWidth);
+        int endY = Math.min(height, minY + fillHeight);
+
+        if (startX >= endX || startY >= endY) {
+            return;
+        }
+
+        long pattern = repeat(paletteIndex);
+
+        for (int tileY = startY / TileSize; tileY <= (endY - 1) / TileSize; tileY++) {
+            for (int tileX = startX / TileSize; tileX <= (endX - 1) / TileSize; tileX++) {
+                int tile = layer * tilesPerLayer + tileY * tileColumns + tileX;
+                int tileMinX = tileX * TileSize;
+                int tileMinY = tileY * TileSize;
+                int fromX = Math.max(startX, tileMinX) - tileMinX;
+                int toX = Math.min(endX, tileMinX + TileSize) - tileMinX;
+                int fromY = Math.max(startY, tileMinY) - tileMinY;
+                int toY = Math.min(endY, tileMinY + TileSize) - tileMinY;
+                boolean changed = false;
+
+                for (int row = fromY; row < toY; row++) {
+                    int rowStart = tile * tileLongs + row * rowLongs;
+
+                    if (fromX == 0 && toX == TileSize) {
+                        for (int i = rowStart; i < rowStart + rowLongs; i++) {
+                            changed |= pixels[i] != pattern;
+                            pixels[i] = pattern;
+                        }
+
+                        continue;
+                    }
+
+                    for (int column = fromX; column < toX; column++) {
+                        int bit = (row * TileSize + column) * bitsPerPixel;
+                        int index = tile * tileLongs + (bit >>> 6);
+                        long mask = (long) (getPaletteSize() - 1) << bit;
+                        long updated = (pixels[index] & ~mask) | ((long) paletteIndex << bit);
+
+                        changed |= updated != pixels[index];
+                        pixels[index] = updated;
+                    }
+                }
+
+                if (changed) {
+                    markChanged(tile);
+                }
+            }
+        }
+    }
+
+    public void fillLayer(int layer, int paletteIndex) {
+        fill(layer, 0, 0, width, height, paletteIndex);
+    }
+
+    public void clearLayer(int layer) {
+        fillLayer(layer, 0);
+    }
+
+    /** Copies every pixel of layer {@code from} over layer {@code to}. Only tiles that end up different count as changed. */
+    public void copyLayer(int from, int to) {
+        checkLayer(from);
+        checkLayer(to);
+
+        if (from == to) {
+            return;
+        }
+
+        for (int tile = 0; tile < tilesPerLayer; tile++) {
+            int source = (from * tilesPerLayer + tile) * tileLongs;
+            int target = to * tilesPerLayer + tile;
+
+            if (Arrays.equals(pixels, source, source + tileLongs, pixels, target * tileLongs, (target + 1) * tileLongs)) {
+                continue;
+            }
+
+            System.arraycopy(pixels, source, pixels, target * tileLongs, tileLongs);
+            markChanged(target);
+        }
+    }
+
+    /** Flattens the layers at {@code (x, y)}, returning the topmost non-transparent index, or {@code 0}. */
+    public int getVisiblePixel(int x, int y) {
+        for (int layer = layerCount - 1; layer >= 0; layer--) {
+            int paletteIndex = getPixel(layer, x, y);
+
+            if (paletteIndex != 0) {
+                return paletteIndex;
+            }
+        }
+
+        return 0;
+    }
+
+    @Override
+    public boolean isTileEmpty(int tile) {
+        int offset = tile * tileLongs;
+
+        for (int i = 0; i < tileLongs; i++) {
+            if (pixels[offset + i] != 0L) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public void copyTile(int tile, long[] destination, int offset) {
+        System.arraycopy(pixels, tile * tileLongs, destination, offset, tileLongs);
+    }
+
+    @Override
+    public void applyTile(int tile, long[] rows, long tileVersion) {
+        System.arraycopy(rows, 0, pixels, tile * tileLongs, tileLongs);
+        tileVersions[tile] = tileVersion;
+    }
+
+    @Override
+    public void advanceVersion(long newVersion) {
+        version = Math.max(version, newVersion);
+    }
+
+    private void markChanged(int tile) {
+        tileVersions[tile] = ++version;
+    }
+
+    /** {@code paletteIndex} repeated across a whole long. */
+    private long repeat(int paletteIndex) {
+        long pattern = 0L;
+
+        for (int bit = 0; bit < Long.SIZE; bit += bitsPerPixel) {
+            pattern |= (long) paletteIndex << bit;
+        }
+
+        return pattern;
+    }
+
+    private int tileIndex(int layer, int x, int y) {
+        return layer * tilesPerLayer + (y / TileSize) * tileColumns + (x / TileSize);
+    }
+
+    private int pixelBit(int x, int y) {
+        return ((y % TileSize) * TileSize + (x % TileSize)) * bitsPerPixel;
+    }
+
+    private void checkBounds(int layer, int x, int y) {
+        checkLayer(layer);
+
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            throw new IndexOutOfBoundsException("Pixel (" + x + ", " + y + ") is outside of this " + width + "x" + height + " canvas.");
+        }
+    }
+
+    private void checkLayer(int layer) {
+        if (layer < 0 || layer >= layerCount) {
+            throw new IndexOutOfBoundsException("Layer " + layer + " does not exist; this canvas has " + layerCount + " layers.");
+        }
+    }
+
+    private void checkPaletteIndex(int paletteIndex) {
+        if (paletteIndex < 0 || paletteIndex >= getPaletteSize()) {
+            throw new IllegalArgumentException("Palette index " + paletteIndex + " is outside of a " + getPaletteSize() + "-color palette.");
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package tech.fastj.partyhousecore;
+
+/**
+ * Moves a player one fixed step per input, the same way on the client that predicts it and the server that confirms
+ * it, so replaying the same inputs from the same state always lands in the same place.
+ * <p>
+ * An input is a set of {@link #Forward}, {@link #Backward}, {@link #TurnLeft} and {@link #TurnRight} bits. Like the
+ * keys they come from, forward wins over backward and left over right.
+ */
+public class PlayerMovement {
+
+    public static final byte Forward = 1;
+    public static final byte Backward = 1 << 1;
+    public static final byte TurnLeft = 1 << 2;
+    public static final byte TurnRight = 1 << 3;
+
+    private static final float StepSeconds = 1f / Info.FixedUpdateRate;
+
+    private float x;
+    private float y;
+    private float angle;
+
+    public PlayerMovement() {
+    }
+
+    public PlayerMovement(ClientPosition position, ClientVelocity velocity) {
+        set(position, velocity);
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public float getAngle() {
+        return angle;
+    }
+
+    public ClientPosition getPosition() {
+        return new ClientPosition(x, y);
+    }
+
+    public ClientVelocity getVelocity() {
+        return new ClientVelocity(angle, 0f);
+    }
+
+    public void set(float x, float y, float angle) {
+        this.x = x;
+        this.y = y;
+        this.angle = angle;
+    }
+
+    public void set(ClientPosition position, ClientVelocity velocity) {
+        set(position.x(), position.y(), velocity.angle());
+    }
+
+    /** Turns, then moves along the new heading, by one fixed step's worth of {@code input}. */
+    public void step(byte input) {
+        if ((input & TurnLeft) != 0) {
+            angle -= Info.PlayerTurnSpeed * StepSeconds;
+        } else if ((input & TurnRight) != 0) {
+            angle += Info.PlayerTurnSpeed * StepSeconds;
+        }
+
+        float distance;
+
+        if ((input & Forward) != 0) {
+            distance = -Info.PlayerSpeed * StepSeconds;
+        } else if ((input & Backward) != 0) {
+            distance = Info.PlayerSpeed * StepSeconds;
+        } else {
+            return;
+        }
+
+        // (0, distance) rotated by -angle, as Pointf#rotate would.
+        double radians = Math.toRadians(-angle);
+        x -= (float) (distance * Math.sin(radians));
+        y += (float) (distance * Math.cos(radians));
+    }
+}
@@ -0,0 +1,5 @@
+package tech.fastj.partyhousecore;
+
+import tech.fastj.network.serial.Message;
+
+public record PlayerSnapshot(ClientInfo clientInfo, ClientPosition clientPosition, ClientVelocity clientVelocity) implements Message {}
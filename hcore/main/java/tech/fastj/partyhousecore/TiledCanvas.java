@@ -0,0 +1,77 @@
+package tech.fastj.partyhousecore;
+
+import java.util.BitSet;
+
+/**
+ * A canvas split into {@link #TileSize}-pixel square tiles, whose pixels are packed row by row into longs.
+ * <p>
+ * Every change bumps the canvas version and stamps the changed tile with it, so a client only needs the tiles changed
+ * after the version it last acknowledged. {@link DrawingCodec} packs tiles of any canvas like this for sending.
+ */
+public interface TiledCanvas {
+
+    int TileSize = 32;
+
+    /** How many bits each pixel is packed into: 1, 2, 4 or 8, so that no pixel straddles two longs. */
+    int getBitsPerPixel();
+
+    int getTileCount();
+
+    long getVersion();
+
+    long getTileVersion(int tile);
+
+    boolean isTileEmpty(int tile);
+
+    /** Copies a tile's {@link #getTileLongs() packed rows} into {@code destination}, starting at {@code offset}. */
+    void copyTile(int tile, long[] destination, int offset);
+
+    /** Replaces a tile's packed rows with {@code rows}, as they were at {@code tileVersion}. */
+    void applyTile(int tile, long[] rows, long tileVersion);
+
+    /** Raises the canvas version to {@code newVersion}, if it is behind it. */
+    void advanceVersion(long newVersion);
+
+    default int getTileLongs() {
+        return TileSize * TileSize * getBitsPerPixel() / Long.SIZE;
+    }
+
+    /** The tiles that changed after {@code acknowledgedVersion}. */
+    default BitSet getDirtyTiles(long acknowledgedVersion) {
+        BitSet dirtyTiles = new BitSet(getTileCount());
+
+        for (int tile = 0; tile < getTileCount(); tile++) {
+            if (getTileVersion(tile) > acknowledgedVersion) {
+                dirtyTiles.set(tile);
+            }
+        }
+
+        return dirtyTiles;
+    }
+
+    /**
+     * Packs every tile that changed after {@code acknowledgedVersion}, along with the current version, for
+     * {@link #applyTiles(byte[])} on the other end.
+     */
+    default byte[] encodeTiles(long acknowledgedVersion) {
+        return DrawingCodec.encode(this, getDirtyTiles(acknowledgedVersion));
+    }
+
+    /** Packs the whole canvas for a client starting from a blank one, which only needs the tiles with something on them. */
+    default byte[] encodeSnapshot() {
+        BitSet drawnTiles = new BitSet(getTileCount());
+
+        for (int tile = 0; tile < getTileCount(); tile++) {
+            if (!isTileEmpty(tile)) {
+                drawnTiles.set(tile);
+            }
+        }
+
+        return DrawingCodec.encode(this, drawnTiles);
+    }
+
+    /** Writes tiles packed by {@link #encodeTiles(long)} or {@link #encodeSnapshot()} into this canvas, returning the version they were packed at. */
+    default long applyTiles(byte[] encodedTiles) {
+        return DrawingCodec.decode(encodedTiles, this);
+    }
+}
@@ -0,0 +1,169 @@
+package unittest;
+
+import tech.fastj.partyhousecore.ClientPosition;
+import tech.fastj.partyhousecore.ClientVelocity;
+import tech.fastj.partyhousecore.DeadReckoning;
+import tech.fastj.partyhousecore.Info;
+import tech.fastj.partyhousecore.PlayerMovement;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadReckoningTests {
+
+    private static final float PositionThreshold = 8f;
+    private static final float AngleThreshold = 5f;
+    private static final long MaxIntervalMillis = 1000L;
+
+    @Test
+    void checkShouldSend_firstStateIsAlwaysSent() {
+        DeadReckoning deadReckoning = deadReckoning();
+
+        assertTrue(deadReckoning.shouldSend(millis(0L), new ClientPosition(), new ClientVelocity()));
+        assertEquals(1L, deadReckoning.getSentCount());
+        assertEquals(0L, deadReckoning.getSuppressedCount());
+    }
+
+    @Test
+    void checkShouldSend_suppressesPredictableMovement() {
+        DeadReckoning deadReckoning = deadReckoning();
+        ClientPosition start = new ClientPosition(100f, 100f);
+        ClientVelocity velocity = new ClientVelocity(30f, 200f);
+
+        deadReckoning.shouldSend(millis(0L), start, velocity);
+
+        for (int i = 1; i <= 9; i++) {
+            ClientPosition position = DeadReckoning.extrapolate(start, velocity, i / 10f);
+            assertFalse(deadReckoning.shouldSend(millis(i * 100L), position, velocity), "Moving as predicted should not need sending.");
+        }
+
+        assertEquals(1L, deadReckoning.getSentCount());
+        assertEquals(9L, deadReckoning.getSuppressedCount(), "Every state that moved as predicted should count as suppressed.");
+    }
+
+    @Test
+    void checkShouldSend_unchangedStateIsNotCounted() {
+        DeadReckoning deadReckoning = deadReckoning();
+        ClientPosition position = new ClientPosition(10f, 10f);
+        ClientVelocity velocity = new ClientVelocity(45f, 0f);
+
+        deadReckoning.shouldSend(millis(0L), position, velocity);
+
+        assertFalse(deadReckoning.shouldSend(millis(100L), position, velocity));
+        assertEquals(1L, deadReckoning.getSentCount());
+        assertEquals(0L, deadReckoning.getSuppressedCount(), "A state that did not change was not suppressed.");
+    }
+
+    @Test
+    void checkShouldSend_driftPastPositionThresholdIsSent() {
+        DeadReckoning deadReckoning = deadReckoning();
+        ClientPosition start = new ClientPosition(0f, 0f);
+        ClientVelocity velocity = new ClientVelocity(90f, 100f);
+
+        deadReckoning.shouldSend(millis(0L), start, velocity);
+        ClientPosition predicted = DeadReckoning.extrapolate(start, velocity, 0.1f);
+
+        assertFalse(deadReckoning.shouldSend(millis(100L), new ClientPosition(predicted.x(), predicted.y() + PositionThreshold - 1f), velocity));
+        assertTrue(deadReckoning.shouldSend(millis(100L), new ClientPosition(predicted.x(), predicted.y() + PositionThreshold + 1f), velocity));
+    }
+
+    @Test
+    void checkShouldSend_turnPastAngleThresholdIsSent() {
+        DeadReckoning deadReckoning = deadReckoning();
+        ClientPosition position = new ClientPosition();
+
+        deadReckoning.shouldSend(millis(0L), position, new ClientVelocity(359f, 0f));
+
+        assertFalse(deadReckoning.shouldSend(millis(10L), position, new ClientVelocity(1f, 0f)), "359 and 1 degrees are only 2 degrees apart.");
+        assertFalse(deadReckoning.shouldSend(millis(20L), position, new ClientVelocity(359f - AngleThreshold, 0f)));
+        assertTrue(deadReckoning.shouldSend(millis(30L), position, new ClientVelocity(359f + AngleThreshold + 1f, 0f)));
+        assertTrue(deadReckoning.shouldSend(millis(40L), position, new ClientVelocity(180f, 0f)));
+        assertEquals(2L, deadReckoning.getSuppressedCount());
+        assertEquals(3L, deadReckoning.getSentCount());
+    }
+
+    @Test
+    void checkShouldSend_speedChangeIsSent() {
+        DeadReckoning deadReckoning = deadReckoning();
+        ClientPosition position = new ClientPosition();
+
+        deadReckoning.shouldSend(millis(0L), position, new ClientVelocity(0f, 0f));
+
+        assertTrue(deadReckoning.shouldSend(millis(10L), position, new ClientVelocity(0f, 0.5f)), "Starting to move should be sent.");
+        assertTrue(deadReckoning.shouldSend(millis(20L), position, new ClientVelocity(0f, 0f)), "Stopping should be sent.");
+    }
+
+    @Test
+    void checkShouldSend_maxIntervalForcesSend() {
+        DeadReckoning deadReckoning = deadReckoning();
+        ClientPosition position = new ClientPosition();
+        ClientVelocity velocity = new ClientVelocity();
+
+        deadReckoning.shouldSend(millis(0L), position, velocity);
+
+        assertFalse(deadReckoning.shouldSend(millis(MaxIntervalMillis - 1L), position, velocity));
+        assertTrue(deadReckoning.shouldSend(millis(MaxIntervalMillis), position, velocity), "States should be resent once the maximum interval passes.");
+        assertFalse(deadReckoning.shouldSend(millis(MaxIntervalMillis + 1L), position, velocity), "The interval should restart from the last send.");
+    }
+
+    @Test
+    void checkReset_forcesNextSend() {
+        DeadReckoning deadReckoning = deadReckoning();
+        ClientPosition position = new ClientPosition();
+        ClientVelocity velocity = new ClientVelocity();
+
+        deadReckoning.shouldSend(millis(0L), position, velocity);
+        deadReckoning.reset();
+
+        assertTrue(deadReckoning.shouldSend(millis(10L), position, velocity));
+        assertEquals(2L, deadReckoning.getSentCount());
+    }
+
+    @Test
+    void checkNew_rejectsInvalidThresholds() {
+        assertThrows(IllegalArgumentException.class, () -> new DeadReckoning(-1f, AngleThreshold, MaxIntervalMillis, TimeUnit.MILLISECONDS));
+        assertThrows(IllegalArgumentException.class, () -> new DeadReckoning(PositionThreshold, -1f, MaxIntervalMillis, TimeUnit.MILLISECONDS));
+        assertThrows(IllegalArgumentException.class, () -> new DeadReckoning(PositionThreshold, AngleThreshold, 0L, TimeUnit.MILLISECONDS));
+        assertThrows(IllegalArgumentException.class, () -> new DeadReckoning(PositionThreshold, AngleThreshold, -1L, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void checkExtrapolate_matchesPlayerMovement() {
+        for (float angle : new float[] {0f, 37f, 90f, 180f, 215f, 315f}) {
+            ClientPosition start = new ClientPosition(300f, 200f);
+            PlayerMovement movement = new PlayerMovement(start, new ClientVelocity(angle, 0f));
+
+            for (int step = 0; step < Info.FixedUpdateRate; step++) {
+                movement.step(PlayerMovement.Forward);
+            }
+
+            ClientPosition predicted = DeadReckoning.extrapolate(start, new ClientVelocity(angle, Info.PlayerSpeed), 1f);
+
+            assertEquals(movement.getX(), predicted.x(), 0.01f, "Receivers should predict the same x as moving forward at " + angle + " degrees.");
+            assertEquals(movement.getY(), predicted.y(), 0.01f, "Receivers should predict the same y as moving forward at " + angle + " degrees.");
+        }
+    }
+
+    @Test
+    void checkExtrapolate_stoppedPlayerStaysPut() {
+        ClientPosition position = new ClientPosition(5f, 6f);
+
+        assertSame(position, DeadReckoning.extrapolate(position, new ClientVelocity(90f, 0f), 1f));
+        assertSame(position, DeadReckoning.extrapolate(position, new ClientVelocity(90f, 100f), 0f));
+    }
+
+    private static DeadReckoning deadReckoning() {
+        return new DeadReckoning(PositionThreshold, AngleThreshold, MaxIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
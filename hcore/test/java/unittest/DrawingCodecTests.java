@@ -0,0 +1,157 @@
+package unittest;
+
+import tech.fastj.partyhousecore.DrawingCodec;
+import tech.fastj.partyhousecore.DrawingState;
+import tech.fastj.partyhousecore.TiledCanvas;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DrawingCodecTests {
+
+    /** Where the first tile's encoding sits: after the version, the tile count and the tile's index. */
+    private static final int FirstEncodingOffset = Long.BYTES + Short.BYTES + Short.BYTES;
+
+    @Test
+    void checkEncode_noisyTileUsesRaw() {
+        DrawingState canvas = new DrawingState(32, 32);
+        Random random = new Random(7L);
+
+        for (int y = 0; y < 32; y++) {
+            for (int x = 0; x < 32; x++) {
+                if (random.nextBoolean()) {
+                    canvas.setPixel(x, y);
+                }
+            }
+        }
+
+        byte[] encoded = canvas.encodeSnapshot();
+
+        assertEquals(DrawingCodec.Raw, encoded[FirstEncodingOffset]);
+        assertRoundTrips(canvas, encoded);
+    }
+
+    @Test
+    void checkEncode_fewPixelsUseSparse() {
+        DrawingState canvas = new DrawingState(32, 32);
+        canvas.setPixel(3, 4);
+        canvas.setPixel(20, 9);
+        canvas.setPixel(31, 31);
+
+        byte[] encoded = canvas.encodeSnapshot();
+
+        assertEquals(DrawingCodec.Sparse, encoded[FirstEncodingOffset]);
+        assertRoundTrips(canvas, encoded);
+    }
+
+    @Test
+    void checkEncode_solidAreasUseRunLength() {
+        DrawingState canvas = new DrawingState(32, 32);
+
+        // Rows 8 to 23 filled: runs of 256, 512 and 256 pixels, all needing the two-byte run length.
+        for (int y = 8; y < 24; y++) {
+            for (int x = 0; x < 32; x++) {
+                canvas.setPixel(x, y);
+            }
+        }
+
+        byte[] encoded = canvas.encodeSnapshot();
+
+        assertEquals(DrawingCodec.RunLength, encoded[FirstEncodingOffset]);
+        assertRoundTrips(canvas, encoded);
+    }
+
+    @Test
+    void checkEncode_runLengthAroundOneByteLimit() {
+        for (int runLength : new int[] {127, 128, 129, 255, 256, 1023}) {
+            DrawingState canvas = new DrawingState(32, 32);
+
+            for (int pixel = 0; pixel < runLength; pixel++) {
+                canvas.setPixel(pixel % 32, pixel / 32);
+            }
+
+            byte[] encoded = canvas.encodeSnapshot();
+
+            assertEquals(DrawingCodec.RunLength, encoded[FirstEncodingOffset], "A run of " + runLength + " pixels should be run-length encoded.");
+            assertRoundTrips(canvas, encoded);
+        }
+    }
+
+    @Test
+    void checkDecode_onlyWritesSentTiles() {
+        DrawingState canvas = new DrawingState(64, 64);
+        canvas.setPixel(0, 0);
+        long acknowledgedVersion = canvas.getVersion();
+        canvas.setPixel(40, 40);
+
+        DrawingState receiver = new DrawingState(64, 64);
+        long version = receiver.applyTiles(canvas.encodeTiles(acknowledgedVersion));
+
+        assertEquals(canvas.getVersion(), version);
+        assertEquals(canvas.getVersion(), receiver.getVersion());
+        assertTrue(receiver.getPixel(40, 40));
+        assertFalse(receiver.getPixel(0, 0), "Tiles from before the acknowledged version should not have been sent.");
+    }
+
+    @Test
+    void checkDecode_doesNotRollBackNewerTiles() {
+        DrawingState canvas = new DrawingState(32, 32);
+        canvas.setPixel(1, 1);
+        byte[] olderUpdate = canvas.encodeTiles(0L);
+        canvas.setPixel(2, 2);
+        byte[] newerUpdate = canvas.encodeTiles(0L);
+
+        DrawingState receiver = new DrawingState(32, 32);
+        receiver.applyTiles(newerUpdate);
+        long olderVersion = receiver.applyTiles(olderUpdate);
+
+        assertEquals(1L, olderVersion);
+        assertEquals(2L, receiver.getTileVersion(0), "A late update should not replace a tile the receiver has a newer version of.");
+        assertEquals(2L, receiver.getVersion(), "A late update should not lower the receiver's version.");
+        assertTrue(receiver.getPixel(2, 2));
+    }
+
+    @Test
+    void checkDecode_rejectsTilesOutsideCanvas() {
+        DrawingState canvas = new DrawingState(64, 64);
+        canvas.setPixel(40, 40);
+
+        byte[] encoded = canvas.encodeSnapshot();
+
+        assertThrows(IllegalArgumentException.class, () -> new DrawingState(32, 32).applyTiles(encoded));
+    }
+
+    @Test
+    void checkEncode_emptySelectionOnlyCarriesVersion() {
+        DrawingState canvas = new DrawingState(32, 32);
+        canvas.setPixel(0, 0);
+
+        byte[] encoded = DrawingCodec.encode(canvas, new BitSet());
+        DrawingState receiver = new DrawingState(32, 32);
+
+        assertEquals(Long.BYTES + Short.BYTES, encoded.length);
+        assertEquals(1L, receiver.applyTiles(encoded));
+        assertEquals(1L, receiver.getVersion());
+    }
+
+    private static void assertRoundTrips(TiledCanvas canvas, byte[] encoded) {
+        DrawingState receiver = new DrawingState(TiledCanvas.TileSize, TiledCanvas.TileSize);
+        receiver.applyTiles(encoded);
+
+        long[] expected = new long[canvas.getTileLongs()];
+        long[] actual = new long[receiver.getTileLongs()];
+        canvas.copyTile(0, expected, 0);
+        receiver.copyTile(0, actual, 0);
+
+        assertArrayEquals(expected, actual, "The decoded tile should match the encoded one.");
+        assertEquals(canvas.getVersion(), receiver.getVersion());
+    }
+}
@@ -0,0 +1,115 @@
+package unittest;
+
+import tech.fastj.partyhousecore.DrawingState;
+
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DrawingStateTests {
+
+    @Test
+    void checkSetPixel_coordinatesWithTheSameProductAreDistinct() {
+        DrawingState canvas = new DrawingState();
+
+        // 2 * 6 == 3 * 4 == 12: the old x * y addressing put these on the same pixel.
+        assertTrue(canvas.setPixel(2, 6));
+
+        assertTrue(canvas.getPixel(2, 6));
+        assertFalse(canvas.getPixel(3, 4), "A pixel with the same coordinate product should not be set.");
+        assertFalse(canvas.getPixel(6, 2), "Swapped coordinates should be a different pixel.");
+        assertTrue(canvas.setPixel(3, 4), "Setting the other pixel should change the canvas.");
+    }
+
+    @Test
+    void checkSetPixel_everyPixelIsIndependent() {
+        DrawingState canvas = new DrawingState(70, 40);
+
+        for (int y = 0; y < canvas.getHeight(); y += 3) {
+            for (int x = 0; x < canvas.getWidth(); x += 3) {
+                canvas.setPixel(x, y);
+            }
+        }
+
+        for (int y = 0; y < canvas.getHeight(); y++) {
+            for (int x = 0; x < canvas.getWidth(); x++) {
+                assertEquals(x % 3 == 0 && y % 3 == 0, canvas.getPixel(x, y), "Pixel (" + x + ", " + y + ") has the wrong value.");
+            }
+        }
+    }
+
+    @Test
+    void checkSetPixel_stampsOnlyTheChangedTile() {
+        DrawingState canvas = new DrawingState(64, 64);
+
+        assertTrue(canvas.setPixel(40, 5));
+        assertEquals(1L, canvas.getVersion());
+        assertEquals(1L, canvas.getTileVersion(1), "The tile drawn on should be stamped with the new version.");
+        assertEquals(0L, canvas.getTileVersion(0), "Other tiles should keep their version.");
+
+        assertFalse(canvas.setPixel(40, 5), "Setting a pixel that is already set should not change anything.");
+        assertEquals(1L, canvas.getVersion());
+
+        assertTrue(canvas.clearPixel(40, 5));
+        assertEquals(2L, canvas.getTileVersion(1));
+        assertFalse(canvas.clearPixel(40, 5));
+        assertEquals(2L, canvas.getVersion());
+    }
+
+    @Test
+    void checkClear_onlyStampsTilesThatHadPixels() {
+        DrawingState canvas = new DrawingState(64, 64);
+        canvas.setPixel(5, 40);
+
+        canvas.clear();
+
+        assertEquals(2L, canvas.getTileVersion(2));
+        assertEquals(0L, canvas.getTileVersion(0), "Tiles that were already empty should not count as changed.");
+        assertTrue(canvas.isTileEmpty(2));
+    }
+
+    @Test
+    void checkGetDirtyTiles_returnsTilesChangedAfterAcknowledgedVersion() {
+        DrawingState canvas = new DrawingState(64, 64);
+        canvas.setPixel(0, 0);
+        canvas.setPixel(40, 0);
+        long acknowledgedVersion = canvas.getVersion();
+        canvas.setPixel(40, 40);
+        canvas.setPixel(1, 0);
+
+        BitSet expected = new BitSet();
+        expected.set(0);
+        expected.set(3);
+
+        assertEquals(expected, canvas.getDirtyTiles(acknowledgedVersion));
+        assertEquals(3, canvas.getDirtyTiles(0L).cardinality(), "Every drawn-on tile should be dirty for a client with nothing.");
+        assertTrue(canvas.getDirtyTiles(canvas.getVersion()).isEmpty(), "A client with the latest version needs no tiles.");
+    }
+
+    @Test
+    void checkDrawTile_bumpsVersionOncePerTile() {
+        DrawingState canvas = new DrawingState(64, 64);
+        long[] rows = new long[DrawingState.TileLongs];
+        rows[0] = 0b1011L;
+        rows[DrawingState.TileLongs - 1] = Long.MIN_VALUE;
+
+        assertTrue(canvas.drawTile(3, rows));
+        assertEquals(1L, canvas.getVersion(), "Drawing many pixels of a tile at once should bump the version once.");
+        assertTrue(canvas.getPixel(32, 32));
+        assertTrue(canvas.getPixel(63, 63));
+        assertFalse(canvas.drawTile(3, rows), "Drawing pixels that are all set already should not change the tile.");
+    }
+
+    @Test
+    void checkGetPixel_rejectsOutOfBounds() {
+        DrawingState canvas = new DrawingState(10, 10);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> canvas.getPixel(10, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> canvas.setPixel(0, -1));
+    }
+}
@@ -0,0 +1,177 @@
+package unittest;
+
+import tech.fastj.network.rpc.ConnectionQuality;
+import tech.fastj.partyhousecore.ClientPosition;
+import tech.fastj.partyhousecore.ClientVelocity;
+import tech.fastj.partyhousecore.Info;
+import tech.fastj.partyhousecore.InterpolationBuffer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InterpolationBufferTests {
+
+    /** The delay a buffer starts with, before any round trip has been measured: two snapshot intervals. */
+    private static final long StartingDelayMillis = 2 * 1000L / Info.SnapshotTickRate;
+    private static final long SnapshotIntervalMillis = 1000L / Info.SnapshotTickRate;
+
+    @Test
+    void checkSample_interpolatesHalfwayBetweenStates() {
+        InterpolationBuffer buffer = new InterpolationBuffer(new StubConnectionQuality());
+        buffer.add(millis(0L), new ClientPosition(0f, 0f), new ClientVelocity());
+        buffer.add(millis(100L), new ClientPosition(10f, 20f), new ClientVelocity());
+
+        assertTrue(buffer.sample(millis(50L + StartingDelayMillis)));
+        assertEquals(5f, buffer.getX(), 0.001f);
+        assertEquals(10f, buffer.getY(), 0.001f);
+    }
+
+    @Test
+    void checkSample_blendsAnglesTheShortWayAround() {
+        InterpolationBuffer buffer = new InterpolationBuffer(new StubConnectionQuality());
+        buffer.add(millis(0L), new ClientPosition(), new ClientVelocity(350f, 0f));
+        buffer.add(millis(100L), new ClientPosition(), new ClientVelocity(10f, 0f));
+
+        buffer.sample(millis(50L + StartingDelayMillis));
+        assertEquals(0f, buffer.getAngle() % 360f, 0.001f, "Turning from 350 to 10 degrees should pass through 0, not 180.");
+
+        buffer.sample(millis(25L + StartingDelayMillis));
+        assertEquals(355f, buffer.getAngle(), 0.001f);
+    }
+
+    @Test
+    void checkSample_extrapolatesStoppedStateForLimitedTime() {
+        InterpolationBuffer buffer = new InterpolationBuffer(new StubConnectionQuality());
+        buffer.add(millis(0L), new ClientPosition(0f, 0f), new ClientVelocity());
+        buffer.add(millis(100L), new ClientPosition(10f, 0f), new ClientVelocity());
+
+        buffer.sample(millis(150L + StartingDelayMillis));
+        assertEquals(15f, buffer.getX(), 0.001f, "The player should carry on along the movement between their last two states.");
+
+        buffer.sample(millis(100L + Info.MaxExtrapolationMillis + StartingDelayMillis));
+        assertEquals(20f, buffer.getX(), 0.001f);
+
+        buffer.sample(millis(100L + 5 * Info.MaxExtrapolationMillis + StartingDelayMillis));
+        assertEquals(20f, buffer.getX(), 0.001f, "Extrapolation should stop after the maximum extrapolation time.");
+    }
+
+    @Test
+    void checkSample_deadReckonsMovingStateForLimitedTime() {
+        InterpolationBuffer buffer = new InterpolationBuffer(new StubConnectionQuality());
+        buffer.add(millis(0L), new ClientPosition(0f, 0f), new ClientVelocity(90f, 100f));
+
+        buffer.sample(millis(500L + StartingDelayMillis));
+        assertEquals(-50f, buffer.getX(), 0.001f, "A moving state should be carried on at its own speed and heading.");
+        assertEquals(0f, buffer.getY(), 0.001f);
+
+        buffer.sample(millis(5 * Info.MaxUpdateIntervalMillis + StartingDelayMillis));
+        assertEquals(-100f, buffer.getX(), 0.001f, "Dead reckoning should stop after the maximum update interval.");
+    }
+
+    @Test
+    void checkAdd_fillsLongSilenceWithPredictedState() {
+        InterpolationBuffer buffer = new InterpolationBuffer(new StubConnectionQuality());
+        long silenceMillis = 1000L;
+        buffer.add(millis(0L), new ClientPosition(0f, 0f), new ClientVelocity(90f, 100f));
+        buffer.add(millis(silenceMillis), new ClientPosition(500f, 500f), new ClientVelocity());
+
+        assertTrue(silenceMillis > Info.MaxInterpolationDelayMillis);
+
+        // The filler state is where the first state's prediction had got to, one snapshot interval before the second.
+        long gapEndMillis = silenceMillis - SnapshotIntervalMillis;
+        buffer.sample(millis(gapEndMillis + StartingDelayMillis));
+        assertEquals(-gapEndMillis / 10f, buffer.getX(), 0.001f);
+        assertEquals(0f, buffer.getY(), 0.001f);
+
+        buffer.sample(millis(gapEndMillis + SnapshotIntervalMillis / 2 + StartingDelayMillis));
+        assertEquals((500f - gapEndMillis / 10f) / 2f, buffer.getX(), 0.001f, "The player should move from the prediction, not glide across the silence.");
+        assertEquals(250f, buffer.getY(), 0.001f);
+    }
+
+    @Test
+    void checkSample_delayMovesTowardsSnapshotIntervalPlusRttVariance() {
+        StubConnectionQuality connectionQuality = new StubConnectionQuality();
+        InterpolationBuffer buffer = new InterpolationBuffer(connectionQuality);
+        buffer.add(millis(0L), new ClientPosition(), new ClientVelocity());
+
+        buffer.sample(millis(0L));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(StartingDelayMillis), buffer.getDelayNanos());
+
+        connectionQuality.setRttVarianceMillis(10L);
+        buffer.sample(millis(2000L));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(SnapshotIntervalMillis + 3 * 10L), buffer.getDelayNanos());
+
+        connectionQuality.setRttVarianceMillis(1000L);
+        buffer.sample(millis(4000L));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(Info.MaxInterpolationDelayMillis), buffer.getDelayNanos(), "The delay should be capped at its maximum.");
+
+        connectionQuality.setRttVarianceMillis(0L);
+        buffer.sample(millis(6000L));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(Info.MinInterpolationDelayMillis), buffer.getDelayNanos(), "The delay should be kept to at least its minimum.");
+    }
+
+    @Test
+    void checkSample_renderTimeNeverGoesBackwards() {
+        StubConnectionQuality connectionQuality = new StubConnectionQuality();
+        InterpolationBuffer buffer = new InterpolationBuffer(connectionQuality);
+        buffer.add(millis(0L), new ClientPosition(), new ClientVelocity());
+        connectionQuality.setRttVarianceMillis(0L);
+
+        long now = 0L;
+        long lastRenderTime = Long.MIN_VALUE;
+
+        for (int frame = 0; frame < 600; frame++) {
+            if (frame == 100) {
+                connectionQuality.setRttVarianceMillis(1000L);
+            } else if (frame == 400) {
+                connectionQuality.setRttVarianceMillis(0L);
+            }
+
+            // Mostly 60 frames a second, with the odd long hitch.
+            now += frame % 150 == 149 ? millis(700L) : millis(16L);
+            buffer.sample(now);
+
+            long renderTime = now - buffer.getDelayNanos();
+            assertTrue(renderTime >= lastRenderTime, "Render time went backwards at frame " + frame + ".");
+            lastRenderTime = renderTime;
+        }
+    }
+
+    @Test
+    void checkNew_rejectsCapacityThatIsNotPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new InterpolationBuffer(12, new StubConnectionQuality()));
+        assertThrows(IllegalArgumentException.class, () -> new InterpolationBuffer(1, new StubConnectionQuality()));
+        assertThrows(IllegalArgumentException.class, () -> new InterpolationBuffer(0, new StubConnectionQuality()));
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /** A connection whose round-trip time variance is whatever the test sets, with no variance measured until then. */
+    private static class StubConnectionQuality extends ConnectionQuality {
+
+        private boolean hasRttSample;
+        private long rttVarianceNanos;
+
+        void setRttVarianceMillis(long rttVarianceMillis) {
+            hasRttSample = true;
+            rttVarianceNanos = TimeUnit.MILLISECONDS.toNanos(rttVarianceMillis);
+        }
+
+        @Override
+        public synchronized boolean hasRttSample() {
+            return hasRttSample;
+        }
+
+        @Override
+        public synchronized long getRttVarianceNanos() {
+            return rttVarianceNanos;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package unittest;
+
+import tech.fastj.partyhousecore.ClientPosition;
+import tech.fastj.partyhousecore.ClientVelocity;
+import tech.fastj.partyhousecore.MovementPredictor;
+import tech.fastj.partyhousecore.PlayerMovement;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MovementPredictorTests {
+
+    private static final byte ForwardLeft = PlayerMovement.Forward | PlayerMovement.TurnLeft;
+    private static final byte BackwardRight = PlayerMovement.Backward | PlayerMovement.TurnRight;
+
+    @Test
+    void checkRecord_appliesInputsStraightAway() {
+        MovementPredictor predictor = new MovementPredictor(new ClientPosition(100f, 100f), new ClientVelocity());
+
+        assertEquals(0, predictor.record(PlayerMovement.Forward));
+        assertEquals(1, predictor.record(ForwardLeft));
+
+        PlayerMovement expected = movementFrom(100f, 100f, 0f, PlayerMovement.Forward, ForwardLeft);
+
+        assertMovementEquals(expected, predictor.getMovement());
+        assertEquals(2, predictor.getUnacknowledgedCount());
+    }
+
+    @Test
+    void checkReconcile_correctPredictionStaysPut() {
+        MovementPredictor predictor = new MovementPredictor(new ClientPosition(), new ClientVelocity());
+        PlayerMovement server = new PlayerMovement(new ClientPosition(), new ClientVelocity());
+        byte[] inputs = {PlayerMovement.Forward, ForwardLeft, ForwardLeft, BackwardRight, PlayerMovement.TurnRight};
+
+        for (byte input : inputs) {
+            predictor.record(input);
+        }
+
+        server.step(inputs[0]);
+        server.step(inputs[1]);
+
+        float x = predictor.getMovement().getX();
+        float y = predictor.getMovement().getY();
+        float angle = predictor.getMovement().getAngle();
+
+        assertTrue(predictor.reconcile(1, server.getPosition(), server.getVelocity()));
+        assertEquals(x, predictor.getMovement().getX(), "Replaying the same inputs from the server's state should land in the same place.");
+        assertEquals(y, predictor.getMovement().getY());
+        assertEquals(angle, predictor.getMovement().getAngle());
+        assertEquals(3, predictor.getUnacknowledgedCount());
+    }
+
+    @Test
+    void checkReconcile_replaysPendingInputsFromServerState() {
+        MovementPredictor predictor = new MovementPredictor(new ClientPosition(), new ClientVelocity());
+        predictor.record(PlayerMovement.Forward);
+        predictor.record(ForwardLeft);
+        predictor.record(BackwardRight);
+
+        // The server disagrees about where the first input left the player, e.g. after being pushed back by a wall.
+        assertTrue(predictor.reconcile(0, new ClientPosition(50f, 60f), new ClientVelocity(90f, 0f)));
+
+        assertMovementEquals(movementFrom(50f, 60f, 90f, ForwardLeft, BackwardRight), predictor.getMovement());
+        assertEquals(0, predictor.getAcknowledgedSequence());
+    }
+
+    @Test
+    void checkReconcile_ignoresStaleAndFutureAcknowledgements() {
+        MovementPredictor predictor = new MovementPredictor(new ClientPosition(), new ClientVelocity());
+
+        for (int i = 0; i < 4; i++) {
+            predictor.record(PlayerMovement.Forward);
+        }
+
+        assertTrue(predictor.reconcile(2, new ClientPosition(1f, 1f), new ClientVelocity()));
+        assertFalse(predictor.reconcile(1, new ClientPosition(9f, 9f), new ClientVelocity()), "An acknowledgement arriving out of order should be ignored.");
+        assertFalse(predictor.reconcile(2, new ClientPosition(9f, 9f), new ClientVelocity()), "A repeated acknowledgement should be ignored.");
+        assertFalse(predictor.reconcile(4, new ClientPosition(9f, 9f), new ClientVelocity()), "Inputs that were never sent cannot be acknowledged.");
+
+        assertMovementEquals(movementFrom(1f, 1f, 0f, PlayerMovement.Forward), predictor.getMovement());
+    }
+
+    @Test
+    void checkGetUnacknowledgedInputs_returnsNewestOldestFirst() {
+        MovementPredictor predictor = new MovementPredictor(new ClientPosition(), new ClientVelocity());
+
+        for (byte input = 1; input <= 6; input++) {
+            predictor.record(input);
+        }
+
+        predictor.reconcile(1, new ClientPosition(), new ClientVelocity());
+
+        assertArrayEquals(new byte[] {3, 4, 5, 6}, predictor.getUnacknowledgedInputs(10));
+        assertArrayEquals(new byte[] {5, 6}, predictor.getUnacknowledgedInputs(2), "Only the newest inputs should be sent when capped.");
+    }
+
+    @Test
+    void checkRecord_overflowDropsOldestInputs() {
+        MovementPredictor predictor = new MovementPredictor(4, new ClientPosition(), new ClientVelocity());
+
+        for (byte input = 1; input <= 6; input++) {
+            predictor.record(input);
+        }
+
+        assertEquals(4, predictor.getUnacknowledgedCount(), "The buffer should never hold more inputs than its capacity.");
+        assertEquals(1, predictor.getAcknowledgedSequence(), "Overwritten inputs should no longer be waited on.");
+        assertArrayEquals(new byte[] {3, 4, 5, 6}, predictor.getUnacknowledgedInputs(Integer.MAX_VALUE));
+
+        assertFalse(predictor.reconcile(1, new ClientPosition(), new ClientVelocity()), "Inputs that were overwritten cannot be replayed after.");
+        assertTrue(predictor.reconcile(3, new ClientPosition(20f, 30f), new ClientVelocity(45f, 0f)));
+        assertMovementEquals(movementFrom(20f, 30f, 45f, (byte) 5, (byte) 6), predictor.getMovement());
+    }
+
+    @Test
+    void checkNew_rejectsCapacityThatIsNotPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new MovementPredictor(6, new ClientPosition(), new ClientVelocity()));
+        assertThrows(IllegalArgumentException.class, () -> new MovementPredictor(0, new ClientPosition(), new ClientVelocity()));
+    }
+
+    private static PlayerMovement movementFrom(float x, float y, float angle, byte... inputs) {
+        PlayerMovement movement = new PlayerMovement();
+        movement.set(x, y, angle);
+
+        for (byte input : inputs) {
+            movement.step(input);
+        }
+
+        return movement;
+    }
+
+    private static void assertMovementEquals(PlayerMovement expected, PlayerMovement actual) {
+        assertEquals(expected.getX(), actual.getX(), 0.0001f);
+        assertEquals(expected.getY(), actual.getY(), 0.0001f);
+        assertEquals(expected.getAngle(), actual.getAngle(), 0.0001f);
+    }
+}
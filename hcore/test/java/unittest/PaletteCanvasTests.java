@@ -0,0 +1,157 @@
+package unittest;
+
+import tech.fastj.partyhousecore.PaletteCanvas;
+import tech.fastj.partyhousecore.TiledCanvas;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaletteCanvasTests {
+
+    @Test
+    void checkNew_rejectsMoreTilesThanTheCodecCanCount() {
+        assertDoesNotThrow(() -> new PaletteCanvas(TiledCanvas.TileSize * 0xFFFF, TiledCanvas.TileSize, 1, 4));
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new PaletteCanvas(TiledCanvas.TileSize * 0x8000, TiledCanvas.TileSize, 2, 4),
+            "65536 tiles would wrap the codec's tile count to 0."
+        );
+    }
+
+    @Test
+    void checkFill_stampsOnlyChangedTiles() {
+        PaletteCanvas canvas = new PaletteCanvas(64, 64, 2, 4);
+
+        // Spans tiles 0 and 1 of layer 0, partly covering both.
+        canvas.fill(0, 10, 10, 40, 5, 3);
+
+        assertEquals(2L, canvas.getVersion());
+        assertTrue(canvas.getTileVersion(0) > 0L);
+        assertTrue(canvas.getTileVersion(1) > 0L);
+        assertEquals(0L, canvas.getTileVersion(2), "Tiles outside the rectangle should keep their version.");
+        assertEquals(0L, canvas.getTileVersion(canvas.getTilesPerLayer()), "Other layers should keep their version.");
+        assertEquals(3, canvas.getPixel(0, 10, 10));
+        assertEquals(3, canvas.getPixel(0, 49, 14));
+        assertEquals(0, canvas.getPixel(0, 50, 14));
+        assertEquals(0, canvas.getPixel(0, 10, 15));
+
+        canvas.fill(0, 10, 10, 40, 5, 3);
+        assertEquals(2L, canvas.getVersion(), "Filling pixels with the index they already have should not change anything.");
+
+        canvas.fill(0, 40, 0, 5, 64, 3);
+        assertEquals(4L, canvas.getVersion(), "Only tiles 1 and 3 should have changed.");
+        assertEquals(3L, canvas.getTileVersion(1));
+        assertEquals(4L, canvas.getTileVersion(3));
+        assertEquals(1L, canvas.getTileVersion(0));
+    }
+
+    @Test
+    void checkFill_wholeTileRowsMatchPixelByPixel() {
+        PaletteCanvas canvas = new PaletteCanvas(100, 70, 1, 8);
+
+        canvas.fill(0, -5, 3, 200, 40, 0xAB);
+
+        for (int y = 0; y < canvas.getHeight(); y++) {
+            for (int x = 0; x < canvas.getWidth(); x++) {
+                assertEquals(y >= 3 && y < 43 ? 0xAB : 0, canvas.getPixel(0, x, y), "Pixel (" + x + ", " + y + ") has the wrong index.");
+            }
+        }
+
+        canvas.fill(0, 200, 200, 10, 10, 1);
+        assertEquals(8L, canvas.getVersion(), "A rectangle outside the canvas should not change anything.");
+    }
+
+    @Test
+    void checkCopyLayer_stampsOnlyTilesThatDiffer() {
+        PaletteCanvas canvas = new PaletteCanvas(64, 64, 2, 4);
+        canvas.setPixel(0, 5, 5, 7);
+        canvas.setPixel(0, 40, 40, 2);
+        canvas.setPixel(1, 40, 40, 2);
+        long version = canvas.getVersion();
+        long target = canvas.getTilesPerLayer();
+
+        canvas.copyLayer(0, 1);
+
+        assertEquals(version + 1, canvas.getVersion(), "Only the one tile that differed should have been copied.");
+        assertEquals(version + 1, canvas.getTileVersion((int) target));
+        assertEquals(version, canvas.getTileVersion((int) target + 3), "A tile that already matched should keep its version.");
+        assertEquals(0L, canvas.getTileVersion((int) target + 1));
+        assertEquals(7, canvas.getPixel(1, 5, 5));
+
+        canvas.copyLayer(0, 1);
+        assertEquals(version + 1, canvas.getVersion(), "Copying identical layers should not change anything.");
+    }
+
+    @Test
+    void checkGetVisiblePixel_returnsTopmostOpaqueIndex() {
+        PaletteCanvas canvas = new PaletteCanvas(32, 32, 3, 4);
+        canvas.setPixel(0, 1, 1, 4);
+        canvas.setPixel(1, 1, 1, 9);
+        canvas.setPixel(0, 2, 2, 4);
+
+        assertEquals(9, canvas.getVisiblePixel(1, 1));
+        assertEquals(4, canvas.getVisiblePixel(2, 2));
+        assertEquals(0, canvas.getVisiblePixel(3, 3));
+    }
+
+    @Test
+    void checkCodec_roundTripsMultiBitCanvases() {
+        for (int bitsPerPixel : new int[] {4, 8}) {
+            PaletteCanvas canvas = new PaletteCanvas(70, 40, 3, bitsPerPixel);
+            Random random = new Random(bitsPerPixel);
+
+            // Noise on layer 0, a few scattered pixels on layer 1 and solid areas on layer 2 exercise every encoding.
+            for (int y = 0; y < canvas.getHeight(); y++) {
+                for (int x = 0; x < canvas.getWidth(); x++) {
+                    canvas.setPixel(0, x, y, random.nextInt(canvas.getPaletteSize()));
+                }
+            }
+
+            for (int i = 0; i < 20; i++) {
+                canvas.setPixel(1, random.nextInt(canvas.getWidth()), random.nextInt(canvas.getHeight()), canvas.getPaletteSize() - 1);
+            }
+
+            canvas.fill(2, 0, 0, 50, 20, 1);
+            canvas.fill(2, 20, 10, 50, 30, canvas.getPaletteSize() - 1);
+
+            PaletteCanvas receiver = new PaletteCanvas(70, 40, 3, bitsPerPixel);
+
+            assertEquals(canvas.getVersion(), receiver.applyTiles(canvas.encodeSnapshot()));
+            assertEquals(canvas.getVersion(), receiver.getVersion());
+
+            for (int layer = 0; layer < canvas.getLayerCount(); layer++) {
+                for (int y = 0; y < canvas.getHeight(); y++) {
+                    for (int x = 0; x < canvas.getWidth(); x++) {
+                        assertEquals(
+                            canvas.getPixel(layer, x, y),
+                            receiver.getPixel(layer, x, y),
+                            bitsPerPixel + "-bit pixel (" + x + ", " + y + ") of layer " + layer + " differs."
+                        );
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void checkCodec_sendsOnlyTheDrawnLayer() {
+        PaletteCanvas canvas = new PaletteCanvas(64, 64, 2, 8);
+        canvas.fillLayer(0, 5);
+        long acknowledgedVersion = canvas.getVersion();
+        canvas.setPixel(1, 0, 0, 6);
+
+        PaletteCanvas receiver = new PaletteCanvas(64, 64, 2, 8);
+        receiver.applyTiles(canvas.encodeTiles(acknowledgedVersion));
+
+        assertEquals(6, receiver.getPixel(1, 0, 0));
+        assertEquals(0, receiver.getPixel(0, 0, 0), "Tiles on the other layer were acknowledged and should not be sent again.");
+        assertFalse(receiver.getDirtyTiles(0L).get(0));
+    }
+}
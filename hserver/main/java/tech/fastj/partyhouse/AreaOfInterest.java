@@ -0,0 +1,113 @@
+package tech.fastj.partyhouse;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import tech.fastj.partyhousecore.ClientPosition;
+import tech.fastj.partyhousecore.PositionState;
+
+/**
+ * Tracks which players are close enough to each other to need each other's updates.
+ * <p>
+ * Positions are bucketed into a {@link SpatialHash} whose cells are as wide as the exit radius, so every candidate lies
+ * in the 3x3 block of cells around a player. Players come into interest within {@code radius} and only drop out past
+ * {@code radius + hysteresis}, so players near the edge don't flicker in and out. Interest is symmetric.
+ */
+public class AreaOfInterest {
+
+    private final float enterRadiusSquared;
+    private final float exitRadius;
+    private final float exitRadiusSquared;
+
+    private final Map<UUID, ClientPosition> positions;
+    private final SpatialHash<UUID> grid;
+    private Map<UUID, Set<UUID>> interests;
+
+    public AreaOfInterest(float radius, float hysteresis) {
+        if (radius <= 0f || hysteresis < 0f) {
+            throw new IllegalArgumentException("Radius must be positive and hysteresis non-negative, not " + radius + " and " + hysteresis + ".");
+        }
+
+        this.enterRadiusSquared = radius * radius;
+        this.exitRadius = radius + hysteresis;
+        this.exitRadiusSquared = exitRadius * exitRadius;
+
+        positions = new HashMap<>();
+        grid = new SpatialHash<>(exitRadius);
+        interests = new HashMap<>();
+    }
+
+    /** Re-buckets every player and recomputes who is interested in whom. Call once per tick. */
+    public synchronized void update(Map<UUID, PositionState> positionStates) {
+        positions.clear();
+        grid.clear();
+
+        for (Map.Entry<UUID, PositionState> positionState : positionStates.entrySet()) {
+            ClientPosition position = positionState.getValue().getClientPosition();
+
+            if (position == null) {
+                continue;
+            }
+
+            positions.put(positionState.getKey(), position);
+            grid.insert(positionState.getKey(), position.x(), position.y());
+        }
+
+        Map<UUID, Set<UUID>> newInterests = new HashMap<>();
+
+        for (Map.Entry<UUID, ClientPosition> player : positions.entrySet()) {
+            UUID playerId = player.getKey();
+            ClientPosition position = player.getValue();
+            Set<UUID> previousInterest = interests.getOrDefault(playerId, Set.of());
+            Set<UUID> interest = new HashSet<>();
+
+            grid.query(
+                position.x() - exitRadius, position.y() - exitRadius, position.x() + exitRadius, position.y() + exitRadius,
+                otherId -> {
+                    if (otherId.equals(playerId)) {
+                        return;
+                    }
+
+                    float distanceSquared = distanceSquared(position, positions.get(otherId));
+                    float radiusSquared = previousInterest.contains(otherId) ? exitRadiusSquared : enterRadiusSquared;
+
+                    if (distanceSquared <= radiusSquared) {
+                        interest.add(otherId);
+                    }
+                }
+            );
+
+            newInterests.put(playerId, interest);
+        }
+
+        interests = newInterests;
+    }
+
+    public synchronized boolean isInterested(UUID observerId, UUID playerId) {
+        Set<UUID> interest = interests.get(observerId);
+        return interest != null && interest.contains(playerId);
+    }
+
+    public synchronized Set<UUID> getInterest(UUID observerId) {
+        return Set.copyOf(interests.getOrDefault(observerId, Set.of()));
+    }
+
+    public synchronized void remove(UUID playerId) {
+        positions.remove(playerId);
+        interests.remove(playerId);
+
+        for (Set<UUID> interest : interests.values()) {
+            interest.remove(playerId);
+        }
+    }
+
+    private static float distanceSquared(ClientPosition a, ClientPosition b) {
+        float dx = a.x() - b.x();
+        float dy = a.y() - b.y();
+
+        return dx * dx + dy * dy;
+    }
+}
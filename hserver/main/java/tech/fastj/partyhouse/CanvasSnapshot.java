@@ -0,0 +1,40 @@
+package tech.fastj.partyhouse;
+
+import java.util.Arrays;
+
+import tech.fastj.partyhousecore.TiledCanvas;
+
+/** A canvas snapshot, encoded once and split into chunks small enough to stream alongside other traffic. */
+public class CanvasSnapshot {
+
+    private final long version;
+    private final byte[][] chunks;
+
+    private CanvasSnapshot(long version, byte[][] chunks) {
+        this.version = version;
+        this.chunks = chunks;
+    }
+
+    public static CanvasSnapshot of(TiledCanvas canvas, int chunkSize) {
+        byte[] snapshot = canvas.encodeSnapshot();
+        byte[][] chunks = new byte[Math.max(1, (snapshot.length + chunkSize - 1) / chunkSize)][];
+
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = Arrays.copyOfRange(snapshot, i * chunkSize, Math.min(snapshot.length, (i + 1) * chunkSize));
+        }
+
+        return new CanvasSnapshot(canvas.getVersion(), chunks);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getChunkCount() {
+        return chunks.length;
+    }
+
+    public byte[] getChunk(int index) {
+        return chunks[index];
+    }
+}
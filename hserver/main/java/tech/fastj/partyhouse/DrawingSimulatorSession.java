@@ -1,9 +1,11 @@
 package tech.fastj.partyhouse;
 
 import tech.fastj.network.rpc.ServerClient;
+import tech.fastj.network.rpc.TimingWheel;
 import tech.fastj.network.rpc.message.CommandTarget;
 import tech.fastj.network.rpc.message.NetworkType;
 import tech.fastj.network.sessions.Session;
+import tech.fastj.network.sessions.SessionTransition;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -11,8 +13,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -25,18 +25,119 @@ public class DrawingSimulatorSession extends Session {
 
     private final Map<UUID, PositionState> clientPositions;
     private final Map<UUID, PointsState> clientPoints;
-    private ScheduledExecutorService survivorPoints;
+    private TimingWheel.Timeout survivorPoints;
+    private final DrawingState canvas;
+    private final Map<UUID, Long> acknowledgedCanvasVersions;
+    private final Map<UUID, SnapshotStream> snapshotStreams;
+    private CanvasSnapshot canvasSnapshot;
+    private final StrokeRasterizer strokeRasterizer;
 
     public DrawingSimulatorSession(GameLobby lobby) {
         super(lobby, SessionNames.DrawingSimulator, new ArrayList<>());
         clientPositions = new HashMap<>();
         clientPoints = new HashMap<>();
+        canvas = new DrawingState();
+        acknowledgedCanvasVersions = new HashMap<>();
+        snapshotStreams = new HashMap<>();
+        strokeRasterizer = new StrokeRasterizer();
+        setOnReplicationTick(session -> {
+            strokeRasterizer.rasterize(canvas);
+            sendCanvasUpdates();
+        });
 
         setOnClientJoin(this::addNewClientStates);
         setOnClientLeave(this::removeClientStates);
         addCommand(Commands.UpdateClientGameState, ClientInfo.class, ClientPosition.class, ClientVelocity.class, this::updatePositionState);
         addCommand(Commands.SnowballThrow, SnowballInfo.class, this::notifySnowballThrow);
         addCommand(Commands.SnowballHit, ClientInfo.class, SnowballInfo.class, this::notifySnowballHit);
+        addCommand(Commands.DrawStroke, Integer.class, short[].class, this::receiveStroke);
+        addCommand(Commands.AcknowledgeCanvas, Long.class, this::acknowledgeCanvas);
+    }
+
+    public DrawingState getCanvas() {
+        return canvas;
+    }
+
+    /**
+     * Sends each client the canvas tiles that changed since the version it last acknowledged. Clients still being
+     * streamed a snapshot are caught up once the snapshot is done.
+     */
+    private void sendCanvasUpdates() {
+        streamCanvasSnapshots();
+
+        long canvasVersion = canvas.getVersion();
+        // Clients caught up to the same version get the same update.
+        Map<Long, byte[]> updates = new HashMap<>();
+
+        for (ServerClient client : getClients()) {
+            Long acknowledgedVersion = acknowledgedCanvasVersions.get(client.getClientId());
+
+            if (acknowledgedVersion == null || acknowledgedVersion >= canvasVersion) {
+                continue;
+            }
+
+            byte[] update = updates.computeIfAbsent(acknowledgedVersion, canvas::encodeTiles);
+
+            try {
+                client.sendCommand(NetworkType.UDP, CommandTarget.Client, Commands.CanvasUpdate, update);
+            } catch (IOException exception) {
+                DrawingSimulatorSessionLogger.warn("error while trying to send canvas update to {}: {}", client.getClientId(), exception.getMessage());
+            }
+        }
+    }
+
+    /** Queues a client's stroke, to be drawn along with every other stroke received this tick. */
+    private void receiveStroke(ServerClient client, Integer width, short[] points) {
+        if (width <= 0 || width > Info.MaxBrushWidth || points.length < 2 || points.length % 2 != 0 || points.length > Info.MaxStrokePoints * 2) {
+            DrawingSimulatorSessionLogger.warn("Dropping malformed stroke from {}: width {}, {} coordinates", client.getClientId(), width, points.length);
+            return;
+        }
+
+        strokeRasterizer.add(points, width);
+    }
+
+    /** The whole canvas as of its current version, encoded once no matter how many clients it goes to. */
+    private CanvasSnapshot getCanvasSnapshot() {
+        if (canvasSnapshot == null || canvasSnapshot.getVersion() != canvas.getVersion()) {
+            canvasSnapshot = CanvasSnapshot.of(canvas, Info.CanvasChunkSize);
+        }
+
+        return canvasSnapshot;
+    }
+
+    private void streamCanvasSnapshots() {
+        for (ServerClient client : getClients()) {
+            SnapshotStream stream = snapshotStreams.get(client.getClientId());
+
+            if (stream == null) {
+                continue;
+            }
+
+            CanvasSnapshot snapshot = stream.snapshot;
+            int lastChunk = Math.min(snapshot.getChunkCount(), stream.nextChunk + Info.CanvasChunksPerTick);
+
+            try {
+                for (; stream.nextChunk < lastChunk; stream.nextChunk++) {
+                    client.sendCommand(
+                        NetworkType.ReliableOrderedUDP, CommandTarget.Client, Commands.CanvasSnapshotChunk,
+                        snapshot.getVersion(), stream.nextChunk, snapshot.getChunkCount(), snapshot.getChunk(stream.nextChunk)
+                    );
+                }
+            } catch (IOException exception) {
+                DrawingSimulatorSessionLogger.warn("error while trying to stream canvas to {}: {}", client.getClientId(), exception.getMessage());
+                continue;
+            }
+
+            if (stream.nextChunk == snapshot.getChunkCount()) {
+                // The snapshot is sent reliably, so updates can carry on from it.
+                snapshotStreams.remove(client.getClientId());
+                acknowledgedCanvasVersions.put(client.getClientId(), snapshot.getVersion());
+            }
+        }
+    }
+
+    private void acknowledgeCanvas(ServerClient client, Long version) {
+        acknowledgedCanvasVersions.computeIfPresent(client.getClientId(), (clientId, acknowledgedVersion) -> Math.max(acknowledgedVersion, version));
     }
 
     private void notifySnowballThrow(ServerClient client, SnowballInfo snowballInfo) {
@@ -112,6 +213,8 @@ public class DrawingSimulatorSession extends Session {
         PointsState newPointsState = new PointsState();
         newPointsState.setClientInfo(clientInfo);
         clientPoints.put(client.getClientId(), newPointsState);
+        snapshotStreams.put(client.getClientId(), new SnapshotStream(getCanvasSnapshot()));
+        startReplication(Info.SnapshotTickRate);
 
         DrawingSimulatorSessionLogger.info("{} to notify from session about client game state adding", getClients().size());
 
@@ -165,7 +268,7 @@ public class DrawingSimulatorSession extends Session {
                     clientPositions.get(serverClient.getClientId()).getClientInfo().clientName(),
                     clientPositions.get(client.getClientId()).getClientInfo().clientName()
                 );
-                serverClient.sendCommand(NetworkType.UDP, CommandTarget.Client, Commands.UpdateClientGameState, info, position, velocity);
+                serverClient.relayCommand(CommandTarget.Client, Commands.UpdateClientGameState, client.getClientId(), info, position, velocity);
             } catch (IOException exception) {
                 DrawingSimulatorSessionLogger.warn("error while trying to send {}'s game state update: {}", serverClient.getClientId(), exception);
             }
@@ -175,11 +278,13 @@ public class DrawingSimulatorSession extends Session {
     public void startGame() {
         DrawingSimulatorSessionLogger.info("Start Snowball Fight!");
 
-        if (survivorPoints == null) {
-            survivorPoints = Executors.newSingleThreadScheduledExecutor();
+        canvas.clear();
+
+        if (survivorPoints != null) {
+            survivorPoints.cancel();
         }
 
-        survivorPoints.scheduleAtFixedRate(this::awardSurvivorPoints, 1L, 1L, TimeUnit.SECONDS);
+        survivorPoints = lobby.scheduleAtFixedRate(this::awardSurvivorPoints, 1L, 1L, TimeUnit.SECONDS);
     }
 
     private void awardSurvivorPoints() {
@@ -221,70 +326,77 @@ public class DrawingSimulatorSession extends Session {
         ClientInfo winnerInfo = playersRemaining.get(0);
         DrawingSimulatorSessionLogger.info("Somehow, {} has won!", winnerInfo.clientName());
 
-        startSessionSequence(() -> {
-            for (ServerClient client : getClients()) {
-                client.sendCommand(NetworkType.TCP, CommandTarget.Client, Commands.GameFinished, winnerInfo);
-            }
-
-            TimeUnit.SECONDS.sleep(1L);
-
-            for (ServerClient client : getClients()) {
-                client.sendCommand(
-                    NetworkType.TCP,
-                    CommandTarget.Client,
-                    Commands.GameResults,
-                    ((GameLobby) lobby).getTotalPoints()
-                        .values()
-                        .stream()
-                        .map(PointsState::createClientPoints)
-                        .toArray(ClientPoints[]::new)
-                );
-            }
-
-            TimeUnit.SECONDS.sleep(10L);
-
-            for (int i = getClients().size() - 1; i >= 0; i--) {
-                ServerClient client = getClients().get(i);
-
-                DrawingSimulatorSessionLogger.info(
-                    "Telling client {}:{} to switch scenes",
-                    client.getClientId(),
-                    clientPositions.get(client.getClientId()).getClientInfo().clientName()
-                );
+        new SessionTransition(lobby, this, SessionNames.DrawingSimulator)
+            .setOnCountdown(transition -> {
+                sendGameFinished(winnerInfo);
+                lobby.schedule(this::sendGameResults, 1L, TimeUnit.SECONDS);
+            })
+            .setCountdown(11L, TimeUnit.SECONDS)
+            .setLoadTime(Info.SceneLoadTimeMillis, TimeUnit.MILLISECONDS)
+            .setSettleTime(1L, TimeUnit.SECONDS)
+            .setNotifier(this::sendSwitchScene)
+            .setOnStart(session -> ((DrawingSimulatorSession) session).startGame())
+            .start();
+    }
 
-                client.sendCommand(NetworkType.TCP, CommandTarget.Client, Commands.SwitchScene, SessionNames.DrawingSimulator);
+    private void sendGameFinished(ClientInfo winnerInfo) {
+        for (ServerClient client : getClients()) {
+            try {
+                client.sendCommand(NetworkType.TCP, CommandTarget.Client, Commands.GameFinished, winnerInfo);
+            } catch (IOException exception) {
+                DrawingSimulatorSessionLogger.warn("Error while trying to tell {} the game finished: {}", client.getClientId(), exception.getMessage());
             }
+        }
+    }
 
-            TimeUnit.SECONDS.sleep(1L);
-
-            for (int i = getClients().size() - 1; i >= 0; i--) {
-                ServerClient client = getClients().get(i);
-
-                DrawingSimulatorSessionLogger.info(
-                    "Moving client {}:{}",
-                    client.getClientId(),
-                    clientPositions.get(client.getClientId()).getClientInfo().clientName()
-                );
+    private void sendGameResults() {
+        ClientPoints[] results = ((GameLobby) lobby).getTotalPoints()
+            .values()
+            .stream()
+            .map(PointsState::createClientPoints)
+            .toArray(ClientPoints[]::new);
 
-                clientLeave(client);
-                lobby.getCurrentSession().clientJoin(client);
+        for (ServerClient client : getClients()) {
+            try {
+                client.sendCommand(NetworkType.TCP, CommandTarget.Client, Commands.GameResults, results);
+            } catch (IOException exception) {
+                DrawingSimulatorSessionLogger.warn("Error while trying to send game results to {}: {}", client.getClientId(), exception.getMessage());
             }
+        }
+    }
 
-            TimeUnit.SECONDS.sleep(1L);
-
-            ((DrawingSimulatorSession) lobby.getCurrentSession()).startGame();
+    private void sendSwitchScene(ServerClient client, String sessionName) {
+        DrawingSimulatorSessionLogger.info("Telling client {} to switch to scene \"{}\"", client.getClientId(), sessionName);
 
-            return 0;
-        });
+        try {
+            client.sendCommand(NetworkType.TCP, CommandTarget.Client, Commands.SwitchScene, sessionName);
+        } catch (IOException exception) {
+            DrawingSimulatorSessionLogger.warn("Error while trying to tell {} to switch scenes: {}", client.getClientId(), exception.getMessage());
+        }
     }
 
     private void removeClientStates(Session session, ServerClient client) {
         clientPositions.remove(client.getClientId());
         clientPoints.remove(client.getClientId());
+        acknowledgedCanvasVersions.remove(client.getClientId());
+        snapshotStreams.remove(client.getClientId());
+
+        if (clientPositions.isEmpty()) {
+            stopReplication();
+        }
     }
 
     @Override
     public Logger getLogger() {
         return DrawingSimulatorSessionLogger;
     }
+
+    private static class SnapshotStream {
+        private final CanvasSnapshot snapshot;
+        private int nextChunk;
+
+        private SnapshotStream(CanvasSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
 }
@@ -3,7 +3,9 @@ package tech.fastj.partyhouse;
 import tech.fastj.network.rpc.ServerClient;
 import tech.fastj.network.rpc.message.CommandTarget;
 import tech.fastj.network.rpc.message.NetworkType;
+import tech.fastj.network.sessions.ReplicatedState;
 import tech.fastj.network.sessions.Session;
+import tech.fastj.network.sessions.SessionTransition;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -11,8 +13,6 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -21,6 +21,8 @@ import tech.fastj.partyhousecore.ClientInfo;
 import tech.fastj.partyhousecore.ClientPosition;
 import tech.fastj.partyhousecore.ClientVelocity;
 import tech.fastj.partyhousecore.Commands;
+import tech.fastj.partyhousecore.Info;
+import tech.fastj.partyhousecore.PlayerSnapshot;
 import tech.fastj.partyhousecore.PositionState;
 import tech.fastj.partyhousecore.SessionNames;
 
@@ -32,10 +34,19 @@ public class HomeSession extends Session {
 
     private final Map<UUID, Boolean> clientsReady;
 
+    private final ReplicatedState<PlayerSnapshot> players;
+    private final AreaOfInterest areaOfInterest;
+
+    private SessionTransition transition;
+
     protected HomeSession(GameLobby lobby) {
         super(lobby, SessionNames.Home, new ArrayList<>());
         clientGameStates = new HashMap<>();
         clientsReady = new LinkedHashMap<>();
+        players = addReplicatedState(PlayerSnapshot.class, Commands.GameStateSnapshot, Commands.AcknowledgeSnapshot);
+        areaOfInterest = new AreaOfInterest(Info.InterestRadius, Info.InterestHysteresis);
+        players.setRelevance((clientId, playerId, player) -> areaOfInterest.isInterested(clientId, playerId));
+        setOnReplicationTick(session -> areaOfInterest.update(clientGameStates));
 
         setOnClientJoin(this::addNewPositionState);
         setOnClientLeave(this::removePositionState);
@@ -60,6 +71,8 @@ public class HomeSession extends Session {
 
         clientGameStates.put(client.getClientId(), newGameState);
         clientsReady.put(client.getClientId(), false);
+        players.put(client.getClientId(), new PlayerSnapshot(clientInfo, newGameState.getClientPosition(), newGameState.getClientVelocity()));
+        startReplication(Info.SnapshotTickRate);
 
         HomeSessionLogger.info("{} to notify from session about client game state adding", getClients().size());
 
@@ -90,39 +103,27 @@ public class HomeSession extends Session {
     }
 
     private void updatePositionState(ServerClient client, ClientInfo info, ClientPosition position, ClientVelocity velocity) {
-        HomeSessionLogger.info("Telling {} clients {} has moved to: {}, {}", getClients().size(), info.clientName(), position.x(), position.y());
+        HomeSessionLogger.debug("{} has moved to: {}, {}", info.clientName(), position.x(), position.y());
 
         PositionState positionState = clientGameStates.get(info.clientId());
         positionState.setClientInfo(info);
         positionState.setClientPosition(position);
         positionState.setClientVelocity(velocity);
 
-        for (ServerClient serverClient : getClients()) {
-            if (client.getClientId().equals(serverClient.getClientId())) {
-                HomeSessionLogger.debug(
-                    "Don't tell {} that {} moved",
-                    clientGameStates.get(serverClient.getClientId()).getClientInfo().clientName(),
-                    clientGameStates.get(client.getClientId()).getClientInfo().clientName()
-                );
-                continue;
-            }
-
-            try {
-                HomeSessionLogger.debug(
-                    "Telling {} that {} moved",
-                    clientGameStates.get(serverClient.getClientId()).getClientInfo().clientName(),
-                    clientGameStates.get(client.getClientId()).getClientInfo().clientName()
-                );
-                serverClient.sendCommand(NetworkType.UDP, CommandTarget.Client, Commands.UpdateClientGameState, info, position, velocity);
-            } catch (IOException exception) {
-                HomeSessionLogger.warn("error while trying to send {}'s game state update: {}", serverClient.getClientId(), exception.getMessage());
-            }
-        }
+        players.put(info.clientId(), new PlayerSnapshot(info, position, velocity));
     }
 
     private void removePositionState(Session session, ServerClient client) {
         clientGameStates.remove(client.getClientId());
         clientsReady.remove(client.getClientId());
+        players.remove(client.getClientId());
+        areaOfInterest.remove(client.getClientId());
+
+        if (clientGameStates.isEmpty()) {
+            stopReplication();
+        }
+
+        cancelTransition();
     }
 
     private void notifyClientReady(ServerClient client, ClientInfo info) {
@@ -141,7 +142,7 @@ public class HomeSession extends Session {
                     clientGameStates.get(serverClient.getClientId()).getClientInfo().clientName(),
                     clientGameStates.get(client.getClientId()).getClientInfo().clientName()
                 );
-                serverClient.sendCommand(NetworkType.TCP, CommandTarget.Client, Commands.Ready, info);
+                serverClient.sendCommand(NetworkType.ReliableOrderedUDP, CommandTarget.Client, Commands.Ready, info);
             } catch (IOException exception) {
                 HomeSessionLogger.warn("error while trying to send {}'s readiness: {}", serverClient.getClientId(), exception.getMessage());
             }
@@ -163,49 +164,34 @@ public class HomeSession extends Session {
             }
         }
 
-        HomeSessionLogger.info("All {} clients ready to play! Switching to session \"{}\"...", getClients().size(), SessionNames.SnowballFight);
-
-        lobby.switchCurrentSession(SessionNames.SnowballFight);
-        Future<Integer> exCheck = startSessionSequence(() -> {
-            for (int i = getClients().size() - 1; i >= 0; i--) {
-                ServerClient client = getClients().get(i);
-
-                HomeSessionLogger.info(
-                    "Telling client {}:{} to switch scenes",
-                    client.getClientId(),
-                    clientGameStates.get(client.getClientId()).getClientInfo().clientName()
-                );
-
-                client.sendCommand(NetworkType.TCP, CommandTarget.Client, Commands.SwitchScene, SessionNames.SnowballFight);
-            }
-
-            TimeUnit.SECONDS.sleep(1L);
-
-            for (int i = getClients().size() - 1; i >= 0; i--) {
-                ServerClient client = getClients().get(i);
-
-                HomeSessionLogger.info(
-                    "Moving client {}:{}",
-                    client.getClientId(),
-                    clientGameStates.get(client.getClientId()).getClientInfo().clientName()
-                );
-
-                clientLeave(client);
-                lobby.getCurrentSession().clientJoin(client);
-            }
+        if (transition != null && transition.isRunning()) {
+            return;
+        }
 
-            TimeUnit.SECONDS.sleep(1L);
+        HomeSessionLogger.info("All {} clients ready to play! Switching to session \"{}\"...", getClients().size(), SessionNames.SnowballFight);
 
-            ((SnowballFightSession) lobby.getCurrentSession()).startGame();
+        // Everyone is already ready, so there is nothing to count down; clients only need time to load the fight.
+        transition = new SessionTransition(lobby, this, SessionNames.SnowballFight)
+            .setLoadTime(Info.SceneLoadTimeMillis, TimeUnit.MILLISECONDS)
+            .setNotifier(this::sendSwitchScene)
+            .setOnStart(session -> ((SnowballFightSession) session).startGame())
+            .setOnCancel(cancelled -> HomeSessionLogger.info("Stopped switching to session \"{}\"", SessionNames.SnowballFight));
+        transition.start();
+    }
 
-            return 0;
-        });
+    private void sendSwitchScene(ServerClient client, String sessionName) {
+        HomeSessionLogger.info("Telling client {} to switch to scene \"{}\"", client.getClientId(), sessionName);
 
         try {
-            exCheck.get();
-        } catch (InterruptedException | ExecutionException exception) {
-            HomeSessionLogger.error("Unable to switch scenes: " + exception.getMessage(), exception);
-            lobby.stop();
+            client.sendCommand(NetworkType.TCP, CommandTarget.Client, Commands.SwitchScene, sessionName);
+        } catch (IOException exception) {
+            HomeSessionLogger.warn("Error while trying to tell {} to switch scenes: {}", client.getClientId(), exception.getMessage());
+        }
+    }
+
+    private void cancelTransition() {
+        if (transition != null) {
+            transition.cancel();
         }
     }
 
@@ -213,6 +199,7 @@ public class HomeSession extends Session {
         HomeSessionLogger.info("{} is no longer to play", info.clientName());
 
         clientsReady.put(info.clientId(), false);
+        cancelTransition();
 
         for (ServerClient serverClient : getClients()) {
             if (client.getClientId().equals(serverClient.getClientId())) {
@@ -225,7 +212,7 @@ public class HomeSession extends Session {
                     clientGameStates.get(serverClient.getClientId()).getClientInfo().clientName(),
                     clientGameStates.get(client.getClientId()).getClientInfo().clientName()
                 );
-                serverClient.sendCommand(NetworkType.TCP, CommandTarget.Client, Commands.UnReady, info);
+                serverClient.sendCommand(NetworkType.ReliableOrderedUDP, CommandTarget.Client, Commands.UnReady, info);
             } catch (IOException exception) {
                 HomeSessionLogger.warn("error while trying to send {}'s un-readiness: {}", serverClient.getClientId(), exception.getMessage());
             }
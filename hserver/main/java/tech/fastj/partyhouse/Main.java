@@ -6,6 +6,7 @@ import tech.fastj.network.rpc.ServerClient;
 import tech.fastj.network.sessions.Lobby;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 
@@ -20,6 +21,7 @@ public class Main {
             server.set(new Server(serverConfig, lobbyCreator));
 
             server.get().start();
+            server.get().getLobbyWorkers().startLoadChecks(5L, TimeUnit.SECONDS);
             server.get().allowClients();
             server.get().createLobby("Test");
             server.get().createLobby("Test 2");
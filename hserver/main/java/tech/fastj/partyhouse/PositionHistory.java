@@ -0,0 +1,201 @@
+package tech.fastj.partyhouse;
+
+import java.util.concurrent.TimeUnit;
+
+import tech.fastj.partyhousecore.ClientPosition;
+import tech.fastj.partyhousecore.ClientVelocity;
+import tech.fastj.partyhousecore.PositionState;
+
+/**
+ * Fixed-size history of where a player was, used to rewind them to the moment another player acted.
+ * <p>
+ * Samples live in parallel primitive arrays used as a ring buffer, so recording never allocates and the oldest sample
+ * is overwritten once the buffer is full. Timestamps are {@link System#nanoTime()} values and must be recorded in
+ * increasing order, which keeps the buffer sorted for binary search.
+ * <p>
+ * A history made {@link #forWindow(long, TimeUnit, int) for a window} refuses to rewind further back than that window
+ * from its newest sample, so a client claiming an unreasonably old view of the game is not rewound at all.
+ */
+public class PositionHistory {
+
+    private final long[] timestamps;
+    private final float[] xs;
+    private final float[] ys;
+    private final float[] angles;
+    private final long windowNanos;
+
+    private int head;
+    private int size;
+
+    public PositionHistory(int capacity) {
+        this(capacity, Long.MAX_VALUE);
+    }
+
+    public PositionHistory(int capacity, long windowNanos) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("A position history needs room for at least 2 samples, not " + capacity + ".");
+        }
+
+        timestamps = new long[capacity];
+        xs = new float[capacity];
+        ys = new float[capacity];
+        angles = new float[capacity];
+        this.windowNanos = windowNanos;
+    }
+
+    /** Creates a history just big enough to cover {@code window} when recorded {@code tickRate} times a second. */
+    public static PositionHistory forWindow(long window, TimeUnit windowUnit, int tickRate) {
+        long windowMillis = windowUnit.toMillis(window);
+        int capacity = (int) Math.ceil(windowMillis * tickRate / 1000.0) + 1;
+
+        return new PositionHistory(Math.max(2, capacity), windowUnit.toNanos(window));
+    }
+
+    public synchronized int getCapacity() {
+        return timestamps.length;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    public synchronized long getOldestTimestamp() {
+        return size == 0 ? 0L : timestamps[physicalIndex(0)];
+    }
+
+    public synchronized long getNewestTimestamp() {
+        return size == 0 ? 0L : timestamps[physicalIndex(size - 1)];
+    }
+
+    /** Records the position state's current position, if it has one. */
+    public void record(long timestamp, PositionState positionState) {
+        ClientPosition position = positionState.getClientPosition();
+        ClientVelocity velocity = positionState.getClientVelocity();
+
+        if (position == null) {
+            return;
+        }
+
+        record(timestamp, position.x(), position.y(), velocity == null ? 0f : velocity.angle());
+    }
+
+    public synchronized void record(long timestamp, float x, float y, float angle) {
+        int index;
+
+        if (size > 0 && timestamp <= timestamps[physicalIndex(size - 1)]) {
+            // A second sample for the same (or an earlier) moment replaces the newest one, keeping timestamps sorted.
+            index = physicalIndex(size - 1);
+        } else {
+            index = head;
+            head = (head + 1) % timestamps.length;
+            size = Math.min(size + 1, timestamps.length);
+        }
+
+        timestamps[index] = timestamp;
+        xs[index] = x;
+        ys[index] = y;
+        angles[index] = angle;
+    }
+
+    /**
+     * Rewinds to {@code timestamp}, interpolating between the two samples around it. Times within the window but
+     * outside the recorded samples are clamped to the oldest or newest sample.
+     *
+     * @return {@code false} if the history is empty or {@code timestamp} is further back than the window, in which case
+     * {@code result} is left untouched.
+     */
+    public synchronized boolean rewind(long timestamp, Sample result) {
+        if (size == 0 || timestamps[physicalIndex(size - 1)] - timestamp > windowNanos) {
+            return false;
+        }
+
+        int after = firstAfter(timestamp);
+
+        if (after == 0) {
+            result.set(this, physicalIndex(0));
+            return true;
+        }
+
+        if (after == size) {
+            result.set(this, physicalIndex(size - 1));
+            return true;
+        }
+
+        int previous = physicalIndex(after - 1);
+        int next = physicalIndex(after);
+        float t = (float) (timestamp - timestamps[previous]) / (timestamps[next] - timestamps[previous]);
+
+        result.timestamp = timestamp;
+        result.x = xs[previous] + (xs[next] - xs[previous]) * t;
+        result.y = ys[previous] + (ys[next] - ys[previous]) * t;
+        result.angle = lerpAngle(angles[previous], angles[next], t);
+
+        return true;
+    }
+
+    /** Logical index of the first sample newer than {@code timestamp}, or {@code size} if there is none. */
+    private int firstAfter(long timestamp) {
+        int low = 0;
+        int high = size;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (timestamps[physicalIndex(middle)] <= timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private int physicalIndex(int logicalIndex) {
+        int oldest = size < timestamps.length ? 0 : head;
+        return (oldest + logicalIndex) % timestamps.length;
+    }
+
+    private static float lerpAngle(float from, float to, float t) {
+        float difference = ((to - from) % 360f + 540f) % 360f - 180f;
+        float angle = (from + difference * t) % 360f;
+
+        return angle < 0f ? angle + 360f : angle;
+    }
+
+    /** Reusable result of {@link #rewind(long, Sample)}. */
+    public static class Sample {
+        private long timestamp;
+        private float x;
+        private float y;
+        private float angle;
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public float getX() {
+            return x;
+        }
+
+        public float getY() {
+            return y;
+        }
+
+        public float getAngle() {
+            return angle;
+        }
+
+        private void set(PositionHistory history, int index) {
+            timestamp = history.timestamps[index];
+            x = history.xs[index];
+            y = history.ys[index];
+            angle = history.angles[index];
+        }
+    }
+}
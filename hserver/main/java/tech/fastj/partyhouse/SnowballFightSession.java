@@ -1,19 +1,22 @@
 package tech.fastj.partyhouse;
 
+import tech.fastj.network.rpc.ConnectionQuality;
 import tech.fastj.network.rpc.ServerClient;
+import tech.fastj.network.rpc.TimingWheel;
 import tech.fastj.network.rpc.message.CommandTarget;
 import tech.fastj.network.rpc.message.NetworkType;
+import tech.fastj.network.sessions.ReplicatedState;
 import tech.fastj.network.sessions.Session;
+import tech.fastj.network.sessions.SessionTransition;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -26,31 +29,68 @@ public class SnowballFightSession extends Session {
 
     private final Map<UUID, PositionState> clientPositions;
     private final Map<UUID, PointsState> clientPoints;
-    private ScheduledExecutorService survivorPoints;
+    private TimingWheel.Timeout survivorPoints;
+    private final ReplicatedState<PlayerSnapshot> players;
+    private final AreaOfInterest areaOfInterest;
+    private final SnowballSimulation snowballSimulation;
+    private final Map<UUID, PositionHistory> positionHistories;
+    private final Map<UUID, PlayerMovement> movements;
+    private final Map<UUID, Integer> processedInputs;
+    private final Map<UUID, StepBudget> stepBudgets;
+    private final Set<UUID> unacknowledgedInputs;
 
     private boolean isGameRunning;
+    private long lastSimulationTime;
 
     public SnowballFightSession(GameLobby lobby) {
         super(lobby, SessionNames.SnowballFight, new ArrayList<>());
         clientPositions = new HashMap<>();
         clientPoints = new HashMap<>();
+        positionHistories = new HashMap<>();
+        movements = new HashMap<>();
+        processedInputs = new HashMap<>();
+        stepBudgets = new HashMap<>();
+        unacknowledgedInputs = new HashSet<>();
+        players = addReplicatedState(PlayerSnapshot.class, Commands.GameStateSnapshot, Commands.AcknowledgeSnapshot);
+        areaOfInterest = new AreaOfInterest(Info.InterestRadius, Info.InterestHysteresis);
+        players.setRelevance((clientId, playerId, player) -> areaOfInterest.isInterested(clientId, playerId));
+        snowballSimulation = new SnowballSimulation();
+        setOnReplicationTick(session -> {
+            long now = System.nanoTime();
+
+            areaOfInterest.update(clientPositions);
+            recordPositionHistories(now);
+            simulateSnowballs(now);
+            acknowledgeInputs();
+        });
 
         setOnClientJoin(this::addNewClientStates);
         setOnClientLeave(this::removeClientStates);
-        addCommand(Commands.UpdateClientGameState, ClientInfo.class, ClientPosition.class, ClientVelocity.class, this::updatePositionState);
-        addCommand(Commands.SnowballThrow, SnowballInfo.class, this::notifySnowballThrow);
-        addCommand(Commands.SnowballHit, ClientInfo.class, SnowballInfo.class, this::notifySnowballHit);
+        addCommand(Commands.PlayerInput, Integer.class, byte[].class, this::receivePlayerInput);
+        addCommand(Commands.SnowballThrow, SnowballInfo.class, Integer.class, this::notifySnowballThrow);
     }
 
-    private void notifySnowballThrow(ServerClient client, SnowballInfo snowballInfo) {
+    /**
+     * Judges and relays a throw. Along with the throw, clients send how far in the past, in milliseconds, they were
+     * drawing the other players when they threw it.
+     */
+    private void notifySnowballThrow(ServerClient client, SnowballInfo snowballInfo, Integer interpolationDelayMillis) {
         SnowballFightSessionLogger.info(
             "Telling {} clients {} has thrown a snowball",
             getClients().size(),
             snowballInfo.clientInfo().clientName()
         );
 
+        // Judge the throw against where the other players were on the thrower's screen: one round trip ago, plus however
+        // far behind the thrower draws them. The snowball itself only has half a round trip of flight to catch up on.
+        long now = System.nanoTime();
+        long lag = estimateLag(client);
+        long viewDelay = TimeUnit.MILLISECONDS.toNanos(Math.max(0, Math.min(interpolationDelayMillis, Info.MaxInterpolationDelayMillis)));
+        long rewind = Math.min(lag + viewDelay, TimeUnit.MILLISECONDS.toNanos(Info.LagCompensationWindowMillis));
+        List<SnowballSimulation.Hit> hits = snowballSimulation.throwSnowball(snowballInfo, lag / 2 / 1_000_000_000f, rewindPlayers(now - rewind));
+
         for (ServerClient serverClient : getClients()) {
-            if (serverClient.getClientId().equals(snowballInfo.clientInfo().clientId())) {
+            if (!areaOfInterest.isInterested(serverClient.getClientId(), snowballInfo.clientInfo().clientId())) {
                 continue;
             }
 
@@ -60,14 +100,78 @@ public class SnowballFightSession extends Session {
                     clientPositions.get(serverClient.getClientId()).getClientInfo().clientName(),
                     snowballInfo.clientInfo().clientName()
                 );
-                serverClient.sendCommand(NetworkType.TCP, CommandTarget.Client, Commands.SnowballThrow, snowballInfo);
+                serverClient.sendCommand(NetworkType.ReliableOrderedUDP, CommandTarget.Client, Commands.SnowballThrow, snowballInfo);
             } catch (IOException exception) {
                 SnowballFightSessionLogger.warn("error while trying to send snowball throw update to {}: {}", serverClient.getClientId(), exception);
             }
         }
+
+        applySnowballHits(hits);
+    }
+
+    private long estimateLag(ServerClient client) {
+        ConnectionQuality connectionQuality = client.getConnectionQuality();
+
+        if (!connectionQuality.hasRttSample()) {
+            return 0L;
+        }
+
+        return Math.min(connectionQuality.getSmoothedRttNanos(), TimeUnit.MILLISECONDS.toNanos(Info.LagCompensationWindowMillis));
+    }
+
+    private void recordPositionHistories(long now) {
+        for (Map.Entry<UUID, PositionState> positionState : clientPositions.entrySet()) {
+            PositionHistory positionHistory = positionHistories.get(positionState.getKey());
+
+            if (positionHistory != null) {
+                positionHistory.record(now, positionState.getValue());
+            }
+        }
+    }
+
+    private List<PositionState> rewindPlayers(long timestamp) {
+        List<PositionState> rewoundPlayers = new ArrayList<>(clientPositions.size());
+        PositionHistory.Sample sample = new PositionHistory.Sample();
+
+        for (Map.Entry<UUID, PositionState> player : clientPositions.entrySet()) {
+            PositionState positionState = player.getValue();
+            PositionHistory positionHistory = positionHistories.get(player.getKey());
+
+            if (positionState.isPlayerDead() || positionHistory == null || !positionHistory.rewind(timestamp, sample)) {
+                rewoundPlayers.add(positionState);
+                continue;
+            }
+
+            PositionState rewoundState = new PositionState();
+            rewoundState.setClientInfo(positionState.getClientInfo());
+            rewoundState.setClientPosition(new ClientPosition(sample.getX(), sample.getY()));
+            rewoundState.setClientVelocity(new ClientVelocity(sample.getAngle(), 0f));
+            rewoundPlayers.add(rewoundState);
+        }
+
+        return rewoundPlayers;
+    }
+
+    private void simulateSnowballs(long now) {
+        float deltaTime = lastSimulationTime == 0L ? 0f : (now - lastSimulationTime) / 1_000_000_000f;
+        lastSimulationTime = now;
+
+        applySnowballHits(snowballSimulation.step(deltaTime, clientPositions.values()));
+    }
+
+    private void applySnowballHits(List<SnowballSimulation.Hit> hits) {
+        if (hits.isEmpty()) {
+            return;
+        }
+
+        for (SnowballSimulation.Hit hit : hits) {
+            notifySnowballHit(hit.clientHit(), hit.snowballInfo());
+        }
+
+        checkForWinner();
     }
 
-    private void notifySnowballHit(ServerClient client, ClientInfo clientHit, SnowballInfo snowballInfo) {
+    private void notifySnowballHit(ClientInfo clientHit, SnowballInfo snowballInfo) {
         SnowballFightSessionLogger.info(
             "Telling {} clients {} has been hit by {}'s snowball",
             getClients().size(),
@@ -75,30 +179,43 @@ public class SnowballFightSession extends Session {
             snowballInfo.clientInfo().clientName()
         );
 
-        clientPoints.get(snowballInfo.clientInfo().clientId()).modifyPoints(Points.SuccessfulSnowballHit);
-        clientPoints.get(clientHit.clientId()).modifyPoints(Points.HitBySnowball);
+        PositionState hitPositionState = clientPositions.get(clientHit.clientId());
 
-        clientPositions.get(clientHit.clientId()).setPlayerDead(true);
+        if (hitPositionState != null) {
+            hitPositionState.setPlayerDead(true);
+        }
+
+        PointsState throwerPoints = clientPoints.get(snowballInfo.clientInfo().clientId());
+        PointsState hitPoints = clientPoints.get(clientHit.clientId());
+
+        if (throwerPoints != null) {
+            throwerPoints.modifyPoints(Points.SuccessfulSnowballHit);
+        }
+
+        if (hitPoints != null) {
+            hitPoints.modifyPoints(Points.HitBySnowball);
+        }
 
         for (ServerClient serverClient : getClients()) {
-            if (serverClient.getClientId().equals(snowballInfo.clientInfo().clientId())) {
+            boolean isInvolved = serverClient.getClientId().equals(clientHit.clientId())
+                || serverClient.getClientId().equals(snowballInfo.clientInfo().clientId());
+
+            if (!isInvolved && !areaOfInterest.isInterested(serverClient.getClientId(), clientHit.clientId())) {
                 continue;
             }
 
             try {
                 SnowballFightSessionLogger.debug(
                     "Telling {} that {} has been hit by {}'s snowball",
-                    clientPositions.get(serverClient.getClientId()).getClientInfo().clientName(),
+                    serverClient.getClientId(),
                     clientHit.clientName(),
                     snowballInfo.clientInfo().clientName()
                 );
-                serverClient.sendCommand(NetworkType.TCP, CommandTarget.Client, Commands.SnowballThrow, snowballInfo);
+                serverClient.sendCommand(NetworkType.ReliableOrderedUDP, CommandTarget.Client, Commands.SnowballHit, clientHit, snowballInfo);
             } catch (IOException exception) {
                 SnowballFightSessionLogger.warn("error while trying to send snowball hit update to {}: {}", serverClient.getClientId(), exception);
             }
         }
-
-        checkForWinner();
     }
 
     private void addNewClientStates(Session session, ServerClient client) {
@@ -111,6 +228,14 @@ public class SnowballFightSession extends Session {
         newGameState.setClientVelocity(new ClientVelocity());
 
         clientPositions.put(client.getClientId(), newGameState);
+        players.put(client.getClientId(), new PlayerSnapshot(clientInfo, newGameState.getClientPosition(), newGameState.getClientVelocity()));
+        movements.put(client.getClientId(), new PlayerMovement(newGameState.getClientPosition(), newGameState.getClientVelocity()));
+        stepBudgets.put(client.getClientId(), new StepBudget(Info.FixedUpdateRate, Info.MaxSavedInputSteps, System.nanoTime()));
+        positionHistories.put(
+            client.getClientId(),
+            PositionHistory.forWindow(Info.LagCompensationWindowMillis, TimeUnit.MILLISECONDS, Info.SnapshotTickRate)
+        );
+        startReplication(Info.SnapshotTickRate);
 
         PointsState newPointsState = new PointsState();
         newPointsState.setClientInfo(clientInfo);
@@ -144,33 +269,69 @@ public class SnowballFightSession extends Session {
         }
     }
 
-    private void updatePositionState(ServerClient client, ClientInfo info, ClientPosition position, ClientVelocity velocity) {
-        SnowballFightSessionLogger.debug("Telling {} clients {} has moved to: {}, {}", getClients().size(), info.clientName(), position.x(), position.y());
+    /**
+     * Moves a player by the inputs they sent. Players move themselves ahead of the server, so this only confirms where
+     * they are; inputs are resent until acknowledged, so any already processed are skipped.
+     * <p>
+     * Each input is one fixed step, so players can only apply as many as their {@link StepBudget} allows. Inputs past
+     * that are left unacknowledged, and so get resent and applied once the player has earned the steps.
+     */
+    private void receivePlayerInput(ServerClient client, Integer firstSequence, byte[] inputs) {
+        UUID clientId = client.getClientId();
+        PositionState positionState = clientPositions.get(clientId);
+        PlayerMovement movement = movements.get(clientId);
+        StepBudget stepBudget = stepBudgets.get(clientId);
+
+        if (positionState == null || movement == null || stepBudget == null || inputs.length == 0 || inputs.length > Info.MaxInputsPerMessage) {
+            return;
+        }
 
-        PositionState positionState = clientPositions.get(info.clientId());
-        positionState.setClientInfo(info);
-        positionState.setClientPosition(position);
-        positionState.setClientVelocity(velocity);
+        int processedSequence = processedInputs.getOrDefault(clientId, -1);
+        int lastSequence = firstSequence + inputs.length - 1;
+        unacknowledgedInputs.add(clientId);
 
-        for (ServerClient serverClient : getClients()) {
-            if (client.getClientId().equals(serverClient.getClientId())) {
-                SnowballFightSessionLogger.debug(
-                    "Don't tell {} that {} moved",
-                    clientPositions.get(serverClient.getClientId()).getClientInfo().clientName(),
-                    clientPositions.get(client.getClientId()).getClientInfo().clientName()
-                );
+        if (lastSequence <= processedSequence) {
+            return;
+        }
+
+        if (positionState.isPlayerDead()) {
+            processedInputs.put(clientId, lastSequence);
+            return;
+        }
+
+        int firstUnprocessed = Math.max(0, processedSequence + 1 - firstSequence);
+        int steps = stepBudget.take(inputs.length - firstUnprocessed, System.nanoTime());
+
+        if (steps == 0) {
+            return;
+        }
+
+        for (int i = firstUnprocessed; i < firstUnprocessed + steps; i++) {
+            movement.step(inputs[i]);
+        }
+
+        positionState.setClientPosition(movement.getPosition());
+        positionState.setClientVelocity(movement.getVelocity());
+        players.put(clientId, new PlayerSnapshot(positionState.getClientInfo(), positionState.getClientPosition(), positionState.getClientVelocity()));
+        processedInputs.put(clientId, firstSequence + firstUnprocessed + steps - 1);
+    }
+
+    private void acknowledgeInputs() {
+        for (ServerClient client : getClients()) {
+            UUID clientId = client.getClientId();
+            PositionState positionState = clientPositions.get(clientId);
+
+            if (!unacknowledgedInputs.remove(clientId) || positionState == null || !processedInputs.containsKey(clientId)) {
                 continue;
             }
 
             try {
-                SnowballFightSessionLogger.debug(
-                    "Telling {} that {} moved",
-                    clientPositions.get(serverClient.getClientId()).getClientInfo().clientName(),
-                    clientPositions.get(client.getClientId()).getClientInfo().clientName()
+                client.sendCommand(
+                    NetworkType.UDP, CommandTarget.Client, Commands.AcknowledgeInput,
+                    processedInputs.get(clientId), positionState.getClientPosition(), positionState.getClientVelocity()
                 );
-                serverClient.sendCommand(NetworkType.UDP, CommandTarget.Client, Commands.UpdateClientGameState, info, position, velocity);
             } catch (IOException exception) {
-                SnowballFightSessionLogger.warn("error while trying to send {}'s game state update: {}", serverClient.getClientId(), exception);
+                SnowballFightSessionLogger.warn("Error while trying to acknowledge {}'s inputs: {}", clientId, exception.getMessage());
             }
         }
     }
@@ -179,12 +340,14 @@ public class SnowballFightSession extends Session {
         SnowballFightSessionLogger.info("Start Snowball Fight!");
 
         isGameRunning = true;
+        snowballSimulation.clear();
+        lastSimulationTime = 0L;
 
-        if (survivorPoints == null) {
-            survivorPoints = Executors.newSingleThreadScheduledExecutor();
+        if (survivorPoints != null) {
+            survivorPoints.cancel();
         }
 
-        survivorPoints.scheduleAtFixedRate(this::awardSurvivorPoints, 1L, 1L, TimeUnit.SECONDS);
+        survivorPoints = lobby.scheduleAtFixedRate(this::awardSurvivorPoints, 1L, 1L, TimeUnit.SECONDS);
     }
 
     private void awardSurvivorPoints() {
@@ -208,7 +371,7 @@ public class SnowballFightSession extends Session {
         }
     }
 
-    private synchronized void checkForWinner() {
+    private void checkForWinner() {
         if (!isGameRunning) {
             return;
         }
@@ -232,71 +395,73 @@ public class SnowballFightSession extends Session {
         ClientInfo winnerInfo = playersRemaining.get(0);
         SnowballFightSessionLogger.info("Somehow, {} has won!", winnerInfo.clientName());
 
-        try {
-            startSessionSequence(() -> {
-                for (ServerClient client : getClients()) {
-                    client.sendCommand(NetworkType.TCP, CommandTarget.Client, Commands.GameFinished, winnerInfo);
-                }
-
-                ((GameLobby) lobby).updateTotalPoints(clientPoints);
-
-                TimeUnit.SECONDS.sleep(1L);
-
-                for (ServerClient client : getClients()) {
-                    var allPoints = ((GameLobby) lobby).getTotalPoints();
-                    PointsState pointsState = allPoints.get(client.getClientId());
-                    if (pointsState == null) {
-                        System.out.println("fuck this shit I'm out");
-                        pointsState = new PointsState();
-                        pointsState.setClientInfo(clientPoints.get(client.getClientId()).getClientInfo());
-                    }
-
-                    System.out.println("send to " + clientPoints.get(client.getClientId()).getClientInfo().clientName());
-
-                    client.sendCommand(NetworkType.TCP, CommandTarget.Client, Commands.GameResults, pointsState.createClientPoints());
-                }
-
-                TimeUnit.SECONDS.sleep(Info.SessionSwitchTime);
-
-                lobby.switchCurrentSession(SessionNames.Home);
-
-                for (int i = getClients().size() - 1; i >= 0; i--) {
-                    ServerClient client = getClients().get(i);
+        new SessionTransition(lobby, this, SessionNames.Home)
+            .setOnCountdown(transition -> {
+                sendGameFinished(winnerInfo);
+                lobby.schedule(this::sendGameResults, 1L, TimeUnit.SECONDS);
+            })
+            .setCountdown(1L + Info.SessionSwitchTime, TimeUnit.SECONDS)
+            .setLoadTime(Info.SceneLoadTimeMillis, TimeUnit.MILLISECONDS)
+            .setNotifier(this::sendSwitchScene)
+            .start();
+    }
 
-                    SnowballFightSessionLogger.info(
-                        "Telling client {}:{} to switch scenes",
-                        client.getClientId(),
-                        clientPositions.get(client.getClientId()).getClientInfo().clientName()
-                    );
+    private void sendGameFinished(ClientInfo winnerInfo) {
+        for (ServerClient client : getClients()) {
+            try {
+                client.sendCommand(NetworkType.ReliableOrderedUDP, CommandTarget.Client, Commands.GameFinished, winnerInfo);
+            } catch (IOException exception) {
+                SnowballFightSessionLogger.warn("Error while trying to tell {} the game finished: {}", client.getClientId(), exception.getMessage());
+            }
+        }
 
-                    client.sendCommand(NetworkType.TCP, CommandTarget.Client, Commands.SwitchScene, SessionNames.Home);
-                }
+        ((GameLobby) lobby).updateTotalPoints(clientPoints);
+    }
 
-                TimeUnit.SECONDS.sleep(1L);
+    private void sendGameResults() {
+        for (ServerClient client : getClients()) {
+            var allPoints = ((GameLobby) lobby).getTotalPoints();
+            PointsState pointsState = allPoints.get(client.getClientId());
+            if (pointsState == null) {
+                System.out.println("fuck this shit I'm out");
+                pointsState = new PointsState();
+                pointsState.setClientInfo(clientPoints.get(client.getClientId()).getClientInfo());
+            }
 
-                for (int i = getClients().size() - 1; i >= 0; i--) {
-                    ServerClient client = getClients().get(i);
+            System.out.println("send to " + clientPoints.get(client.getClientId()).getClientInfo().clientName());
 
-                    SnowballFightSessionLogger.info(
-                        "Moving client {}:{}",
-                        client.getClientId(),
-                        clientPositions.get(client.getClientId()).getClientInfo().clientName()
-                    );
+            try {
+                client.sendCommand(NetworkType.ReliableOrderedUDP, CommandTarget.Client, Commands.GameResults, pointsState.createClientPoints());
+            } catch (IOException exception) {
+                SnowballFightSessionLogger.warn("Error while trying to send game results to {}: {}", client.getClientId(), exception.getMessage());
+            }
+        }
+    }
 
-                    clientLeave(client);
-                    lobby.getCurrentSession().clientJoin(client);
-                }
+    private void sendSwitchScene(ServerClient client, String sessionName) {
+        SnowballFightSessionLogger.info("Telling client {} to switch to scene \"{}\"", client.getClientId(), sessionName);
 
-                return 0;
-            }).get();
-        } catch (ExecutionException | InterruptedException e) {
-            throw new RuntimeException(e);
+        try {
+            client.sendCommand(NetworkType.TCP, CommandTarget.Client, Commands.SwitchScene, sessionName);
+        } catch (IOException exception) {
+            SnowballFightSessionLogger.warn("Error while trying to tell {} to switch scenes: {}", client.getClientId(), exception.getMessage());
         }
     }
 
     private void removeClientStates(Session session, ServerClient client) {
         clientPositions.remove(client.getClientId());
         clientPoints.remove(client.getClientId());
+        players.remove(client.getClientId());
+        areaOfInterest.remove(client.getClientId());
+        positionHistories.remove(client.getClientId());
+        movements.remove(client.getClientId());
+        processedInputs.remove(client.getClientId());
+        stepBudgets.remove(client.getClientId());
+        unacknowledgedInputs.remove(client.getClientId());
+
+        if (clientPositions.isEmpty()) {
+            stopReplication();
+        }
     }
 
     @Override
@@ -0,0 +1,233 @@
+package tech.fastj.partyhouse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import tech.fastj.partyhousecore.ClientInfo;
+import tech.fastj.partyhousecore.ClientPosition;
+import tech.fastj.partyhousecore.Info;
+import tech.fastj.partyhousecore.PositionState;
+import tech.fastj.partyhousecore.SnowballInfo;
+
+/**
+ * Server-side flight of every thrown snowball, deciding which players they hit.
+ * <p>
+ * Each step, living players are put in a {@link SpatialHash} (broad phase). Every snowball then only tests the players
+ * near the path it covers that step, checking whether the path comes within a player's radius plus its own (narrow
+ * phase), so fast snowballs cannot skip over players between ticks.
+ * <p>
+ * A throw reaches the server after it has already been flying on the thrower's screen, so
+ * {@link #throwSnowball(SnowballInfo, float, Collection)} first catches the snowball up against the players as the
+ * thrower saw them, before it joins the regular steps.
+ */
+public class SnowballSimulation {
+
+    public static final float PlayerRadius = Info.PlayerSize / 2f;
+    public static final float HitRadius = PlayerRadius + Info.SnowballRadius;
+
+    private final List<SimulatedSnowball> snowballs;
+    private final SpatialHash<PositionState> players;
+    private final List<Hit> hits;
+    private final Consumer<PositionState> hitTest;
+
+    private SimulatedSnowball testedSnowball;
+    private float pathX, pathY;
+    private PositionState closestPlayer;
+    private float closestPathFraction;
+
+    public SnowballSimulation() {
+        snowballs = new ArrayList<>();
+        players = new SpatialHash<>(HitRadius * 2f);
+        hits = new ArrayList<>();
+        hitTest = this::testHit;
+    }
+
+    /**
+     * Adds a snowball that has already been flying for {@code flightTime} seconds, testing that part of its flight
+     * against {@code seenPositionStates}: the players rewound to where the thrower saw them.
+     *
+     * @return the hit made while catching up, if any. Hit position states are marked dead.
+     */
+    public synchronized List<Hit> throwSnowball(SnowballInfo snowballInfo, float flightTime, Collection<PositionState> seenPositionStates) {
+        SimulatedSnowball snowball = new SimulatedSnowball(snowballInfo);
+
+        if (flightTime <= 0f) {
+            snowballs.add(snowball);
+            return List.of();
+        }
+
+        hashPlayers(seenPositionStates);
+        PositionState playerHit = advance(snowball, flightTime);
+
+        if (playerHit != null) {
+            return List.of(new Hit(playerHit.getClientInfo(), snowball.createSnowballInfo()));
+        }
+
+        if (snowball.life > 0f && !isOutsideArena(snowball)) {
+            snowballs.add(snowball);
+        }
+
+        return List.of();
+    }
+
+    public synchronized int getSnowballCount() {
+        return snowballs.size();
+    }
+
+    public synchronized void clear() {
+        snowballs.clear();
+    }
+
+    /**
+     * Moves every snowball forward by {@code deltaTime} seconds. Hit players are marked dead right away, so one player
+     * is never hit twice in a step.
+     *
+     * @return the hits of this step, in no particular order.
+     */
+    public synchronized List<Hit> step(float deltaTime, Collection<PositionState> positionStates) {
+        hashPlayers(positionStates);
+        hits.clear();
+
+        // Iterating backwards lets finished snowballs be swapped with the last one and removed in constant time.
+        for (int i = snowballs.size() - 1; i >= 0; i--) {
+            SimulatedSnowball snowball = snowballs.get(i);
+            PositionState playerHit = advance(snowball, deltaTime);
+
+            if (playerHit != null) {
+                hits.add(new Hit(playerHit.getClientInfo(), snowball.createSnowballInfo()));
+                removeSnowball(i);
+            } else if (snowball.life <= 0f || isOutsideArena(snowball)) {
+                removeSnowball(i);
+            }
+        }
+
+        return List.copyOf(hits);
+    }
+
+    private void hashPlayers(Collection<PositionState> positionStates) {
+        players.clear();
+
+        for (PositionState positionState : positionStates) {
+            ClientPosition position = positionState.getClientPosition();
+
+            if (positionState.isPlayerDead() || position == null || positionState.getClientInfo() == null) {
+                continue;
+            }
+
+            players.insert(positionState, position.x() + PlayerRadius, position.y() + PlayerRadius);
+        }
+    }
+
+    /** Moves the snowball along its path for {@code deltaTime} seconds, stopping at the first living player it hits. */
+    private PositionState advance(SimulatedSnowball snowball, float deltaTime) {
+        testedSnowball = snowball;
+        pathX = snowball.velocityX * deltaTime;
+        pathY = snowball.velocityY * deltaTime;
+        closestPlayer = null;
+        closestPathFraction = Float.MAX_VALUE;
+
+        players.query(
+            Math.min(snowball.x, snowball.x + pathX) - HitRadius,
+            Math.min(snowball.y, snowball.y + pathY) - HitRadius,
+            Math.max(snowball.x, snowball.x + pathX) + HitRadius,
+            Math.max(snowball.y, snowball.y + pathY) + HitRadius,
+            hitTest
+        );
+
+        PositionState playerHit = closestPlayer;
+        testedSnowball = null;
+        closestPlayer = null;
+
+        if (playerHit != null) {
+            snowball.x += pathX * closestPathFraction;
+            snowball.y += pathY * closestPathFraction;
+            playerHit.setPlayerDead(true);
+
+            return playerHit;
+        }
+
+        snowball.x += pathX;
+        snowball.y += pathY;
+        snowball.life -= deltaTime;
+
+        return null;
+    }
+
+    private void testHit(PositionState positionState) {
+        if (positionState.isPlayerDead()) {
+            return;
+        }
+
+        UUID throwerId = testedSnowball.snowballInfo.clientInfo().clientId();
+
+        if (throwerId.equals(positionState.getClientInfo().clientId())) {
+            return;
+        }
+
+        ClientPosition position = positionState.getClientPosition();
+        float toPlayerX = position.x() + PlayerRadius - testedSnowball.x;
+        float toPlayerY = position.y() + PlayerRadius - testedSnowball.y;
+
+        // Closest point to the player's center along this step's path.
+        float pathLengthSquared = pathX * pathX + pathY * pathY;
+        float pathFraction = pathLengthSquared == 0f
+            ? 0f
+            : Math.max(0f, Math.min(1f, (toPlayerX * pathX + toPlayerY * pathY) / pathLengthSquared));
+
+        float distanceX = toPlayerX - pathX * pathFraction;
+        float distanceY = toPlayerY - pathY * pathFraction;
+
+        if (distanceX * distanceX + distanceY * distanceY <= HitRadius * HitRadius && pathFraction < closestPathFraction) {
+            closestPlayer = positionState;
+            closestPathFraction = pathFraction;
+        }
+    }
+
+    private void removeSnowball(int index) {
+        int lastIndex = snowballs.size() - 1;
+        snowballs.set(index, snowballs.get(lastIndex));
+        snowballs.remove(lastIndex);
+    }
+
+    private static boolean isOutsideArena(SimulatedSnowball snowball) {
+        return snowball.x < -Info.SnowballRadius || snowball.x > Info.ArenaWidth + Info.SnowballRadius
+            || snowball.y < -Info.SnowballRadius || snowball.y > Info.ArenaHeight + Info.SnowballRadius;
+    }
+
+    public record Hit(ClientInfo clientHit, SnowballInfo snowballInfo) {
+    }
+
+    private static class SimulatedSnowball {
+        private final SnowballInfo snowballInfo;
+        private final float velocityX;
+        private final float velocityY;
+        private float x;
+        private float y;
+        private float life;
+
+        private SimulatedSnowball(SnowballInfo snowballInfo) {
+            this.snowballInfo = snowballInfo;
+            this.velocityX = snowballInfo.trajectoryX() * Info.SnowballSpeed;
+            this.velocityY = snowballInfo.trajectoryY() * Info.SnowballSpeed;
+            this.x = snowballInfo.positionX();
+            this.y = snowballInfo.positionY();
+            this.life = snowballInfo.currentLife();
+        }
+
+        private SnowballInfo createSnowballInfo() {
+            return new SnowballInfo(
+                snowballInfo.clientInfo(),
+                snowballInfo.snowballId(),
+                snowballInfo.trajectoryX(),
+                snowballInfo.trajectoryY(),
+                x,
+                y,
+                snowballInfo.rotation(),
+                life
+            );
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package tech.fastj.partyhouse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Uniform grid of points for broad-phase proximity queries.
+ * <p>
+ * Meant to be cleared and refilled every tick: clearing keeps the cell lists around, so a steady set of occupied cells
+ * stops allocating after the first few ticks.
+ */
+public class SpatialHash<T> {
+
+    private final float cellSize;
+    private final Map<Long, List<T>> cells;
+    private int size;
+
+    public SpatialHash(float cellSize) {
+        if (cellSize <= 0f) {
+            throw new IllegalArgumentException("Cell size must be positive, not " + cellSize + ".");
+        }
+
+        this.cellSize = cellSize;
+        this.cells = new HashMap<>();
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        cells.values().removeIf(List::isEmpty);
+
+        for (List<T> cell : cells.values()) {
+            cell.clear();
+        }
+
+        size = 0;
+    }
+
+    public void insert(T item, float x, float y) {
+        cells.computeIfAbsent(cellKey(cellOf(x), cellOf(y)), key -> new ArrayList<>()).add(item);
+        size++;
+    }
+
+    /** Passes every item in a cell overlapping the given box to {@code consumer}; callers do their own exact test. */
+    public void query(float minX, float minY, float maxX, float maxY, Consumer<T> consumer) {
+        int minCellX = cellOf(minX);
+        int minCellY = cellOf(minY);
+        int maxCellX = cellOf(maxX);
+        int maxCellY = cellOf(maxY);
+
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+                List<T> cell = cells.get(cellKey(cellX, cellY));
+
+                if (cell == null) {
+                    continue;
+                }
+
+                for (T item : cell) {
+                    consumer.accept(item);
+                }
+            }
+        }
+    }
+
+    private int cellOf(float coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long cellKey(int cellX, int cellY) {
+        return ((long) cellX << Integer.SIZE) | (cellY & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,57 @@
+package tech.fastj.partyhouse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how many fixed movement steps a player can apply to the fixed updates that have actually passed.
+ * <p>
+ * One step is earned per fixed update, and up to {@code allowance} of them can be saved up, so inputs that arrive
+ * bunched together after a network hiccup still go through. A client that sends steps faster than that, to move faster
+ * than everyone else, only gets the steps it has earned; the rest wait until it earns more.
+ */
+public class StepBudget {
+
+    private final long stepNanos;
+    private final int allowance;
+
+    private long earnedUntil;
+    private int available;
+
+    public StepBudget(int stepsPerSecond, int allowance, long now) {
+        if (stepsPerSecond <= 0 || allowance <= 0) {
+            throw new IllegalArgumentException("Step rate and allowance must be positive, not " + stepsPerSecond + " and " + allowance + ".");
+        }
+
+        this.stepNanos = TimeUnit.SECONDS.toNanos(1L) / stepsPerSecond;
+        this.allowance = allowance;
+        this.earnedUntil = now;
+        this.available = allowance;
+    }
+
+    public int getAvailable(long now) {
+        earn(now);
+        return available;
+    }
+
+    /** Takes up to {@code steps} steps from the budget, returning how many were granted. */
+    public int take(int steps, long now) {
+        earn(now);
+
+        int granted = Math.max(0, Math.min(steps, available));
+        available -= granted;
+
+        return granted;
+    }
+
+    private void earn(long now) {
+        long earnedSteps = (now - earnedUntil) / stepNanos;
+
+        if (earnedSteps <= 0L) {
+            return;
+        }
+
+        // Keep the part of a step not yet earned, so steps aren't lost to rounding between calls.
+        earnedUntil += earnedSteps * stepNanos;
+        available = (int) Math.min(allowance, available + earnedSteps);
+    }
+}
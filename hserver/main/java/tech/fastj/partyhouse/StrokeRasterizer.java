@@ -0,0 +1,226 @@
+package tech.fastj.partyhouse;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import tech.fastj.partyhousecore.DrawingState;
+
+/**
+ * Draws the strokes clients send into a {@link DrawingState}, in one batch per tick.
+ * <p>
+ * A stroke is a polyline of {@code x, y} pairs drawn with a round brush. Strokes are bucketed by the canvas tiles they
+ * cross, and each touched tile is drawn into a mask of its own by testing the pixels near each segment against the
+ * brush. Tiles never share a mask, so once enough tiles are touched they are drawn in parallel with fork/join, and then
+ * merged into the canvas with one version bump per tile.
+ */
+public class StrokeRasterizer {
+
+    public static final int DefaultParallelTileThreshold = 16;
+
+    private static final int TilesPerTask = 4;
+
+    private final List<Stroke> pendingStrokes;
+    private final ForkJoinPool pool;
+    private final int parallelTileThreshold;
+
+    public StrokeRasterizer() {
+        this(ForkJoinPool.commonPool(), DefaultParallelTileThreshold);
+    }
+
+    public StrokeRasterizer(ForkJoinPool pool, int parallelTileThreshold) {
+        this.pendingStrokes = new ArrayList<>();
+        this.pool = pool;
+        this.parallelTileThreshold = parallelTileThreshold;
+    }
+
+    public int getPendingCount() {
+        return pendingStrokes.size();
+    }
+
+    /** Queues a stroke for the next {@link #rasterize(DrawingState) batch}. */
+    public void add(short[] points, int width) {
+        if (points.length < 2 || points.length % 2 != 0) {
+            throw new IllegalArgumentException("A stroke needs whole x, y pairs, not " + points.length + " coordinates.");
+        }
+
+        if (width <= 0) {
+            throw new IllegalArgumentException("Brush width must be positive, not " + width + ".");
+        }
+
+        pendingStrokes.add(new Stroke(points, width / 2f));
+    }
+
+    /** Draws every queued stroke into {@code canvas}, returning how many tiles that changed. */
+    public int rasterize(DrawingState canvas) {
+        if (pendingStrokes.isEmpty()) {
+            return 0;
+        }
+
+        TileBatch batch = bucketStrokes(canvas);
+
+        if (batch.tileCount >= parallelTileThreshold) {
+            pool.invoke(new RasterizeTiles(batch, canvas, 0, batch.tileCount));
+        } else {
+            rasterizeTiles(batch, canvas, 0, batch.tileCount);
+        }
+
+        int changedTiles = 0;
+
+        for (int i = 0; i < batch.tileCount; i++) {
+            if (canvas.drawTile(batch.tiles[i], batch.masks[i])) {
+                changedTiles++;
+            }
+        }
+
+        pendingStrokes.clear();
+        return changedTiles;
+    }
+
+    private TileBatch bucketStrokes(DrawingState canvas) {
+        List<List<Stroke>> buckets = new ArrayList<>(Collections.nCopies(canvas.getTileCount(), null));
+        int[] touchedTiles = new int[canvas.getTileCount()];
+        int touchedCount = 0;
+
+        for (Stroke stroke : pendingStrokes) {
+            short[] points = stroke.points;
+            int reach = (int) Math.ceil(stroke.radius);
+
+            for (int i = 0; i < points.length; i += 2) {
+                int previous = Math.max(0, i - 2);
+                int minX = Math.max(0, Math.min(points[previous], points[i]) - reach);
+                int minY = Math.max(0, Math.min(points[previous + 1], points[i + 1]) - reach);
+                int maxX = Math.min(canvas.getWidth() - 1, Math.max(points[previous], points[i]) + reach);
+                int maxY = Math.min(canvas.getHeight() - 1, Math.max(points[previous + 1], points[i + 1]) + reach);
+
+                if (minX > maxX || minY > maxY) {
+                    continue;
+                }
+
+                for (int tileY = minY / DrawingState.TileSize; tileY <= maxY / DrawingState.TileSize; tileY++) {
+                    for (int tileX = minX / DrawingState.TileSize; tileX <= maxX / DrawingState.TileSize; tileX++) {
+                        int tile = tileY * canvas.getTileColumns() + tileX;
+                        List<Stroke> bucket = buckets.get(tile);
+
+                        if (bucket == null) {
+                            bucket = new ArrayList<>();
+                            buckets.set(tile, bucket);
+                            touchedTiles[touchedCount++] = tile;
+                        }
+
+                        if (bucket.isEmpty() || bucket.get(bucket.size() - 1) != stroke) {
+                            bucket.add(stroke);
+                        }
+                    }
+                }
+            }
+        }
+
+        TileBatch batch = new TileBatch(touchedCount);
+
+        for (int i = 0; i < touchedCount; i++) {
+            batch.tiles[i] = touchedTiles[i];
+            batch.strokes.add(buckets.get(touchedTiles[i]));
+        }
+
+        return batch;
+    }
+
+    private static void rasterizeTiles(TileBatch batch, DrawingState canvas, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int tile = batch.tiles[i];
+            int tileMinX = (tile % canvas.getTileColumns()) * DrawingState.TileSize;
+            int tileMinY = (tile / canvas.getTileColumns()) * DrawingState.TileSize;
+            int tileMaxX = Math.min(canvas.getWidth(), tileMinX + DrawingState.TileSize) - 1;
+            int tileMaxY = Math.min(canvas.getHeight(), tileMinY + DrawingState.TileSize) - 1;
+            long[] mask = new long[DrawingState.TileLongs];
+
+            for (Stroke stroke : batch.strokes.get(i)) {
+                short[] points = stroke.points;
+
+                for (int j = 0; j < points.length; j += 2) {
+                    int previous = Math.max(0, j - 2);
+                    drawSegment(mask, tileMinX, tileMinY, tileMaxX, tileMaxY, stroke.radius, points[previous], points[previous + 1], points[j], points[j + 1]);
+                }
+            }
+
+            batch.masks[i] = mask;
+        }
+    }
+
+    /** Sets every pixel of the tile within {@code radius} of the segment, giving round ends and joins. */
+    private static void drawSegment(long[] mask, int tileMinX, int tileMinY, int tileMaxX, int tileMaxY, float radius,
+                                    int x0, int y0, int x1, int y1) {
+        int reach = (int) Math.ceil(radius);
+        int minX = Math.max(tileMinX, Math.min(x0, x1) - reach);
+        int minY = Math.max(tileMinY, Math.min(y0, y1) - reach);
+        int maxX = Math.min(tileMaxX, Math.max(x0, x1) + reach);
+        int maxY = Math.min(tileMaxY, Math.max(y0, y1) + reach);
+
+        float dx = x1 - x0;
+        float dy = y1 - y0;
+        float lengthSquared = dx * dx + dy * dy;
+        float radiusSquared = radius * radius;
+
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                float t = lengthSquared == 0f ? 0f : Math.max(0f, Math.min(1f, ((x - x0) * dx + (y - y0) * dy) / lengthSquared));
+                float offsetX = x - (x0 + t * dx);
+                float offsetY = y - (y0 + t * dy);
+
+                if (offsetX * offsetX + offsetY * offsetY <= radiusSquared) {
+                    int pixel = (y - tileMinY) * DrawingState.TileSize + (x - tileMinX);
+                    mask[pixel >>> 6] |= 1L << pixel;
+                }
+            }
+        }
+    }
+
+    private record Stroke(short[] points, float radius) {
+    }
+
+    private static class TileBatch {
+        private final int tileCount;
+        private final int[] tiles;
+        private final List<List<Stroke>> strokes;
+        private final long[][] masks;
+
+        private TileBatch(int tileCount) {
+            this.tileCount = tileCount;
+            this.tiles = new int[tileCount];
+            this.strokes = new ArrayList<>(tileCount);
+            this.masks = new long[tileCount][];
+        }
+    }
+
+    private static class RasterizeTiles extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final TileBatch batch;
+        private final DrawingState canvas;
+        private final int from;
+        private final int to;
+
+        private RasterizeTiles(TileBatch batch, DrawingState canvas, int from, int to) {
+            this.batch = batch;
+            this.canvas = canvas;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= TilesPerTask) {
+                rasterizeTiles(batch, canvas, from, to);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new RasterizeTiles(batch, canvas, from, middle), new RasterizeTiles(batch, canvas, middle, to));
+        }
+    }
+}
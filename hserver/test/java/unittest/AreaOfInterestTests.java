@@ -0,0 +1,84 @@
+package unittest;
+
+import tech.fastj.partyhouse.AreaOfInterest;
+import tech.fastj.partyhousecore.ClientPosition;
+import tech.fastj.partyhousecore.PositionState;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AreaOfInterestTests {
+
+    private static final UUID PlayerA = UUID.randomUUID();
+    private static final UUID PlayerB = UUID.randomUUID();
+    private static final UUID PlayerC = UUID.randomUUID();
+
+    @Test
+    void checkUpdate_nearbyPlayersAreInterestedInEachOther() {
+        AreaOfInterest areaOfInterest = new AreaOfInterest(100f, 20f);
+        Map<UUID, PositionState> positionStates = new HashMap<>();
+        positionStates.put(PlayerA, positionAt(0f, 0f));
+        positionStates.put(PlayerB, positionAt(60f, 60f));
+        positionStates.put(PlayerC, positionAt(500f, 0f));
+
+        areaOfInterest.update(positionStates);
+
+        assertTrue(areaOfInterest.isInterested(PlayerA, PlayerB));
+        assertTrue(areaOfInterest.isInterested(PlayerB, PlayerA), "Interest should be symmetric.");
+        assertFalse(areaOfInterest.isInterested(PlayerA, PlayerC));
+        assertFalse(areaOfInterest.isInterested(PlayerA, PlayerA), "Players should not be in their own interest.");
+        assertEquals(Set.of(), areaOfInterest.getInterest(PlayerC));
+    }
+
+    @Test
+    void checkUpdate_hysteresisKeepsPlayersUntilExitRadius() {
+        AreaOfInterest areaOfInterest = new AreaOfInterest(100f, 20f);
+        Map<UUID, PositionState> positionStates = new HashMap<>();
+        positionStates.put(PlayerA, positionAt(0f, 0f));
+        positionStates.put(PlayerB, positionAt(110f, 0f));
+
+        areaOfInterest.update(positionStates);
+        assertFalse(areaOfInterest.isInterested(PlayerA, PlayerB), "Players past the radius should not come into interest.");
+
+        positionStates.put(PlayerB, positionAt(90f, 0f));
+        areaOfInterest.update(positionStates);
+        assertTrue(areaOfInterest.isInterested(PlayerA, PlayerB));
+
+        positionStates.put(PlayerB, positionAt(110f, 0f));
+        areaOfInterest.update(positionStates);
+        assertTrue(areaOfInterest.isInterested(PlayerA, PlayerB), "Players inside the exit radius should stay in interest.");
+
+        positionStates.put(PlayerB, positionAt(130f, 0f));
+        areaOfInterest.update(positionStates);
+        assertFalse(areaOfInterest.isInterested(PlayerA, PlayerB), "Players past the exit radius should drop out of interest.");
+    }
+
+    @Test
+    void checkRemove_forgetsPlayer() {
+        AreaOfInterest areaOfInterest = new AreaOfInterest(100f, 20f);
+        Map<UUID, PositionState> positionStates = new HashMap<>();
+        positionStates.put(PlayerA, positionAt(0f, 0f));
+        positionStates.put(PlayerB, positionAt(10f, 0f));
+
+        areaOfInterest.update(positionStates);
+        areaOfInterest.remove(PlayerB);
+
+        assertFalse(areaOfInterest.isInterested(PlayerA, PlayerB));
+        assertEquals(Set.of(), areaOfInterest.getInterest(PlayerB));
+    }
+
+    private static PositionState positionAt(float x, float y) {
+        PositionState positionState = new PositionState();
+        positionState.setClientPosition(new ClientPosition(x, y));
+
+        return positionState;
+    }
+}
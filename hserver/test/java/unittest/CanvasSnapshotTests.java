@@ -0,0 +1,102 @@
+package unittest;
+
+import tech.fastj.partyhouse.CanvasSnapshot;
+import tech.fastj.partyhousecore.DrawingSnapshotAssembler;
+import tech.fastj.partyhousecore.DrawingState;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CanvasSnapshotTests {
+
+    @Test
+    void checkAssembler_restoresChunkedSnapshotExactly() {
+        DrawingState canvas = drawnCanvas();
+        CanvasSnapshot snapshot = CanvasSnapshot.of(canvas, 64);
+        DrawingSnapshotAssembler assembler = new DrawingSnapshotAssembler();
+
+        assertTrue(snapshot.getChunkCount() > 2, "The snapshot should be big enough to need several chunks.");
+
+        // Reliable channels may still deliver chunks out of order across a reconnect, and repeat them.
+        for (int i = snapshot.getChunkCount() - 1; i >= 1; i--) {
+            assertFalse(assembler.accept(snapshot.getVersion(), i, snapshot.getChunkCount(), snapshot.getChunk(i)));
+        }
+
+        assertFalse(assembler.accept(snapshot.getVersion(), 1, snapshot.getChunkCount(), snapshot.getChunk(1)), "A repeated chunk should not count twice.");
+        assertTrue(assembler.accept(snapshot.getVersion(), 0, snapshot.getChunkCount(), snapshot.getChunk(0)));
+
+        DrawingState receiver = new DrawingState(canvas.getWidth(), canvas.getHeight());
+
+        assertEquals(canvas.getVersion(), assembler.applyTo(receiver));
+        assertCanvasesEqual(canvas, receiver);
+    }
+
+    @Test
+    void checkAssembler_newerSnapshotReplacesPartialOne() {
+        DrawingState canvas = drawnCanvas();
+        CanvasSnapshot olderSnapshot = CanvasSnapshot.of(canvas, 64);
+        canvas.setPixel(0, 0);
+        CanvasSnapshot newerSnapshot = CanvasSnapshot.of(canvas, 64);
+        DrawingSnapshotAssembler assembler = new DrawingSnapshotAssembler();
+
+        assembler.accept(olderSnapshot.getVersion(), 0, olderSnapshot.getChunkCount(), olderSnapshot.getChunk(0));
+
+        for (int i = 0; i < newerSnapshot.getChunkCount(); i++) {
+            assembler.accept(newerSnapshot.getVersion(), i, newerSnapshot.getChunkCount(), newerSnapshot.getChunk(i));
+        }
+
+        DrawingState receiver = new DrawingState(canvas.getWidth(), canvas.getHeight());
+
+        assertEquals(newerSnapshot.getVersion(), assembler.applyTo(receiver));
+        assertCanvasesEqual(canvas, receiver);
+    }
+
+    @Test
+    void checkAssembler_rejectsIncompleteSnapshot() {
+        CanvasSnapshot snapshot = CanvasSnapshot.of(drawnCanvas(), 64);
+        DrawingSnapshotAssembler assembler = new DrawingSnapshotAssembler();
+
+        assembler.accept(snapshot.getVersion(), 0, snapshot.getChunkCount(), snapshot.getChunk(0));
+
+        assertThrows(IllegalStateException.class, () -> assembler.applyTo(new DrawingState()));
+    }
+
+    @Test
+    void checkOf_blankCanvasIsOneChunk() {
+        CanvasSnapshot snapshot = CanvasSnapshot.of(new DrawingState(), 64);
+
+        assertEquals(1, snapshot.getChunkCount());
+        assertEquals(0L, snapshot.getVersion());
+    }
+
+    private static DrawingState drawnCanvas() {
+        DrawingState canvas = new DrawingState(128, 96);
+        Random random = new Random(41L);
+
+        for (int i = 0; i < 400; i++) {
+            canvas.setPixel(random.nextInt(canvas.getWidth()), random.nextInt(canvas.getHeight()));
+        }
+
+        for (int x = 0; x < canvas.getWidth(); x++) {
+            canvas.setPixel(x, 50);
+        }
+
+        return canvas;
+    }
+
+    private static void assertCanvasesEqual(DrawingState expected, DrawingState actual) {
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getPixel(x, y), actual.getPixel(x, y), "Pixel (" + x + ", " + y + ") differs.");
+            }
+        }
+
+        assertEquals(expected.getVersion(), actual.getVersion());
+    }
+}
@@ -0,0 +1,111 @@
+package unittest;
+
+import tech.fastj.partyhouse.PositionHistory;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PositionHistoryTests {
+
+    @Test
+    void checkRewind_interpolatesBetweenSamples() {
+        PositionHistory history = new PositionHistory(4);
+        history.record(100L, 0f, 10f, 350f);
+        history.record(200L, 100f, 30f, 10f);
+
+        PositionHistory.Sample sample = new PositionHistory.Sample();
+
+        assertTrue(history.rewind(125L, sample));
+        assertEquals(125L, sample.getTimestamp());
+        assertEquals(25f, sample.getX(), 0.001f);
+        assertEquals(15f, sample.getY(), 0.001f);
+        assertEquals(355f, sample.getAngle(), 0.001f, "Angles should be interpolated the short way around.");
+    }
+
+    @Test
+    void checkRewind_clampsToOldestAndNewestSamples() {
+        PositionHistory history = new PositionHistory(4);
+        history.record(100L, 0f, 0f, 0f);
+        history.record(200L, 100f, 0f, 0f);
+
+        PositionHistory.Sample sample = new PositionHistory.Sample();
+
+        assertTrue(history.rewind(50L, sample));
+        assertEquals(100L, sample.getTimestamp(), "Times before the oldest sample should clamp to it.");
+        assertEquals(0f, sample.getX());
+
+        assertTrue(history.rewind(300L, sample));
+        assertEquals(200L, sample.getTimestamp(), "Times after the newest sample should clamp to it.");
+        assertEquals(100f, sample.getX());
+    }
+
+    @Test
+    void checkRecord_wrapsAroundOnceFull() {
+        PositionHistory history = new PositionHistory(3);
+
+        for (int i = 1; i <= 5; i++) {
+            history.record(i * 100L, i, 0f, 0f);
+        }
+
+        assertEquals(3, history.size());
+        assertEquals(300L, history.getOldestTimestamp(), "The oldest samples should have been overwritten.");
+        assertEquals(500L, history.getNewestTimestamp());
+
+        PositionHistory.Sample sample = new PositionHistory.Sample();
+
+        assertTrue(history.rewind(350L, sample));
+        assertEquals(3.5f, sample.getX(), 0.001f, "Interpolation should work across the wrapped-around samples.");
+
+        assertTrue(history.rewind(450L, sample));
+        assertEquals(4.5f, sample.getX(), 0.001f);
+
+        assertTrue(history.rewind(100L, sample));
+        assertEquals(3f, sample.getX(), "Overwritten times should clamp to the oldest remaining sample.");
+    }
+
+    @Test
+    void checkRecord_sameTimestampReplacesNewestSample() {
+        PositionHistory history = new PositionHistory(3);
+        history.record(100L, 0f, 0f, 0f);
+        history.record(100L, 5f, 0f, 0f);
+
+        PositionHistory.Sample sample = new PositionHistory.Sample();
+
+        assertEquals(1, history.size());
+        assertTrue(history.rewind(100L, sample));
+        assertEquals(5f, sample.getX());
+    }
+
+    @Test
+    void checkRewind_rejectsTimestampsOutsideWindow() {
+        long tickNanos = TimeUnit.MILLISECONDS.toNanos(20L);
+        PositionHistory history = PositionHistory.forWindow(100L, TimeUnit.MILLISECONDS, 50);
+
+        for (int i = 0; i <= 10; i++) {
+            history.record(i * tickNanos, i, 0f, 0f);
+        }
+
+        long newest = history.getNewestTimestamp();
+        PositionHistory.Sample sample = new PositionHistory.Sample();
+
+        assertTrue(history.rewind(newest - TimeUnit.MILLISECONDS.toNanos(100L), sample), "The edge of the window should still rewind.");
+        assertEquals(5f, sample.getX(), 0.001f);
+        assertFalse(
+            history.rewind(newest - TimeUnit.MILLISECONDS.toNanos(101L), sample),
+            "Times further back than the window should not be rewound to."
+        );
+        assertEquals(5f, sample.getX(), 0.001f, "A rejected rewind should leave the result untouched.");
+    }
+
+    @Test
+    void checkRewind_emptyHistoryFails() {
+        assertFalse(new PositionHistory(2).rewind(0L, new PositionHistory.Sample()));
+        assertThrows(IllegalArgumentException.class, () -> new PositionHistory(1));
+    }
+}
@@ -0,0 +1,103 @@
+package unittest;
+
+import tech.fastj.partyhouse.SnowballSimulation;
+import tech.fastj.partyhousecore.ClientInfo;
+import tech.fastj.partyhousecore.ClientPosition;
+import tech.fastj.partyhousecore.PositionState;
+import tech.fastj.partyhousecore.SnowballInfo;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnowballSimulationTests {
+
+    private static final ClientInfo Thrower = new ClientInfo(UUID.randomUUID(), "thrower");
+    private static final ClientInfo OtherThrower = new ClientInfo(UUID.randomUUID(), "other thrower");
+
+    @Test
+    void checkStep_sweptPathHitsPlayerBetweenTicks() {
+        SnowballSimulation simulation = new SnowballSimulation();
+        PositionState target = player("target", 150f, 300f);
+
+        // 1000 units per second for a tenth of a second: from x = 100 to x = 200, well past the player.
+        simulation.throwSnowball(snowball(Thrower, 100f, 300f, 1f), 0f, List.of(target));
+        List<SnowballSimulation.Hit> hits = simulation.step(0.1f, List.of(target));
+
+        assertEquals(1, hits.size(), "A snowball that passes through a player within one step should still hit them.");
+        assertEquals(target.getClientInfo(), hits.get(0).clientHit());
+        assertEquals(150f, hits.get(0).snowballInfo().positionX(), 0.01f, "The hit should happen where the path passes the player.");
+        assertTrue(target.isPlayerDead());
+        assertEquals(0, simulation.getSnowballCount(), "A snowball that hit someone should be removed.");
+    }
+
+    @Test
+    void checkStep_closestPlayerAlongPathIsHit() {
+        SnowballSimulation simulation = new SnowballSimulation();
+        PositionState farther = player("farther", 180f, 300f);
+        PositionState closer = player("closer", 140f, 300f);
+
+        simulation.throwSnowball(snowball(Thrower, 100f, 300f, 1f), 0f, List.of());
+        List<SnowballSimulation.Hit> hits = simulation.step(0.1f, List.of(farther, closer));
+
+        assertEquals(1, hits.size());
+        assertEquals(closer.getClientInfo(), hits.get(0).clientHit(), "The first player along the path should be hit.");
+        assertFalse(farther.isPlayerDead(), "Players behind the one hit should be left alone.");
+    }
+
+    @Test
+    void checkStep_playerIsNotHitTwiceInOneStep() {
+        SnowballSimulation simulation = new SnowballSimulation();
+        PositionState target = player("target", 150f, 300f);
+
+        simulation.throwSnowball(snowball(Thrower, 100f, 300f, 1f), 0f, List.of());
+        simulation.throwSnowball(snowball(OtherThrower, 200f, 300f, -1f), 0f, List.of());
+        List<SnowballSimulation.Hit> hits = simulation.step(0.1f, List.of(target));
+
+        assertEquals(1, hits.size(), "Only one of the two snowballs should count as a hit.");
+        assertEquals(1, simulation.getSnowballCount(), "The snowball that missed out should keep flying.");
+        assertTrue(simulation.step(0.1f, List.of(target)).isEmpty(), "A dead player should not be hit again.");
+    }
+
+    @Test
+    void checkStep_throwerIsNotHitByOwnSnowball() {
+        SnowballSimulation simulation = new SnowballSimulation();
+        PositionState thrower = new PositionState();
+        thrower.setClientInfo(Thrower);
+        thrower.setClientPosition(new ClientPosition(150f - SnowballSimulation.PlayerRadius, 300f - SnowballSimulation.PlayerRadius));
+
+        simulation.throwSnowball(snowball(Thrower, 100f, 300f, 1f), 0f, List.of());
+
+        assertTrue(simulation.step(0.1f, List.of(thrower)).isEmpty());
+        assertFalse(thrower.isPlayerDead());
+    }
+
+    @Test
+    void checkThrowSnowball_catchUpHitsRewoundPlayers() {
+        SnowballSimulation simulation = new SnowballSimulation();
+        PositionState seenTarget = player("target", 150f, 300f);
+
+        List<SnowballSimulation.Hit> hits = simulation.throwSnowball(snowball(Thrower, 100f, 300f, 1f), 0.1f, List.of(seenTarget));
+
+        assertEquals(1, hits.size(), "The flight the thrower already saw should be tested against where they saw players.");
+        assertEquals(0, simulation.getSnowballCount());
+    }
+
+    /** A living player whose center is at {@code (centerX, centerY)}. */
+    private static PositionState player(String name, float centerX, float centerY) {
+        PositionState positionState = new PositionState();
+        positionState.setClientInfo(new ClientInfo(UUID.randomUUID(), name));
+        positionState.setClientPosition(new ClientPosition(centerX - SnowballSimulation.PlayerRadius, centerY - SnowballSimulation.PlayerRadius));
+
+        return positionState;
+    }
+
+    private static SnowballInfo snowball(ClientInfo thrower, float x, float y, float trajectoryX) {
+        return new SnowballInfo(thrower, UUID.randomUUID(), trajectoryX, 0f, x, y, 0f, 1f);
+    }
+}
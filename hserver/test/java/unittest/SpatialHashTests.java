@@ -0,0 +1,61 @@
+package unittest;
+
+import tech.fastj.partyhouse.SpatialHash;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpatialHashTests {
+
+    @Test
+    void checkQuery_returnsItemsInOverlappingCells() {
+        SpatialHash<String> spatialHash = new SpatialHash<>(10f);
+        spatialHash.insert("near", 5f, 5f);
+        spatialHash.insert("neighbour", 15f, 5f);
+        spatialHash.insert("far", 95f, 95f);
+
+        List<String> found = new ArrayList<>();
+        spatialHash.query(0f, 0f, 12f, 8f, found::add);
+
+        assertTrue(found.contains("near"));
+        assertTrue(found.contains("neighbour"), "Items in any cell the box touches should be returned.");
+        assertEquals(2, found.size(), "Items in cells the box does not touch should be left out.");
+    }
+
+    @Test
+    void checkQuery_handlesNegativeCoordinates() {
+        SpatialHash<String> spatialHash = new SpatialHash<>(10f);
+        spatialHash.insert("negative", -5f, -5f);
+        spatialHash.insert("positive", 5f, 5f);
+
+        List<String> found = new ArrayList<>();
+        spatialHash.query(-8f, -8f, -2f, -2f, found::add);
+
+        assertEquals(List.of("negative"), found, "Cells just below zero should not be merged with the ones above it.");
+    }
+
+    @Test
+    void checkClear_removesItemsAndAllowsRefilling() {
+        SpatialHash<String> spatialHash = new SpatialHash<>(10f);
+        spatialHash.insert("before", 5f, 5f);
+        spatialHash.clear();
+        spatialHash.insert("after", 5f, 5f);
+
+        List<String> found = new ArrayList<>();
+        spatialHash.query(0f, 0f, 9f, 9f, found::add);
+
+        assertEquals(List.of("after"), found);
+        assertEquals(1, spatialHash.size());
+    }
+
+    @Test
+    void checkConstructor_rejectsNonPositiveCellSize() {
+        assertThrows(IllegalArgumentException.class, () -> new SpatialHash<String>(0f));
+    }
+}
@@ -0,0 +1,62 @@
+package unittest;
+
+import tech.fastj.partyhouse.StepBudget;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StepBudgetTests {
+
+    private static final long StepNanos = TimeUnit.MILLISECONDS.toNanos(20L);
+
+    @Test
+    void checkTake_grantsOnlyTheAllowanceAtOnce() {
+        StepBudget budget = new StepBudget(50, 10, 0L);
+
+        assertEquals(10, budget.take(32, 0L), "A burst of steps should be capped at the allowance.");
+        assertEquals(0, budget.take(1, 0L));
+    }
+
+    @Test
+    void checkTake_earnsOneStepPerFixedUpdate() {
+        StepBudget budget = new StepBudget(50, 10, 0L);
+        budget.take(10, 0L);
+
+        assertEquals(0, budget.take(5, StepNanos - 1L));
+        assertEquals(1, budget.take(5, StepNanos));
+        assertEquals(3, budget.take(5, 4 * StepNanos + StepNanos / 2));
+        assertEquals(1, budget.take(5, 5 * StepNanos), "Part of a step earned earlier should carry over.");
+    }
+
+    @Test
+    void checkTake_cannotOutpaceTheFixedUpdateRate() {
+        StepBudget budget = new StepBudget(50, 10, 0L);
+        int granted = 0;
+
+        // A client sending 32 steps every fixed update, trying to move 32 times as fast.
+        for (int update = 0; update <= 50; update++) {
+            granted += budget.take(32, update * StepNanos);
+        }
+
+        assertEquals(60, granted, "Over a second, only the allowance plus one step per fixed update should be granted.");
+    }
+
+    @Test
+    void checkTake_savesUpToTheAllowance() {
+        StepBudget budget = new StepBudget(50, 10, 0L);
+        budget.take(10, 0L);
+
+        assertEquals(10, budget.getAvailable(TimeUnit.SECONDS.toNanos(5L)), "Idle time should not save up more than the allowance.");
+        assertEquals(0, budget.take(-1, TimeUnit.SECONDS.toNanos(5L)));
+    }
+
+    @Test
+    void checkNew_rejectsNonPositiveArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new StepBudget(0, 10, 0L));
+        assertThrows(IllegalArgumentException.class, () -> new StepBudget(50, 0, 0L));
+    }
+}
@@ -0,0 +1,138 @@
+package unittest;
+
+import tech.fastj.partyhouse.StrokeRasterizer;
+import tech.fastj.partyhousecore.DrawingState;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StrokeRasterizerTests {
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void createPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void shutdownPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void checkRasterize_drawsCapsuleAroundSegment() {
+        DrawingState canvas = new DrawingState(64, 64);
+        StrokeRasterizer rasterizer = new StrokeRasterizer();
+
+        // A width of 7 is a radius of 3.5 around the segment from (20, 20) to (40, 20).
+        rasterizer.add(new short[] {20, 20, 40, 20}, 7);
+        rasterizer.rasterize(canvas);
+
+        assertTrue(canvas.getPixel(30, 23), "Pixels within the radius of the segment should be drawn.");
+        assertFalse(canvas.getPixel(30, 24), "Pixels past the radius should be left alone.");
+        assertTrue(canvas.getPixel(17, 20), "The stroke should have a round cap past its start.");
+        assertTrue(canvas.getPixel(43, 20), "The stroke should have a round cap past its end.");
+        assertFalse(canvas.getPixel(16, 20));
+        assertFalse(canvas.getPixel(17, 17), "Cap corners should be rounded off, not square.");
+        assertTrue(canvas.getPixel(18, 18));
+    }
+
+    @Test
+    void checkRasterize_joinsSegmentsRoundly() {
+        DrawingState canvas = new DrawingState(64, 64);
+        StrokeRasterizer rasterizer = new StrokeRasterizer();
+
+        rasterizer.add(new short[] {10, 10, 30, 10, 30, 30}, 5);
+        rasterizer.rasterize(canvas);
+
+        assertTrue(canvas.getPixel(32, 9), "The outside of the corner should be filled by the round join.");
+        assertTrue(canvas.getPixel(31, 8));
+        assertFalse(canvas.getPixel(32, 8), "The join should not reach the corner of a square.");
+        assertTrue(canvas.getPixel(30, 30));
+    }
+
+    @Test
+    void checkRasterize_singlePointDrawsDot() {
+        DrawingState canvas = new DrawingState(64, 64);
+        StrokeRasterizer rasterizer = new StrokeRasterizer();
+
+        rasterizer.add(new short[] {10, 10}, 4);
+        rasterizer.rasterize(canvas);
+
+        assertTrue(canvas.getPixel(10, 10));
+        assertTrue(canvas.getPixel(12, 10));
+        assertFalse(canvas.getPixel(13, 10));
+        assertFalse(canvas.getPixel(12, 12));
+    }
+
+    @Test
+    void checkRasterize_clipsAtCanvasEdges() {
+        DrawingState canvas = new DrawingState(50, 40);
+        StrokeRasterizer rasterizer = new StrokeRasterizer();
+
+        rasterizer.add(new short[] {-10, 0, 60, 0}, 4);
+        rasterizer.add(new short[] {49, -5, 49, 100}, 2);
+        rasterizer.add(new short[] {-100, -100, -50, -100}, 6);
+
+        assertEquals(3, rasterizer.rasterize(canvas), "Only the tiles inside the canvas should change.");
+        assertTrue(canvas.getPixel(0, 0));
+        assertTrue(canvas.getPixel(49, 0));
+        assertTrue(canvas.getPixel(49, 39));
+        assertFalse(canvas.getPixel(0, 39));
+        assertEquals(0, rasterizer.getPendingCount(), "Rasterizing should use up the queued strokes.");
+    }
+
+    @Test
+    void checkRasterize_parallelMatchesSerial() {
+        Random random = new Random(3L);
+        short[][] strokes = new short[60][];
+        int[] widths = new int[strokes.length];
+
+        for (int i = 0; i < strokes.length; i++) {
+            strokes[i] = new short[2 * (1 + random.nextInt(6))];
+            widths[i] = 1 + random.nextInt(12);
+
+            for (int j = 0; j < strokes[i].length; j++) {
+                strokes[i][j] = (short) (random.nextInt(460) - 30);
+            }
+        }
+
+        DrawingState serialCanvas = new DrawingState();
+        DrawingState parallelCanvas = new DrawingState();
+        StrokeRasterizer serialRasterizer = new StrokeRasterizer(pool, Integer.MAX_VALUE);
+        StrokeRasterizer parallelRasterizer = new StrokeRasterizer(pool, 1);
+
+        for (int i = 0; i < strokes.length; i++) {
+            serialRasterizer.add(strokes[i], widths[i]);
+            parallelRasterizer.add(strokes[i], widths[i]);
+        }
+
+        assertEquals(serialRasterizer.rasterize(serialCanvas), parallelRasterizer.rasterize(parallelCanvas));
+        assertEquals(serialCanvas.getVersion(), parallelCanvas.getVersion());
+
+        for (int y = 0; y < serialCanvas.getHeight(); y++) {
+            for (int x = 0; x < serialCanvas.getWidth(); x++) {
+                assertEquals(serialCanvas.getPixel(x, y), parallelCanvas.getPixel(x, y), "Pixel (" + x + ", " + y + ") differs.");
+            }
+        }
+    }
+
+    @Test
+    void checkAdd_rejectsInvalidStrokes() {
+        StrokeRasterizer rasterizer = new StrokeRasterizer();
+
+        assertThrows(IllegalArgumentException.class, () -> rasterizer.add(new short[] {1, 2, 3}, 2));
+        assertThrows(IllegalArgumentException.class, () -> rasterizer.add(new short[0], 2));
+        assertThrows(IllegalArgumentException.class, () -> rasterizer.add(new short[] {1, 2}, 0));
+    }
+}
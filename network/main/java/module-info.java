@@ -7,6 +7,7 @@ module fastj.network {
     exports tech.fastj.network.rpc.classes;
     exports tech.fastj.network.rpc.message;
     exports tech.fastj.network.rpc.message.prebuilt;
+    exports tech.fastj.network.rpc.udp;
 
     exports tech.fastj.network.serial;
     exports tech.fastj.network.serial.util;
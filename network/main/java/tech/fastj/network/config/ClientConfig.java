@@ -1,9 +1,23 @@
 package tech.fastj.network.config;
 
+import tech.fastj.network.rpc.SendUtils;
+
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 
-public record ClientConfig(InetAddress address, int port) {
+/**
+ * Address and port of a connection's other end, plus the largest UDP datagram to send it. Datagrams over {@code udpMtu}
+ * bytes are split into fragments.
+ */
+public record ClientConfig(InetAddress address, int port, int udpMtu) {
+
+    public ClientConfig {
+        SendUtils.checkUdpMtu(udpMtu);
+    }
+
+    public ClientConfig(InetAddress address, int port) {
+        this(address, port, SendUtils.DefaultUdpMtu);
+    }
 
     public ClientConfig(int port) throws UnknownHostException {
         this(InetAddress.getLocalHost(), port);
@@ -1,13 +1,32 @@
 package tech.fastj.network.config;
 
+import tech.fastj.network.rpc.SendUtils;
+import tech.fastj.network.sessions.LobbyWorkers;
+
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 
-public record ServerConfig(InetAddress address, int port, int maxClients, int clientBacklog) {
+public record ServerConfig(InetAddress address, int port, int maxClients, int clientBacklog, int udpMtu, int lobbyWorkers) {
 
     public static final int DefaultMaxClients = 4;
     public static final int DefaultClientBacklog = 10;
 
+    public ServerConfig {
+        SendUtils.checkUdpMtu(udpMtu);
+
+        if (lobbyWorkers <= 0) {
+            throw new IllegalArgumentException("Lobby worker count must be positive, not " + lobbyWorkers + ".");
+        }
+    }
+
+    public ServerConfig(InetAddress address, int port, int maxClients, int clientBacklog, int udpMtu) {
+        this(address, port, maxClients, clientBacklog, udpMtu, LobbyWorkers.DefaultWorkerCount);
+    }
+
+    public ServerConfig(InetAddress address, int port, int maxClients, int clientBacklog) {
+        this(address, port, maxClients, clientBacklog, SendUtils.DefaultUdpMtu);
+    }
+
     public ServerConfig(int port) throws UnknownHostException {
         this(InetAddress.getLocalHost(), port, DefaultMaxClients, DefaultClientBacklog);
     }
@@ -8,6 +8,9 @@ import tech.fastj.network.rpc.message.RequestType;
 import tech.fastj.network.rpc.message.SentMessageType;
 import tech.fastj.network.rpc.message.prebuilt.LobbyIdentifier;
 import tech.fastj.network.rpc.message.prebuilt.SessionIdentifier;
+import tech.fastj.network.rpc.udp.FragmentReassembler;
+import tech.fastj.network.rpc.udp.SequenceNumbers;
+import tech.fastj.network.rpc.udp.StaleCommandFilter;
 import tech.fastj.network.serial.read.MessageInputStream;
 import tech.fastj.network.serial.util.MessageUtils;
 
@@ -18,7 +21,6 @@ import java.util.Arrays;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
@@ -34,10 +36,12 @@ public class Client extends ConnectionHandler<Client> implements Runnable, Netwo
     public static final int Leave = 1;
     public static final int Join = 0;
 
-    private ScheduledExecutorService pingSender;
+    private TimingWheel.Timeout pingSender;
     private boolean isSendingPings;
+    private int nextPingSequence;
+    private volatile PingEcho lastPingEcho;
 
-    private ScheduledExecutorService keepAliveSender;
+    private TimingWheel.Timeout keepAliveSender;
     private boolean isSendingKeepAlives;
 
     private LongConsumer onPingReceived;
@@ -52,6 +56,8 @@ public class Client extends ConnectionHandler<Client> implements Runnable, Netwo
     private volatile boolean recentLobbyUpdate;
 
     private final ExecutorService updateFreshener;
+    private final StaleCommandFilter staleCommandFilter;
+    private final FragmentReassembler fragmentReassembler;
 
     public Client(ClientConfig clientConfig) throws IOException {
         super(clientConfig);
@@ -63,10 +69,16 @@ public class Client extends ConnectionHandler<Client> implements Runnable, Netwo
         };
 
         updateFreshener = Executors.newWorkStealingPool();
+        staleCommandFilter = new StaleCommandFilter();
+        fragmentReassembler = new FragmentReassembler();
         serializer.registerSerializer(SessionIdentifier.class);
         serializer.registerSerializer(LobbyIdentifier.class);
     }
 
+    public StaleCommandFilter getStaleCommandFilter() {
+        return staleCommandFilter;
+    }
+
     @Override
     public void connect() throws IOException {
         super.connect();
@@ -116,20 +128,28 @@ public class Client extends ConnectionHandler<Client> implements Runnable, Netwo
 
         isSendingPings = true;
 
-        pingSender = Executors.newSingleThreadScheduledExecutor();
-        pingSender.scheduleAtFixedRate(this::sendPing, 0L, delay, delayUnit);
+        pingSender = TimingWheel.shared().scheduleAtFixedRate(this::sendPing, 0L, delay, delayUnit);
 
         return true;
     }
 
     private void sendPing() {
-        byte[] packetData = ByteBuffer.allocate(MessageUtils.UuidBytes + MessageUtils.EnumBytes + Long.BYTES)
+        long currentTime = System.nanoTime();
+        PingEcho pingEcho = lastPingEcho;
+
+        // Echoing the server's last timestamp and how long it was held here lets the server measure round-trip time too.
+        byte[] packetData = ByteBuffer.allocate(MessageUtils.UuidBytes + MessageUtils.EnumBytes + Short.BYTES + (Long.BYTES * 3))
             .putLong(clientId.getMostSignificantBits())
             .putLong(clientId.getLeastSignificantBits())
             .putInt(SentMessageType.PingRequest.ordinal())
-            .putLong(System.nanoTime())
+            .putShort((short) nextPingSequence)
+            .putLong(currentTime)
+            .putLong(pingEcho == null ? 0L : pingEcho.serverTime())
+            .putLong(pingEcho == null ? -1L : currentTime - pingEcho.receivedAt())
             .array();
 
+        nextPingSequence = SequenceNumbers.next(nextPingSequence);
+
         DatagramPacket packet = SendUtils.buildPacket(clientConfig, packetData);
 
         ClientLogger.trace("sending ping to {}:{}", clientConfig.address(), clientConfig.port());
@@ -142,6 +162,22 @@ public class Client extends ConnectionHandler<Client> implements Runnable, Netwo
         }
     }
 
+    private void receivePingResponse(MessageInputStream inputStream) throws IOException {
+        long currentTimestamp = System.nanoTime();
+        int sequence = inputStream.readUnsignedShort();
+        long sentTimestamp = inputStream.readLong();
+        long serverTimestamp = inputStream.readLong();
+        long pingNanos = currentTimestamp - sentTimestamp;
+
+        lastPingEcho = new PingEcho(serverTimestamp, currentTimestamp);
+
+        connectionQuality.receivedSequence(sequence);
+        connectionQuality.addRttSample(pingNanos);
+        connectionQuality.addClockSample(serverTimestamp, sentTimestamp + (pingNanos / 2));
+
+        onPingReceived.accept(pingNanos);
+    }
+
     public boolean stopPings() {
         if (!isSendingPings) {
             return false;
@@ -149,7 +185,7 @@ public class Client extends ConnectionHandler<Client> implements Runnable, Netwo
 
         isSendingPings = false;
 
-        pingSender.shutdownNow();
+        pingSender.cancel();
         pingSender = null;
 
         return true;
@@ -166,8 +202,7 @@ public class Client extends ConnectionHandler<Client> implements Runnable, Netwo
 
         isSendingKeepAlives = true;
 
-        keepAliveSender = Executors.newSingleThreadScheduledExecutor();
-        keepAliveSender.scheduleAtFixedRate(this::sendKeepAlives, 0L, delay, delayUnit);
+        keepAliveSender = TimingWheel.shared().scheduleAtFixedRate(this::sendKeepAlives, 0L, delay, delayUnit);
 
         return true;
     }
@@ -188,7 +223,7 @@ public class Client extends ConnectionHandler<Client> implements Runnable, Netwo
 
         isSendingKeepAlives = false;
 
-        keepAliveSender.shutdownNow();
+        keepAliveSender.cancel();
         keepAliveSender = null;
 
         return true;
@@ -262,7 +297,11 @@ public class Client extends ConnectionHandler<Client> implements Runnable, Netwo
 
         switch (networkType) {
             case TCP -> SendUtils.sendTCPCommand(tcpOut, commandTarget, commandId, rawData);
-            case UDP -> SendUtils.sendUDPCommand(udpSocket, clientConfig, commandTarget, commandId, clientId, rawData);
+            case UDP -> {
+                int sequence = commandSequences.next(commandId.uuid());
+                SendUtils.sendUDPCommand(udpSocket, clientConfig, commandTarget, commandId, sequence, clientId, null, rawData);
+            }
+            case ReliableUDP, ReliableOrderedUDP -> sendReliable(networkType, SendUtils.buildUDPCommandBody(commandTarget, commandId.uuid(), rawData));
         }
     }
 
@@ -272,6 +311,7 @@ public class Client extends ConnectionHandler<Client> implements Runnable, Netwo
         switch (networkType) {
             case TCP -> SendUtils.sendTCPRequest(tcpOut, requestType, rawData);
             case UDP -> SendUtils.sendUDPRequest(udpSocket, clientConfig, requestType, clientId, rawData);
+            case ReliableUDP, ReliableOrderedUDP -> sendReliable(networkType, SendUtils.buildUDPRequestBody(requestType, rawData));
         }
     }
 
@@ -282,6 +322,7 @@ public class Client extends ConnectionHandler<Client> implements Runnable, Netwo
         switch (networkType) {
             case TCP -> SendUtils.sendTCPDisconnect(tcpOut);
             case UDP -> SendUtils.sendUDPDisconnect(clientId, udpSocket, clientConfig);
+            case ReliableUDP, ReliableOrderedUDP -> sendReliable(networkType, SendUtils.buildTCPDisconnect());
         }
     }
 
@@ -292,21 +333,27 @@ public class Client extends ConnectionHandler<Client> implements Runnable, Netwo
         switch (networkType) {
             case TCP -> SendUtils.sendTCPKeepAlive(tcpOut);
             case UDP -> SendUtils.sendUDPKeepAlive(clientId, udpSocket, clientConfig);
+            case ReliableUDP, ReliableOrderedUDP -> sendReliable(networkType, SendUtils.buildTCPKeepAlive());
         }
     }
 
+    @Override
+    public ClientConfig getUdpConfig() {
+        return clientConfig;
+    }
+
+    @Override
+    protected FragmentReassembler getFragmentReassembler() {
+        return fragmentReassembler;
+    }
+
     @Override
     protected void readMessageType(NetworkType networkType, UUID senderId, MessageInputStream inputStream, SentMessageType sentMessageType)
         throws IOException {
         switch (sentMessageType) {
             case KeepAlive -> ClientLogger.debug("{} Received {} keep-alive packet.", senderId, networkType);
             case Disconnect -> disconnect();
-            case PingResponse -> {
-                long currentTimestamp = System.nanoTime();
-                long otherTimestamp = inputStream.readLong();
-                long pingNanos = currentTimestamp - otherTimestamp;
-                onPingReceived.accept(pingNanos);
-            }
+            case PingResponse -> receivePingResponse(inputStream);
             case LobbyUpdate -> {
                 LobbyIdentifier newLobby = (LobbyIdentifier) inputStream.readObject(LobbyIdentifier.class);
                 LobbyIdentifier oldLobby = currentLobby;
@@ -329,18 +376,37 @@ public class Client extends ConnectionHandler<Client> implements Runnable, Netwo
 
                 onSessionUpdate.accept(oldSession, newSession);
             }
+            case ReliablePacket -> receiveReliablePacket(senderId, inputStream);
+            case ReliableAck -> receiveReliableAck(inputStream);
+            case Fragment -> receiveFragment(senderId, inputStream);
             case AvailableLobbiesUpdate -> tempAvailableLobbies = (LobbyIdentifier[]) inputStream.readObject(LobbyIdentifier[].class);
             case RPCCommand -> {
                 CommandTarget commandTarget = (CommandTarget) inputStream.readObject(CommandTarget.class);
                 long dataLength;
+                int sequence = 0;
+                UUID subjectId = senderId;
 
                 if (networkType == NetworkType.TCP) {
                     dataLength = inputStream.readLong();
                 } else {
+                    if (networkType == NetworkType.UDP) {
+                        sequence = inputStream.readUnsignedShort();
+
+                        if (inputStream.readBoolean()) {
+                            subjectId = (UUID) inputStream.readObject(UUID.class);
+                        }
+                    }
+
                     dataLength = inputStream.available() - MessageUtils.UuidBytes;
                 }
 
                 UUID commandId = (UUID) inputStream.readObject(UUID.class);
+
+                if (networkType == NetworkType.UDP && !staleCommandFilter.accept(subjectId, commandId, sequence)) {
+                    ClientLogger.trace("{} dropping stale UDP command \"{}\" about {} with sequence {}", senderId, commandId, subjectId, sequence);
+                    return;
+                }
+
                 ClientLogger.debug("RPC Command {} targeting {} with data length {}", commandId, commandTarget.name(), dataLength);
 
                 if (commandTarget != CommandTarget.Client) {
@@ -367,4 +433,7 @@ public class Client extends ConnectionHandler<Client> implements Runnable, Netwo
         updateFreshener.shutdownNow();
         udpSocket.close();
     }
+
+    private record PingEcho(long serverTime, long receivedAt) {
+    }
 }
@@ -142,57 +142,57 @@ public abstract class CommandHandler<T extends ConnectionHandler<?>> {
         }
 
         if (classes instanceof Classes0) {
-            runCommand(commandId, client);
+            execute(() -> runCommand(commandId, client));
         } else if (classes instanceof Classes1<?> classes1) {
-            runCommand(commandId, client, readObject(classes1.t1(), inputStream));
+            Object t1 = readObject(classes1.t1(), inputStream);
+
+            execute(() -> runCommand(commandId, client, t1));
         } else if (classes instanceof Classes2<?, ?> classes2) {
-            runCommand(
-                commandId,
-                client,
-                readObject(classes2.t1(), inputStream),
-                readObject(classes2.t2(), inputStream)
-            );
+            Object t1 = readObject(classes2.t1(), inputStream);
+            Object t2 = readObject(classes2.t2(), inputStream);
+
+            execute(() -> runCommand(commandId, client, t1, t2));
         } else if (classes instanceof Classes3<?, ?, ?> classes3) {
-            runCommand(
-                commandId,
-                client,
-                readObject(classes3.t1(), inputStream),
-                readObject(classes3.t2(), inputStream),
-                readObject(classes3.t3(), inputStream)
-            );
+            Object t1 = readObject(classes3.t1(), inputStream);
+            Object t2 = readObject(classes3.t2(), inputStream);
+            Object t3 = readObject(classes3.t3(), inputStream);
+
+            execute(() -> runCommand(commandId, client, t1, t2, t3));
         } else if (classes instanceof Classes4<?, ?, ?, ?> classes4) {
-            runCommand(
-                commandId,
-                client,
-                readObject(classes4.t1(), inputStream),
-                readObject(classes4.t2(), inputStream),
-                readObject(classes4.t3(), inputStream),
-                readObject(classes4.t4(), inputStream)
-            );
+            Object t1 = readObject(classes4.t1(), inputStream);
+            Object t2 = readObject(classes4.t2(), inputStream);
+            Object t3 = readObject(classes4.t3(), inputStream);
+            Object t4 = readObject(classes4.t4(), inputStream);
+
+            execute(() -> runCommand(commandId, client, t1, t2, t3, t4));
         } else if (classes instanceof Classes5<?, ?, ?, ?, ?> classes5) {
-            runCommand(
-                commandId,
-                client,
-                readObject(classes5.t1(), inputStream),
-                readObject(classes5.t2(), inputStream),
-                readObject(classes5.t3(), inputStream),
-                readObject(classes5.t4(), inputStream),
-                readObject(classes5.t5(), inputStream)
-            );
+            Object t1 = readObject(classes5.t1(), inputStream);
+            Object t2 = readObject(classes5.t2(), inputStream);
+            Object t3 = readObject(classes5.t3(), inputStream);
+            Object t4 = readObject(classes5.t4(), inputStream);
+            Object t5 = readObject(classes5.t5(), inputStream);
+
+            execute(() -> runCommand(commandId, client, t1, t2, t3, t4, t5));
         } else if (classes instanceof Classes6<?, ?, ?, ?, ?, ?> classes6) {
-            runCommand(
-                commandId,
-                client,
-                readObject(classes6.t1(), inputStream),
-                readObject(classes6.t2(), inputStream),
-                readObject(classes6.t3(), inputStream),
-                readObject(classes6.t4(), inputStream),
-                readObject(classes6.t5(), inputStream),
-                readObject(classes6.t6(), inputStream)
-            );
+            Object t1 = readObject(classes6.t1(), inputStream);
+            Object t2 = readObject(classes6.t2(), inputStream);
+            Object t3 = readObject(classes6.t3(), inputStream);
+            Object t4 = readObject(classes6.t4(), inputStream);
+            Object t5 = readObject(classes6.t5(), inputStream);
+            Object t6 = readObject(classes6.t6(), inputStream);
+
+            execute(() -> runCommand(commandId, client, t1, t2, t3, t4, t5, t6));
         }
     }
 
+    /**
+     * Runs a command whose arguments have already been read. Commands run right away on the receiving thread; handlers
+     * that own a thread of their own override this to hand the command over to it.
+     */
+    protected void execute(Runnable command) {
+        command.run();
+    }
+
     @SuppressWarnings("unchecked")
     protected Object readObject(Class<?> objectClass, MessageInputStream inputStream) throws IOException {
         return inputStream.readObject(objectClass);
@@ -3,6 +3,9 @@ package tech.fastj.network.rpc;
 import tech.fastj.network.config.ClientConfig;
 import tech.fastj.network.rpc.message.NetworkType;
 import tech.fastj.network.rpc.message.SentMessageType;
+import tech.fastj.network.rpc.udp.CommandSequences;
+import tech.fastj.network.rpc.udp.FragmentReassembler;
+import tech.fastj.network.rpc.udp.ReliableChannel;
 import tech.fastj.network.serial.Serializer;
 import tech.fastj.network.serial.read.MessageInputStream;
 import tech.fastj.network.serial.write.MessageOutputStream;
@@ -18,10 +21,14 @@ import java.util.Arrays;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 public abstract class ConnectionHandler<T extends ConnectionHandler<?>> extends CommandHandler<T> implements Runnable, NetworkSender {
 
+    /** Interval between retransmission/acknowledgement checks of the reliable UDP channels, in milliseconds. */
+    public static final long ReliableUpdateInterval = 10L;
+
     protected final Socket tcpSocket;
     protected final DatagramSocket udpSocket;
 
@@ -38,6 +45,13 @@ public abstract class ConnectionHandler<T extends ConnectionHandler<?>> extends
     protected ExecutorService connectionListener;
     protected boolean isListening;
 
+    protected final ReliableChannel reliableChannel;
+    protected final ReliableChannel reliableOrderedChannel;
+    protected TimingWheel.Timeout reliableUpdater;
+
+    protected final CommandSequences commandSequences;
+    protected final ConnectionQuality connectionQuality;
+
     protected ConnectionHandler(Socket tcpSocket, DatagramSocket udpServer) throws IOException {
         this.clientConfig = new ClientConfig(tcpSocket.getInetAddress(), tcpSocket.getPort());
         this.clientId = UUID.randomUUID();
@@ -46,6 +60,11 @@ public abstract class ConnectionHandler<T extends ConnectionHandler<?>> extends
         this.tcpSocket.setSoTimeout(10000);
         udpSocket = udpServer;
 
+        reliableChannel = createReliableChannel(NetworkType.ReliableUDP);
+        reliableOrderedChannel = createReliableChannel(NetworkType.ReliableOrderedUDP);
+        commandSequences = new CommandSequences();
+        connectionQuality = new ConnectionQuality();
+
         onDisconnect = connectionHandler -> {};
     }
 
@@ -56,6 +75,11 @@ public abstract class ConnectionHandler<T extends ConnectionHandler<?>> extends
         tcpSocket.setSoTimeout(10000);
         udpSocket = new DatagramSocket();
 
+        reliableChannel = createReliableChannel(NetworkType.ReliableUDP);
+        reliableOrderedChannel = createReliableChannel(NetworkType.ReliableOrderedUDP);
+        commandSequences = new CommandSequences();
+        connectionQuality = new ConnectionQuality();
+
         onDisconnect = connectionHandler -> {};
     }
 
@@ -96,6 +120,18 @@ public abstract class ConnectionHandler<T extends ConnectionHandler<?>> extends
         return isListening;
     }
 
+    public ConnectionQuality getConnectionQuality() {
+        return connectionQuality;
+    }
+
+    public ReliableChannel getReliableChannel(NetworkType networkType) {
+        return switch (networkType) {
+            case ReliableUDP -> reliableChannel;
+            case ReliableOrderedUDP -> reliableOrderedChannel;
+            default -> throw new IllegalArgumentException("Network type " + networkType + " has no reliable channel.");
+        };
+    }
+
     public void setOnDisconnect(Consumer<T> onDisconnect) {
         this.onDisconnect = onDisconnect;
     }
@@ -125,6 +161,10 @@ public abstract class ConnectionHandler<T extends ConnectionHandler<?>> extends
         connectionListener = Executors.newFixedThreadPool(2);
         connectionListener.submit(this::listenTCP);
         connectionListener.submit(this::listenUDP);
+
+        reliableUpdater = TimingWheel.shared().scheduleAtFixedRate(
+            this::updateReliableChannels, ReliableUpdateInterval, ReliableUpdateInterval, TimeUnit.MILLISECONDS
+        );
     }
 
     public void stopListening() {
@@ -142,6 +182,11 @@ public abstract class ConnectionHandler<T extends ConnectionHandler<?>> extends
 
             connectionListener = null;
         }
+
+        if (reliableUpdater != null) {
+            reliableUpdater.cancel();
+            reliableUpdater = null;
+        }
     }
 
     protected void listenTCP() {
@@ -190,10 +235,11 @@ public abstract class ConnectionHandler<T extends ConnectionHandler<?>> extends
     protected void listenUDP() {
         getLogger().debug("{} begin listening on UDP.", clientId);
 
+        byte[] receivePacketBuffer = new byte[SendUtils.UdpMaxDatagramLength];
+
         while (isListening && !udpSocket.isClosed()) {
             try {
-                byte[] receivePacketBuffer = new byte[SendUtils.UdpPacketBufferLength];
-                DatagramPacket packet = new DatagramPacket(receivePacketBuffer, SendUtils.UdpPacketBufferLength);
+                DatagramPacket packet = new DatagramPacket(receivePacketBuffer, receivePacketBuffer.length);
 
                 getLogger().trace("{} waiting for new UDP packet...", clientId);
 
@@ -202,15 +248,7 @@ public abstract class ConnectionHandler<T extends ConnectionHandler<?>> extends
                 byte[] data = new byte[packet.getLength()];
                 System.arraycopy(packet.getData(), 0, data, 0, data.length);
 
-                MessageInputStream tempStream = new MessageInputStream(new ByteArrayInputStream(data), serializer);
-                UUID senderId = (UUID) tempStream.readObject(UUID.class);
-                SentMessageType sentMessageType = (SentMessageType) tempStream.readObject(SentMessageType.class);
-
-                if (sentMessageType != SentMessageType.PingRequest && sentMessageType != SentMessageType.PingResponse) {
-                    getLogger().trace("{} received UDP: {}", senderId, sentMessageType);
-                }
-
-                readMessageType(NetworkType.UDP, senderId, tempStream, sentMessageType);
+                readUDPPacket(data);
             } catch (SocketException exception) {
                 getLogger().warn("{} Error receiving UDP packet: {}", clientId, exception.getMessage());
 
@@ -233,6 +271,80 @@ public abstract class ConnectionHandler<T extends ConnectionHandler<?>> extends
         getLogger().debug("{} no longer listening on UDP.", clientId);
     }
 
+    protected void readUDPPacket(byte[] data) throws IOException {
+        MessageInputStream tempStream = new MessageInputStream(new ByteArrayInputStream(data), serializer);
+        UUID senderId = (UUID) tempStream.readObject(UUID.class);
+        SentMessageType sentMessageType = (SentMessageType) tempStream.readObject(SentMessageType.class);
+
+        if (sentMessageType != SentMessageType.PingRequest && sentMessageType != SentMessageType.PingResponse) {
+            getLogger().trace("{} received UDP: {}", senderId, sentMessageType);
+        }
+
+        readMessageType(NetworkType.UDP, senderId, tempStream, sentMessageType);
+    }
+
+    protected void receiveFragment(UUID senderId, MessageInputStream inputStream) throws IOException {
+        byte[] packetData = getFragmentReassembler().receiveFragment(senderId, inputStream, System.nanoTime());
+
+        if (packetData != null) {
+            readUDPPacket(packetData);
+        }
+    }
+
+    protected abstract FragmentReassembler getFragmentReassembler();
+
+    public abstract ClientConfig getUdpConfig();
+
+    protected void sendReliable(NetworkType networkType, byte[] payload) throws IOException {
+        int maxPayloadLength = SendUtils.maxReliablePayloadLength(getUdpConfig().udpMtu());
+
+        if (payload.length > maxPayloadLength) {
+            throw new IOException("Reliable UDP payload of " + payload.length + " bytes exceeds the maximum of " + maxPayloadLength + " bytes.");
+        }
+
+        getReliableChannel(networkType).send(payload);
+    }
+
+    public void receiveReliablePacket(UUID senderId, MessageInputStream inputStream) throws IOException {
+        NetworkType networkType = (NetworkType) inputStream.readObject(NetworkType.class);
+
+        getReliableChannel(networkType).receivePacket(inputStream, payload -> {
+            MessageInputStream payloadStream = new MessageInputStream(new ByteArrayInputStream(payload), serializer);
+            SentMessageType sentMessageType = (SentMessageType) payloadStream.readObject(SentMessageType.class);
+
+            readMessageType(networkType, senderId, payloadStream, sentMessageType);
+        });
+    }
+
+    public void receiveReliableAck(MessageInputStream inputStream) throws IOException {
+        NetworkType networkType = (NetworkType) inputStream.readObject(NetworkType.class);
+        getReliableChannel(networkType).receiveAck(inputStream);
+    }
+
+    protected void updateReliableChannels() {
+        try {
+            long currentTime = System.nanoTime();
+            reliableChannel.update(currentTime);
+            reliableOrderedChannel.update(currentTime);
+        } catch (IOException exception) {
+            getLogger().warn("{} unable to update reliable UDP channels: {}", clientId, exception.getMessage());
+        }
+    }
+
+    private ReliableChannel createReliableChannel(NetworkType networkType) {
+        return new ReliableChannel(networkType, new ReliableChannel.PacketSender() {
+            @Override
+            public void sendPacket(NetworkType networkType, int sequence, int ack, int ackBits, byte[] payload) throws IOException {
+                SendUtils.sendReliablePacket(udpSocket, getUdpConfig(), clientId, networkType, sequence, ack, ackBits, payload);
+            }
+
+            @Override
+            public void sendAck(NetworkType networkType, int ack, int ackBits) throws IOException {
+                SendUtils.sendReliableAck(udpSocket, getUdpConfig(), clientId, networkType, ack, ackBits);
+            }
+        });
+    }
+
     protected abstract void readMessageType(NetworkType tcp, UUID senderId, MessageInputStream in, SentMessageType sentMessageType)
         throws IOException;
 
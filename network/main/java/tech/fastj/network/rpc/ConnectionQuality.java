@@ -0,0 +1,148 @@
+package tech.fastj.network.rpc;
+
+import tech.fastj.network.rpc.udp.SequenceNumbers;
+
+/**
+ * Running estimate of a connection's round-trip time, jitter, packet loss and clock offset, fed by ping exchanges.
+ * <p>
+ * Round-trip time and its variance are smoothed the same way TCP does (RFC 6298). Loss is the share of missing sequence
+ * numbers among the last {@link #LossWindow} pings, so late or reordered pings still count as received. The clock offset
+ * is the remote {@link System#nanoTime()} minus the local one, for translating timestamps between the two ends.
+ */
+public class ConnectionQuality {
+
+    /** Number of most recent ping sequence numbers considered for packet loss. */
+    public static final int LossWindow = Long.SIZE;
+
+    private boolean hasRttSample;
+    private long smoothedRtt;
+    private long rttVariance;
+    private long latestRtt;
+    private long rttSampleCount;
+
+    private boolean hasReceivedSequence;
+    private int highestSequence;
+    private long receivedMask;
+    private int trackedSequences;
+
+    private boolean hasClockOffset;
+    private long clockOffset;
+
+    public synchronized boolean hasRttSample() {
+        return hasRttSample;
+    }
+
+    public synchronized long getSmoothedRttNanos() {
+        return smoothedRtt;
+    }
+
+    /** Mean deviation of round-trip time samples, a measure of jitter. */
+    public synchronized long getRttVarianceNanos() {
+        return rttVariance;
+    }
+
+    public synchronized long getLatestRttNanos() {
+        return latestRtt;
+    }
+
+    public synchronized long getRttSampleCount() {
+        return rttSampleCount;
+    }
+
+    /** Share of the recent pings that never arrived, from {@code 0.0} to {@code 1.0}. */
+    public synchronized double getPacketLoss() {
+        if (trackedSequences == 0) {
+            return 0.0;
+        }
+
+        return 1.0 - (double) Long.bitCount(receivedMask) / trackedSequences;
+    }
+
+    public synchronized long getClockOffsetNanos() {
+        return clockOffset;
+    }
+
+    /** Converts a local {@link System#nanoTime()} timestamp to the remote end's clock. */
+    public synchronized long toRemoteTime(long localNanos) {
+        return localNanos + clockOffset;
+    }
+
+    /** Converts a timestamp from the remote end's clock to a local {@link System#nanoTime()} timestamp. */
+    public synchronized long toLocalTime(long remoteNanos) {
+        return remoteNanos - clockOffset;
+    }
+
+    public synchronized void addRttSample(long rttNanos) {
+        if (rttNanos < 0L) {
+            return;
+        }
+
+        latestRtt = rttNanos;
+        rttSampleCount++;
+
+        if (!hasRttSample) {
+            hasRttSample = true;
+            smoothedRtt = rttNanos;
+            rttVariance = rttNanos / 2;
+        } else {
+            rttVariance = (3 * rttVariance + Math.abs(smoothedRtt - rttNanos)) / 4;
+            smoothedRtt = (7 * smoothedRtt + rttNanos) / 8;
+        }
+    }
+
+    /**
+     * Records that the remote end read {@code remoteTime} on its clock when this end read {@code localTime}, assuming the
+     * message carrying it took half a round trip to travel.
+     */
+    public synchronized void addClockSample(long remoteTime, long localTime) {
+        long offset = remoteTime - localTime;
+
+        if (!hasClockOffset) {
+            hasClockOffset = true;
+            clockOffset = offset;
+        } else {
+            clockOffset += (offset - clockOffset) / 8;
+        }
+    }
+
+    public synchronized void receivedSequence(int sequence) {
+        if (!hasReceivedSequence) {
+            hasReceivedSequence = true;
+            highestSequence = sequence;
+            receivedMask = 1L;
+            trackedSequences = 1;
+            return;
+        }
+
+        if (SequenceNumbers.isNewer(sequence, highestSequence)) {
+            int shift = SequenceNumbers.distance(sequence, highestSequence);
+
+            receivedMask = shift >= LossWindow ? 0L : receivedMask << shift;
+            receivedMask |= 1L;
+            highestSequence = sequence;
+            trackedSequences = Math.min(LossWindow, trackedSequences + shift);
+        } else {
+            int age = SequenceNumbers.distance(highestSequence, sequence);
+
+            if (age < trackedSequences) {
+                receivedMask |= 1L << age;
+            }
+        }
+    }
+
+    public synchronized void reset() {
+        hasRttSample = false;
+        smoothedRtt = 0L;
+        rttVariance = 0L;
+        latestRtt = 0L;
+        rttSampleCount = 0L;
+
+        hasReceivedSequence = false;
+        highestSequence = 0;
+        receivedMask = 0L;
+        trackedSequences = 0;
+
+        hasClockOffset = false;
+        clockOffset = 0L;
+    }
+}
@@ -3,8 +3,10 @@ package tech.fastj.network.rpc;
 import tech.fastj.network.config.ClientConfig;
 import tech.fastj.network.rpc.commands.Command;
 import tech.fastj.network.rpc.message.CommandTarget;
+import tech.fastj.network.rpc.message.NetworkType;
 import tech.fastj.network.rpc.message.RequestType;
 import tech.fastj.network.rpc.message.SentMessageType;
+import tech.fastj.network.rpc.udp.UdpFragments;
 import tech.fastj.network.serial.util.MessageUtils;
 import tech.fastj.network.serial.write.MessageOutputStream;
 
@@ -16,21 +18,46 @@ import java.util.UUID;
 
 public class SendUtils {
 
-    /** Maximum length of a UDP packet. */
-    public static final int UdpPacketBufferLength = 512;
+    /** Default maximum length of a single UDP datagram; longer packets are split into fragments. */
+    public static final int DefaultUdpMtu = 512;
 
-    /** Maximum length of a UDP command packet's data. */
-    public static final int UdpCommandPacketDataLength = UdpPacketBufferLength - (MessageUtils.EnumBytes * 2) - (MessageUtils.UuidBytes * 2) - Long.BYTES;
+    /** Smallest supported MTU, leaving room for a fragment header plus a useful amount of data. */
+    public static final int MinUdpMtu = 128;
 
-    /** Maximum length of a UDP special request packet's data. */
-    public static final int UdpRequestPacketDataLength = UdpPacketBufferLength - (MessageUtils.EnumBytes * 2) - MessageUtils.UuidBytes - Long.BYTES;
+    /** Largest datagram UDP can carry, used for receive buffers so that peers may use any MTU. */
+    public static final int UdpMaxDatagramLength = 65507;
 
-    public static void checkUDPCommandPacketSize(byte[] rawData) {
-        assert rawData == null || rawData.length <= SendUtils.UdpCommandPacketDataLength;
+    /** Length of the header in front of a reliable UDP packet's payload. */
+    public static final int UdpReliableHeaderLength = MessageUtils.UuidBytes + (MessageUtils.EnumBytes * 2) + (Short.BYTES * 2) + Integer.BYTES;
+
+    public static void checkUdpMtu(int udpMtu) {
+        if (udpMtu < MinUdpMtu || udpMtu > UdpMaxDatagramLength) {
+            throw new IllegalArgumentException("UDP MTU must be between " + MinUdpMtu + " and " + UdpMaxDatagramLength + ", not " + udpMtu + ".");
+        }
     }
 
-    public static void checkUDPRequestPacketSize(byte[] rawData) {
-        assert rawData == null || rawData.length <= SendUtils.UdpRequestPacketDataLength;
+    /** Maximum length of a reliable UDP packet's payload, once fragmented for {@code udpMtu}. */
+    public static int maxReliablePayloadLength(int udpMtu) {
+        return UdpFragments.maxPacketLength(udpMtu) - UdpReliableHeaderLength;
+    }
+
+    /** Sends a UDP packet, splitting it into fragments if it is longer than the receiver's MTU. */
+    public static void sendUDP(DatagramSocket udpSocket, ClientConfig clientConfig, UUID senderId, byte[] packetData) throws IOException {
+        if (packetData.length <= clientConfig.udpMtu()) {
+            udpSocket.send(buildPacket(clientConfig, packetData));
+            return;
+        }
+
+        if (packetData.length > UdpFragments.maxPacketLength(clientConfig.udpMtu())) {
+            throw new IOException(
+                "UDP packet of " + packetData.length + " bytes exceeds the maximum of "
+                    + UdpFragments.maxPacketLength(clientConfig.udpMtu()) + " bytes for an MTU of " + clientConfig.udpMtu() + "."
+            );
+        }
+
+        for (byte[] fragment : UdpFragments.split(senderId, packetData, clientConfig.udpMtu())) {
+            udpSocket.send(buildPacket(clientConfig, fragment));
+        }
     }
 
     public static void sendTCPCommand(MessageOutputStream tcpOut, CommandTarget commandTarget, Command.Id commandId, byte[] rawData)
@@ -42,13 +69,9 @@ public class SendUtils {
     }
 
     public static void sendUDPCommand(DatagramSocket udpSocket, ClientConfig clientConfig, CommandTarget commandTarget,
-                                      Command.Id commandId, UUID senderId, byte[] rawData) throws IOException {
-        SendUtils.checkUDPCommandPacketSize(rawData);
-
-        byte[] packetData = buildUDPCommandData(commandTarget, senderId, commandId.uuid(), rawData);
-
-        DatagramPacket packet = buildPacket(clientConfig, packetData);
-        udpSocket.send(packet);
+                                      Command.Id commandId, int sequence, UUID senderId, UUID subjectId, byte[] rawData) throws IOException {
+        byte[] packetData = buildUDPCommandData(commandTarget, sequence, senderId, subjectId, commandId.uuid(), rawData);
+        sendUDP(udpSocket, clientConfig, senderId, packetData);
     }
 
     public static DatagramPacket buildPacket(ClientConfig clientConfig, byte[] packetData) {
@@ -78,32 +101,56 @@ public class SendUtils {
         }
     }
 
-    public static byte[] buildUDPCommandData(CommandTarget commandTarget, UUID senderId, UUID commandId, byte[] rawData) {
-        ByteBuffer packetDataBuffer;
+    /**
+     * Builds an unreliable UDP command. Its sequence belongs to {@code subjectId}'s stream of the command when relaying
+     * on a player's behalf, or to the sender's own stream when {@code subjectId} is {@code null}.
+     */
+    public static byte[] buildUDPCommandData(CommandTarget commandTarget, int sequence, UUID senderId, UUID subjectId, UUID commandId,
+                                             byte[] rawData) {
+        int rawDataLength = rawData == null ? 0 : rawData.length;
+        int subjectLength = subjectId == null ? 0 : MessageUtils.UuidBytes;
+        ByteBuffer packetDataBuffer = ByteBuffer.allocate(
+            (MessageUtils.EnumBytes * 2) + (MessageUtils.UuidBytes * 2) + Short.BYTES + Byte.BYTES + subjectLength + rawDataLength
+        );
+
+        packetDataBuffer.putLong(senderId.getMostSignificantBits())
+            .putLong(senderId.getLeastSignificantBits())
+            .putInt(SentMessageType.RPCCommand.ordinal())
+            .putInt(commandTarget.ordinal())
+            .putShort((short) sequence);
 
-        if (rawData == null) {
-            packetDataBuffer = ByteBuffer.allocate((MessageUtils.EnumBytes * 2) + (MessageUtils.UuidBytes * 2));
-            return packetDataBuffer.putLong(senderId.getMostSignificantBits())
-                .putLong(senderId.getLeastSignificantBits())
-                .putInt(SentMessageType.RPCCommand.ordinal())
-                .putInt(commandTarget.ordinal())
-                .putLong(commandId.getMostSignificantBits())
-                .putLong(commandId.getLeastSignificantBits())
-                .array();
+        if (subjectId == null) {
+            packetDataBuffer.put((byte) 0);
         } else {
-            packetDataBuffer = ByteBuffer.allocate(
-                Math.min(UdpPacketBufferLength, (MessageUtils.EnumBytes * 2) + (MessageUtils.UuidBytes * 2) + rawData.length)
-            );
+            packetDataBuffer.put((byte) 1)
+                .putLong(subjectId.getMostSignificantBits())
+                .putLong(subjectId.getLeastSignificantBits());
+        }
 
-            return packetDataBuffer.putLong(senderId.getMostSignificantBits())
-                .putLong(senderId.getLeastSignificantBits())
-                .putInt(SentMessageType.RPCCommand.ordinal())
-                .putInt(commandTarget.ordinal())
-                .putLong(commandId.getMostSignificantBits())
-                .putLong(commandId.getLeastSignificantBits())
-                .put(rawData)
-                .array();
+        packetDataBuffer.putLong(commandId.getMostSignificantBits())
+            .putLong(commandId.getLeastSignificantBits());
+
+        if (rawData != null) {
+            packetDataBuffer.put(rawData);
         }
+
+        return packetDataBuffer.array();
+    }
+
+    public static byte[] buildUDPCommandBody(CommandTarget commandTarget, UUID commandId, byte[] rawData) {
+        int rawDataLength = rawData == null ? 0 : rawData.length;
+        ByteBuffer packetDataBuffer = ByteBuffer.allocate((MessageUtils.EnumBytes * 2) + MessageUtils.UuidBytes + rawDataLength);
+
+        packetDataBuffer.putInt(SentMessageType.RPCCommand.ordinal())
+            .putInt(commandTarget.ordinal())
+            .putLong(commandId.getMostSignificantBits())
+            .putLong(commandId.getLeastSignificantBits());
+
+        if (rawData != null) {
+            packetDataBuffer.put(rawData);
+        }
+
+        return packetDataBuffer.array();
     }
 
     public static void sendTCPRequest(MessageOutputStream tcpOut, RequestType requestType, byte[] rawData)
@@ -116,12 +163,8 @@ public class SendUtils {
 
     public static void sendUDPRequest(DatagramSocket udpSocket, ClientConfig clientConfig, RequestType requestType,
                                       UUID senderId, byte[] rawData) throws IOException {
-        SendUtils.checkUDPRequestPacketSize(rawData);
-
         byte[] packetData = buildUDPRequestData(senderId, requestType, rawData);
-
-        DatagramPacket packet = buildPacket(clientConfig, packetData);
-        udpSocket.send(packet);
+        sendUDP(udpSocket, clientConfig, senderId, packetData);
     }
 
     public static byte[] buildTCPRequestData(RequestType requestType, byte[] rawData) {
@@ -154,9 +197,7 @@ public class SendUtils {
                 .putInt(requestType.ordinal())
                 .array();
         } else {
-            packetDataBuffer = ByteBuffer.allocate(
-                Math.min(UdpPacketBufferLength, MessageUtils.UuidBytes + (MessageUtils.EnumBytes * 2) + rawData.length)
-            );
+            packetDataBuffer = ByteBuffer.allocate(MessageUtils.UuidBytes + (MessageUtils.EnumBytes * 2) + rawData.length);
 
             return packetDataBuffer.putLong(senderId.getMostSignificantBits())
                 .putLong(senderId.getLeastSignificantBits())
@@ -167,6 +208,57 @@ public class SendUtils {
         }
     }
 
+    public static byte[] buildUDPRequestBody(RequestType requestType, byte[] rawData) {
+        int rawDataLength = rawData == null ? 0 : rawData.length;
+        ByteBuffer packetDataBuffer = ByteBuffer.allocate((MessageUtils.EnumBytes * 2) + rawDataLength);
+
+        packetDataBuffer.putInt(SentMessageType.Request.ordinal())
+            .putInt(requestType.ordinal());
+
+        if (rawData != null) {
+            packetDataBuffer.put(rawData);
+        }
+
+        return packetDataBuffer.array();
+    }
+
+    public static void sendReliablePacket(DatagramSocket udpSocket, ClientConfig clientConfig, UUID senderId, NetworkType networkType,
+                                          int sequence, int ack, int ackBits, byte[] payload) throws IOException {
+        byte[] packetData = buildReliablePacket(senderId, networkType, sequence, ack, ackBits, payload);
+        sendUDP(udpSocket, clientConfig, senderId, packetData);
+    }
+
+    public static byte[] buildReliablePacket(UUID senderId, NetworkType networkType, int sequence, int ack, int ackBits, byte[] payload) {
+        ByteBuffer packetDataBuffer = ByteBuffer.allocate(UdpReliableHeaderLength + payload.length);
+        return packetDataBuffer.putLong(senderId.getMostSignificantBits())
+            .putLong(senderId.getLeastSignificantBits())
+            .putInt(SentMessageType.ReliablePacket.ordinal())
+            .putInt(networkType.ordinal())
+            .putShort((short) sequence)
+            .putShort((short) ack)
+            .putInt(ackBits)
+            .put(payload)
+            .array();
+    }
+
+    public static void sendReliableAck(DatagramSocket udpSocket, ClientConfig clientConfig, UUID senderId, NetworkType networkType,
+                                       int ack, int ackBits) throws IOException {
+        byte[] packetData = buildReliableAck(senderId, networkType, ack, ackBits);
+        DatagramPacket packet = buildPacket(clientConfig, packetData);
+        udpSocket.send(packet);
+    }
+
+    public static byte[] buildReliableAck(UUID senderId, NetworkType networkType, int ack, int ackBits) {
+        ByteBuffer packetDataBuffer = ByteBuffer.allocate(MessageUtils.UuidBytes + (MessageUtils.EnumBytes * 2) + Short.BYTES + Integer.BYTES);
+        return packetDataBuffer.putLong(senderId.getMostSignificantBits())
+            .putLong(senderId.getLeastSignificantBits())
+            .putInt(SentMessageType.ReliableAck.ordinal())
+            .putInt(networkType.ordinal())
+            .putShort((short) ack)
+            .putInt(ackBits)
+            .array();
+    }
+
     public static void sendTCPDisconnect(MessageOutputStream tcpOut) throws IOException {
         byte[] packetData = buildTCPDisconnect();
         tcpOut.write(packetData);
@@ -6,8 +6,11 @@ import tech.fastj.network.rpc.message.NetworkType;
 import tech.fastj.network.rpc.message.RequestType;
 import tech.fastj.network.rpc.message.SentMessageType;
 import tech.fastj.network.rpc.message.prebuilt.LobbyIdentifier;
+import tech.fastj.network.rpc.udp.FragmentReassembler;
+import tech.fastj.network.rpc.udp.StaleCommandFilter;
 import tech.fastj.network.serial.read.MessageInputStream;
 import tech.fastj.network.sessions.Lobby;
+import tech.fastj.network.sessions.LobbyWorkers;
 import tech.fastj.network.sessions.Session;
 
 import java.io.IOException;
@@ -17,10 +20,10 @@ import java.net.Socket;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.function.BiFunction;
@@ -33,9 +36,13 @@ public class Server extends CommandHandler<ServerClient> {
     private final List<ServerClient> allClients;
     private final Map<UUID, Lobby> lobbies;
     private final BiFunction<ServerClient, String, Lobby> lobbyCreator;
+    private final LobbyWorkers lobbyWorkers;
 
     private final ServerSocket tcpServer;
     private final DatagramSocket udpServer;
+    private final int udpMtu;
+    private final StaleCommandFilter staleCommandFilter;
+    private final FragmentReassembler fragmentReassembler;
 
     private ExecutorService clientAccepter;
 
@@ -46,11 +53,15 @@ public class Server extends CommandHandler<ServerClient> {
 
     public Server(ServerConfig serverConfig, BiFunction<ServerClient, String, Lobby> lobbyCreator) throws IOException {
         this.allClients = new ArrayList<>(serverConfig.maxClients());
-        this.lobbies = new LinkedHashMap<>();
+        this.lobbies = new ConcurrentHashMap<>();
         this.lobbyCreator = lobbyCreator;
+        this.lobbyWorkers = new LobbyWorkers(serverConfig.lobbyWorkers());
 
         tcpServer = new ServerSocket(serverConfig.port(), serverConfig.clientBacklog(), serverConfig.address());
         udpServer = new DatagramSocket(serverConfig.port(), serverConfig.address());
+        udpMtu = serverConfig.udpMtu();
+        staleCommandFilter = new StaleCommandFilter();
+        fragmentReassembler = new FragmentReassembler();
     }
 
     public List<ServerClient> getClients() {
@@ -61,6 +72,10 @@ public class Server extends CommandHandler<ServerClient> {
         return Collections.unmodifiableMap(lobbies);
     }
 
+    public LobbyWorkers getLobbyWorkers() {
+        return lobbyWorkers;
+    }
+
     public ServerSocket getTcpServer() {
         return tcpServer;
     }
@@ -69,6 +84,18 @@ public class Server extends CommandHandler<ServerClient> {
         return udpServer;
     }
 
+    public int getUdpMtu() {
+        return udpMtu;
+    }
+
+    public FragmentReassembler getFragmentReassembler() {
+        return fragmentReassembler;
+    }
+
+    public StaleCommandFilter getStaleCommandFilter() {
+        return staleCommandFilter;
+    }
+
     public boolean isRunning() {
         return isRunning;
     }
@@ -104,6 +131,7 @@ public class Server extends CommandHandler<ServerClient> {
 
     public void stopAllLobbies() {
         for (Lobby lobby : lobbies.values()) {
+            lobbyWorkers.release(lobby);
             lobby.stop();
         }
 
@@ -116,6 +144,7 @@ public class Server extends CommandHandler<ServerClient> {
         disallowClients();
         stopAllLobbies();
         disconnectAllClients();
+        lobbyWorkers.shutdown();
 
         try {
             tcpServer.close();
@@ -285,16 +314,17 @@ public class Server extends CommandHandler<ServerClient> {
         serverLogger.info("Creating lobby for client {}, named {}", client.getClientId(), lobbyName);
 
         Lobby lobby = lobbyCreator.apply(client, lobbyName);
+        lobbyWorkers.assign(lobby);
         lobbies.put(lobby.getLobbyIdentifier().id(), lobby);
 
-        lobby.receiveNewClient(client);
-        client.setOnDisconnect(lobby::clientDisconnect);
+        receiveNewClient(lobby, client);
     }
 
     public void createLobby(String lobbyName) {
         serverLogger.info("Creating lobby named {}", lobbyName);
 
         Lobby lobby = lobbyCreator.apply(null, lobbyName);
+        lobbyWorkers.assign(lobby);
         lobbies.put(lobby.getLobbyIdentifier().id(), lobby);
     }
 
@@ -308,8 +338,18 @@ public class Server extends CommandHandler<ServerClient> {
 
         serverLogger.info("Client {} joining lobby {}", client.getClientId(), lobby.getLobbyIdentifier().name());
 
-        lobby.receiveNewClient(client);
-        client.setOnDisconnect(lobby::clientDisconnect);
+        receiveNewClient(lobby, client);
+    }
+
+    private void receiveNewClient(Lobby lobby, ServerClient client) {
+        client.setOnDisconnect(disconnectedClient -> lobby.execute(() -> lobby.clientDisconnect(disconnectedClient)));
+        lobby.execute(() -> {
+            try {
+                lobby.receiveNewClient(client);
+            } catch (IOException exception) {
+                serverLogger.warn("Unable to add client {} to lobby {}", client.getClientId(), lobby.getLobbyIdentifier().name(), exception);
+            }
+        });
     }
 
     public void receiveRequest(RequestType requestType, long dataLength, UUID senderId, MessageInputStream inputStream)
@@ -345,7 +385,7 @@ public class Server extends CommandHandler<ServerClient> {
         }
     }
 
-    public void sendPingResponse(UUID senderId, long timestamp, MessageInputStream inputStream) throws IOException {
+    public void receivePingRequest(UUID senderId, MessageInputStream inputStream) throws IOException {
         ServerClient client = getClient(senderId);
 
         if (client == null) {
@@ -355,16 +395,48 @@ public class Server extends CommandHandler<ServerClient> {
             return;
         }
 
-        client.sendPingResponse(timestamp);
+        client.receivePingRequest(inputStream);
+    }
+
+    public void receiveReliablePacket(UUID senderId, MessageInputStream inputStream) throws IOException {
+        ServerClient client = getClient(senderId);
+
+        if (client == null) {
+            serverLogger.warn("Couldn't find client {} to receive reliable packet.", senderId);
+
+            inputStream.skipNBytes(inputStream.available());
+            return;
+        }
+
+        client.receiveReliablePacket(senderId, inputStream);
+    }
+
+    public void receiveReliableAck(UUID senderId, MessageInputStream inputStream) throws IOException {
+        ServerClient client = getClient(senderId);
+
+        if (client == null) {
+            serverLogger.warn("Couldn't find client {} to receive reliable ack.", senderId);
+
+            inputStream.skipNBytes(inputStream.available());
+            return;
+        }
+
+        client.receiveReliableAck(inputStream);
+    }
+
+    /** Whether a sequenced UDP command is newer than the last one {@code senderId} sent with the same id. */
+    public boolean acceptUDPCommand(UUID senderId, UUID commandId, int sequence) {
+        return staleCommandFilter.accept(senderId, commandId, sequence);
     }
 
     public void disconnectClient(ServerClient client) {
         Lobby lobby = getLobby(client);
         if (lobby != null) {
-            lobby.clientDisconnect(client);
+            lobby.execute(() -> lobby.clientDisconnect(client));
         }
 
         allClients.remove(client);
+        staleCommandFilter.forget(client.getClientId());
         client.disconnect(NetworkType.TCP);
     }
 }
@@ -8,6 +8,7 @@ import tech.fastj.network.rpc.message.RequestType;
 import tech.fastj.network.rpc.message.SentMessageType;
 import tech.fastj.network.rpc.message.prebuilt.LobbyIdentifier;
 import tech.fastj.network.rpc.message.prebuilt.SessionIdentifier;
+import tech.fastj.network.rpc.udp.FragmentReassembler;
 import tech.fastj.network.serial.read.MessageInputStream;
 import tech.fastj.network.serial.util.MessageUtils;
 import tech.fastj.network.serial.write.MessageOutputStream;
@@ -47,6 +48,16 @@ public class ServerClient extends ConnectionHandler<ServerClient> implements Run
         return ServerClientLogger;
     }
 
+    @Override
+    public ClientConfig getUdpConfig() {
+        return udpConfig;
+    }
+
+    @Override
+    protected FragmentReassembler getFragmentReassembler() {
+        return server.getFragmentReassembler();
+    }
+
     @Override
     public void connect() throws IOException {
         super.connect();
@@ -60,7 +71,7 @@ public class ServerClient extends ConnectionHandler<ServerClient> implements Run
 
         ServerClientLogger.debug("Received port: {}", udpPort);
 
-        udpConfig = new ClientConfig(tcpSocket.getInetAddress(), udpPort);
+        udpConfig = new ClientConfig(tcpSocket.getInetAddress(), udpPort, server.getUdpMtu());
 
         ServerClientLogger.debug("{} connected on UDP to {}:{}.", clientId, clientConfig.address(), clientConfig.port());
     }
@@ -72,10 +83,29 @@ public class ServerClient extends ConnectionHandler<ServerClient> implements Run
 
         switch (networkType) {
             case TCP -> SendUtils.sendTCPCommand(tcpOut, commandTarget, commandId, rawData);
-            case UDP -> SendUtils.sendUDPCommand(udpSocket, udpConfig, commandTarget, commandId, clientId, rawData);
+            case UDP -> {
+                int sequence = commandSequences.next(commandId.uuid());
+                SendUtils.sendUDPCommand(udpSocket, udpConfig, commandTarget, commandId, sequence, clientId, null, rawData);
+            }
+            case ReliableUDP, ReliableOrderedUDP -> sendReliable(networkType, SendUtils.buildUDPCommandBody(commandTarget, commandId.uuid(), rawData));
         }
     }
 
+    /**
+     * Sends an unreliable UDP command about another player, such as a movement update relayed from them.
+     * <p>
+     * Each subject gets its own sequence for the command, so the client drops stale updates per player rather than
+     * dropping one player's newest update because another player's update got in first.
+     */
+    public synchronized void relayCommand(CommandTarget commandTarget, Command.Id commandId, UUID subjectId, Object... objects)
+        throws IOException {
+        ServerClientLogger.trace("{} relaying UDP \"{}\" about {} to {}:{}", clientId, commandId.name(), subjectId, clientConfig.address(), clientConfig.port());
+
+        byte[] rawData = getSerializer().writeObjects(objects);
+        int sequence = commandSequences.next(subjectId, commandId.uuid());
+        SendUtils.sendUDPCommand(udpSocket, udpConfig, commandTarget, commandId, sequence, clientId, subjectId, rawData);
+    }
+
     @Override
     public synchronized void sendRequest(NetworkType networkType, RequestType requestType, byte[] rawData) throws IOException {
         ServerClientLogger.trace("{} sending {} \"{}\" to {}:{}", clientId, networkType.name(), requestType.name(), clientConfig.address(), clientConfig.port());
@@ -83,6 +113,7 @@ public class ServerClient extends ConnectionHandler<ServerClient> implements Run
         switch (networkType) {
             case TCP -> SendUtils.sendTCPRequest(tcpOut, requestType, rawData);
             case UDP -> SendUtils.sendUDPRequest(udpSocket, udpConfig, requestType, clientId, rawData);
+            case ReliableUDP, ReliableOrderedUDP -> sendReliable(networkType, SendUtils.buildUDPRequestBody(requestType, rawData));
         }
     }
 
@@ -93,6 +124,7 @@ public class ServerClient extends ConnectionHandler<ServerClient> implements Run
         switch (networkType) {
             case TCP -> SendUtils.sendTCPDisconnect(tcpOut);
             case UDP -> SendUtils.sendUDPDisconnect(clientId, udpSocket, udpConfig);
+            case ReliableUDP, ReliableOrderedUDP -> sendReliable(networkType, SendUtils.buildTCPDisconnect());
         }
     }
 
@@ -103,6 +135,7 @@ public class ServerClient extends ConnectionHandler<ServerClient> implements Run
         switch (networkType) {
             case TCP -> SendUtils.sendTCPKeepAlive(tcpOut);
             case UDP -> SendUtils.sendUDPKeepAlive(clientId, udpSocket, udpConfig);
+            case ReliableUDP, ReliableOrderedUDP -> sendReliable(networkType, SendUtils.buildTCPKeepAlive());
         }
     }
 
@@ -125,22 +158,37 @@ public class ServerClient extends ConnectionHandler<ServerClient> implements Run
                 sendKeepAlive(networkType);
             }
             case Disconnect -> disconnect();
-            case PingRequest -> {
-                long timestamp = inputStream.readLong();
-                server.sendPingResponse(senderId, timestamp, inputStream);
-            }
+            case PingRequest -> server.receivePingRequest(senderId, inputStream);
+            case ReliablePacket -> server.receiveReliablePacket(senderId, inputStream);
+            case ReliableAck -> server.receiveReliableAck(senderId, inputStream);
+            case Fragment -> receiveFragment(senderId, inputStream);
             case RPCCommand -> {
                 CommandTarget commandTarget = (CommandTarget) inputStream.readObject(CommandTarget.class);
                 long dataLength;
+                int sequence = 0;
 
                 if (networkType == NetworkType.TCP) {
                     dataLength = inputStream.readLong();
                 } else {
+                    if (networkType == NetworkType.UDP) {
+                        sequence = inputStream.readUnsignedShort();
+
+                        // Clients never relay for other players, so their streams are always their own.
+                        if (inputStream.readBoolean()) {
+                            inputStream.readObject(UUID.class);
+                        }
+                    }
+
                     dataLength = inputStream.available() - MessageUtils.UuidBytes;
                 }
 
                 UUID commandId = (UUID) inputStream.readObject(UUID.class);
 
+                if (networkType == NetworkType.UDP && !server.acceptUDPCommand(senderId, commandId, sequence)) {
+                    getLogger().trace("{} dropping stale UDP command \"{}\" with sequence {}", senderId, commandId, sequence);
+                    return;
+                }
+
                 getLogger().trace("{} received RPC command \"{}\" targeting {} with length {}", senderId, commandId, commandTarget, dataLength);
 
                 server.receiveCommand(commandTarget, dataLength, commandId, senderId, inputStream);
@@ -168,12 +216,34 @@ public class ServerClient extends ConnectionHandler<ServerClient> implements Run
         }
     }
 
-    public void sendPingResponse(long timestamp) throws IOException {
-        byte[] packetData = ByteBuffer.allocate(MessageUtils.UuidBytes + MessageUtils.EnumBytes + Long.BYTES)
+    public void receivePingRequest(MessageInputStream inputStream) throws IOException {
+        long currentTimestamp = System.nanoTime();
+        int sequence = inputStream.readUnsignedShort();
+        long clientTimestamp = inputStream.readLong();
+        long echoedTimestamp = inputStream.readLong();
+        long echoHoldNanos = inputStream.readLong();
+
+        connectionQuality.receivedSequence(sequence);
+
+        if (echoHoldNanos >= 0L) {
+            connectionQuality.addRttSample(currentTimestamp - echoedTimestamp - echoHoldNanos);
+        }
+
+        if (connectionQuality.hasRttSample()) {
+            connectionQuality.addClockSample(clientTimestamp, currentTimestamp - (connectionQuality.getSmoothedRttNanos() / 2));
+        }
+
+        sendPingResponse(sequence, clientTimestamp, currentTimestamp);
+    }
+
+    public void sendPingResponse(int sequence, long timestamp, long serverTimestamp) throws IOException {
+        byte[] packetData = ByteBuffer.allocate(MessageUtils.UuidBytes + MessageUtils.EnumBytes + Short.BYTES + (Long.BYTES * 2))
             .putLong(clientId.getMostSignificantBits())
             .putLong(clientId.getLeastSignificantBits())
             .putInt(SentMessageType.PingResponse.ordinal())
+            .putShort((short) sequence)
             .putLong(timestamp)
+            .putLong(serverTimestamp)
             .array();
 
         ServerClientLogger.trace("{} sending ping response to {}:{}", clientId, clientConfig.address(), clientConfig.port());
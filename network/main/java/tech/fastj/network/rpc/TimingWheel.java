@@ -0,0 +1,301 @@
+package tech.fastj.network.rpc;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A hashed timing wheel: one thread driving any number of timers.
+ * <p>
+ * Timers are hashed into a ring of buckets by the tick they are due on, each bucket being an intrusive linked list, so
+ * scheduling and cancelling are O(1) and an idle timer costs nothing but its node. Every tick, the wheel thread only
+ * walks the current bucket. Timers fire with tick granularity and never run on the wheel thread itself: each one is
+ * handed to the executor it was scheduled with, such as its lobby's worker.
+ * <p>
+ * Most code should use the {@link #shared() shared wheel} rather than making its own.
+ */
+public class TimingWheel {
+
+    public static final long DefaultTickNanos = TimeUnit.MILLISECONDS.toNanos(5L);
+    public static final int DefaultWheelSize = 512;
+
+    private static final Logger TimingWheelLogger = LoggerFactory.getLogger(TimingWheel.class);
+
+    private final long tickNanos;
+    private final Timeout[] buckets;
+    private final int mask;
+    private final long startTime;
+
+    private long currentTick;
+    private volatile Thread wheelThread;
+
+    public TimingWheel(long tickDuration, TimeUnit tickUnit, int wheelSize) {
+        if (tickDuration <= 0L) {
+            throw new IllegalArgumentException("Tick duration must be positive, not " + tickDuration + ".");
+        }
+
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a positive power of two, not " + wheelSize + ".");
+        }
+
+        this.tickNanos = tickUnit.toNanos(tickDuration);
+        this.buckets = new Timeout[wheelSize];
+        this.mask = wheelSize - 1;
+        this.startTime = System.nanoTime();
+    }
+
+    public static TimingWheel shared() {
+        return SharedWheel.Instance;
+    }
+
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    /** Runs {@code task} on the common pool after {@code delay}. */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        return schedule(task, delay, unit, ForkJoinPool.commonPool());
+    }
+
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit, Executor executor) {
+        Timeout timeout = new Timeout(this, task, executor, 0L);
+        add(timeout, System.nanoTime() + unit.toNanos(Math.max(0L, delay)));
+
+        return timeout;
+    }
+
+    /** Runs {@code task} on the common pool every {@code period}, after {@code initialDelay}. */
+    public Timeout scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        return scheduleAtFixedRate(task, initialDelay, period, unit, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs {@code task} on {@code executor} every {@code period}, after {@code initialDelay}. A run that comes due while
+     * the previous one is still going is skipped, so runs of the same timer never overlap.
+     */
+    public Timeout scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit, Executor executor) {
+        if (period <= 0L) {
+            throw new IllegalArgumentException("Period must be positive, not " + period + ".");
+        }
+
+        Timeout timeout = new Timeout(this, task, executor, unit.toNanos(period));
+        add(timeout, System.nanoTime() + unit.toNanos(Math.max(0L, initialDelay)));
+
+        return timeout;
+    }
+
+    public synchronized void stop() {
+        if (wheelThread != null) {
+            LockSupport.unpark(wheelThread);
+            wheelThread = null;
+        }
+
+        for (int i = 0; i < buckets.length; i++) {
+            Timeout timeout = buckets[i];
+
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                timeout.cancelled.set(true);
+                timeout.isQueued = false;
+                timeout.previous = null;
+                timeout.next = null;
+                timeout = next;
+            }
+
+            buckets[i] = null;
+        }
+    }
+
+    private synchronized void add(Timeout timeout, long deadline) {
+        if (timeout.cancelled.get()) {
+            return;
+        }
+
+        // Tick n is processed once (n + 1) ticks have passed. Timers already due go in the next bucket to be processed.
+        long deadlineTick = Math.max(currentTick, Math.floorDiv(deadline - startTime + tickNanos - 1, tickNanos) - 1L);
+
+        timeout.deadline = deadline;
+        timeout.deadlineTick = deadlineTick;
+        timeout.bucket = (int) (deadlineTick & mask);
+        timeout.previous = null;
+        timeout.next = buckets[timeout.bucket];
+
+        if (timeout.next != null) {
+            timeout.next.previous = timeout;
+        }
+
+        buckets[timeout.bucket] = timeout;
+        timeout.isQueued = true;
+
+        if (wheelThread == null) {
+            start();
+        }
+    }
+
+    private synchronized void remove(Timeout timeout) {
+        if (!timeout.isQueued) {
+            return;
+        }
+
+        if (timeout.previous != null) {
+            timeout.previous.next = timeout.next;
+        } else {
+            buckets[timeout.bucket] = timeout.next;
+        }
+
+        if (timeout.next != null) {
+            timeout.next.previous = timeout.previous;
+        }
+
+        timeout.previous = null;
+        timeout.next = null;
+        timeout.isQueued = false;
+    }
+
+    private void start() {
+        Thread thread = new Thread(this::run, "timing-wheel");
+        thread.setDaemon(true);
+        wheelThread = thread;
+        thread.start();
+    }
+
+    private void run() {
+        while (wheelThread == Thread.currentThread()) {
+            long tick;
+
+            synchronized (this) {
+                tick = currentTick;
+            }
+
+            long tickDeadline = startTime + (tick + 1L) * tickNanos;
+            long sleepNanos;
+
+            while ((sleepNanos = tickDeadline - System.nanoTime()) > 0L) {
+                LockSupport.parkNanos(this, sleepNanos);
+
+                if (wheelThread != Thread.currentThread()) {
+                    return;
+                }
+            }
+
+            expireTimeouts(tick);
+        }
+    }
+
+    private void expireTimeouts(long tick) {
+        Timeout expired = null;
+
+        synchronized (this) {
+            Timeout timeout = buckets[(int) (tick & mask)];
+
+            while (timeout != null) {
+                Timeout next = timeout.next;
+
+                if (timeout.deadlineTick <= tick) {
+                    remove(timeout);
+                    timeout.nextExpired = expired;
+                    expired = timeout;
+                }
+
+                timeout = next;
+            }
+
+            currentTick = tick + 1L;
+        }
+
+        while (expired != null) {
+            Timeout timeout = expired;
+            expired = timeout.nextExpired;
+            timeout.nextExpired = null;
+
+            timeout.expire();
+        }
+    }
+
+    /** A scheduled timer, used to cancel it. */
+    public static class Timeout {
+        private final TimingWheel wheel;
+        private final Runnable task;
+        private final Executor executor;
+        private final long periodNanos;
+        private final AtomicBoolean cancelled;
+        private final AtomicBoolean isTaskRunning;
+
+        private long deadline;
+        private long deadlineTick;
+        private int bucket;
+        private boolean isQueued;
+        private Timeout previous;
+        private Timeout next;
+        private Timeout nextExpired;
+
+        private Timeout(TimingWheel wheel, Runnable task, Executor executor, long periodNanos) {
+            this.wheel = wheel;
+            this.task = task;
+            this.executor = executor;
+            this.periodNanos = periodNanos;
+            this.cancelled = new AtomicBoolean();
+            this.isTaskRunning = new AtomicBoolean();
+        }
+
+        public boolean isPeriodic() {
+            return periodNanos > 0L;
+        }
+
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+
+        /** Stops the timer from firing again. A run already handed to its executor still completes. */
+        public boolean cancel() {
+            if (!cancelled.compareAndSet(false, true)) {
+                return false;
+            }
+
+            wheel.remove(this);
+            return true;
+        }
+
+        private void expire() {
+            if (cancelled.get()) {
+                return;
+            }
+
+            if (isPeriodic()) {
+                wheel.add(this, deadline + periodNanos);
+            }
+
+            if (!isTaskRunning.compareAndSet(false, true)) {
+                return;
+            }
+
+            try {
+                executor.execute(this::runTask);
+            } catch (RuntimeException exception) {
+                isTaskRunning.set(false);
+                TimingWheelLogger.warn("Unable to hand timer task to its executor", exception);
+            }
+        }
+
+        private void runTask() {
+            try {
+                if (!cancelled.get()) {
+                    task.run();
+                }
+            } catch (Exception exception) {
+                TimingWheelLogger.error("Timer task failed", exception);
+            } finally {
+                isTaskRunning.set(false);
+            }
+        }
+    }
+
+    private static class SharedWheel {
+        private static final TimingWheel Instance = new TimingWheel(DefaultTickNanos, TimeUnit.NANOSECONDS, DefaultWheelSize);
+    }
+}
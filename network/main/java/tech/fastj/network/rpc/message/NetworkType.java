@@ -2,5 +2,7 @@ package tech.fastj.network.rpc.message;
 
 public enum NetworkType {
     TCP,
-    UDP
+    UDP,
+    ReliableUDP,
+    ReliableOrderedUDP
 }
@@ -9,5 +9,8 @@ public enum SentMessageType {
     SessionUpdate,
     AvailableLobbiesUpdate,
     RPCCommand,
-    Request
+    Request,
+    ReliablePacket,
+    ReliableAck,
+    Fragment
 }
@@ -0,0 +1,34 @@
+package tech.fastj.network.rpc.udp;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out the sequence numbers stamped on outgoing unreliable UDP commands, one counter per command, and one per
+ * subject for commands relayed on other players' behalf.
+ */
+public class CommandSequences {
+
+    private final Map<Stream, AtomicInteger> sequences;
+
+    public CommandSequences() {
+        sequences = new ConcurrentHashMap<>();
+    }
+
+    public int next(UUID commandId) {
+        return next(null, commandId);
+    }
+
+    public int next(UUID subjectId, UUID commandId) {
+        return sequences.computeIfAbsent(new Stream(subjectId, commandId), stream -> new AtomicInteger()).getAndIncrement() & SequenceNumbers.SequenceMask;
+    }
+
+    public void reset() {
+        sequences.clear();
+    }
+
+    private record Stream(UUID subjectId, UUID commandId) {
+    }
+}
@@ -0,0 +1,135 @@
+package tech.fastj.network.rpc.udp;
+
+import tech.fastj.network.serial.read.MessageInputStream;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects {@link UdpFragments fragments} until their packet is complete.
+ * <p>
+ * At most {@link #MaxPendingPackets} packets are reassembled at once; the oldest is dropped to make room for a new one,
+ * and packets still missing fragments after {@link #ReassemblyTimeoutNanos} are discarded.
+ */
+public class FragmentReassembler {
+
+    public static final int MaxPendingPackets = 32;
+    public static final long ReassemblyTimeoutNanos = TimeUnit.SECONDS.toNanos(1L);
+
+    private final Map<PacketKey, PendingPacket> pendingPackets;
+    private long droppedCount;
+
+    public FragmentReassembler() {
+        pendingPackets = new LinkedHashMap<>();
+    }
+
+    public synchronized int getPendingCount() {
+        return pendingPackets.size();
+    }
+
+    /** Number of packets given up on, whether malformed, timed out or evicted. */
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Reads a fragment (group id, index, count, chunk) and returns the packet it completes, or {@code null} if the packet
+     * is still missing fragments.
+     */
+    public byte[] receiveFragment(UUID senderId, MessageInputStream inputStream, long currentTime) throws IOException {
+        int groupId = inputStream.readInt();
+        int index = inputStream.readUnsignedShort();
+        int count = inputStream.readUnsignedShort();
+        byte[] chunk = inputStream.readAllBytes();
+
+        return receiveFragment(new PacketKey(senderId, groupId), index, count, chunk, currentTime);
+    }
+
+    private synchronized byte[] receiveFragment(PacketKey key, int index, int count, byte[] chunk, long currentTime) {
+        removeExpired(currentTime);
+
+        if (count == 0 || count > UdpFragments.MaxFragmentCount || index >= count
+            || (long) chunk.length * (count - 1) > UdpFragments.MaxPacketLength) {
+            droppedCount++;
+            return null;
+        }
+
+        PendingPacket pendingPacket = pendingPackets.get(key);
+
+        if (pendingPacket == null) {
+            if (pendingPackets.size() >= MaxPendingPackets) {
+                Iterator<PendingPacket> oldest = pendingPackets.values().iterator();
+                oldest.next();
+                oldest.remove();
+                droppedCount++;
+            }
+
+            pendingPacket = new PendingPacket(count, currentTime);
+            pendingPackets.put(key, pendingPacket);
+        } else if (pendingPacket.chunks.length != count) {
+            pendingPackets.remove(key);
+            droppedCount++;
+            return null;
+        }
+
+        if (pendingPacket.chunks[index] != null) {
+            return null;
+        }
+
+        pendingPacket.chunks[index] = chunk;
+        pendingPacket.receivedCount++;
+        pendingPacket.length += chunk.length;
+
+        if (pendingPacket.receivedCount < count) {
+            return null;
+        }
+
+        pendingPackets.remove(key);
+        return pendingPacket.assemble();
+    }
+
+    private void removeExpired(long currentTime) {
+        Iterator<PendingPacket> pending = pendingPackets.values().iterator();
+
+        // Packets are kept in arrival order, so the first one still in time ends the search.
+        while (pending.hasNext()) {
+            if (currentTime - pending.next().firstArrival < ReassemblyTimeoutNanos) {
+                break;
+            }
+
+            pending.remove();
+            droppedCount++;
+        }
+    }
+
+    private record PacketKey(UUID senderId, int groupId) {
+    }
+
+    private static class PendingPacket {
+        private final byte[][] chunks;
+        private final long firstArrival;
+        private int receivedCount;
+        private int length;
+
+        private PendingPacket(int count, long firstArrival) {
+            this.chunks = new byte[count][];
+            this.firstArrival = firstArrival;
+        }
+
+        private byte[] assemble() {
+            byte[] packetData = new byte[length];
+            int offset = 0;
+
+            for (byte[] chunk : chunks) {
+                System.arraycopy(chunk, 0, packetData, offset, chunk.length);
+                offset += chunk.length;
+            }
+
+            return packetData;
+        }
+    }
+}
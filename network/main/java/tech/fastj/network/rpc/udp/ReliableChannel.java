@@ -0,0 +1,340 @@
+package tech.fastj.network.rpc.udp;
+
+import tech.fastj.network.rpc.message.NetworkType;
+import tech.fastj.network.serial.read.MessageInputStream;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One direction-pair of reliable traffic over UDP.
+ * <p>
+ * Every packet carries a 16-bit sequence number plus the latest remote sequence received and a 32-bit bitfield of the
+ * packets before it, so acknowledgements ride along with regular traffic. Packets left unacknowledged past the
+ * retransmission timeout (derived from measured round-trip time) are resent, and received duplicates are dropped. An
+ * ordered channel additionally holds back packets until every earlier packet has been delivered.
+ */
+public class ReliableChannel {
+
+    /** Maximum number of unacknowledged packets, equal to the number of packets one ack bitfield can cover. */
+    public static final int WindowSize = Integer.SIZE;
+
+    public static final long InitialRetransmitNanos = TimeUnit.MILLISECONDS.toNanos(200L);
+    public static final long MinRetransmitNanos = TimeUnit.MILLISECONDS.toNanos(30L);
+    public static final long MaxRetransmitNanos = TimeUnit.SECONDS.toNanos(1L);
+
+    private static final int BufferSize = 256;
+    private static final int BufferMask = BufferSize - 1;
+    private static final int NoSequence = -1;
+
+    private final NetworkType networkType;
+    private final boolean isOrdered;
+    private final PacketSender packetSender;
+    private final Object deliveryLock;
+
+    private int nextSequence;
+    private int oldestUnacked;
+    private int packetsInFlight;
+    private final int[] sentSequences;
+    private final byte[][] sentPayloads;
+    private final long[] firstSendTimes;
+    private final long[] lastSendTimes;
+    private final int[] sendCounts;
+    private final Deque<byte[]> backlog;
+
+    private boolean hasReceived;
+    private boolean isAckPending;
+    private int remoteSequence;
+    private int nextDeliverySequence;
+    private final int[] receivedSequences;
+    private final int[] bufferedSequences;
+    private final byte[][] bufferedPayloads;
+
+    private boolean hasRttSample;
+    private long smoothedRtt;
+    private long rttVariance;
+    private long retransmitTimeout;
+
+    private long retransmitCount;
+    private long duplicateCount;
+
+    public ReliableChannel(NetworkType networkType, PacketSender packetSender) {
+        if (networkType != NetworkType.ReliableUDP && networkType != NetworkType.ReliableOrderedUDP) {
+            throw new IllegalArgumentException("Network type " + networkType + " is not a reliable UDP type.");
+        }
+
+        this.networkType = networkType;
+        this.isOrdered = networkType == NetworkType.ReliableOrderedUDP;
+        this.packetSender = packetSender;
+        this.deliveryLock = new Object();
+
+        sentSequences = new int[BufferSize];
+        sentPayloads = new byte[BufferSize][];
+        firstSendTimes = new long[BufferSize];
+        lastSendTimes = new long[BufferSize];
+        sendCounts = new int[BufferSize];
+        backlog = new ArrayDeque<>();
+
+        receivedSequences = new int[BufferSize];
+        bufferedSequences = new int[BufferSize];
+        bufferedPayloads = new byte[BufferSize][];
+
+        Arrays.fill(sentSequences, NoSequence);
+        Arrays.fill(receivedSequences, NoSequence);
+        Arrays.fill(bufferedSequences, NoSequence);
+
+        retransmitTimeout = InitialRetransmitNanos;
+    }
+
+    public NetworkType getNetworkType() {
+        return networkType;
+    }
+
+    public boolean isOrdered() {
+        return isOrdered;
+    }
+
+    public synchronized int getPacketsInFlight() {
+        return packetsInFlight;
+    }
+
+    public synchronized int getBacklogSize() {
+        return backlog.size();
+    }
+
+    public synchronized long getSmoothedRttNanos() {
+        return smoothedRtt;
+    }
+
+    public synchronized long getRetransmitTimeoutNanos() {
+        return retransmitTimeout;
+    }
+
+    public synchronized long getRetransmitCount() {
+        return retransmitCount;
+    }
+
+    public synchronized long getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    public synchronized void send(byte[] payload) throws IOException {
+        if (!backlog.isEmpty() || isWindowFull()) {
+            backlog.add(payload);
+            return;
+        }
+
+        sendNewPacket(payload, System.nanoTime());
+    }
+
+    /**
+     * Reads a reliable packet (sequence, ack, ack bitfield, payload) and hands every payload that became deliverable to
+     * {@code payloadReceiver}, in order for ordered channels.
+     */
+    public void receivePacket(MessageInputStream inputStream, PayloadReceiver payloadReceiver) throws IOException {
+        int sequence = inputStream.readUnsignedShort();
+        int ack = inputStream.readUnsignedShort();
+        int ackBits = inputStream.readInt();
+        byte[] payload = inputStream.readAllBytes();
+
+        synchronized (deliveryLock) {
+            List<byte[]> deliverable;
+
+            synchronized (this) {
+                processAcks(ack, ackBits, System.nanoTime());
+                deliverable = acceptPacket(sequence, payload);
+            }
+
+            for (byte[] deliverablePayload : deliverable) {
+                payloadReceiver.receive(deliverablePayload);
+            }
+        }
+    }
+
+    public synchronized void receiveAck(MessageInputStream inputStream) throws IOException {
+        int ack = inputStream.readUnsignedShort();
+        int ackBits = inputStream.readInt();
+
+        processAcks(ack, ackBits, System.nanoTime());
+    }
+
+    /** Resends overdue packets and flushes an acknowledgement that could not be piggybacked on outgoing traffic. */
+    public synchronized void update(long currentTime) throws IOException {
+        for (int sequence = oldestUnacked; sequence != nextSequence; sequence = SequenceNumbers.next(sequence)) {
+            int slot = sequence & BufferMask;
+
+            if (sentSequences[slot] != sequence) {
+                continue;
+            }
+
+            long timeout = Math.min(retransmitTimeout << Math.min(sendCounts[slot] - 1, 5), MaxRetransmitNanos);
+
+            if (currentTime - lastSendTimes[slot] >= timeout) {
+                retransmitCount++;
+                sendPacket(slot, currentTime);
+            }
+        }
+
+        if (isAckPending) {
+            isAckPending = false;
+            packetSender.sendAck(networkType, ackSequence(), ackBits());
+        }
+    }
+
+    private boolean isWindowFull() {
+        return SequenceNumbers.distance(nextSequence, oldestUnacked) >= WindowSize;
+    }
+
+    private void sendNewPacket(byte[] payload, long currentTime) throws IOException {
+        int sequence = nextSequence;
+        int slot = sequence & BufferMask;
+
+        sentSequences[slot] = sequence;
+        sentPayloads[slot] = payload;
+        firstSendTimes[slot] = currentTime;
+        sendCounts[slot] = 0;
+
+        nextSequence = SequenceNumbers.next(nextSequence);
+        packetsInFlight++;
+
+        sendPacket(slot, currentTime);
+    }
+
+    private void sendPacket(int slot, long currentTime) throws IOException {
+        lastSendTimes[slot] = currentTime;
+        sendCounts[slot]++;
+        isAckPending = false;
+
+        packetSender.sendPacket(networkType, sentSequences[slot], ackSequence(), ackBits(), sentPayloads[slot]);
+    }
+
+    private void processAcks(int ack, int ackBits, long currentTime) throws IOException {
+        acknowledge(ack, currentTime);
+
+        for (int i = 1; i <= WindowSize; i++) {
+            if ((ackBits & (1 << (i - 1))) != 0) {
+                acknowledge(SequenceNumbers.previous(ack, i), currentTime);
+            }
+        }
+
+        while (oldestUnacked != nextSequence && sentSequences[oldestUnacked & BufferMask] != oldestUnacked) {
+            oldestUnacked = SequenceNumbers.next(oldestUnacked);
+        }
+
+        while (!backlog.isEmpty() && !isWindowFull()) {
+            sendNewPacket(backlog.poll(), currentTime);
+        }
+    }
+
+    private void acknowledge(int sequence, long currentTime) {
+        int slot = sequence & BufferMask;
+
+        if (sentSequences[slot] != sequence) {
+            return;
+        }
+
+        // Karn's algorithm: only packets sent exactly once give an unambiguous round-trip sample.
+        if (sendCounts[slot] == 1) {
+            sampleRtt(currentTime - firstSendTimes[slot]);
+        }
+
+        sentSequences[slot] = NoSequence;
+        sentPayloads[slot] = null;
+        packetsInFlight--;
+    }
+
+    private void sampleRtt(long rtt) {
+        if (!hasRttSample) {
+            hasRttSample = true;
+            smoothedRtt = rtt;
+            rttVariance = rtt / 2;
+        } else {
+            rttVariance = (3 * rttVariance + Math.abs(smoothedRtt - rtt)) / 4;
+            smoothedRtt = (7 * smoothedRtt + rtt) / 8;
+        }
+
+        retransmitTimeout = Math.max(MinRetransmitNanos, Math.min(MaxRetransmitNanos, smoothedRtt + 4 * rttVariance));
+    }
+
+    private List<byte[]> acceptPacket(int sequence, byte[] payload) {
+        isAckPending = true;
+        int slot = sequence & BufferMask;
+
+        if (hasReceived) {
+            // Anything this far behind was acknowledged long ago; the sender's window never reaches back that far.
+            boolean isStale = !SequenceNumbers.isNewer(sequence, remoteSequence)
+                && SequenceNumbers.distance(remoteSequence, sequence) >= WindowSize;
+
+            if (isStale || receivedSequences[slot] == sequence) {
+                duplicateCount++;
+                return List.of();
+            }
+        }
+
+        receivedSequences[slot] = sequence;
+
+        if (!hasReceived || SequenceNumbers.isNewer(sequence, remoteSequence)) {
+            hasReceived = true;
+            remoteSequence = sequence;
+        }
+
+        if (!isOrdered) {
+            return List.of(payload);
+        }
+
+        bufferedSequences[slot] = sequence;
+        bufferedPayloads[slot] = payload;
+
+        List<byte[]> deliverable = new ArrayList<>();
+
+        while (bufferedSequences[nextDeliverySequence & BufferMask] == nextDeliverySequence) {
+            int deliverySlot = nextDeliverySequence & BufferMask;
+
+            deliverable.add(bufferedPayloads[deliverySlot]);
+            bufferedSequences[deliverySlot] = NoSequence;
+            bufferedPayloads[deliverySlot] = null;
+
+            nextDeliverySequence = SequenceNumbers.next(nextDeliverySequence);
+        }
+
+        return deliverable;
+    }
+
+    private int ackSequence() {
+        // Before anything arrives, the peer cannot have sequence 65535 in flight, so this acks nothing.
+        return hasReceived ? remoteSequence : SequenceNumbers.SequenceMask;
+    }
+
+    private int ackBits() {
+        if (!hasReceived) {
+            return 0;
+        }
+
+        int ackBits = 0;
+
+        for (int i = 1; i <= WindowSize; i++) {
+            int sequence = SequenceNumbers.previous(remoteSequence, i);
+
+            if (receivedSequences[sequence & BufferMask] == sequence) {
+                ackBits |= 1 << (i - 1);
+            }
+        }
+
+        return ackBits;
+    }
+
+    public interface PacketSender {
+        void sendPacket(NetworkType networkType, int sequence, int ack, int ackBits, byte[] payload) throws IOException;
+
+        void sendAck(NetworkType networkType, int ack, int ackBits) throws IOException;
+    }
+
+    public interface PayloadReceiver {
+        void receive(byte[] payload) throws IOException;
+    }
+}
@@ -0,0 +1,28 @@
+package tech.fastj.network.rpc.udp;
+
+/** Helpers for 16-bit sequence numbers that wrap around after {@link #SequenceRange} values. */
+public class SequenceNumbers {
+
+    public static final int SequenceRange = 1 << 16;
+    public static final int HalfRange = SequenceRange / 2;
+    public static final int SequenceMask = SequenceRange - 1;
+
+    /** Whether {@code sequence} was issued after {@code other}, accounting for wraparound. */
+    public static boolean isNewer(int sequence, int other) {
+        return ((sequence > other) && (sequence - other <= HalfRange))
+            || ((sequence < other) && (other - sequence > HalfRange));
+    }
+
+    public static int next(int sequence) {
+        return (sequence + 1) & SequenceMask;
+    }
+
+    public static int previous(int sequence, int amount) {
+        return (sequence - amount) & SequenceMask;
+    }
+
+    /** Number of steps from {@code older} forward to {@code newer}. */
+    public static int distance(int newer, int older) {
+        return (newer - older) & SequenceMask;
+    }
+}
@@ -0,0 +1,53 @@
+package tech.fastj.network.rpc.udp;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rejects unreliable UDP commands that arrive after a newer packet of the same command from the same sender.
+ * <p>
+ * A command relayed on another player's behalf is tracked under that player rather than the relaying server, since the
+ * server sequences each player's relayed updates separately.
+ * <p>
+ * Unreliable commands carry state that is fully replaced by the next update, so anything older than what was already
+ * received is useless and only rewinds the receiver's state.
+ */
+public class StaleCommandFilter {
+
+    private final Map<Stream, Integer> latestSequences;
+    private final AtomicLong droppedCount;
+
+    public StaleCommandFilter() {
+        latestSequences = new ConcurrentHashMap<>();
+        droppedCount = new AtomicLong();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /** Records {@code sequence} and returns whether it is newer than every earlier packet of the same stream. */
+    public boolean accept(UUID senderId, UUID commandId, int sequence) {
+        boolean[] isNewer = new boolean[1];
+
+        latestSequences.compute(new Stream(senderId, commandId), (stream, latest) -> {
+            isNewer[0] = latest == null || SequenceNumbers.isNewer(sequence, latest);
+            return isNewer[0] ? sequence : latest;
+        });
+
+        if (!isNewer[0]) {
+            droppedCount.incrementAndGet();
+        }
+
+        return isNewer[0];
+    }
+
+    public void forget(UUID senderId) {
+        latestSequences.keySet().removeIf(stream -> stream.senderId().equals(senderId));
+    }
+
+    private record Stream(UUID senderId, UUID commandId) {
+    }
+}
@@ -0,0 +1,64 @@
+package tech.fastj.network.rpc.udp;
+
+import tech.fastj.network.rpc.message.SentMessageType;
+import tech.fastj.network.serial.util.MessageUtils;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Splits UDP packets larger than the MTU into fragments: {@code [sender id][Fragment][group id][index][count][chunk]}.
+ * The chunks of a group concatenate back into the original packet, header included.
+ */
+public class UdpFragments {
+
+    public static final int FragmentHeaderLength = MessageUtils.UuidBytes + MessageUtils.EnumBytes + Integer.BYTES + (Short.BYTES * 2);
+
+    /** Maximum number of fragments a single packet may be split into. */
+    public static final int MaxFragmentCount = 64;
+
+    /** Maximum length of a packet before fragmentation, which bounds the memory held per reassembly. */
+    public static final int MaxPacketLength = 1 << 16;
+
+    private static final AtomicInteger NextGroupId = new AtomicInteger();
+
+    public static int maxPacketLength(int mtu) {
+        return Math.min(MaxPacketLength, MaxFragmentCount * chunkLength(mtu));
+    }
+
+    public static int chunkLength(int mtu) {
+        return mtu - FragmentHeaderLength;
+    }
+
+    public static byte[][] split(UUID senderId, byte[] packetData, int mtu) {
+        int chunkLength = chunkLength(mtu);
+        int fragmentCount = (packetData.length + chunkLength - 1) / chunkLength;
+
+        if (packetData.length > maxPacketLength(mtu)) {
+            throw new IllegalArgumentException(
+                "Packet of " + packetData.length + " bytes exceeds the maximum of " + maxPacketLength(mtu) + " bytes for an MTU of " + mtu + "."
+            );
+        }
+
+        int groupId = NextGroupId.getAndIncrement();
+        byte[][] fragments = new byte[fragmentCount][];
+
+        for (int i = 0; i < fragmentCount; i++) {
+            int offset = i * chunkLength;
+            int length = Math.min(chunkLength, packetData.length - offset);
+
+            fragments[i] = ByteBuffer.allocate(FragmentHeaderLength + length)
+                .putLong(senderId.getMostSignificantBits())
+                .putLong(senderId.getLeastSignificantBits())
+                .putInt(SentMessageType.Fragment.ordinal())
+                .putInt(groupId)
+                .putShort((short) i)
+                .putShort((short) fragmentCount)
+                .put(packetData, offset, length)
+                .array();
+        }
+
+        return fragments;
+    }
+}
@@ -0,0 +1,28 @@
+package tech.fastj.network.serial;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sends a {@code float} or {@code double} record component as a {@link #bits()}-bit fixed-point value between
+ * {@link #min()} and {@link #max()} instead of its full width.
+ * <p>
+ * Values outside the range are clamped, or wrapped back into it if {@link #wraps()} is set (as for angles). All quantized
+ * components of a message are bit-packed together, so two 12-bit values take up 3 bytes.
+ *
+ * @see tech.fastj.network.serial.util.QuantizationUtils
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.RECORD_COMPONENT)
+public @interface Quantized {
+
+    float min();
+
+    float max();
+
+    int bits();
+
+    boolean wraps() default false;
+}
@@ -28,6 +28,7 @@ public class Serializer {
         float.class, Float.class,
         double.class, Double.class,
         byte[].class,
+        short[].class,
         int[].class,
         float[].class,
         String.class,
@@ -191,6 +192,9 @@ public class Serializer {
                 throw new IOException("Unsupported networkable type '" + type.getSimpleName() + "'");
             }
 
+            return;
+        } else if (type.isArray() && Message.class.isAssignableFrom(type.getComponentType())) {
+            typeCheck(type.getComponentType());
             return;
         }
 
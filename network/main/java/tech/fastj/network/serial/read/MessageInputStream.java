@@ -49,6 +49,8 @@ public class MessageInputStream extends DataInputStream {
             return readByteArray();
         } else if (objectType.isAssignableFrom(float[].class)) {
             return readFloatArray();
+        } else if (objectType.isAssignableFrom(short[].class)) {
+            return readShortArray();
         } else if (objectType.isAssignableFrom(int[].class)) {
             return readIntArray();
         } else if (objectType.isArray() && Message.class.isAssignableFrom(objectType.getComponentType())) {
@@ -129,6 +131,21 @@ public class MessageInputStream extends DataInputStream {
         }
     }
 
+    private short[] readShortArray() throws IOException {
+        int arrayLength = readInt();
+
+        if (arrayLength == MessageUtils.Null) {
+            return null;
+        } else {
+            short[] shortArray = new short[arrayLength];
+            for (int i = 0; i < arrayLength; i++) {
+                shortArray[i] = readShort();
+            }
+
+            return shortArray;
+        }
+    }
+
     private int[] readIntArray() throws IOException {
         int arrayLength = readInt();
 
@@ -70,6 +70,8 @@ public class MessageUtils {
             return EnumBytes;
         } else if (object instanceof byte[]) {
             return Integer.BYTES + ((byte[]) object).length;
+        } else if (object instanceof short[]) {
+            return Integer.BYTES + ((short[]) object).length * Short.BYTES;
         } else if (object instanceof int[]) {
             return Integer.BYTES + ((int[]) object).length;
         } else if (object instanceof float[]) {
@@ -0,0 +1,131 @@
+package tech.fastj.network.serial.util;
+
+import tech.fastj.network.serial.Quantized;
+import tech.fastj.network.serial.read.MessageInputStream;
+import tech.fastj.network.serial.write.MessageOutputStream;
+
+import java.io.IOException;
+import java.lang.reflect.RecordComponent;
+
+public class QuantizationUtils {
+
+    public static final int MaxBits = 31;
+
+    /** Checks that {@code component} can be quantized as declared, returning its {@link Quantized} hint if it has one. */
+    public static Quantized getQuantization(RecordComponent component) {
+        Quantized quantized = component.getAnnotation(Quantized.class);
+
+        if (quantized == null) {
+            return null;
+        }
+
+        String name = component.getDeclaringRecord().getSimpleName() + "." + component.getName();
+
+        if (component.getType() != float.class && component.getType() != double.class) {
+            throw new IllegalArgumentException("Only float and double components can be quantized, but " + name + " is " + component.getType().getSimpleName());
+        }
+
+        if (quantized.bits() < 1 || quantized.bits() > MaxBits) {
+            throw new IllegalArgumentException("Quantized bits of " + name + " must be between 1 and " + MaxBits + ", not " + quantized.bits());
+        }
+
+        if (!(quantized.min() < quantized.max())) {
+            throw new IllegalArgumentException("Quantized range of " + name + " is empty: " + quantized.min() + " to " + quantized.max());
+        }
+
+        return quantized;
+    }
+
+    public static int quantize(double value, Quantized quantized) {
+        double range = (double) quantized.max() - quantized.min();
+
+        if (quantized.wraps()) {
+            long steps = 1L << quantized.bits();
+            double offset = (value - quantized.min()) % range;
+
+            if (offset < 0d) {
+                offset += range;
+            }
+
+            return (int) (Math.round(offset / range * steps) % steps);
+        }
+
+        long steps = (1L << quantized.bits()) - 1L;
+        double clamped = Math.max(quantized.min(), Math.min(quantized.max(), value));
+
+        return (int) Math.round((clamped - quantized.min()) / range * steps);
+    }
+
+    public static double dequantize(int quantizedValue, Quantized quantized) {
+        double range = (double) quantized.max() - quantized.min();
+        long steps = quantized.wraps() ? 1L << quantized.bits() : (1L << quantized.bits()) - 1L;
+
+        return quantized.min() + quantizedValue * range / steps;
+    }
+
+    /** Largest difference between a value in range and what it reads back as; for wrapping values, modulo the range. */
+    public static double maxError(Quantized quantized) {
+        double range = (double) quantized.max() - quantized.min();
+        long steps = quantized.wraps() ? 1L << quantized.bits() : (1L << quantized.bits()) - 1L;
+
+        return range / steps / 2d;
+    }
+
+    public static int packedBytes(Quantized[] quantizations) {
+        int bits = 0;
+
+        for (Quantized quantized : quantizations) {
+            bits += quantized.bits();
+        }
+
+        return (bits + Byte.SIZE - 1) / Byte.SIZE;
+    }
+
+    /** Writes the values bit-packed, most significant bit first, padding the last byte with zeroes. */
+    public static void writePacked(MessageOutputStream outputStream, double[] values, Quantized[] quantizations) throws IOException {
+        long buffer = 0L;
+        int bufferedBits = 0;
+
+        for (int i = 0; i < values.length; i++) {
+            int bits = quantizations[i].bits();
+            buffer = (buffer << bits) | quantize(values[i], quantizations[i]);
+            bufferedBits += bits;
+
+            while (bufferedBits >= Byte.SIZE) {
+                bufferedBits -= Byte.SIZE;
+                outputStream.writeByte((int) (buffer >>> bufferedBits));
+                buffer &= (1L << bufferedBits) - 1L;
+            }
+        }
+
+        if (bufferedBits > 0) {
+            outputStream.writeByte((int) (buffer << (Byte.SIZE - bufferedBits)));
+        }
+    }
+
+    public static double[] readPacked(MessageInputStream inputStream, Quantized[] quantizations) throws IOException {
+        double[] values = new double[quantizations.length];
+        long buffer = 0L;
+        int bufferedBits = 0;
+
+        for (int i = 0; i < quantizations.length; i++) {
+            int bits = quantizations[i].bits();
+
+            while (bufferedBits < bits) {
+                buffer = (buffer << Byte.SIZE) | inputStream.readUnsignedByte();
+                bufferedBits += Byte.SIZE;
+            }
+
+            bufferedBits -= bits;
+            values[i] = dequantize((int) (buffer >>> bufferedBits), quantizations[i]);
+            buffer &= (1L << bufferedBits) - 1L;
+        }
+
+        return values;
+    }
+
+    /** Converts a read-back value to the component's type. */
+    public static Object toComponentValue(double value, Class<?> componentType) {
+        return componentType == float.class ? (Object) (float) value : (Object) value;
+    }
+}
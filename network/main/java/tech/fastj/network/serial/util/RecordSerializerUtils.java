@@ -1,6 +1,7 @@
 package tech.fastj.network.serial.util;
 
 import tech.fastj.network.serial.Message;
+import tech.fastj.network.serial.Quantized;
 import tech.fastj.network.serial.RecordSerializer;
 import tech.fastj.network.serial.Serializer;
 import tech.fastj.network.serial.read.MessageReader;
@@ -11,6 +12,7 @@ import java.lang.reflect.RecordComponent;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Function;
 
 public class RecordSerializerUtils {
@@ -40,20 +42,49 @@ public class RecordSerializerUtils {
         } catch (NoSuchMethodException exception) {
             throw new IllegalArgumentException(exception);
         }
+
+        Quantized[] quantizations = Arrays.stream(components)
+            .map(QuantizationUtils::getQuantization)
+            .toArray(Quantized[]::new);
+
         return new RecordSerializer<>(
             networkableType,
-            generateByteSizeFunction(serializer, components),
-            generateReader(constructor),
-            generateWriter(components)
+            generateByteSizeFunction(serializer, components, quantizations),
+            generateReader(constructor, quantizations),
+            generateWriter(components, quantizations)
         );
     }
 
-    private static <T extends Message> Function<T, Integer> generateByteSizeFunction(Serializer serializer, RecordComponent[] components) {
+    /** Quantized components are bit-packed together at the position of the first one. */
+    private static int firstQuantizedIndex(Quantized[] quantizations) {
+        for (int i = 0; i < quantizations.length; i++) {
+            if (quantizations[i] != null) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static Quantized[] packedQuantizations(Quantized[] quantizations) {
+        return Arrays.stream(quantizations)
+            .filter(Objects::nonNull)
+            .toArray(Quantized[]::new);
+    }
+
+    private static <T extends Message> Function<T, Integer> generateByteSizeFunction(Serializer serializer, RecordComponent[] components,
+                                                                                    Quantized[] quantizations) {
+        int packedBytes = QuantizationUtils.packedBytes(packedQuantizations(quantizations));
+
         return networkable -> {
-            int size = 0;
-            for (var component : components) {
+            int size = packedBytes;
+            for (int i = 0; i < components.length; i++) {
+                if (quantizations[i] != null) {
+                    continue;
+                }
+
                 try {
-                    size += MessageUtils.bytesLength(serializer, component.getAccessor().invoke(networkable));
+                    size += MessageUtils.bytesLength(serializer, components[i].getAccessor().invoke(networkable));
                 } catch (ReflectiveOperationException exception) {
                     throw new IllegalStateException(exception);
                 }
@@ -62,12 +93,27 @@ public class RecordSerializerUtils {
         };
     }
 
-    private static <T extends Message> MessageReader<T> generateReader(Constructor<T> constructor) {
+    private static <T extends Message> MessageReader<T> generateReader(Constructor<T> constructor, Quantized[] quantizations) {
+        int firstQuantized = firstQuantizedIndex(quantizations);
+        Quantized[] packed = packedQuantizations(quantizations);
+
         return inputStream -> {
             Object[] values = new Object[constructor.getParameterCount()];
 
             for (int i = 0; i < values.length; i++) {
-                values[i] = inputStream.readObject(constructor.getParameterTypes()[i]);
+                if (i == firstQuantized) {
+                    double[] packedValues = QuantizationUtils.readPacked(inputStream, packed);
+
+                    for (int j = i, k = 0; j < values.length; j++) {
+                        if (quantizations[j] != null) {
+                            values[j] = QuantizationUtils.toComponentValue(packedValues[k++], constructor.getParameterTypes()[j]);
+                        }
+                    }
+                }
+
+                if (quantizations[i] == null) {
+                    values[i] = inputStream.readObject(constructor.getParameterTypes()[i]);
+                }
             }
 
             try {
@@ -78,11 +124,28 @@ public class RecordSerializerUtils {
         };
     }
 
-    private static <T extends Message> MessageWriter<T> generateWriter(RecordComponent[] components) {
+    private static <T extends Message> MessageWriter<T> generateWriter(RecordComponent[] components, Quantized[] quantizations) {
+        int firstQuantized = firstQuantizedIndex(quantizations);
+        Quantized[] packed = packedQuantizations(quantizations);
+
         return (outputStream, networkable) -> {
-            for (var component : components) {
+            for (int i = 0; i < components.length; i++) {
                 try {
-                    outputStream.writeObject(component.getAccessor().invoke(networkable), component.getType());
+                    if (i == firstQuantized) {
+                        double[] packedValues = new double[packed.length];
+
+                        for (int j = i, k = 0; j < components.length; j++) {
+                            if (quantizations[j] != null) {
+                                packedValues[k++] = ((Number) components[j].getAccessor().invoke(networkable)).doubleValue();
+                            }
+                        }
+
+                        QuantizationUtils.writePacked(outputStream, packedValues, packed);
+                    }
+
+                    if (quantizations[i] == null) {
+                        outputStream.writeObject(components[i].getAccessor().invoke(networkable), components[i].getType());
+                    }
                 } catch (ReflectiveOperationException exception) {
                     throw new IllegalStateException(exception);
                 }
@@ -42,6 +42,8 @@ public class MessageOutputStream extends DataOutputStream {
             writeEnum((Enum<?>) object);
         } else if (type.equals(byte[].class)) {
             writeArray((byte[]) object);
+        } else if (type.equals(short[].class)) {
+            writeArray((short[]) object);
         } else if (type.equals(int[].class)) {
             writeArray((int[]) object);
         } else if (type.equals(float[].class)) {
@@ -110,6 +112,17 @@ public class MessageOutputStream extends DataOutputStream {
         }
     }
 
+    public void writeArray(short[] shortArray) throws IOException {
+        if (shortArray == null) {
+            writeInt(MessageUtils.Null);
+        } else {
+            writeInt(shortArray.length);
+            for (var item : shortArray) {
+                writeShort(item);
+            }
+        }
+    }
+
     public void writeArray(int[] intArray) throws IOException {
         if (intArray == null) {
             writeInt(MessageUtils.Null);
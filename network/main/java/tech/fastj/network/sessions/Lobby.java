@@ -3,19 +3,28 @@ package tech.fastj.network.sessions;
 import tech.fastj.network.rpc.CommandHandler;
 import tech.fastj.network.rpc.Server;
 import tech.fastj.network.rpc.ServerClient;
+import tech.fastj.network.rpc.TimingWheel;
 import tech.fastj.network.rpc.message.prebuilt.LobbyIdentifier;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 
 public abstract class Lobby extends CommandHandler<ServerClient> {
 
+    /** Most tasks one drain of the mailbox runs before letting the worker's other lobbies have a turn. */
+    public static final int MaxTasksPerDrain = 32;
+
     protected LobbyIdentifier lobbyIdentifier;
 
     protected final Server server;
@@ -28,11 +37,22 @@ public abstract class Lobby extends CommandHandler<ServerClient> {
     private BiConsumer<Lobby, ServerClient> onReceiveNewClient;
     private BiConsumer<Lobby, ServerClient> onClientDisconnect;
 
+    private volatile LobbyWorker worker;
+    private final Queue<Runnable> mailbox;
+    private final AtomicBoolean isDrainScheduled;
+    private volatile Thread drainingThread;
+    private final AtomicLong busyNanos;
+    private long lastSampledBusyNanos;
+    private volatile long sampledBusyNanos;
+
     protected Lobby(Server server, int expectedLobbySize, String name) {
         this.server = server;
-        clients = new ArrayList<>(expectedLobbySize);
-        sessions = new HashMap<>();
+        clients = new CopyOnWriteArrayList<>();
+        sessions = new ConcurrentHashMap<>();
         lobbyIdentifier = new LobbyIdentifier(UUID.randomUUID(), name, 0, expectedLobbySize);
+        mailbox = new ConcurrentLinkedQueue<>();
+        isDrainScheduled = new AtomicBoolean();
+        busyNanos = new AtomicLong();
 
         onSwitchSession = (oldSession, newSession) -> {
         };
@@ -60,6 +80,10 @@ public abstract class Lobby extends CommandHandler<ServerClient> {
         return false;
     }
 
+    /**
+     * The lobby's clients. Membership is copy-on-write, so loops over this list see the clients as of when the loop
+     * began, even while clients join or leave on other threads.
+     */
     public List<ServerClient> getClients() {
         return Collections.unmodifiableList(clients);
     }
@@ -80,6 +104,89 @@ public abstract class Lobby extends CommandHandler<ServerClient> {
         return server;
     }
 
+    /** The worker this lobby and its sessions run on, or {@code null} until the server assigns one. */
+    public LobbyWorker getWorker() {
+        return worker;
+    }
+
+    void setWorker(LobbyWorker worker) {
+        this.worker = worker;
+    }
+
+    /**
+     * Runs {@code task} on this lobby's worker, after everything the lobby queued before it. Runs it right away when
+     * called from one of this lobby's own tasks, or when the lobby has no worker.
+     * <p>
+     * Tasks wait in the lobby's own mailbox, and at most one drain of that mailbox is queued or running at a time. A
+     * lobby's tasks therefore never overlap, even while it {@link LobbyWorkers#move(Lobby, LobbyWorker) moves}: a drain
+     * that finds the lobby moved stops, and the next one is queued on the new worker.
+     */
+    @Override
+    public void execute(Runnable task) {
+        if (worker == null || Thread.currentThread() == drainingThread) {
+            task.run();
+            return;
+        }
+
+        mailbox.add(task);
+        scheduleDrain();
+    }
+
+    /** Runs {@code task} on this lobby's worker every {@code period}, timed by the {@link TimingWheel#shared() shared wheel}. */
+    public TimingWheel.Timeout scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        return TimingWheel.shared().scheduleAtFixedRate(task, initialDelay, period, unit, this::execute);
+    }
+
+    public TimingWheel.Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        return TimingWheel.shared().schedule(task, delay, unit, this::execute);
+    }
+
+    /** Runs this lobby's queued tasks on {@code drainingWorker}'s thread, for as long as the lobby stays on it. */
+    void drain(LobbyWorker drainingWorker) {
+        drainingThread = Thread.currentThread();
+
+        try {
+            for (int i = 0; i < MaxTasksPerDrain && worker == drainingWorker; i++) {
+                Runnable task = mailbox.poll();
+
+                if (task == null) {
+                    break;
+                }
+
+                drainingWorker.run(this, task);
+            }
+        } finally {
+            drainingThread = null;
+            isDrainScheduled.set(false);
+        }
+
+        // Tasks queued while the drain was finishing up would otherwise wait for the next call to execute.
+        if (!mailbox.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    private void scheduleDrain() {
+        if (isDrainScheduled.compareAndSet(false, true)) {
+            worker.schedule(this);
+        }
+    }
+
+    void addBusyNanos(long nanos) {
+        busyNanos.addAndGet(nanos);
+    }
+
+    synchronized void sampleBusyNanos() {
+        long currentBusyNanos = busyNanos.get();
+        sampledBusyNanos = currentBusyNanos - lastSampledBusyNanos;
+        lastSampledBusyNanos = currentBusyNanos;
+    }
+
+    /** Time spent running this lobby's tasks during the last load check period. */
+    long getSampledBusyNanos() {
+        return sampledBusyNanos;
+    }
+
     public void setOnSwitchSession(BiConsumer<Session, Session> onSwitchSession) {
         this.onSwitchSession = onSwitchSession;
     }
@@ -126,8 +233,8 @@ public abstract class Lobby extends CommandHandler<ServerClient> {
 
         sessions.clear();
 
-        for (int i = clients.size() - 1; i >= 0; i--) {
-            clients.get(i).disconnect();
+        for (ServerClient client : clients) {
+            client.disconnect();
         }
 
         clients.clear();
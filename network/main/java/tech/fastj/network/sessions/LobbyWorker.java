@@ -0,0 +1,114 @@
+package tech.fastj.network.sessions;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A single-threaded event loop that runs the commands, timers and broadcasts of the lobbies pinned to it.
+ * <p>
+ * Everything a lobby does runs on its worker's thread, so lobbies never contend with each other and a lobby's own
+ * state needs no locking against itself. Workers are created and assigned by {@link LobbyWorkers}.
+ */
+public class LobbyWorker {
+
+    private static final Logger LobbyWorkerLogger = LoggerFactory.getLogger(LobbyWorker.class);
+
+    private final int index;
+    private final ExecutorService eventLoop;
+    private final Set<Lobby> lobbies;
+    private final AtomicLong busyNanos;
+
+    private volatile Thread thread;
+    private long lastSampleTime;
+    private long lastSampleBusyNanos;
+    private volatile double load;
+
+    LobbyWorker(int index) {
+        this.index = index;
+        this.eventLoop = Executors.newSingleThreadExecutor(runnable -> {
+            Thread workerThread = new Thread(runnable, "lobby-worker-" + index);
+            workerThread.setDaemon(true);
+            thread = workerThread;
+
+            return workerThread;
+        });
+        this.lobbies = ConcurrentHashMap.newKeySet();
+        this.busyNanos = new AtomicLong();
+        this.lastSampleTime = System.nanoTime();
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Set<Lobby> getLobbies() {
+        return Set.copyOf(lobbies);
+    }
+
+    public int getLobbyCount() {
+        return lobbies.size();
+    }
+
+    /** Fraction of time this worker spent running tasks, as of the last {@link LobbyWorkers#checkLoad() load check}. */
+    public double getLoad() {
+        return load;
+    }
+
+    public boolean isWorkerThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    /** Queues a drain of {@code lobby}'s mailbox on this worker. */
+    void schedule(Lobby lobby) {
+        eventLoop.execute(() -> lobby.drain(this));
+    }
+
+    void run(Lobby lobby, Runnable task) {
+        long start = System.nanoTime();
+
+        try {
+            task.run();
+        } catch (Exception exception) {
+            LobbyWorkerLogger.error("Lobby task failed in lobby {}", lobby.getLobbyIdentifier().name(), exception);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            busyNanos.addAndGet(elapsed);
+            lobby.addBusyNanos(elapsed);
+        }
+    }
+
+    void addLobby(Lobby lobby) {
+        lobbies.add(lobby);
+    }
+
+    void removeLobby(Lobby lobby) {
+        lobbies.remove(lobby);
+    }
+
+    synchronized double sampleLoad() {
+        long now = System.nanoTime();
+        long currentBusyNanos = busyNanos.get();
+        long elapsed = now - lastSampleTime;
+
+        load = elapsed <= 0L ? 0.0 : Math.min(1.0, (double) (currentBusyNanos - lastSampleBusyNanos) / elapsed);
+        lastSampleTime = now;
+        lastSampleBusyNanos = currentBusyNanos;
+
+        for (Lobby lobby : lobbies) {
+            lobby.sampleBusyNanos();
+        }
+
+        return load;
+    }
+
+    void shutdown() {
+        eventLoop.shutdownNow();
+        lobbies.clear();
+    }
+}
@@ -0,0 +1,195 @@
+package tech.fastj.network.sessions;
+
+import tech.fastj.network.rpc.TimingWheel;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A fixed pool of {@link LobbyWorker}s that lobbies are sharded across.
+ * <p>
+ * New lobbies go to the worker with the fewest lobbies, breaking ties by load. Once
+ * {@link #startLoadChecks(long, TimeUnit) load checks} are running, any worker busy for at least
+ * {@link #getHotLoad() the hot load} of a check period is passed to the hot worker handler, which by default
+ * {@link #rebalance(LobbyWorker) moves its busiest lobby} to the least loaded worker.
+ */
+public class LobbyWorkers {
+
+    public static final int DefaultWorkerCount = Runtime.getRuntime().availableProcessors();
+    public static final double DefaultHotLoad = 0.75;
+
+    private static final Logger LobbyWorkersLogger = LoggerFactory.getLogger(LobbyWorkers.class);
+
+    private final List<LobbyWorker> workers;
+    private double hotLoad;
+    private BiConsumer<LobbyWorkers, LobbyWorker> onWorkerHot;
+    private TimingWheel.Timeout loadChecker;
+
+    public LobbyWorkers(int workerCount) {
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("Worker count must be positive, not " + workerCount + ".");
+        }
+
+        LobbyWorker[] newWorkers = new LobbyWorker[workerCount];
+
+        for (int i = 0; i < workerCount; i++) {
+            newWorkers[i] = new LobbyWorker(i);
+        }
+
+        workers = List.of(newWorkers);
+        hotLoad = DefaultHotLoad;
+        onWorkerHot = LobbyWorkers::rebalance;
+    }
+
+    public List<LobbyWorker> getWorkers() {
+        return workers;
+    }
+
+    public double getHotLoad() {
+        return hotLoad;
+    }
+
+    public void setHotLoad(double hotLoad) {
+        if (hotLoad <= 0.0 || hotLoad > 1.0) {
+            throw new IllegalArgumentException("Hot load must be in (0, 1], not " + hotLoad + ".");
+        }
+
+        this.hotLoad = hotLoad;
+    }
+
+    /** Sets what happens when a load check finds a hot worker. Replaces the default {@link #rebalance(LobbyWorker)}. */
+    public void setOnWorkerHot(BiConsumer<LobbyWorkers, LobbyWorker> onWorkerHot) {
+        this.onWorkerHot = onWorkerHot;
+    }
+
+    public synchronized LobbyWorker assign(Lobby lobby) {
+        LobbyWorker currentWorker = lobby.getWorker();
+
+        if (currentWorker != null) {
+            return currentWorker;
+        }
+
+        LobbyWorker worker = leastLoaded();
+        worker.addLobby(lobby);
+        lobby.setWorker(worker);
+
+        return worker;
+    }
+
+    public synchronized void release(Lobby lobby) {
+        LobbyWorker worker = lobby.getWorker();
+
+        if (worker != null) {
+            worker.removeLobby(lobby);
+        }
+    }
+
+    /**
+     * Pins {@code lobby} to {@code target}. A task of the lobby that is already running finishes on the old worker, and
+     * the lobby's queued tasks then run on {@code target}, in order.
+     */
+    public synchronized void move(Lobby lobby, LobbyWorker target) {
+        LobbyWorker worker = lobby.getWorker();
+
+        if (worker == target) {
+            return;
+        }
+
+        if (worker != null) {
+            worker.removeLobby(lobby);
+        }
+
+        target.addLobby(lobby);
+        lobby.setWorker(target);
+    }
+
+    /** Moves the hot worker's busiest lobby over to the least loaded other worker, if it has more than one lobby. */
+    public synchronized void rebalance(LobbyWorker hotWorker) {
+        if (hotWorker.getLobbyCount() < 2 || workers.size() < 2) {
+            return;
+        }
+
+        Lobby busiestLobby = null;
+
+        for (Lobby lobby : hotWorker.getLobbies()) {
+            if (busiestLobby == null || lobby.getSampledBusyNanos() > busiestLobby.getSampledBusyNanos()) {
+                busiestLobby = lobby;
+            }
+        }
+
+        LobbyWorker target = null;
+
+        for (LobbyWorker worker : workers) {
+            if (worker != hotWorker && (target == null || worker.getLoad() < target.getLoad())) {
+                target = worker;
+            }
+        }
+
+        if (busiestLobby == null || target == null || target.getLoad() >= hotWorker.getLoad()) {
+            return;
+        }
+
+        LobbyWorkersLogger.info(
+            "Moving lobby {} from worker {} ({} load) to worker {} ({} load)",
+            busiestLobby.getLobbyIdentifier().name(), hotWorker.getIndex(), hotWorker.getLoad(), target.getIndex(), target.getLoad()
+        );
+
+        move(busiestLobby, target);
+    }
+
+    /** Samples every worker's load and passes hot workers to the hot worker handler. */
+    public void checkLoad() {
+        for (LobbyWorker worker : workers) {
+            worker.sampleLoad();
+        }
+
+        for (LobbyWorker worker : workers) {
+            if (worker.getLoad() >= hotLoad) {
+                onWorkerHot.accept(this, worker);
+            }
+        }
+    }
+
+    public synchronized void startLoadChecks(long period, TimeUnit unit) {
+        if (loadChecker != null) {
+            return;
+        }
+
+        loadChecker = TimingWheel.shared().scheduleAtFixedRate(this::checkLoad, period, period, unit);
+    }
+
+    public synchronized void stopLoadChecks() {
+        if (loadChecker == null) {
+            return;
+        }
+
+        loadChecker.cancel();
+        loadChecker = null;
+    }
+
+    public synchronized void shutdown() {
+        stopLoadChecks();
+
+        for (LobbyWorker worker : workers) {
+            worker.shutdown();
+        }
+    }
+
+    private LobbyWorker leastLoaded() {
+        LobbyWorker leastLoaded = null;
+
+        for (LobbyWorker worker : workers) {
+            if (leastLoaded == null
+                || worker.getLobbyCount() < leastLoaded.getLobbyCount()
+                || (worker.getLobbyCount() == leastLoaded.getLobbyCount() && worker.getLoad() < leastLoaded.getLoad())) {
+                leastLoaded = worker;
+            }
+        }
+
+        return leastLoaded;
+    }
+}
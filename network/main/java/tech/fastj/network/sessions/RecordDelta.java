@@ -0,0 +1,182 @@
+package tech.fastj.network.sessions;
+
+import tech.fastj.network.serial.Message;
+import tech.fastj.network.serial.Quantized;
+import tech.fastj.network.serial.Serializer;
+import tech.fastj.network.serial.read.MessageInputStream;
+import tech.fastj.network.serial.util.QuantizationUtils;
+import tech.fastj.network.serial.write.MessageOutputStream;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Field-level differences between two states of a record message.
+ * <p>
+ * A delta is a bitmask with one bit per record component, followed by the values of the components whose bits are set.
+ * Reading a delta fills every unset component from the baseline state it was written against. {@link Quantized}
+ * components only count as changed when their quantized value changes, and are bit-packed right after the bitmask.
+ */
+public class RecordDelta<T extends Record & Message> {
+
+    public static final int MaxComponents = Integer.SIZE;
+
+    private final Class<T> recordType;
+    private final RecordComponent[] components;
+    private final Quantized[] quantizations;
+    private final Constructor<T> constructor;
+    private final int fullMask;
+
+    @SuppressWarnings("unchecked")
+    public RecordDelta(Serializer serializer, Class<T> recordType) {
+        this.recordType = recordType;
+        this.components = recordType.getRecordComponents();
+
+        if (components.length > MaxComponents) {
+            throw new IllegalArgumentException(
+                "Cannot replicate " + recordType.getSimpleName() + ": it has " + components.length
+                    + " components, but at most " + MaxComponents + " are supported."
+            );
+        }
+
+        try {
+            constructor = recordType.getDeclaredConstructor(
+                Arrays.stream(components)
+                    .map(RecordComponent::getType)
+                    .toArray(Class<?>[]::new)
+            );
+        } catch (NoSuchMethodException exception) {
+            throw new IllegalArgumentException("Unable to find canonical constructor of " + recordType.getSimpleName(), exception);
+        }
+
+        this.fullMask = components.length == MaxComponents ? -1 : (1 << components.length) - 1;
+        this.quantizations = Arrays.stream(components)
+            .map(QuantizationUtils::getQuantization)
+            .toArray(Quantized[]::new);
+
+        for (RecordComponent component : components) {
+            if (Message.class.isAssignableFrom(component.getType())) {
+                serializer.registerSerializer(UUID.randomUUID(), (Class<? extends Message>) component.getType());
+            }
+        }
+    }
+
+    public Class<T> getRecordType() {
+        return recordType;
+    }
+
+    /** Mask with the bit of every component set, as used when there is no baseline. */
+    public int getFullMask() {
+        return fullMask;
+    }
+
+    /** Components of {@code state} that differ from {@code baseline}; every component if {@code baseline} is null. */
+    public int changedComponents(T baseline, T state) {
+        if (baseline == null) {
+            return fullMask;
+        }
+
+        int mask = 0;
+
+        for (int i = 0; i < components.length; i++) {
+            if (!componentEquals(i, componentValue(baseline, i), componentValue(state, i))) {
+                mask |= 1 << i;
+            }
+        }
+
+        return mask;
+    }
+
+    public void write(MessageOutputStream outputStream, T state, int mask) throws IOException {
+        outputStream.writeInt(mask);
+
+        int quantizedMask = quantizedComponents(mask);
+        Quantized[] packed = new Quantized[Integer.bitCount(quantizedMask)];
+        double[] packedValues = new double[packed.length];
+
+        for (int i = 0, k = 0; i < components.length; i++) {
+            if ((quantizedMask & (1 << i)) != 0) {
+                packed[k] = quantizations[i];
+                packedValues[k++] = ((Number) componentValue(state, i)).doubleValue();
+            }
+        }
+
+        QuantizationUtils.writePacked(outputStream, packedValues, packed);
+
+        for (int i = 0; i < components.length; i++) {
+            if ((mask & ~quantizedMask & (1 << i)) != 0) {
+                outputStream.writeObject(componentValue(state, i), components[i].getType());
+            }
+        }
+    }
+
+    public T read(MessageInputStream inputStream, T baseline) throws IOException {
+        int mask = inputStream.readInt();
+
+        if (baseline == null && mask != fullMask) {
+            throw new IOException("Received a partial " + recordType.getSimpleName() + " without a baseline to apply it to.");
+        }
+
+        Object[] values = new Object[components.length];
+
+        int quantizedMask = quantizedComponents(mask);
+        Quantized[] packed = new Quantized[Integer.bitCount(quantizedMask)];
+
+        for (int i = 0, k = 0; i < components.length; i++) {
+            if ((quantizedMask & (1 << i)) != 0) {
+                packed[k++] = quantizations[i];
+            }
+        }
+
+        double[] packedValues = QuantizationUtils.readPacked(inputStream, packed);
+
+        for (int i = 0, k = 0; i < components.length; i++) {
+            if ((quantizedMask & (1 << i)) != 0) {
+                values[i] = QuantizationUtils.toComponentValue(packedValues[k++], components[i].getType());
+            } else if ((mask & (1 << i)) != 0) {
+                values[i] = inputStream.readObject(components[i].getType());
+            } else {
+                values[i] = componentValue(baseline, i);
+            }
+        }
+
+        try {
+            return constructor.newInstance(values);
+        } catch (ReflectiveOperationException exception) {
+            throw new IOException("Unable to create " + recordType.getSimpleName() + " from delta", exception);
+        }
+    }
+
+    private int quantizedComponents(int mask) {
+        int quantizedMask = 0;
+
+        for (int i = 0; i < components.length; i++) {
+            if (quantizations[i] != null && (mask & (1 << i)) != 0) {
+                quantizedMask |= 1 << i;
+            }
+        }
+
+        return quantizedMask;
+    }
+
+    private boolean componentEquals(int index, Object baselineValue, Object value) {
+        if (quantizations[index] == null) {
+            return Objects.equals(baselineValue, value);
+        }
+
+        return QuantizationUtils.quantize(((Number) baselineValue).doubleValue(), quantizations[index])
+            == QuantizationUtils.quantize(((Number) value).doubleValue(), quantizations[index]);
+    }
+
+    private Object componentValue(T state, int index) {
+        try {
+            return components[index].getAccessor().invoke(state);
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException("Unable to read " + components[index].getName() + " of " + recordType.getSimpleName(), exception);
+        }
+    }
+}
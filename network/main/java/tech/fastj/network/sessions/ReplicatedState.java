@@ -0,0 +1,211 @@
+package tech.fastj.network.sessions;
+
+import tech.fastj.network.serial.Message;
+import tech.fastj.network.serial.Serializer;
+import tech.fastj.network.serial.write.MessageOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Server-side set of replicated entities, sent to each client as field-level deltas.
+ * <p>
+ * Every snapshot is written against the newest snapshot the client has acknowledged, so a lost snapshot only delays
+ * its changes until a later one carries them again. Clients that have not acknowledged anything recent enough receive
+ * a full snapshot instead.
+ *
+ * @see ReplicatedStateReceiver
+ */
+public class ReplicatedState<T extends Record & Message> {
+
+    /** Number of sent snapshots remembered per client, and so how old an acknowledged baseline may be. */
+    public static final int SnapshotHistory = 32;
+
+    public static final int NoSnapshot = -1;
+
+    static final byte EntityRemoved = 0;
+    static final byte EntityUpdated = 1;
+
+    private final Serializer serializer;
+    private final RecordDelta<T> recordDelta;
+    private final Map<UUID, T> entities;
+    private final Map<UUID, ClientHistory<T>> clientHistories;
+
+    private Relevance<T> relevance;
+    private int nextSnapshotId;
+
+    public ReplicatedState(Serializer serializer, Class<T> entityType) {
+        this.serializer = serializer;
+        this.recordDelta = new RecordDelta<>(serializer, entityType);
+        this.entities = new LinkedHashMap<>();
+        this.clientHistories = new HashMap<>();
+        this.relevance = (clientId, entityId, state) -> true;
+    }
+
+    public Class<T> getEntityType() {
+        return recordDelta.getRecordType();
+    }
+
+    public void setRelevance(Relevance<T> relevance) {
+        this.relevance = relevance;
+    }
+
+    public synchronized void put(UUID entityId, T state) {
+        entities.put(entityId, state);
+    }
+
+    public synchronized void remove(UUID entityId) {
+        entities.remove(entityId);
+    }
+
+    public synchronized T get(UUID entityId) {
+        return entities.get(entityId);
+    }
+
+    public synchronized Map<UUID, T> getEntities() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(entities));
+    }
+
+    public synchronized void clear() {
+        entities.clear();
+        clientHistories.clear();
+    }
+
+    public synchronized void forgetClient(UUID clientId) {
+        clientHistories.remove(clientId);
+    }
+
+    public synchronized int getAcknowledgedSnapshot(UUID clientId) {
+        ClientHistory<T> history = clientHistories.get(clientId);
+        return history == null ? NoSnapshot : history.acknowledgedId;
+    }
+
+    public synchronized void acknowledge(UUID clientId, int snapshotId) {
+        ClientHistory<T> history = clientHistories.get(clientId);
+
+        if (history == null || snapshotId <= history.acknowledgedId) {
+            return;
+        }
+
+        int slot = snapshotId % SnapshotHistory;
+
+        if (history.sentIds[slot] != snapshotId) {
+            return;
+        }
+
+        history.acknowledgedId = snapshotId;
+        history.acknowledgedEntities = history.sentEntities.get(slot);
+    }
+
+    /** Advances to the next snapshot id; every client snapshot created until the next tick shares it. */
+    public synchronized int tick() {
+        return nextSnapshotId++;
+    }
+
+    /**
+     * Creates the current tick's snapshot for a client: snapshot id, baseline id ({@link #NoSnapshot} for a full
+     * snapshot), and the changed entities, each as its id, an update or removal marker, and a {@link RecordDelta}.
+     *
+     * @return the snapshot, or {@code null} if nothing changed since the client's baseline.
+     */
+    public synchronized byte[] createSnapshot(UUID clientId) throws IOException {
+        int snapshotId = nextSnapshotId - 1;
+
+        if (snapshotId < 0) {
+            throw new IllegalStateException("Snapshots cannot be created before the first tick.");
+        }
+
+        ClientHistory<T> history = clientHistories.computeIfAbsent(clientId, id -> new ClientHistory<>());
+
+        int baselineId = NoSnapshot;
+        Map<UUID, T> baseline = Map.of();
+
+        if (history.acknowledgedId != NoSnapshot && history.sentIds[history.acknowledgedId % SnapshotHistory] == history.acknowledgedId) {
+            baselineId = history.acknowledgedId;
+            baseline = history.acknowledgedEntities;
+        }
+
+        Map<UUID, T> visible = new LinkedHashMap<>();
+
+        for (Map.Entry<UUID, T> entity : entities.entrySet()) {
+            if (relevance.isRelevant(clientId, entity.getKey(), entity.getValue())) {
+                visible.put(entity.getKey(), entity.getValue());
+            }
+        }
+
+        ByteArrayOutputStream entityData = new ByteArrayOutputStream();
+        MessageOutputStream entityStream = new MessageOutputStream(entityData, serializer);
+        int entityCount = 0;
+
+        for (Map.Entry<UUID, T> entity : visible.entrySet()) {
+            T baselineState = baseline.get(entity.getKey());
+            int changedMask = recordDelta.changedComponents(baselineState, entity.getValue());
+
+            if (changedMask == 0) {
+                continue;
+            }
+
+            entityStream.writeObject(entity.getKey(), UUID.class);
+            entityStream.writeByte(EntityUpdated);
+            recordDelta.write(entityStream, entity.getValue(), changedMask);
+            entityCount++;
+        }
+
+        for (UUID entityId : baseline.keySet()) {
+            if (visible.containsKey(entityId)) {
+                continue;
+            }
+
+            entityStream.writeObject(entityId, UUID.class);
+            entityStream.writeByte(EntityRemoved);
+            entityCount++;
+        }
+
+        if (entityCount == 0 && baselineId != NoSnapshot) {
+            return null;
+        }
+
+        int slot = snapshotId % SnapshotHistory;
+        history.sentIds[slot] = snapshotId;
+        history.sentEntities.set(slot, Map.copyOf(visible));
+
+        ByteArrayOutputStream snapshotData = new ByteArrayOutputStream(Integer.BYTES * 3 + entityData.size());
+        MessageOutputStream snapshotStream = new MessageOutputStream(snapshotData, serializer);
+        snapshotStream.writeInt(snapshotId);
+        snapshotStream.writeInt(baselineId);
+        snapshotStream.writeInt(entityCount);
+        entityData.writeTo(snapshotStream);
+        snapshotStream.flush();
+
+        return snapshotData.toByteArray();
+    }
+
+    @FunctionalInterface
+    public interface Relevance<T> {
+        boolean isRelevant(UUID clientId, UUID entityId, T state);
+    }
+
+    private static class ClientHistory<T> {
+        private final int[] sentIds;
+        private final List<Map<UUID, T>> sentEntities;
+        private int acknowledgedId;
+        private Map<UUID, T> acknowledgedEntities;
+
+        private ClientHistory() {
+            sentIds = new int[SnapshotHistory];
+            sentEntities = new ArrayList<>(Collections.nCopies(SnapshotHistory, null));
+            acknowledgedId = NoSnapshot;
+            acknowledgedEntities = Map.of();
+
+            Arrays.fill(sentIds, NoSnapshot);
+        }
+    }
+}
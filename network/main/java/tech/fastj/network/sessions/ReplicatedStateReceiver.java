@@ -0,0 +1,172 @@
+package tech.fastj.network.sessions;
+
+import tech.fastj.network.rpc.Client;
+import tech.fastj.network.rpc.commands.Command;
+import tech.fastj.network.rpc.message.CommandTarget;
+import tech.fastj.network.rpc.message.NetworkType;
+import tech.fastj.network.serial.Message;
+import tech.fastj.network.serial.Serializer;
+import tech.fastj.network.serial.read.MessageInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Client-side copy of a {@link ReplicatedState}, rebuilt from delta snapshots.
+ * <p>
+ * Each received snapshot is applied on top of the baseline it names and kept so later snapshots can use it as their
+ * baseline. Snapshots older than the newest applied one, or whose baseline is no longer known, are dropped without an
+ * acknowledgement, so the server falls back to an older baseline or a full snapshot.
+ */
+public class ReplicatedStateReceiver<T extends Record & Message> {
+
+    private static final Logger ReplicatedStateReceiverLogger = LoggerFactory.getLogger(ReplicatedStateReceiver.class);
+
+    private final Serializer serializer;
+    private final RecordDelta<T> recordDelta;
+
+    private final int[] receivedIds;
+    private final List<Map<UUID, T>> receivedEntities;
+    private int latestSnapshotId;
+    private Map<UUID, T> entities;
+    private long droppedCount;
+
+    private BiConsumer<UUID, T> onEntityUpdate;
+    private Consumer<UUID> onEntityRemove;
+
+    public ReplicatedStateReceiver(Serializer serializer, Class<T> entityType) {
+        this.serializer = serializer;
+        this.recordDelta = new RecordDelta<>(serializer, entityType);
+
+        receivedIds = new int[ReplicatedState.SnapshotHistory];
+        receivedEntities = new ArrayList<>(Collections.nCopies(ReplicatedState.SnapshotHistory, null));
+        latestSnapshotId = ReplicatedState.NoSnapshot;
+        entities = Map.of();
+
+        Arrays.fill(receivedIds, ReplicatedState.NoSnapshot);
+
+        onEntityUpdate = (entityId, state) -> {
+        };
+        onEntityRemove = entityId -> {
+        };
+    }
+
+    /** Receives snapshots sent to {@code client} under {@code snapshotCommand}, acknowledging them with {@code ackCommand}. */
+    public void listen(Client client, Command.Id snapshotCommand, Command.Id ackCommand) {
+        client.addCommand(snapshotCommand, byte[].class, (c, snapshot) -> {
+            try {
+                int snapshotId = receiveSnapshot(snapshot);
+
+                if (snapshotId != ReplicatedState.NoSnapshot) {
+                    client.sendCommand(NetworkType.UDP, CommandTarget.Session, ackCommand, snapshotId);
+                }
+            } catch (IOException exception) {
+                ReplicatedStateReceiverLogger.warn("Unable to apply {} snapshot: {}", recordDelta.getRecordType().getSimpleName(), exception.getMessage());
+            }
+        });
+    }
+
+    public void setOnEntityUpdate(BiConsumer<UUID, T> onEntityUpdate) {
+        this.onEntityUpdate = onEntityUpdate;
+    }
+
+    public void setOnEntityRemove(Consumer<UUID> onEntityRemove) {
+        this.onEntityRemove = onEntityRemove;
+    }
+
+    public synchronized Map<UUID, T> getEntities() {
+        return Collections.unmodifiableMap(entities);
+    }
+
+    public synchronized int getLatestSnapshotId() {
+        return latestSnapshotId;
+    }
+
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Applies a snapshot created by {@link ReplicatedState#createSnapshot(UUID)}.
+     *
+     * @return the id of the applied snapshot, to be acknowledged, or {@link ReplicatedState#NoSnapshot} if it was dropped.
+     */
+    public int receiveSnapshot(byte[] snapshot) throws IOException {
+        Map<UUID, T> previousEntities;
+        Map<UUID, T> newEntities;
+        int snapshotId;
+
+        synchronized (this) {
+            MessageInputStream inputStream = new MessageInputStream(new ByteArrayInputStream(snapshot), serializer);
+            snapshotId = inputStream.readInt();
+            int baselineId = inputStream.readInt();
+            int entityCount = inputStream.readInt();
+
+            if (snapshotId <= latestSnapshotId) {
+                droppedCount++;
+                return ReplicatedState.NoSnapshot;
+            }
+
+            Map<UUID, T> baseline;
+
+            if (baselineId == ReplicatedState.NoSnapshot) {
+                baseline = Map.of();
+            } else if (receivedIds[baselineId % ReplicatedState.SnapshotHistory] == baselineId) {
+                baseline = receivedEntities.get(baselineId % ReplicatedState.SnapshotHistory);
+            } else {
+                ReplicatedStateReceiverLogger.debug("Dropping snapshot {}: baseline {} is unknown", snapshotId, baselineId);
+                droppedCount++;
+                return ReplicatedState.NoSnapshot;
+            }
+
+            newEntities = new LinkedHashMap<>(baseline);
+
+            for (int i = 0; i < entityCount; i++) {
+                UUID entityId = (UUID) inputStream.readObject(UUID.class);
+                byte operation = inputStream.readByte();
+
+                if (operation == ReplicatedState.EntityRemoved) {
+                    newEntities.remove(entityId);
+                } else {
+                    newEntities.put(entityId, recordDelta.read(inputStream, baseline.get(entityId)));
+                }
+            }
+
+            int slot = snapshotId % ReplicatedState.SnapshotHistory;
+            receivedIds[slot] = snapshotId;
+            receivedEntities.set(slot, newEntities);
+
+            previousEntities = entities;
+            entities = newEntities;
+            latestSnapshotId = snapshotId;
+        }
+
+        // Compare against what was last applied rather than the baseline, which may be older than it.
+        for (Map.Entry<UUID, T> entity : newEntities.entrySet()) {
+            if (!Objects.equals(previousEntities.get(entity.getKey()), entity.getValue())) {
+                onEntityUpdate.accept(entity.getKey(), entity.getValue());
+            }
+        }
+
+        for (UUID entityId : previousEntities.keySet()) {
+            if (!newEntities.containsKey(entityId)) {
+                onEntityRemove.accept(entityId);
+            }
+        }
+
+        return snapshotId;
+    }
+}
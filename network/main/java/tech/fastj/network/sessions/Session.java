@@ -4,26 +4,31 @@ import tech.fastj.network.rpc.Client;
 import tech.fastj.network.rpc.NetworkSender;
 import tech.fastj.network.rpc.SendUtils;
 import tech.fastj.network.rpc.ServerClient;
+import tech.fastj.network.rpc.TimingWheel;
 import tech.fastj.network.rpc.commands.Command;
 import tech.fastj.network.rpc.message.CommandTarget;
 import tech.fastj.network.rpc.message.NetworkType;
 import tech.fastj.network.rpc.message.RequestType;
 import tech.fastj.network.rpc.message.prebuilt.SessionIdentifier;
+import tech.fastj.network.rpc.udp.CommandSequences;
+import tech.fastj.network.serial.Message;
 import tech.fastj.network.serial.Serializer;
 
 import java.io.IOException;
-import java.net.DatagramPacket;
 import java.net.DatagramSocket;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,19 +39,27 @@ public abstract class Session extends SessionHandler<ServerClient> implements Ne
     protected final Lobby lobby;
     private final List<ServerClient> clients;
     private final SessionIdentifier sessionIdentifier;
+    private final CommandSequences commandSequences;
     private BiConsumer<Session, ServerClient> onClientJoin;
     private BiConsumer<Session, ServerClient> onClientLeave;
+    private Consumer<Session> onReplicationTick;
     private ExecutorService sequenceRunner;
+    private final List<Replication<?>> replications;
+    private TimingWheel.Timeout replicationTicker;
 
     protected Session(Lobby lobby, String name, List<ServerClient> clients) {
         this.lobby = lobby;
-        this.clients = clients;
+        this.clients = new CopyOnWriteArrayList<>(clients);
         sessionIdentifier = new SessionIdentifier(UUID.randomUUID(), name);
+        commandSequences = new CommandSequences();
+        replications = new ArrayList<>();
 
         onClientJoin = (session, client) -> {
         };
         onClientLeave = (session, client) -> {
         };
+        onReplicationTick = session -> {
+        };
     }
 
     public UUID getSessionId() {
@@ -57,6 +70,10 @@ public abstract class Session extends SessionHandler<ServerClient> implements Ne
         return sessionIdentifier;
     }
 
+    /**
+     * The session's clients. Membership is copy-on-write, so loops over this list see the clients as of when the loop
+     * began, even while clients join or leave on other threads.
+     */
     public List<ServerClient> getClients() {
         return Collections.unmodifiableList(clients);
     }
@@ -69,6 +86,18 @@ public abstract class Session extends SessionHandler<ServerClient> implements Ne
         this.onClientLeave = onClientLeave;
     }
 
+    /** Sets what runs at the start of every replication tick, before any snapshots are created. */
+    public void setOnReplicationTick(Consumer<Session> onReplicationTick) {
+        this.onReplicationTick = onReplicationTick;
+    }
+
+    /**
+     * Runs {@code sessionSequence} on a thread pool of its own.
+     *
+     * @deprecated Sequences hold a pool thread for as long as they sleep. Use a {@link SessionTransition} to move clients
+     * between sessions, or {@link Lobby#schedule(Runnable, long, TimeUnit) lobby timers} for other delayed work.
+     */
+    @Deprecated
     public <T> Future<T> startSessionSequence(Sequence<T> sessionSequence) {
         if (sequenceRunner == null) {
             sequenceRunner = Executors.newWorkStealingPool();
@@ -77,6 +106,73 @@ public abstract class Session extends SessionHandler<ServerClient> implements Ne
         return sequenceRunner.submit(sessionSequence::start);
     }
 
+    /** Runs {@code task} on the lobby's worker, alongside the rest of the lobby's commands and timers. */
+    @Override
+    public void execute(Runnable task) {
+        lobby.execute(task);
+    }
+
+    /**
+     * Registers a set of entities replicated to this session's clients. Once {@link #startReplication(int) started},
+     * each tick sends every client a delta snapshot under {@code snapshotCommand}, which the client acknowledges with
+     * {@code ackCommand}.
+     */
+    protected <T extends Record & Message> ReplicatedState<T> addReplicatedState(Class<T> entityType, Command.Id snapshotCommand,
+                                                                                 Command.Id ackCommand) {
+        ReplicatedState<T> replicatedState = new ReplicatedState<>(serializer, entityType);
+        replications.add(new Replication<>(replicatedState, snapshotCommand));
+
+        addCommand(ackCommand, Integer.class, (client, snapshotId) -> replicatedState.acknowledge(client.getClientId(), snapshotId));
+
+        return replicatedState;
+    }
+
+    public synchronized void startReplication(int tickRate) {
+        if (tickRate <= 0) {
+            throw new IllegalArgumentException("Tick rate must be positive, not " + tickRate + ".");
+        }
+
+        if (replicationTicker != null) {
+            return;
+        }
+
+        long tickNanos = TimeUnit.SECONDS.toNanos(1L) / tickRate;
+        replicationTicker = lobby.scheduleAtFixedRate(this::replicate, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized void stopReplication() {
+        if (replicationTicker == null) {
+            return;
+        }
+
+        replicationTicker.cancel();
+        replicationTicker = null;
+    }
+
+    /** Sends every client the current snapshot of each replicated state. */
+    public void replicate() {
+        onReplicationTick.accept(this);
+
+        for (Replication<?> replication : replications) {
+            replication.replicatedState().tick();
+
+            for (ServerClient client : getClients()) {
+                try {
+                    byte[] snapshot = replication.replicatedState().createSnapshot(client.getClientId());
+
+                    if (snapshot == null) {
+                        continue;
+                    }
+
+                    byte[] rawData = client.getSerializer().writeObject(snapshot, byte[].class);
+                    client.sendCommand(NetworkType.UDP, CommandTarget.Client, replication.snapshotCommand(), rawData);
+                } catch (IOException exception) {
+                    SessionLogger.warn("error while trying to send snapshot to {}: {}", client.getClientId(), exception.getMessage());
+                }
+            }
+        }
+    }
+
     @Override
     public Serializer getSerializer() {
         return serializer;
@@ -100,9 +196,16 @@ public abstract class Session extends SessionHandler<ServerClient> implements Ne
             }
             case UDP -> {
                 DatagramSocket udpServer = lobby.getServer().getUdpServer();
-                byte[] data = SendUtils.buildUDPCommandData(commandTarget, sessionIdentifier.sessionId(), commandId.uuid(), rawData);
+                byte[] data = SendUtils.buildUDPCommandData(
+                    commandTarget, commandSequences.next(commandId.uuid()), sessionIdentifier.sessionId(), null, commandId.uuid(), rawData
+                );
                 sendUDP(udpServer, data);
             }
+            case ReliableUDP, ReliableOrderedUDP -> {
+                for (ServerClient client : clients) {
+                    client.sendCommand(networkType, commandTarget, commandId, rawData);
+                }
+            }
         }
     }
 
@@ -126,6 +229,11 @@ public abstract class Session extends SessionHandler<ServerClient> implements Ne
                 byte[] data = SendUtils.buildUDPRequestData(sessionIdentifier.sessionId(), requestType, rawData);
                 sendUDP(udpServer, data);
             }
+            case ReliableUDP, ReliableOrderedUDP -> {
+                for (ServerClient client : clients) {
+                    client.sendRequest(networkType, requestType, rawData);
+                }
+            }
         }
     }
 
@@ -138,8 +246,8 @@ public abstract class Session extends SessionHandler<ServerClient> implements Ne
             clients.size()
         );
 
-        for (int clientsSize = clients.size() - 1, i = clientsSize; i > 0; i--) {
-            clients.get(i).disconnect();
+        for (ServerClient client : clients) {
+            client.disconnect();
         }
     }
 
@@ -166,8 +274,7 @@ public abstract class Session extends SessionHandler<ServerClient> implements Ne
 
     private void sendUDP(DatagramSocket udpServer, byte[] data) throws IOException {
         for (ServerClient client : clients) {
-            DatagramPacket packet = SendUtils.buildPacket(client.getClientConfig(), data);
-            udpServer.send(packet);
+            SendUtils.sendUDP(udpServer, client.getUdpConfig(), sessionIdentifier.sessionId(), data);
         }
     }
 
@@ -180,6 +287,10 @@ public abstract class Session extends SessionHandler<ServerClient> implements Ne
     public void clientLeave(ServerClient client) {
         clients.remove(client);
         onClientLeave.accept(this, client);
+
+        for (Replication<?> replication : replications) {
+            replication.replicatedState().forgetClient(client.getClientId());
+        }
     }
 
     public void stop() {
@@ -188,9 +299,13 @@ public abstract class Session extends SessionHandler<ServerClient> implements Ne
             sequenceRunner = null;
         }
 
+        stopReplication();
         sendDisconnect(NetworkType.TCP, null);
     }
 
+    private record Replication<T extends Record & Message>(ReplicatedState<T> replicatedState, Command.Id snapshotCommand) {
+    }
+
     public interface Sequence<T> {
 
         T start() throws Exception;
@@ -0,0 +1,243 @@
+package tech.fastj.network.sessions;
+
+import tech.fastj.network.rpc.ServerClient;
+import tech.fastj.network.rpc.TimingWheel;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Moves a lobby's clients from one session to another, as a timer-driven state machine.
+ * <p>
+ * A transition counts down, switches the lobby's current session and notifies the clients, gives them time to load,
+ * migrates them, and then starts the new session. Each stage runs on the lobby's worker, and the waits between stages
+ * are {@link Lobby#schedule(Runnable, long, TimeUnit) lobby timers}, so no thread sleeps through a transition.
+ * <p>
+ * A transition can be {@link #cancel() cancelled} up until its clients are migrated, such as when a player leaves
+ * mid-transition. If the clients were already notified, the lobby switches back and they are notified again with the
+ * source session's name.
+ */
+public class SessionTransition {
+
+    public enum State {
+        Idle,
+        Countdown,
+        Notifying,
+        Migrating,
+        Starting,
+        Finished,
+        Cancelled
+    }
+
+    private static final Logger SessionTransitionLogger = LoggerFactory.getLogger(SessionTransition.class);
+
+    private final Lobby lobby;
+    private final Session source;
+    private final String targetName;
+
+    private long countdownNanos;
+    private long loadNanos;
+    private long settleNanos;
+
+    private Consumer<SessionTransition> onCountdown;
+    private BiConsumer<ServerClient, String> notifier;
+    private Consumer<Session> onStart;
+    private Consumer<SessionTransition> onCancel;
+
+    private volatile State state;
+    private Session target;
+    private TimingWheel.Timeout nextStage;
+
+    public SessionTransition(Lobby lobby, Session source, String targetName) {
+        this.lobby = lobby;
+        this.source = source;
+        this.targetName = targetName;
+        this.state = State.Idle;
+
+        onCountdown = transition -> {
+        };
+        notifier = (client, sessionName) -> {
+        };
+        onStart = session -> {
+        };
+        onCancel = transition -> {
+        };
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isRunning() {
+        State currentState = state;
+        return currentState != State.Idle && currentState != State.Finished && currentState != State.Cancelled;
+    }
+
+    public Session getSource() {
+        return source;
+    }
+
+    public String getTargetName() {
+        return targetName;
+    }
+
+    /** How long to wait, after {@link #setOnCountdown(Consumer) the countdown handler} runs, before notifying clients. */
+    public SessionTransition setCountdown(long countdown, TimeUnit unit) {
+        countdownNanos = unit.toNanos(countdown);
+        return this;
+    }
+
+    /** How long clients get to load the new session between being notified and being migrated. */
+    public SessionTransition setLoadTime(long loadTime, TimeUnit unit) {
+        loadNanos = unit.toNanos(loadTime);
+        return this;
+    }
+
+    /** How long to wait between migrating clients and starting the new session. */
+    public SessionTransition setSettleTime(long settleTime, TimeUnit unit) {
+        settleNanos = unit.toNanos(settleTime);
+        return this;
+    }
+
+    public SessionTransition setOnCountdown(Consumer<SessionTransition> onCountdown) {
+        this.onCountdown = onCountdown;
+        return this;
+    }
+
+    /** Sets how each client is told which session to switch to. */
+    public SessionTransition setNotifier(BiConsumer<ServerClient, String> notifier) {
+        this.notifier = notifier;
+        return this;
+    }
+
+    public SessionTransition setOnStart(Consumer<Session> onStart) {
+        this.onStart = onStart;
+        return this;
+    }
+
+    public SessionTransition setOnCancel(Consumer<SessionTransition> onCancel) {
+        this.onCancel = onCancel;
+        return this;
+    }
+
+    public void start() {
+        lobby.execute(() -> {
+            if (state != State.Idle) {
+                return;
+            }
+
+            enter(State.Countdown);
+        });
+    }
+
+    /** Cuts the countdown short, moving straight on to notifying clients. */
+    public void skipCountdown() {
+        lobby.execute(() -> {
+            if (state != State.Countdown) {
+                return;
+            }
+
+            cancelNextStage();
+            enter(State.Notifying);
+        });
+    }
+
+    /** Cancels the transition, unless its clients are already being migrated. */
+    public void cancel() {
+        lobby.execute(() -> {
+            if (state != State.Countdown && state != State.Notifying) {
+                return;
+            }
+
+            cancelNextStage();
+            State cancelledState = state;
+            state = State.Cancelled;
+
+            SessionTransitionLogger.info(
+                "Cancelled switch from session \"{}\" to \"{}\"",
+                source.getSessionIdentifier().sessionName(),
+                targetName
+            );
+
+            if (cancelledState == State.Notifying) {
+                String sourceName = source.getSessionIdentifier().sessionName();
+                lobby.switchCurrentSession(sourceName);
+                notifyClients(sourceName);
+            }
+
+            onCancel.accept(this);
+        });
+    }
+
+    private void enter(State next) {
+        state = next;
+
+        switch (next) {
+            case Countdown -> {
+                onCountdown.accept(this);
+                after(countdownNanos, State.Notifying);
+            }
+            case Notifying -> {
+                lobby.switchCurrentSession(targetName);
+                target = lobby.getCurrentSession();
+                notifyClients(targetName);
+                after(loadNanos, State.Migrating);
+            }
+            case Migrating -> {
+                migrateClients();
+                after(settleNanos, State.Starting);
+            }
+            case Starting -> {
+                state = State.Finished;
+                onStart.accept(target);
+            }
+            default -> throw new IllegalStateException("Cannot enter transition state " + next + ".");
+        }
+    }
+
+    private void after(long delayNanos, State next) {
+        if (delayNanos <= 0L) {
+            enter(next);
+            return;
+        }
+
+        nextStage = lobby.schedule(() -> {
+            // The stage may have been cancelled or skipped after its timer fired.
+            if (state == State.Cancelled || state.ordinal() >= next.ordinal()) {
+                return;
+            }
+
+            enter(next);
+        }, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void cancelNextStage() {
+        if (nextStage != null) {
+            nextStage.cancel();
+            nextStage = null;
+        }
+    }
+
+    private void notifyClients(String sessionName) {
+        for (ServerClient client : source.getClients()) {
+            notifier.accept(client, sessionName);
+        }
+    }
+
+    private void migrateClients() {
+        for (ServerClient client : source.getClients()) {
+            source.clientLeave(client);
+
+            try {
+                target.clientJoin(client);
+            } catch (IOException exception) {
+                SessionTransitionLogger.warn("Unable to move client {} to session \"{}\": {}", client.getClientId(), targetName, exception.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package mock;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/** Relays datagrams between two local endpoints, dropping, duplicating and delaying (thus reordering) some of them. */
+public class LossyDatagramProxy implements AutoCloseable {
+
+    private final DatagramSocket proxySocket;
+    private final SocketAddress endpointA;
+    private final SocketAddress endpointB;
+    private final double lossChance;
+    private final double duplicateChance;
+    private final int maxDelayMillis;
+
+    private final Random random;
+    private final ScheduledExecutorService delayedSender;
+    private final Thread relayThread;
+
+    private volatile boolean isRunning;
+
+    public LossyDatagramProxy(int portA, int portB, double lossChance, double duplicateChance, int maxDelayMillis) throws IOException {
+        InetAddress localhost = InetAddress.getLoopbackAddress();
+
+        this.proxySocket = new DatagramSocket(0, localhost);
+        this.endpointA = new InetSocketAddress(localhost, portA);
+        this.endpointB = new InetSocketAddress(localhost, portB);
+        this.lossChance = lossChance;
+        this.duplicateChance = duplicateChance;
+        this.maxDelayMillis = maxDelayMillis;
+
+        random = new Random(26L);
+        delayedSender = Executors.newSingleThreadScheduledExecutor();
+        relayThread = new Thread(this::relay, "lossy-datagram-proxy");
+    }
+
+    public int getPort() {
+        return proxySocket.getLocalPort();
+    }
+
+    public void start() {
+        isRunning = true;
+        relayThread.start();
+    }
+
+    private void relay() {
+        byte[] buffer = new byte[2048];
+
+        while (isRunning) {
+            try {
+                DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+                proxySocket.receive(packet);
+
+                SocketAddress destination = packet.getSocketAddress().equals(endpointA) ? endpointB : endpointA;
+                byte[] data = Arrays.copyOf(packet.getData(), packet.getLength());
+
+                synchronized (random) {
+                    if (random.nextDouble() < lossChance) {
+                        continue;
+                    }
+
+                    int copies = random.nextDouble() < duplicateChance ? 2 : 1;
+
+                    for (int i = 0; i < copies; i++) {
+                        int delay = random.nextInt(maxDelayMillis + 1);
+                        delayedSender.schedule(() -> forward(data, destination), delay, TimeUnit.MILLISECONDS);
+                    }
+                }
+            } catch (IOException exception) {
+                if (isRunning) {
+                    throw new IllegalStateException(exception);
+                }
+            }
+        }
+    }
+
+    private void forward(byte[] data, SocketAddress destination) {
+        try {
+            proxySocket.send(new DatagramPacket(data, data.length, destination));
+        } catch (IOException ignored) {
+            // the proxy is lossy anyway.
+        }
+    }
+
+    @Override
+    public void close() {
+        isRunning = false;
+        delayedSender.shutdownNow();
+        proxySocket.close();
+    }
+}
@@ -0,0 +1,11 @@
+package mock;
+
+import tech.fastj.network.serial.Message;
+import tech.fastj.network.serial.Quantized;
+
+public record Movement(@Quantized(min = 0f, max = 1280f, bits = 16) float x,
+                       String username,
+                       @Quantized(min = 0f, max = 720f, bits = 16) float y,
+                       @Quantized(min = 0f, max = 360f, bits = 12, wraps = true) float angle,
+                       @Quantized(min = -1024f, max = 1024f, bits = 20) double speed) implements Message {
+}
@@ -0,0 +1,6 @@
+package mock;
+
+import tech.fastj.network.serial.Message;
+
+public record PlayerState(ChatMessage lastMessage, float x, float y, GameState gameState) implements Message {
+}
@@ -0,0 +1,142 @@
+package mock;
+
+import tech.fastj.network.config.ClientConfig;
+import tech.fastj.network.rpc.SendUtils;
+import tech.fastj.network.rpc.message.NetworkType;
+import tech.fastj.network.rpc.message.SentMessageType;
+import tech.fastj.network.rpc.udp.FragmentReassembler;
+import tech.fastj.network.rpc.udp.ReliableChannel;
+import tech.fastj.network.serial.Serializer;
+import tech.fastj.network.serial.read.MessageInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/** A bare UDP socket driving one reliable channel, without the rest of the client/server machinery. */
+public class ReliableEndpoint implements AutoCloseable {
+
+    private final UUID endpointId;
+    private final DatagramSocket socket;
+    private final ReliableChannel channel;
+    private final List<byte[]> receivedPayloads;
+    private final Serializer serializer;
+    private final FragmentReassembler fragmentReassembler;
+
+    private final Thread listenerThread;
+    private final ScheduledExecutorService channelUpdater;
+
+    private ClientConfig target;
+    private volatile boolean isRunning;
+
+    public ReliableEndpoint(NetworkType networkType) throws IOException {
+        endpointId = UUID.randomUUID();
+        socket = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+        serializer = new Serializer();
+        receivedPayloads = new CopyOnWriteArrayList<>();
+        fragmentReassembler = new FragmentReassembler();
+
+        channel = new ReliableChannel(networkType, new ReliableChannel.PacketSender() {
+            @Override
+            public void sendPacket(NetworkType networkType, int sequence, int ack, int ackBits, byte[] payload) throws IOException {
+                SendUtils.sendReliablePacket(socket, target, endpointId, networkType, sequence, ack, ackBits, payload);
+            }
+
+            @Override
+            public void sendAck(NetworkType networkType, int ack, int ackBits) throws IOException {
+                SendUtils.sendReliableAck(socket, target, endpointId, networkType, ack, ackBits);
+            }
+        });
+
+        listenerThread = new Thread(this::listen, "reliable-endpoint-" + endpointId);
+        channelUpdater = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    public int getPort() {
+        return socket.getLocalPort();
+    }
+
+    public ReliableChannel getChannel() {
+        return channel;
+    }
+
+    public List<byte[]> getReceivedPayloads() {
+        return receivedPayloads;
+    }
+
+    public void start(int targetPort) {
+        target = new ClientConfig(InetAddress.getLoopbackAddress(), targetPort);
+        isRunning = true;
+
+        listenerThread.start();
+        channelUpdater.scheduleAtFixedRate(() -> {
+            try {
+                channel.update(System.nanoTime());
+            } catch (IOException exception) {
+                throw new IllegalStateException(exception);
+            }
+        }, 5L, 5L, TimeUnit.MILLISECONDS);
+    }
+
+    public void send(byte[] payload) throws IOException {
+        channel.send(payload);
+    }
+
+    private void listen() {
+        byte[] buffer = new byte[SendUtils.UdpMaxDatagramLength];
+
+        while (isRunning) {
+            try {
+                DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+                socket.receive(packet);
+
+                readPacket(Arrays.copyOf(packet.getData(), packet.getLength()));
+            } catch (IOException exception) {
+                if (isRunning) {
+                    throw new IllegalStateException(exception);
+                }
+            }
+        }
+    }
+
+    private void readPacket(byte[] data) throws IOException {
+        MessageInputStream inputStream = new MessageInputStream(new ByteArrayInputStream(data), serializer);
+
+        UUID senderId = (UUID) inputStream.readObject(UUID.class);
+        SentMessageType sentMessageType = (SentMessageType) inputStream.readObject(SentMessageType.class);
+
+        if (sentMessageType == SentMessageType.Fragment) {
+            byte[] packetData = fragmentReassembler.receiveFragment(senderId, inputStream, System.nanoTime());
+
+            if (packetData != null) {
+                readPacket(packetData);
+            }
+
+            return;
+        }
+
+        inputStream.readObject(NetworkType.class);
+
+        switch (sentMessageType) {
+            case ReliablePacket -> channel.receivePacket(inputStream, receivedPayloads::add);
+            case ReliableAck -> channel.receiveAck(inputStream);
+            default -> throw new IllegalStateException("Unexpected message type " + sentMessageType);
+        }
+    }
+
+    @Override
+    public void close() {
+        isRunning = false;
+        channelUpdater.shutdownNow();
+        socket.close();
+    }
+}
@@ -0,0 +1,38 @@
+package mock;
+
+import tech.fastj.network.rpc.Server;
+import tech.fastj.network.sessions.Lobby;
+import tech.fastj.network.sessions.Session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class TwoSessionLobby extends Lobby {
+
+    private static final Logger TwoSessionLobbyLogger = LoggerFactory.getLogger(TwoSessionLobby.class);
+
+    private final SimpleSession firstSession;
+    private final SimpleSession secondSession;
+
+    public TwoSessionLobby(Server server, String lobbyName) {
+        super(server, 10, lobbyName);
+
+        firstSession = new SimpleSession(this, lobbyName + "_Session1");
+        secondSession = new SimpleSession(this, lobbyName + "_Session2");
+        addSession(firstSession);
+        addSession(secondSession);
+    }
+
+    public Session getFirstSession() {
+        return firstSession;
+    }
+
+    public Session getSecondSession() {
+        return secondSession;
+    }
+
+    @Override
+    public Logger getLogger() {
+        return TwoSessionLobbyLogger;
+    }
+}
@@ -9,4 +9,5 @@ module fastj.network.test {
     opens unittest.serial to org.junit.platform.commons;
     opens unittest.serial.util to org.junit.platform.commons;
     opens unittest.session to org.junit.platform.commons;
+    opens unittest.udp to org.junit.platform.commons;
 }
\ No newline at end of file
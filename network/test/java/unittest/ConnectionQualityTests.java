@@ -0,0 +1,99 @@
+package unittest;
+
+import tech.fastj.network.rpc.ConnectionQuality;
+import tech.fastj.network.rpc.udp.SequenceNumbers;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionQualityTests {
+
+    private static final long Millisecond = TimeUnit.MILLISECONDS.toNanos(1L);
+
+    @Test
+    void checkRtt_smoothsTowardsSamples() {
+        ConnectionQuality connectionQuality = new ConnectionQuality();
+
+        connectionQuality.addRttSample(100 * Millisecond);
+        assertEquals(100 * Millisecond, connectionQuality.getSmoothedRttNanos(), "The first sample should be taken as-is.");
+
+        for (int i = 0; i < 100; i++) {
+            connectionQuality.addRttSample(40 * Millisecond);
+        }
+
+        assertEquals(40 * Millisecond, connectionQuality.getSmoothedRttNanos(), Millisecond);
+        assertTrue(connectionQuality.getRttVarianceNanos() < Millisecond, "Steady samples should leave almost no jitter.");
+        assertEquals(101, connectionQuality.getRttSampleCount());
+    }
+
+    @Test
+    void checkRttVariance_growsWithJitter() {
+        ConnectionQuality connectionQuality = new ConnectionQuality();
+
+        for (int i = 0; i < 100; i++) {
+            connectionQuality.addRttSample((i % 2 == 0 ? 30 : 70) * Millisecond);
+        }
+
+        assertEquals(50 * Millisecond, connectionQuality.getSmoothedRttNanos(), 10 * Millisecond);
+        assertTrue(connectionQuality.getRttVarianceNanos() > 10 * Millisecond, "Alternating samples should show up as jitter.");
+    }
+
+    @Test
+    void checkPacketLoss_fromSequenceGaps() {
+        ConnectionQuality connectionQuality = new ConnectionQuality();
+
+        for (int sequence = 0; sequence < 40; sequence++) {
+            if (sequence % 4 != 3) {
+                connectionQuality.receivedSequence(sequence);
+            }
+        }
+
+        assertEquals(0.25, connectionQuality.getPacketLoss(), 0.03);
+    }
+
+    @Test
+    void checkPacketLoss_lateSequencesStillCount() {
+        ConnectionQuality connectionQuality = new ConnectionQuality();
+
+        connectionQuality.receivedSequence(0);
+        connectionQuality.receivedSequence(2);
+        connectionQuality.receivedSequence(3);
+        assertEquals(0.25, connectionQuality.getPacketLoss(), 0.001);
+
+        connectionQuality.receivedSequence(1);
+        assertEquals(0.0, connectionQuality.getPacketLoss(), 0.001, "A reordered sequence should not count as lost.");
+    }
+
+    @Test
+    void checkPacketLoss_acrossWraparound() {
+        ConnectionQuality connectionQuality = new ConnectionQuality();
+
+        for (int i = 0; i < 20; i++) {
+            connectionQuality.receivedSequence((SequenceNumbers.SequenceMask - 9 + i) & SequenceNumbers.SequenceMask);
+        }
+
+        assertEquals(0.0, connectionQuality.getPacketLoss(), 0.001);
+    }
+
+    @Test
+    void checkClockOffset_convergesAndConverts() {
+        ConnectionQuality connectionQuality = new ConnectionQuality();
+        long offset = 5_000 * Millisecond;
+
+        for (int i = 0; i < 50; i++) {
+            long localTime = i * 100 * Millisecond;
+            long noise = (i % 2 == 0 ? 1 : -1) * Millisecond;
+            connectionQuality.addClockSample(localTime + offset + noise, localTime);
+        }
+
+        assertEquals(offset, connectionQuality.getClockOffsetNanos(), 2 * Millisecond);
+        assertEquals(
+            1234L, connectionQuality.toLocalTime(connectionQuality.toRemoteTime(1234L)),
+            "Converting to the remote clock and back should give the original time."
+        );
+    }
+}
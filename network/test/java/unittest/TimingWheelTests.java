@@ -0,0 +1,118 @@
+package unittest;
+
+import tech.fastj.network.rpc.TimingWheel;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTests {
+
+    private TimingWheel timingWheel;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void createWheel() {
+        // A small wheel, so the timers below wrap around it.
+        timingWheel = new TimingWheel(2L, TimeUnit.MILLISECONDS, 8);
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void stopWheel() {
+        timingWheel.stop();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void checkSchedule_runsOnGivenExecutorAfterDelay() throws Exception {
+        AtomicReference<Thread> executorThread = new AtomicReference<>();
+        executor.submit(() -> executorThread.set(Thread.currentThread())).get();
+
+        AtomicReference<Thread> timerThread = new AtomicReference<>();
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        timingWheel.schedule(() -> {
+            timerThread.set(Thread.currentThread());
+            fired.countDown();
+        }, 50L, TimeUnit.MILLISECONDS, executor);
+
+        assertTrue(fired.await(2L, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50L), "The timer should not fire before its delay.");
+        assertSame(executorThread.get(), timerThread.get(), "The timer should run on the executor it was scheduled with.");
+    }
+
+    @Test
+    void checkCancel_preventsTimerFromFiring() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+
+        TimingWheel.Timeout timeout = timingWheel.schedule(runs::incrementAndGet, 20L, TimeUnit.MILLISECONDS, executor);
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel(), "A timer can only be cancelled once.");
+
+        TimeUnit.MILLISECONDS.sleep(60L);
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void checkScheduleAtFixedRate_repeatsUntilCancelled() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch fiveRuns = new CountDownLatch(5);
+
+        TimingWheel.Timeout timeout = timingWheel.scheduleAtFixedRate(() -> {
+            runs.incrementAndGet();
+            fiveRuns.countDown();
+        }, 0L, 5L, TimeUnit.MILLISECONDS, executor);
+
+        assertTrue(fiveRuns.await(2L, TimeUnit.SECONDS));
+        timeout.cancel();
+
+        int runsAfterCancel = runs.get();
+        TimeUnit.MILLISECONDS.sleep(50L);
+        assertEquals(runsAfterCancel, runs.get(), "A cancelled timer should not run again.");
+    }
+
+    @Test
+    void checkScheduleAtFixedRate_neverOverlapsRuns() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch threeRuns = new CountDownLatch(3);
+
+        try {
+            TimingWheel.Timeout timeout = timingWheel.scheduleAtFixedRate(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+
+                try {
+                    TimeUnit.MILLISECONDS.sleep(20L);
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+
+                running.decrementAndGet();
+                threeRuns.countDown();
+            }, 0L, 2L, TimeUnit.MILLISECONDS, pool);
+
+            assertTrue(threeRuns.await(2L, TimeUnit.SECONDS));
+            timeout.cancel();
+
+            assertEquals(1, maxRunning.get(), "Runs that come due during a slow run should be skipped.");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package unittest.serial;
 
 import tech.fastj.network.serial.Message;
 import tech.fastj.network.serial.Serializer;
+import tech.fastj.network.serial.read.MessageInputStream;
 import tech.fastj.network.serial.util.MessageUtils;
 
 import java.io.ByteArrayInputStream;
@@ -13,6 +14,7 @@ import java.util.UUID;
 import mock.ChatMessage;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
@@ -71,4 +73,40 @@ class SerializerTests {
         ChatMessage messageIn = (ChatMessage) serializer.readMessage(data, ChatMessage.class);
         assertEquals(messageOut, messageIn, "The networkable read in should match the networkable written out.");
     }
+
+    @Test
+    void checkReadAndWriteMessageArray() throws IOException {
+        Serializer serializer = new Serializer();
+        serializer.registerSerializer(UUID.randomUUID(), ChatMessage.class);
+
+        ChatMessage[] messagesOut = {
+            new ChatMessage("lucasstarsz", System.currentTimeMillis(), "Hello world!"),
+            new ChatMessage("someone else", System.currentTimeMillis(), "Hello again!")
+        };
+
+        byte[] data = serializer.writeObject(messagesOut, ChatMessage[].class);
+
+        assertEquals(
+            MessageUtils.bytesLength(serializer, messagesOut), data.length,
+            "The length of the written array should only involve the array data."
+        );
+
+        MessageInputStream inputStream = new MessageInputStream(new ByteArrayInputStream(data), serializer);
+        ChatMessage[] messagesIn = (ChatMessage[]) inputStream.readObject(ChatMessage[].class);
+        assertArrayEquals(messagesOut, messagesIn, "The array read in should match the array written out.");
+    }
+
+    @Test
+    void checkReadAndWriteShortArray() throws IOException {
+        Serializer serializer = new Serializer();
+        short[] pointsOut = {0, 12, -7, Short.MAX_VALUE, Short.MIN_VALUE};
+
+        byte[] data = serializer.writeObject(pointsOut, short[].class);
+
+        assertEquals(MessageUtils.bytesLength(serializer, (Object) pointsOut), data.length, "The written array should take two bytes per value.");
+
+        MessageInputStream inputStream = new MessageInputStream(new ByteArrayInputStream(data), serializer);
+        short[] pointsIn = (short[]) inputStream.readObject(short[].class);
+        assertArrayEquals(pointsOut, pointsIn, "The array read in should match the array written out.");
+    }
 }
@@ -0,0 +1,97 @@
+package unittest.serial.util;
+
+import tech.fastj.network.serial.Quantized;
+import tech.fastj.network.serial.Serializer;
+import tech.fastj.network.serial.util.MessageUtils;
+import tech.fastj.network.serial.util.QuantizationUtils;
+
+import java.io.IOException;
+import java.lang.reflect.RecordComponent;
+import java.util.Random;
+
+import mock.Movement;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuantizationUtilsTests {
+
+    private static final Quantized X = quantization(0);
+    private static final Quantized Y = quantization(2);
+    private static final Quantized Angle = quantization(3);
+    private static final Quantized Speed = quantization(4);
+
+    @Test
+    void checkQuantize_staysWithinErrorBound() {
+        Random random = new Random(0L);
+
+        for (Quantized quantized : new Quantized[] {X, Y, Speed}) {
+            double maxError = QuantizationUtils.maxError(quantized);
+
+            for (int i = 0; i < 10_000; i++) {
+                double value = quantized.min() + random.nextDouble() * (quantized.max() - quantized.min());
+                double result = QuantizationUtils.dequantize(QuantizationUtils.quantize(value, quantized), quantized);
+
+                assertTrue(Math.abs(result - value) <= maxError, "Expected " + value + " to read back within " + maxError + ", but got " + result);
+            }
+
+            assertEquals(quantized.min(), QuantizationUtils.dequantize(QuantizationUtils.quantize(quantized.min(), quantized), quantized), 1e-9);
+            assertEquals(quantized.max(), QuantizationUtils.dequantize(QuantizationUtils.quantize(quantized.max(), quantized), quantized), 1e-9);
+        }
+
+        assertTrue(QuantizationUtils.maxError(X) < 0.01d, "16-bit arena coordinates should keep sub-pixel precision.");
+        assertTrue(QuantizationUtils.maxError(Angle) < 0.05d, "12-bit angles should be precise to a twentieth of a degree.");
+    }
+
+    @Test
+    void checkQuantize_clampsValuesOutOfRange() {
+        assertEquals(X.max(), QuantizationUtils.dequantize(QuantizationUtils.quantize(5000d, X), X), 1e-9);
+        assertEquals(X.min(), QuantizationUtils.dequantize(QuantizationUtils.quantize(-5000d, X), X), 1e-9);
+    }
+
+    @Test
+    void checkQuantize_wrapsAngles() {
+        Random random = new Random(1L);
+        double maxError = QuantizationUtils.maxError(Angle);
+
+        for (int i = 0; i < 10_000; i++) {
+            double angle = (random.nextDouble() - 0.5d) * 360d * 8d;
+            double result = QuantizationUtils.dequantize(QuantizationUtils.quantize(angle, Angle), Angle);
+            double difference = Math.abs(Math.IEEEremainder(result - angle, 360d));
+
+            assertTrue(result >= 0d && result < 360d, "Wrapped angles should read back within [0, 360), but got " + result);
+            assertTrue(difference <= maxError, "Expected " + angle + " to read back within " + maxError + " degrees, but got " + result);
+        }
+
+        assertEquals(0, QuantizationUtils.quantize(360d, Angle), "360 degrees should wrap around to 0.");
+        assertEquals(0, QuantizationUtils.quantize(359.99d, Angle), "Angles within half a step of 360 degrees should round to 0.");
+        assertEquals(QuantizationUtils.quantize(90d, Angle), QuantizationUtils.quantize(-270d, Angle));
+    }
+
+    @Test
+    void checkReadAndWrite_quantizedMessage() throws IOException {
+        Serializer serializer = new Serializer();
+        serializer.registerSerializer(Movement.class);
+
+        Movement movement = new Movement(640.123f, "lucasstarsz", 359.87f, 725.3f, -12.345d);
+        byte[] data = serializer.writeMessage(movement);
+        Movement result = (Movement) serializer.readMessage(data, Movement.class);
+
+        assertEquals(movement.username(), result.username());
+        assertEquals(movement.x(), result.x(), QuantizationUtils.maxError(X));
+        assertEquals(movement.y(), result.y(), QuantizationUtils.maxError(Y));
+        assertEquals(5.3f, result.angle(), QuantizationUtils.maxError(Angle) + 1e-4);
+        assertEquals(movement.speed(), result.speed(), QuantizationUtils.maxError(Speed));
+
+        // 16 + 16 + 12 + 20 bits pack into 8 bytes, instead of the 20 taken by three floats and a double.
+        int packedBytes = 8;
+        assertEquals(MessageUtils.MinMessageBytes + packedBytes + MessageUtils.bytesLength(movement.username()), data.length);
+        assertEquals(data.length, MessageUtils.bytesLength(serializer, movement));
+    }
+
+    private static Quantized quantization(int componentIndex) {
+        RecordComponent component = Movement.class.getRecordComponents()[componentIndex];
+        return QuantizationUtils.getQuantization(component);
+    }
+}
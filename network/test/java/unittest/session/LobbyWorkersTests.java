@@ -0,0 +1,196 @@
+package unittest.session;
+
+import tech.fastj.network.sessions.Lobby;
+import tech.fastj.network.sessions.LobbyWorker;
+import tech.fastj.network.sessions.LobbyWorkers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import mock.SimpleLobby;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LobbyWorkersTests {
+
+    private LobbyWorkers lobbyWorkers;
+
+    @AfterEach
+    void shutdownWorkers() {
+        if (lobbyWorkers != null) {
+            lobbyWorkers.shutdown();
+        }
+    }
+
+    @Test
+    void checkAssign_spreadsLobbiesAcrossWorkers() {
+        lobbyWorkers = new LobbyWorkers(3);
+
+        for (int i = 0; i < 6; i++) {
+            lobbyWorkers.assign(new SimpleLobby(null, "lobby " + i));
+        }
+
+        for (LobbyWorker worker : lobbyWorkers.getWorkers()) {
+            assertEquals(2, worker.getLobbyCount(), "Each worker should have received the same number of lobbies.");
+        }
+    }
+
+    @Test
+    void checkExecute_runsLobbyTasksInOrderOnItsWorker() throws InterruptedException {
+        lobbyWorkers = new LobbyWorkers(2);
+        Lobby lobby = new SimpleLobby(null, "ordered");
+        LobbyWorker worker = lobbyWorkers.assign(lobby);
+
+        List<Integer> ranTasks = Collections.synchronizedList(new ArrayList<>());
+        List<Boolean> ranOnWorker = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch finished = new CountDownLatch(100);
+
+        for (int i = 0; i < 100; i++) {
+            int task = i;
+            lobby.execute(() -> {
+                ranTasks.add(task);
+                ranOnWorker.add(worker.isWorkerThread());
+                finished.countDown();
+            });
+        }
+
+        assertTrue(finished.await(5L, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, ranTasks.get(i), "Tasks should run in the order they were queued.");
+        }
+
+        assertTrue(ranOnWorker.stream().allMatch(Boolean::booleanValue), "Every task should run on the lobby's worker.");
+    }
+
+    @Test
+    void checkMove_forwardsQueuedTasksToTheNewWorker() throws InterruptedException {
+        lobbyWorkers = new LobbyWorkers(2);
+        Lobby lobby = new SimpleLobby(null, "moved");
+        LobbyWorker oldWorker = lobbyWorkers.assign(lobby);
+        LobbyWorker newWorker = lobbyWorkers.getWorkers().get(oldWorker.getIndex() == 0 ? 1 : 0);
+
+        CountDownLatch blockOldWorker = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        List<Boolean> ranOnNewWorker = Collections.synchronizedList(new ArrayList<>());
+
+        lobby.execute(() -> {
+            try {
+                blockOldWorker.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        lobby.execute(() -> {
+            ranOnNewWorker.add(newWorker.isWorkerThread());
+            finished.countDown();
+        });
+
+        lobbyWorkers.move(lobby, newWorker);
+        blockOldWorker.countDown();
+
+        assertTrue(finished.await(5L, TimeUnit.SECONDS));
+        assertSame(newWorker, lobby.getWorker());
+        assertEquals(List.of(true), ranOnNewWorker, "A task queued before the move should run on the new worker.");
+        assertEquals(0, oldWorker.getLobbyCount());
+        assertEquals(1, newWorker.getLobbyCount());
+    }
+
+    @Test
+    void checkMove_neverRunsLobbyTasksConcurrently() throws InterruptedException {
+        lobbyWorkers = new LobbyWorkers(2);
+        Lobby lobby = new SimpleLobby(null, "moved while busy");
+        LobbyWorker oldWorker = lobbyWorkers.assign(lobby);
+        LobbyWorker newWorker = lobbyWorkers.getWorkers().get(oldWorker.getIndex() == 0 ? 1 : 0);
+
+        CountDownLatch blockedTaskStarted = new CountDownLatch(1);
+        CountDownLatch unblockTask = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(101);
+        AtomicInteger runningTasks = new AtomicInteger();
+        AtomicInteger mostRunningTasks = new AtomicInteger();
+        List<Integer> ranTasks = Collections.synchronizedList(new ArrayList<>());
+        List<Boolean> ranOnNewWorker = Collections.synchronizedList(new ArrayList<>());
+
+        lobby.execute(() -> {
+            mostRunningTasks.accumulateAndGet(runningTasks.incrementAndGet(), Math::max);
+            blockedTaskStarted.countDown();
+
+            try {
+                unblockTask.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+
+            ranTasks.add(-1);
+            runningTasks.decrementAndGet();
+            finished.countDown();
+        });
+
+        assertTrue(blockedTaskStarted.await(5L, TimeUnit.SECONDS));
+        lobbyWorkers.move(lobby, newWorker);
+
+        for (int i = 0; i < 100; i++) {
+            int task = i;
+            lobby.execute(() -> {
+                mostRunningTasks.accumulateAndGet(runningTasks.incrementAndGet(), Math::max);
+                ranTasks.add(task);
+                ranOnNewWorker.add(newWorker.isWorkerThread());
+                runningTasks.decrementAndGet();
+                finished.countDown();
+            });
+        }
+
+        // Gives tasks queued after the move a chance to run early, if they were going to.
+        TimeUnit.MILLISECONDS.sleep(50L);
+        unblockTask.countDown();
+
+        assertTrue(finished.await(5L, TimeUnit.SECONDS));
+        assertEquals(1, mostRunningTasks.get(), "A lobby's tasks should never run at the same time, even across a move.");
+        assertEquals(-1, ranTasks.get(0), "Tasks queued after the move should wait for the running task.");
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, ranTasks.get(i + 1), "Tasks should keep their order across a move.");
+        }
+
+        assertTrue(ranOnNewWorker.stream().allMatch(Boolean::booleanValue), "Tasks queued after the move should run on the new worker.");
+    }
+
+    @Test
+    void checkRebalance_movesBusiestLobbyOffHotWorker() throws InterruptedException {
+        lobbyWorkers = new LobbyWorkers(2);
+        lobbyWorkers.setOnWorkerHot((workers, worker) -> {});
+
+        LobbyWorker hotWorker = lobbyWorkers.getWorkers().get(0);
+        Lobby quietLobby = new SimpleLobby(null, "quiet");
+        Lobby busyLobby = new SimpleLobby(null, "busy");
+        lobbyWorkers.move(quietLobby, hotWorker);
+        lobbyWorkers.move(busyLobby, hotWorker);
+
+        CountDownLatch finished = new CountDownLatch(1);
+        busyLobby.execute(() -> {
+            long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50L);
+
+            while (System.nanoTime() < end) {
+                Thread.onSpinWait();
+            }
+        });
+        // Runs once the busy task's time has been counted.
+        quietLobby.execute(finished::countDown);
+
+        assertTrue(finished.await(5L, TimeUnit.SECONDS));
+        lobbyWorkers.checkLoad();
+        lobbyWorkers.rebalance(hotWorker);
+
+        assertNotSame(hotWorker, busyLobby.getWorker(), "The busy lobby should have moved off the hot worker.");
+        assertSame(hotWorker, quietLobby.getWorker(), "The quiet lobby should have stayed put.");
+    }
+}
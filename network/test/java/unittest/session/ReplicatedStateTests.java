@@ -0,0 +1,195 @@
+package unittest.session;
+
+import tech.fastj.network.serial.Message;
+import tech.fastj.network.serial.Serializer;
+import tech.fastj.network.sessions.ReplicatedState;
+import tech.fastj.network.sessions.ReplicatedStateReceiver;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import mock.ChatMessage;
+import mock.GameState;
+import mock.Movement;
+import mock.PlayerState;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplicatedStateTests {
+
+    private static final UUID ClientId = UUID.randomUUID();
+    private static final UUID PlayerA = UUID.randomUUID();
+    private static final UUID PlayerB = UUID.randomUUID();
+
+    private static final ChatMessage Greeting = new ChatMessage("player a", 0L, "hello there, this message is long enough to notice");
+
+    @Test
+    void checkReplicate_sendsOnlyChangedFieldsAgainstAcknowledgedBaseline() throws IOException {
+        Serializer serializer = new Serializer();
+        ReplicatedState<PlayerState> state = new ReplicatedState<>(serializer, PlayerState.class);
+        ReplicatedStateReceiver<PlayerState> receiver = new ReplicatedStateReceiver<>(serializer, PlayerState.class);
+
+        state.put(PlayerA, new PlayerState(Greeting, 1f, 2f, GameState.Playing));
+        byte[] fullSnapshot = sendAndAcknowledge(state, receiver);
+
+        state.put(PlayerA, new PlayerState(Greeting, 5f, 2f, GameState.Playing));
+        byte[] deltaSnapshot = sendAndAcknowledge(state, receiver);
+
+        assertTrue(
+            deltaSnapshot.length < fullSnapshot.length - Float.BYTES,
+            "A snapshot changing one float should be smaller than a full snapshot, but was " + deltaSnapshot.length + " vs " + fullSnapshot.length + " bytes."
+        );
+        assertEquals(new PlayerState(Greeting, 5f, 2f, GameState.Playing), receiver.getEntities().get(PlayerA));
+
+        state.tick();
+        assertNull(state.createSnapshot(ClientId), "Nothing changed since the acknowledged baseline, so there should be nothing to send.");
+    }
+
+    @Test
+    void checkReplicate_lostSnapshotsAreCoveredByLaterOnes() throws IOException {
+        Serializer serializer = new Serializer();
+        ReplicatedState<PlayerState> state = new ReplicatedState<>(serializer, PlayerState.class);
+        ReplicatedStateReceiver<PlayerState> receiver = new ReplicatedStateReceiver<>(serializer, PlayerState.class);
+
+        state.put(PlayerA, new PlayerState(Greeting, 0f, 0f, GameState.Playing));
+        sendAndAcknowledge(state, receiver);
+
+        // Lost: moves player A and adds player B.
+        state.put(PlayerA, new PlayerState(Greeting, 1f, 0f, GameState.Playing));
+        state.put(PlayerB, new PlayerState(null, 3f, 3f, GameState.Paused));
+        state.tick();
+        assertNotNull(state.createSnapshot(ClientId));
+
+        state.put(PlayerA, new PlayerState(Greeting, 1f, 1f, GameState.Playing));
+        sendAndAcknowledge(state, receiver);
+
+        Map<UUID, PlayerState> expected = Map.of(
+            PlayerA, new PlayerState(Greeting, 1f, 1f, GameState.Playing),
+            PlayerB, new PlayerState(null, 3f, 3f, GameState.Paused)
+        );
+        assertEquals(expected, receiver.getEntities());
+    }
+
+    @Test
+    void checkReplicate_lostAcknowledgementsStillUseKnownBaseline() throws IOException {
+        Serializer serializer = new Serializer();
+        ReplicatedState<PlayerState> state = new ReplicatedState<>(serializer, PlayerState.class);
+        ReplicatedStateReceiver<PlayerState> receiver = new ReplicatedStateReceiver<>(serializer, PlayerState.class);
+
+        state.put(PlayerA, new PlayerState(Greeting, 0f, 0f, GameState.Playing));
+        sendAndAcknowledge(state, receiver);
+
+        for (int i = 1; i <= 5; i++) {
+            state.put(PlayerA, new PlayerState(Greeting, i, 0f, GameState.Playing));
+            state.tick();
+            byte[] snapshot = state.createSnapshot(ClientId);
+
+            // Applied, but the acknowledgement never reaches the server.
+            assertTrue(receiver.receiveSnapshot(snapshot) != ReplicatedState.NoSnapshot);
+        }
+
+        assertEquals(new PlayerState(Greeting, 5f, 0f, GameState.Playing), receiver.getEntities().get(PlayerA));
+        assertEquals(0L, receiver.getDroppedCount());
+    }
+
+    @Test
+    void checkReplicate_removalsAndRelevance() throws IOException {
+        Serializer serializer = new Serializer();
+        ReplicatedState<PlayerState> state = new ReplicatedState<>(serializer, PlayerState.class);
+        ReplicatedStateReceiver<PlayerState> receiver = new ReplicatedStateReceiver<>(serializer, PlayerState.class);
+        List<UUID> removed = new ArrayList<>();
+        receiver.setOnEntityRemove(removed::add);
+
+        state.setRelevance((clientId, entityId, player) -> player.gameState() != GameState.Results);
+        state.put(PlayerA, new PlayerState(Greeting, 0f, 0f, GameState.Playing));
+        state.put(PlayerB, new PlayerState(null, 0f, 0f, GameState.Playing));
+        sendAndAcknowledge(state, receiver);
+
+        state.remove(PlayerA);
+        state.put(PlayerB, new PlayerState(null, 0f, 0f, GameState.Results));
+        sendAndAcknowledge(state, receiver);
+
+        assertTrue(receiver.getEntities().isEmpty());
+        assertEquals(List.of(PlayerA, PlayerB), removed);
+    }
+
+    @Test
+    void checkReceive_dropsOutdatedSnapshots() throws IOException {
+        Serializer serializer = new Serializer();
+        ReplicatedState<PlayerState> state = new ReplicatedState<>(serializer, PlayerState.class);
+        ReplicatedStateReceiver<PlayerState> receiver = new ReplicatedStateReceiver<>(serializer, PlayerState.class);
+
+        state.put(PlayerA, new PlayerState(Greeting, 0f, 0f, GameState.Playing));
+        state.tick();
+        byte[] olderSnapshot = state.createSnapshot(ClientId);
+
+        state.put(PlayerA, new PlayerState(Greeting, 1f, 0f, GameState.Playing));
+        state.tick();
+        byte[] newerSnapshot = state.createSnapshot(ClientId);
+
+        assertEquals(1, receiver.receiveSnapshot(newerSnapshot));
+        assertEquals(ReplicatedState.NoSnapshot, receiver.receiveSnapshot(olderSnapshot), "Snapshots arriving out of order should be dropped.");
+        assertEquals(new PlayerState(Greeting, 1f, 0f, GameState.Playing), receiver.getEntities().get(PlayerA));
+    }
+
+    @Test
+    void checkReplicate_forgottenClientReceivesFullSnapshot() throws IOException {
+        Serializer serializer = new Serializer();
+        ReplicatedState<PlayerState> state = new ReplicatedState<>(serializer, PlayerState.class);
+        ReplicatedStateReceiver<PlayerState> receiver = new ReplicatedStateReceiver<>(serializer, PlayerState.class);
+
+        state.put(PlayerA, new PlayerState(Greeting, 0f, 0f, GameState.Playing));
+        sendAndAcknowledge(state, receiver);
+        assertEquals(0, state.getAcknowledgedSnapshot(ClientId));
+
+        state.forgetClient(ClientId);
+        assertEquals(ReplicatedState.NoSnapshot, state.getAcknowledgedSnapshot(ClientId));
+
+        ReplicatedStateReceiver<PlayerState> newReceiver = new ReplicatedStateReceiver<>(serializer, PlayerState.class);
+        sendAndAcknowledge(state, newReceiver);
+
+        assertEquals(receiver.getEntities(), newReceiver.getEntities());
+    }
+
+    @Test
+    void checkReplicate_quantizedComponentsIgnoreChangesBelowPrecision() throws IOException {
+        Serializer serializer = new Serializer();
+        ReplicatedState<Movement> state = new ReplicatedState<>(serializer, Movement.class);
+        ReplicatedStateReceiver<Movement> receiver = new ReplicatedStateReceiver<>(serializer, Movement.class);
+
+        state.put(PlayerA, new Movement(100f, "player a", 100f, 90f, 0d));
+        sendAndAcknowledge(state, receiver);
+
+        state.put(PlayerA, new Movement(100.001f, "player a", 100f, 450f, 0d));
+        state.tick();
+        assertNull(state.createSnapshot(ClientId), "Changes that quantize to the same value should not be sent.");
+
+        state.put(PlayerA, new Movement(200f, "player a", 100f, 450f, 0d));
+        sendAndAcknowledge(state, receiver);
+
+        Movement movement = receiver.getEntities().get(PlayerA);
+        assertEquals(200f, movement.x(), 0.01f);
+        assertEquals(90f, movement.angle(), 0.05f);
+        assertEquals("player a", movement.username());
+    }
+
+    private static <T extends Record & Message> byte[] sendAndAcknowledge(ReplicatedState<T> state, ReplicatedStateReceiver<T> receiver)
+        throws IOException {
+        state.tick();
+        byte[] snapshot = state.createSnapshot(ClientId);
+        assertNotNull(snapshot);
+
+        int snapshotId = receiver.receiveSnapshot(snapshot);
+        assertTrue(snapshotId != ReplicatedState.NoSnapshot, "Snapshot should have been applied.");
+        state.acknowledge(ClientId, snapshotId);
+
+        return snapshot;
+    }
+}
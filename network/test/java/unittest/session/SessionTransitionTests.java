@@ -0,0 +1,115 @@
+package unittest.session;
+
+import tech.fastj.network.sessions.LobbyWorker;
+import tech.fastj.network.sessions.LobbyWorkers;
+import tech.fastj.network.sessions.Session;
+import tech.fastj.network.sessions.SessionTransition;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import mock.TwoSessionLobby;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionTransitionTests {
+
+    private LobbyWorkers lobbyWorkers;
+    private LobbyWorker worker;
+    private TwoSessionLobby lobby;
+
+    @BeforeEach
+    void createLobby() {
+        lobbyWorkers = new LobbyWorkers(1);
+        lobby = new TwoSessionLobby(null, "transition");
+        worker = lobbyWorkers.assign(lobby);
+    }
+
+    @AfterEach
+    void shutdownWorkers() {
+        lobbyWorkers.shutdown();
+    }
+
+    @Test
+    void checkStart_switchesSessionAndStartsOnLobbyWorker() throws InterruptedException {
+        String targetName = lobby.getSecondSession().getSessionIdentifier().sessionName();
+        AtomicReference<Session> startedSession = new AtomicReference<>();
+        AtomicBoolean startedOnWorker = new AtomicBoolean();
+        CountDownLatch started = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        SessionTransition transition = new SessionTransition(lobby, lobby.getFirstSession(), targetName)
+            .setCountdown(20L, TimeUnit.MILLISECONDS)
+            .setLoadTime(20L, TimeUnit.MILLISECONDS)
+            .setSettleTime(20L, TimeUnit.MILLISECONDS)
+            .setOnStart(session -> {
+                startedSession.set(session);
+                startedOnWorker.set(worker.isWorkerThread());
+                started.countDown();
+            });
+        transition.start();
+
+        assertTrue(started.await(2L, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(60L), "Each stage should wait for its delay.");
+        assertSame(lobby.getSecondSession(), startedSession.get());
+        assertSame(lobby.getSecondSession(), lobby.getCurrentSession());
+        assertTrue(startedOnWorker.get(), "Transition stages should run on the lobby's worker.");
+        assertEquals(SessionTransition.State.Finished, transition.getState());
+    }
+
+    @Test
+    void checkCancel_afterNotifying_switchesBackAndNeverStarts() throws InterruptedException {
+        String targetName = lobby.getSecondSession().getSessionIdentifier().sessionName();
+        AtomicBoolean wasStarted = new AtomicBoolean();
+        CountDownLatch notified = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+
+        SessionTransition transition = new SessionTransition(lobby, lobby.getFirstSession(), targetName)
+            .setLoadTime(1L, TimeUnit.SECONDS)
+            .setOnStart(session -> wasStarted.set(true))
+            .setOnCancel(cancelledTransition -> cancelled.countDown());
+        lobby.setOnSwitchSession((previous, next) -> {
+            if (next == lobby.getSecondSession()) {
+                notified.countDown();
+            }
+        });
+        transition.start();
+
+        assertTrue(notified.await(2L, TimeUnit.SECONDS));
+        transition.cancel();
+
+        assertTrue(cancelled.await(2L, TimeUnit.SECONDS));
+        assertSame(lobby.getFirstSession(), lobby.getCurrentSession(), "A cancelled transition should switch the lobby back.");
+        assertEquals(SessionTransition.State.Cancelled, transition.getState());
+
+        TimeUnit.MILLISECONDS.sleep(1200L);
+        assertFalse(wasStarted.get(), "A cancelled transition should never start the new session.");
+    }
+
+    @Test
+    void checkSkipCountdown_notifiesRightAway() throws InterruptedException {
+        String targetName = lobby.getSecondSession().getSessionIdentifier().sessionName();
+        CountDownLatch countingDown = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        SessionTransition transition = new SessionTransition(lobby, lobby.getFirstSession(), targetName)
+            .setCountdown(1L, TimeUnit.HOURS)
+            .setOnCountdown(countdownTransition -> countingDown.countDown())
+            .setOnStart(session -> started.countDown());
+        transition.start();
+
+        assertTrue(countingDown.await(2L, TimeUnit.SECONDS));
+        transition.skipCountdown();
+
+        assertTrue(started.await(2L, TimeUnit.SECONDS), "Skipping the countdown should start the transition without waiting it out.");
+        assertSame(lobby.getSecondSession(), lobby.getCurrentSession());
+    }
+}
@@ -0,0 +1,162 @@
+package unittest.udp;
+
+import tech.fastj.network.config.ClientConfig;
+import tech.fastj.network.rpc.SendUtils;
+import tech.fastj.network.rpc.message.SentMessageType;
+import tech.fastj.network.rpc.udp.FragmentReassembler;
+import tech.fastj.network.rpc.udp.UdpFragments;
+import tech.fastj.network.serial.Serializer;
+import tech.fastj.network.serial.read.MessageInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FragmentTests {
+
+    private static final int Mtu = SendUtils.DefaultUdpMtu;
+    private static final UUID SenderId = UUID.randomUUID();
+    private static final Serializer TestSerializer = new Serializer();
+
+    @Test
+    void checkSplit_fragmentsFitInMtu() {
+        byte[] packetData = randomBytes(5000);
+        byte[][] fragments = UdpFragments.split(SenderId, packetData, Mtu);
+
+        assertEquals((5000 + UdpFragments.chunkLength(Mtu) - 1) / UdpFragments.chunkLength(Mtu), fragments.length);
+
+        for (byte[] fragment : fragments) {
+            assertTrue(fragment.length <= Mtu, "Every fragment should fit in the MTU.");
+        }
+    }
+
+    @Test
+    void checkReassemble_outOfOrderWithDuplicates() throws IOException {
+        byte[] packetData = randomBytes(3000);
+        List<byte[]> fragments = new ArrayList<>(List.of(UdpFragments.split(SenderId, packetData, Mtu)));
+        fragments.add(fragments.get(0));
+        Collections.shuffle(fragments, new Random(28));
+
+        FragmentReassembler reassembler = new FragmentReassembler();
+        byte[] reassembled = null;
+
+        for (byte[] fragment : fragments) {
+            byte[] result = receive(reassembler, fragment, 0L);
+
+            if (result != null) {
+                assertNull(reassembled, "A packet should only be completed once.");
+                reassembled = result;
+            }
+        }
+
+        assertArrayEquals(packetData, reassembled, "The reassembled packet should match the original.");
+        assertEquals(0, reassembler.getPendingCount());
+    }
+
+    @Test
+    void checkReassemble_interleavedPackets() throws IOException {
+        byte[] packetA = randomBytes(1500);
+        byte[] packetB = randomBytes(1800);
+        byte[][] fragmentsA = UdpFragments.split(SenderId, packetA, Mtu);
+        byte[][] fragmentsB = UdpFragments.split(SenderId, packetB, Mtu);
+
+        FragmentReassembler reassembler = new FragmentReassembler();
+        List<byte[]> completed = new ArrayList<>();
+
+        for (int i = 0; i < Math.max(fragmentsA.length, fragmentsB.length); i++) {
+            if (i < fragmentsA.length) {
+                byte[] result = receive(reassembler, fragmentsA[i], 0L);
+                if (result != null) {
+                    completed.add(result);
+                }
+            }
+
+            if (i < fragmentsB.length) {
+                byte[] result = receive(reassembler, fragmentsB[i], 0L);
+                if (result != null) {
+                    completed.add(result);
+                }
+            }
+        }
+
+        assertEquals(2, completed.size());
+        assertArrayEquals(packetA, completed.get(0));
+        assertArrayEquals(packetB, completed.get(1));
+    }
+
+    @Test
+    void checkReassemble_incompletePacketTimesOut() throws IOException {
+        byte[][] fragments = UdpFragments.split(SenderId, randomBytes(2000), Mtu);
+        FragmentReassembler reassembler = new FragmentReassembler();
+
+        receive(reassembler, fragments[0], 0L);
+        assertEquals(1, reassembler.getPendingCount());
+
+        byte[][] otherFragments = UdpFragments.split(SenderId, randomBytes(2000), Mtu);
+        receive(reassembler, otherFragments[0], FragmentReassembler.ReassemblyTimeoutNanos);
+
+        assertEquals(1, reassembler.getPendingCount(), "The timed out packet should have been discarded.");
+        assertEquals(1, reassembler.getDroppedCount());
+
+        for (int i = 1; i < fragments.length; i++) {
+            assertNull(receive(reassembler, fragments[i], FragmentReassembler.ReassemblyTimeoutNanos), "A discarded packet should not complete.");
+        }
+    }
+
+    @Test
+    void checkReassemble_pendingPacketsAreBounded() throws IOException {
+        FragmentReassembler reassembler = new FragmentReassembler();
+
+        for (int i = 0; i < FragmentReassembler.MaxPendingPackets * 2; i++) {
+            byte[][] fragments = UdpFragments.split(SenderId, randomBytes(1000), Mtu);
+            receive(reassembler, fragments[0], 0L);
+        }
+
+        assertEquals(FragmentReassembler.MaxPendingPackets, reassembler.getPendingCount());
+        assertEquals(FragmentReassembler.MaxPendingPackets, reassembler.getDroppedCount());
+    }
+
+    @Test
+    void checkSendUDP_rejectsOversizedPackets() {
+        ClientConfig clientConfig = new ClientConfig(InetAddress.getLoopbackAddress(), 1, Mtu);
+        byte[] packetData = new byte[UdpFragments.maxPacketLength(Mtu) + 1];
+
+        assertThrows(IOException.class, () -> SendUtils.sendUDP(null, clientConfig, SenderId, packetData));
+    }
+
+    @Test
+    void checkClientConfig_rejectsTinyMtu() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new ClientConfig(InetAddress.getLoopbackAddress(), 1, UdpFragments.FragmentHeaderLength)
+        );
+    }
+
+    private static byte[] receive(FragmentReassembler reassembler, byte[] fragment, long currentTime) throws IOException {
+        MessageInputStream inputStream = new MessageInputStream(new ByteArrayInputStream(fragment), TestSerializer);
+
+        UUID senderId = (UUID) inputStream.readObject(UUID.class);
+        assertEquals(SentMessageType.Fragment, inputStream.readObject(SentMessageType.class));
+
+        return reassembler.receiveFragment(senderId, inputStream, currentTime);
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,152 @@
+package unittest.udp;
+
+import tech.fastj.network.rpc.message.NetworkType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import mock.LossyDatagramProxy;
+import mock.ReliableEndpoint;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReliableChannelTests {
+
+    private static final int MessageCount = 300;
+    private static final double LossChance = 0.25;
+    private static final double DuplicateChance = 0.1;
+    private static final int MaxDelayMillis = 30;
+
+    @Test
+    void checkReliableUDP_deliversEveryMessageExactlyOnce() throws IOException, InterruptedException {
+        try (ReliableEndpoint sender = new ReliableEndpoint(NetworkType.ReliableUDP);
+             ReliableEndpoint receiver = new ReliableEndpoint(NetworkType.ReliableUDP);
+             LossyDatagramProxy proxy = new LossyDatagramProxy(sender.getPort(), receiver.getPort(), LossChance, DuplicateChance, MaxDelayMillis)) {
+            connect(sender, receiver, proxy);
+            sendNumbers(sender);
+
+            List<byte[]> received = receiver.getReceivedPayloads();
+            assertTrue(waitFor(() -> received.size() >= MessageCount), "Only " + received.size() + " of " + MessageCount + " messages arrived.");
+
+            TimeUnit.MILLISECONDS.sleep(MaxDelayMillis * 4L);
+            assertEquals(MessageCount, received.size(), "Duplicated packets should not be delivered twice.");
+
+            Set<Integer> numbers = new HashSet<>();
+            for (byte[] payload : received) {
+                numbers.add(ByteBuffer.wrap(payload).getInt());
+            }
+
+            assertEquals(MessageCount, numbers.size(), "Every message should be delivered exactly once.");
+            assertTrue(sender.getChannel().getRetransmitCount() > 0, "A lossy link should have caused retransmissions.");
+            assertTrue(waitFor(() -> sender.getChannel().getPacketsInFlight() == 0), "Every packet should eventually be acknowledged.");
+        }
+    }
+
+    @Test
+    void checkReliableOrderedUDP_deliversEveryMessageInOrder() throws IOException, InterruptedException {
+        try (ReliableEndpoint sender = new ReliableEndpoint(NetworkType.ReliableOrderedUDP);
+             ReliableEndpoint receiver = new ReliableEndpoint(NetworkType.ReliableOrderedUDP);
+             LossyDatagramProxy proxy = new LossyDatagramProxy(sender.getPort(), receiver.getPort(), LossChance, DuplicateChance, MaxDelayMillis)) {
+            connect(sender, receiver, proxy);
+            sendNumbers(sender);
+
+            List<byte[]> received = receiver.getReceivedPayloads();
+            assertTrue(waitFor(() -> received.size() >= MessageCount), "Only " + received.size() + " of " + MessageCount + " messages arrived.");
+
+            TimeUnit.MILLISECONDS.sleep(MaxDelayMillis * 4L);
+            assertEquals(MessageCount, received.size(), "Duplicated packets should not be delivered twice.");
+
+            for (int i = 0; i < MessageCount; i++) {
+                assertEquals(i, ByteBuffer.wrap(received.get(i)).getInt(), "Messages should be delivered in the order they were sent.");
+            }
+        }
+    }
+
+    @Test
+    void checkReliableOrderedUDP_inBothDirections() throws IOException, InterruptedException {
+        try (ReliableEndpoint endpointA = new ReliableEndpoint(NetworkType.ReliableOrderedUDP);
+             ReliableEndpoint endpointB = new ReliableEndpoint(NetworkType.ReliableOrderedUDP);
+             LossyDatagramProxy proxy = new LossyDatagramProxy(endpointA.getPort(), endpointB.getPort(), LossChance, DuplicateChance, MaxDelayMillis)) {
+            connect(endpointA, endpointB, proxy);
+
+            for (int i = 0; i < MessageCount; i++) {
+                endpointA.send(ByteBuffer.allocate(Integer.BYTES).putInt(i).array());
+                endpointB.send(ByteBuffer.allocate(Integer.BYTES).putInt(i).array());
+            }
+
+            assertTrue(waitFor(() -> endpointA.getReceivedPayloads().size() >= MessageCount), "Endpoint A did not receive every message.");
+            assertTrue(waitFor(() -> endpointB.getReceivedPayloads().size() >= MessageCount), "Endpoint B did not receive every message.");
+
+            for (int i = 0; i < MessageCount; i++) {
+                assertEquals(i, ByteBuffer.wrap(endpointA.getReceivedPayloads().get(i)).getInt());
+                assertEquals(i, ByteBuffer.wrap(endpointB.getReceivedPayloads().get(i)).getInt());
+            }
+        }
+    }
+
+    @Test
+    void checkReliableOrderedUDP_deliversFragmentedMessages() throws IOException, InterruptedException {
+        int largeMessageCount = 40;
+        int largeMessageLength = 4000;
+
+        try (ReliableEndpoint sender = new ReliableEndpoint(NetworkType.ReliableOrderedUDP);
+             ReliableEndpoint receiver = new ReliableEndpoint(NetworkType.ReliableOrderedUDP);
+             LossyDatagramProxy proxy = new LossyDatagramProxy(sender.getPort(), receiver.getPort(), 0.05, DuplicateChance, MaxDelayMillis)) {
+            connect(sender, receiver, proxy);
+
+            for (int i = 0; i < largeMessageCount; i++) {
+                ByteBuffer message = ByteBuffer.allocate(largeMessageLength);
+                while (message.hasRemaining()) {
+                    message.putInt(i);
+                }
+
+                sender.send(message.array());
+            }
+
+            List<byte[]> received = receiver.getReceivedPayloads();
+            assertTrue(waitFor(() -> received.size() >= largeMessageCount), "Only " + received.size() + " of " + largeMessageCount + " messages arrived.");
+
+            for (int i = 0; i < largeMessageCount; i++) {
+                ByteBuffer message = ByteBuffer.wrap(received.get(i));
+                assertEquals(largeMessageLength, message.remaining(), "Messages larger than the MTU should arrive whole.");
+
+                while (message.hasRemaining()) {
+                    assertEquals(i, message.getInt());
+                }
+            }
+        }
+    }
+
+    private static void connect(ReliableEndpoint endpointA, ReliableEndpoint endpointB, LossyDatagramProxy proxy) {
+        proxy.start();
+        endpointA.start(proxy.getPort());
+        endpointB.start(proxy.getPort());
+    }
+
+    private static void sendNumbers(ReliableEndpoint sender) throws IOException {
+        for (int i = 0; i < MessageCount; i++) {
+            sender.send(ByteBuffer.allocate(Integer.BYTES).putInt(i).array());
+        }
+    }
+
+    private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+        long endTime = System.nanoTime() + TimeUnit.SECONDS.toNanos(20L);
+
+        while (System.nanoTime() < endTime) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+
+            TimeUnit.MILLISECONDS.sleep(10L);
+        }
+
+        return condition.getAsBoolean();
+    }
+}
@@ -0,0 +1,102 @@
+package unittest.udp;
+
+import tech.fastj.network.rpc.udp.CommandSequences;
+import tech.fastj.network.rpc.udp.SequenceNumbers;
+import tech.fastj.network.rpc.udp.StaleCommandFilter;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StaleCommandFilterTests {
+
+    private static final UUID SenderA = UUID.randomUUID();
+    private static final UUID SenderB = UUID.randomUUID();
+    private static final UUID CommandA = UUID.randomUUID();
+    private static final UUID CommandB = UUID.randomUUID();
+
+    @Test
+    void checkAccept_rejectsOlderAndRepeatedSequences() {
+        StaleCommandFilter filter = new StaleCommandFilter();
+
+        assertTrue(filter.accept(SenderA, CommandA, 10), "The first packet of a stream should always be accepted.");
+        assertTrue(filter.accept(SenderA, CommandA, 12), "A newer packet should be accepted.");
+        assertFalse(filter.accept(SenderA, CommandA, 11), "A packet older than the latest one should be rejected.");
+        assertFalse(filter.accept(SenderA, CommandA, 12), "A repeated packet should be rejected.");
+        assertEquals(2, filter.getDroppedCount());
+    }
+
+    @Test
+    void checkAccept_tracksEachSenderAndCommandSeparately() {
+        StaleCommandFilter filter = new StaleCommandFilter();
+
+        assertTrue(filter.accept(SenderA, CommandA, 100));
+        assertTrue(filter.accept(SenderA, CommandB, 5), "Other commands from the same sender should have their own sequence.");
+        assertTrue(filter.accept(SenderB, CommandA, 5), "Other senders of the same command should have their own sequence.");
+        assertFalse(filter.accept(SenderA, CommandA, 5));
+    }
+
+    @Test
+    void checkAccept_acrossWraparound() {
+        StaleCommandFilter filter = new StaleCommandFilter();
+
+        assertTrue(filter.accept(SenderA, CommandA, SequenceNumbers.SequenceMask - 1));
+        assertTrue(filter.accept(SenderA, CommandA, 1), "A sequence that wrapped around should count as newer.");
+        assertFalse(filter.accept(SenderA, CommandA, SequenceNumbers.SequenceMask), "A sequence from before the wraparound should be stale.");
+        assertTrue(filter.accept(SenderA, CommandA, 2));
+    }
+
+    @Test
+    void checkForget_resetsSenderStreams() {
+        StaleCommandFilter filter = new StaleCommandFilter();
+
+        assertTrue(filter.accept(SenderA, CommandA, 500));
+        assertTrue(filter.accept(SenderB, CommandA, 500));
+
+        filter.forget(SenderA);
+
+        assertTrue(filter.accept(SenderA, CommandA, 0), "A forgotten sender should start a new stream.");
+        assertFalse(filter.accept(SenderB, CommandA, 0), "Other senders should not be forgotten.");
+    }
+
+    @Test
+    void checkCommandSequences_wrapAroundPerCommand() {
+        CommandSequences sequences = new CommandSequences();
+
+        for (int i = 0; i < SequenceNumbers.SequenceRange; i++) {
+            assertEquals(i, sequences.next(CommandA));
+        }
+
+        assertEquals(0, sequences.next(CommandA), "Sequences should wrap around after 16 bits.");
+        assertEquals(0, sequences.next(CommandB), "Each command should have its own counter.");
+    }
+
+    @Test
+    void checkCommandSequences_relayedPerSubject() {
+        CommandSequences sequences = new CommandSequences();
+
+        assertEquals(0, sequences.next(SenderA, CommandA));
+        assertEquals(1, sequences.next(SenderA, CommandA));
+        assertEquals(0, sequences.next(SenderB, CommandA), "Each relayed subject should have its own counter.");
+        assertEquals(0, sequences.next(CommandA), "The sender's own stream should not share a counter with relayed subjects.");
+    }
+
+    @Test
+    void checkAccept_relayedSubjectsDoNotShadowEachOther() {
+        StaleCommandFilter filter = new StaleCommandFilter();
+        CommandSequences sequences = new CommandSequences();
+
+        int firstB = sequences.next(SenderB, CommandA);
+        int firstA = sequences.next(SenderA, CommandA);
+        int secondA = sequences.next(SenderA, CommandA);
+
+        assertTrue(filter.accept(SenderA, CommandA, firstA));
+        assertTrue(filter.accept(SenderA, CommandA, secondA));
+        assertTrue(filter.accept(SenderB, CommandA, firstB), "A reordered update should still be accepted if it is its subject's newest.");
+        assertFalse(filter.accept(SenderA, CommandA, firstA));
+    }
+}